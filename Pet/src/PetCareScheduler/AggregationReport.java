@@ -0,0 +1,436 @@
+package PetCareScheduler;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Angka untuk perencanaan kapasitas, dihitung dalam satu kali jalan atas semua pet:
+ * jumlah booking per tipe per hari/minggu/bulan, rata-rata appointment per pet menurut
+ * spesies/ras, dan jarak antar vet visit menurut kelompok umur.
+ *
+ * Array pet dibagi ke task ForkJoin; setiap task mengisi Accumulator sendiri (array long,
+ * tanpa map boxed di jalur per appointment dan tanpa state bersama), lalu hasil digabung
+ * berpasangan saat join. Tidak ada lock atau counter bersama, sehingga waktu turun hampir
+ * linear dengan jumlah core sampai bandwidth memori menjadi batas.
+ *
+ * Kejadian aturan berulang dalam [from, to] ikut dihitung di tabel booking karena memakai
+ * slot yang sama; statistik per pet (semua tanggal) hanya memakai appointment tersimpan,
+ * sebab aturan tanpa batas akhir tidak punya jumlah kejadian yang terbatas.
+ *
+ * Appointment yang tidak tertaut ke pet terdaftar tidak dihitung.
+ */
+final class AggregationReport {
+
+    enum Granularity {
+        DAY, WEEK, MONTH
+    }
+
+    // Batas atas (inklusif) setiap kelompok umur; kelompok terakhir = di atas batas terakhir
+    private static final int[] AGE_BRACKET_MAX = { 1, 4, 7, 10 };
+    private static final String[] AGE_BRACKET_LABELS = { "0-1", "2-4", "5-7", "8-10", "11+" };
+    // Satu tabel booking tidak boleh lebih dari ini (misalnya per hari selama 270+ tahun)
+    static final int MAX_PERIODS = 100_000;
+    private static final int MIN_LEAF_SIZE = 1024;
+
+    final LocalDate from;
+    final LocalDate to; // inklusif
+    final Granularity granularity;
+    final int parallelism;
+    final long elapsedNanos;
+    private final Accumulator totals;
+
+    private AggregationReport(LocalDate from, LocalDate to, Granularity granularity, int parallelism,
+            long elapsedNanos, Accumulator totals) {
+        this.from = from;
+        this.to = to;
+        this.granularity = granularity;
+        this.parallelism = parallelism;
+        this.elapsedNanos = elapsedNanos;
+        this.totals = totals;
+    }
+
+    /**
+     * Menghitung semua agregat untuk booking dalam [from, to] (tanggal inklusif).
+     *
+     * @param rules aturan berulang milik satu pet; dipanggil paralel, jadi tidak boleh mengubah state
+     * @throws IllegalArgumentException jika to sebelum from atau rentangnya terlalu banyak periode
+     */
+    static AggregationReport compute(Pet[] pets, Function<Pet, List<RecurrenceRule>> rules, LocalDate from,
+            LocalDate to, Granularity granularity, ForkJoinPool pool) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date is before start date.");
+        }
+        Periods periods = new Periods(from, to, granularity);
+        if (periods.count > MAX_PERIODS) {
+            throw new IllegalArgumentException("Range too long for " + granularity.name().toLowerCase(Locale.ROOT)
+                    + " buckets (max " + MAX_PERIODS + " periods).");
+        }
+        long start = System.nanoTime();
+        // Beberapa leaf per thread agar thread yang selesai lebih dulu bisa mencuri pekerjaan
+        int leafSize = Math.max(MIN_LEAF_SIZE, pets.length / (pool.getParallelism() * 8));
+        Accumulator totals = pool.invoke(new Task(pets, rules, 0, pets.length, leafSize, periods));
+        return new AggregationReport(from, to, granularity, pool.getParallelism(), System.nanoTime() - start,
+                totals);
+    }
+
+    long petCount() {
+        return totals.pets;
+    }
+
+    long appointmentCount() {
+        return totals.appointments;
+    }
+
+    // Kejadian aturan berulang dalam [from, to]
+    long occurrenceCount() {
+        return totals.occurrences;
+    }
+
+    // ========== Rendering ==========
+
+    List<String> render() {
+        Periods periods = new Periods(from, to, granularity);
+        List<String> lines = new ArrayList<>();
+        Accumulator t = totals;
+
+        lines.add(String.format("Bookings per type per %s (%s .. %s, incl. %,d recurring occurrences)",
+                granularity.name().toLowerCase(Locale.ROOT), from, to, t.occurrences));
+        // Kolom tipe urut nama; urutan kemunculan bergantung pada pembagian task
+        Integer[] types = new Integer[t.typeCount];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = i;
+        }
+        Arrays.sort(types, (a, b) -> t.typeNames[a].compareTo(t.typeNames[b]));
+        StringBuilder header = new StringBuilder(String.format("%-12s", "Period"));
+        int[] widths = new int[t.typeCount];
+        for (int i : types) {
+            widths[i] = Math.max(10, t.typeNames[i].length() + 1);
+            header.append(String.format("%" + widths[i] + "s", t.typeNames[i]));
+        }
+        header.append(String.format("%10s", "Total"));
+        lines.add(header.toString());
+        long[] columnTotals = new long[t.typeCount];
+        for (int p = 0; p < periods.count; p++) {
+            StringBuilder row = new StringBuilder(String.format("%-12s", periods.label(p)));
+            long rowTotal = 0;
+            for (int i : types) {
+                long n = t.typeCounts[i][p];
+                row.append(String.format("%," + widths[i] + "d", n));
+                rowTotal += n;
+                columnTotals[i] += n;
+            }
+            row.append(String.format("%,10d", rowTotal));
+            lines.add(row.toString());
+        }
+        StringBuilder totalRow = new StringBuilder(String.format("%-12s", "Total"));
+        long grandTotal = 0;
+        for (int i : types) {
+            totalRow.append(String.format("%," + widths[i] + "d", columnTotals[i]));
+            grandTotal += columnTotals[i];
+        }
+        totalRow.append(String.format("%,10d", grandTotal));
+        lines.add(totalRow.toString());
+
+        lines.add("");
+        lines.add("Appointments per pet by species/breed (all dates)");
+        lines.add(String.format("%-28s %10s %13s %8s", "Species/Breed", "Pets", "Appointments", "Avg/pet"));
+        Integer[] order = new Integer[t.speciesCount];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // Kelompok terbesar lebih dulu; jumlah sama diurutkan nama agar hasilnya deterministik
+        Arrays.sort(order, (a, b) -> t.speciesPets[a] != t.speciesPets[b]
+                ? Long.compare(t.speciesPets[b], t.speciesPets[a])
+                : t.speciesNames[a].compareTo(t.speciesNames[b]));
+        for (int i : order) {
+            lines.add(String.format("%-28s %,10d %,13d %8.2f", t.speciesNames[i], t.speciesPets[i],
+                    t.speciesAppointments[i], (double) t.speciesAppointments[i] / t.speciesPets[i]));
+        }
+
+        lines.add("");
+        lines.add("Vet-visit gaps by age bracket (days between consecutive vet visits, all dates)");
+        lines.add(String.format("%-6s %10s %12s %10s %10s %10s", "Age", "Pets", "No vet visit", "Gaps",
+                "Avg gap", "Max gap"));
+        for (int b = 0; b < AGE_BRACKET_LABELS.length; b++) {
+            lines.add(String.format("%-6s %,10d %,12d %,10d %10s %,10d", AGE_BRACKET_LABELS[b], t.agePets[b],
+                    t.ageNoVetVisit[b], t.ageGaps[b],
+                    t.ageGaps[b] == 0 ? "-" : String.format("%.1f", (double) t.ageGapDays[b] / t.ageGaps[b]),
+                    t.ageMaxGap[b]));
+        }
+        return lines;
+    }
+
+    // ========== Periods ==========
+
+    // Pemetaan tanggal -> nomor periode, tanpa objek per appointment
+    private static final class Periods {
+        final Granularity granularity;
+        final long firstDay; // awal periode pertama (epoch day)
+        final long fromDay;
+        final long toDay; // inklusif
+        final LocalDateTime before; // tepat sebelum 'from'; batas eksklusif untuk RecurrenceRule.between
+        final LocalDateTime after; // awal hari setelah 'to'
+        final int firstMonth; // year * 12 + month - 1
+        final int count;
+
+        Periods(LocalDate from, LocalDate to, Granularity granularity) {
+            this.granularity = granularity;
+            this.fromDay = from.toEpochDay();
+            this.toDay = to.toEpochDay();
+            this.before = from.atStartOfDay().minusNanos(1);
+            this.after = to.plusDays(1).atStartOfDay();
+            this.firstDay = granularity == Granularity.WEEK
+                    ? from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toEpochDay()
+                    : fromDay;
+            this.firstMonth = from.getYear() * 12 + from.getMonthValue() - 1;
+            long last = index(to, toDay);
+            this.count = (int) Math.min(Integer.MAX_VALUE, last + 1);
+        }
+
+        // Nomor periode untuk tanggal, atau -1 jika di luar [from, to]
+        int indexOf(LocalDateTime t) {
+            LocalDate date = t.toLocalDate();
+            long day = date.toEpochDay();
+            if (day < fromDay || day > toDay) {
+                return -1;
+            }
+            return (int) index(date, day);
+        }
+
+        private long index(LocalDate date, long day) {
+            switch (granularity) {
+                case WEEK:
+                    return (day - firstDay) / 7;
+                case MONTH:
+                    return date.getYear() * 12L + date.getMonthValue() - 1 - firstMonth;
+                default:
+                    return day - firstDay;
+            }
+        }
+
+        String label(int period) {
+            switch (granularity) {
+                case WEEK:
+                    return LocalDate.ofEpochDay(firstDay + period * 7L).toString();
+                case MONTH:
+                    int month = firstMonth + period;
+                    return String.format("%04d-%02d", month / 12, month % 12 + 1);
+                default:
+                    return LocalDate.ofEpochDay(firstDay + period).toString();
+            }
+        }
+    }
+
+    // ========== Accumulator ==========
+
+    /**
+     * Hasil parsial satu task. Penghitung per appointment semuanya array long; map hanya
+     * dipakai sekali per pet untuk mencari slot spesies.
+     */
+    private static final class Accumulator {
+        final int periods;
+        long pets;
+        long appointments;
+        long occurrences;
+
+        // Tipe: sedikit (vet, grooming, vaccination, ...), cukup dicari linear
+        String[] typeNames = new String[4];
+        long[][] typeCounts = new long[4][];
+        int typeCount;
+
+        final HashMap<String, Integer> speciesSlots = new HashMap<>();
+        String[] speciesNames = new String[16];
+        long[] speciesPets = new long[16];
+        long[] speciesAppointments = new long[16];
+        int speciesCount;
+
+        final long[] agePets = new long[AGE_BRACKET_LABELS.length];
+        final long[] ageNoVetVisit = new long[AGE_BRACKET_LABELS.length];
+        final long[] ageGaps = new long[AGE_BRACKET_LABELS.length];
+        final long[] ageGapDays = new long[AGE_BRACKET_LABELS.length];
+        final long[] ageMaxGap = new long[AGE_BRACKET_LABELS.length];
+
+        // Scratch: hari vet visit satu pet
+        private long[] vetDays = new long[16];
+
+        Accumulator(int periods) {
+            this.periods = periods;
+        }
+
+        void addPet(Pet pet, List<RecurrenceRule> rules, Periods range) {
+            List<Appointment> list = pet.getAppointments();
+            pets++;
+            appointments += list.size();
+
+            int s = speciesSlot(pet.getSpeciesOrBreed());
+            speciesPets[s]++;
+            speciesAppointments[s] += list.size();
+
+            int vetCount = 0;
+            for (int i = 0, n = list.size(); i < n; i++) {
+                Appointment a = list.get(i);
+                LocalDateTime t = a.getDateTime();
+                int period = range.indexOf(t);
+                if (period >= 0) {
+                    typeCounts[typeSlot(a.getAppointmentType())][period]++;
+                }
+                if (a.isVetVisit()) {
+                    if (vetCount == vetDays.length) {
+                        vetDays = Arrays.copyOf(vetDays, vetCount * 2);
+                    }
+                    vetDays[vetCount++] = t.toLocalDate().toEpochDay();
+                }
+            }
+            for (int i = 0, n = rules.size(); i < n; i++) {
+                RecurrenceRule r = rules.get(i);
+                long[] counts = typeCounts[typeSlot(r.getAppointmentType())];
+                for (Iterator<RecurrenceRule.Occurrence> it = r.between(range.before, range.after); it.hasNext();) {
+                    counts[range.indexOf(it.next().getDateTime())]++;
+                    occurrences++;
+                }
+            }
+
+            int bracket = ageBracket(pet.getAge());
+            agePets[bracket]++;
+            if (vetCount == 0) {
+                ageNoVetVisit[bracket]++;
+            } else if (vetCount > 1) {
+                Arrays.sort(vetDays, 0, vetCount);
+                for (int i = 1; i < vetCount; i++) {
+                    long gap = vetDays[i] - vetDays[i - 1];
+                    ageGaps[bracket]++;
+                    ageGapDays[bracket] += gap;
+                    if (gap > ageMaxGap[bracket]) {
+                        ageMaxGap[bracket] = gap;
+                    }
+                }
+            }
+        }
+
+        // Menambahkan hasil task lain ke accumulator ini
+        void merge(Accumulator other) {
+            pets += other.pets;
+            appointments += other.appointments;
+            occurrences += other.occurrences;
+            for (int i = 0; i < other.typeCount; i++) {
+                long[] target = typeCounts[typeSlot(other.typeNames[i])];
+                long[] source = other.typeCounts[i];
+                for (int p = 0; p < periods; p++) {
+                    target[p] += source[p];
+                }
+            }
+            for (int i = 0; i < other.speciesCount; i++) {
+                int s = speciesSlot(other.speciesNames[i]);
+                speciesPets[s] += other.speciesPets[i];
+                speciesAppointments[s] += other.speciesAppointments[i];
+            }
+            for (int b = 0; b < agePets.length; b++) {
+                agePets[b] += other.agePets[b];
+                ageNoVetVisit[b] += other.ageNoVetVisit[b];
+                ageGaps[b] += other.ageGaps[b];
+                ageGapDays[b] += other.ageGapDays[b];
+                ageMaxGap[b] = Math.max(ageMaxGap[b], other.ageMaxGap[b]);
+            }
+        }
+
+        private int findType(String type) {
+            String name = type == null ? "(none)" : type;
+            for (int i = 0; i < typeCount; i++) {
+                // String tipe hasil load sering instance yang sama; equalsIgnoreCase hanya jika bukan
+                if (typeNames[i] == name || typeNames[i].equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int typeSlot(String type) {
+            int code = findType(type);
+            if (code >= 0) {
+                return code;
+            }
+            if (typeCount == typeNames.length) {
+                typeNames = Arrays.copyOf(typeNames, typeCount * 2);
+                typeCounts = Arrays.copyOf(typeCounts, typeCount * 2);
+            }
+            typeNames[typeCount] = type == null ? "(none)" : type.toLowerCase(Locale.ROOT);
+            typeCounts[typeCount] = new long[periods];
+            return typeCount++;
+        }
+
+        private int speciesSlot(String species) {
+            String name = species == null || species.isEmpty() ? "(unknown)" : species;
+            Integer slot = speciesSlots.get(name);
+            if (slot != null) {
+                return slot;
+            }
+            if (speciesCount == speciesNames.length) {
+                speciesNames = Arrays.copyOf(speciesNames, speciesCount * 2);
+                speciesPets = Arrays.copyOf(speciesPets, speciesCount * 2);
+                speciesAppointments = Arrays.copyOf(speciesAppointments, speciesCount * 2);
+            }
+            speciesNames[speciesCount] = name;
+            speciesSlots.put(name, speciesCount);
+            return speciesCount++;
+        }
+
+        private static int ageBracket(int age) {
+            for (int b = 0; b < AGE_BRACKET_MAX.length; b++) {
+                if (age <= AGE_BRACKET_MAX[b]) {
+                    return b;
+                }
+            }
+            return AGE_BRACKET_MAX.length;
+        }
+    }
+
+    // Membagi rentang pet dua sampai ukuran leaf; hasil kedua bagian digabung saat join
+    private static final class Task extends RecursiveTask<Accumulator> {
+        private static final long serialVersionUID = 1L;
+
+        private final Pet[] pets;
+        private final transient Function<Pet, List<RecurrenceRule>> rules;
+        private final int lo;
+        private final int hi;
+        private final int leafSize;
+        private final transient Periods periods;
+
+        Task(Pet[] pets, Function<Pet, List<RecurrenceRule>> rules, int lo, int hi, int leafSize, Periods periods) {
+            this.pets = pets;
+            this.rules = rules;
+            this.lo = lo;
+            this.hi = hi;
+            this.leafSize = leafSize;
+            this.periods = periods;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (hi - lo <= leafSize) {
+                Accumulator acc = new Accumulator(periods.count);
+                for (int i = lo; i < hi; i++) {
+                    acc.addPet(pets[i], rules.apply(pets[i]), periods);
+                }
+                return acc;
+            }
+            int mid = (lo + hi) >>> 1;
+            Task left = new Task(pets, rules, lo, mid, leafSize, periods);
+            left.fork();
+            Accumulator right = new Task(pets, rules, mid, hi, leafSize, periods).compute();
+            Accumulator result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package PetCareScheduler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP API di atas SchedulerService, memakai com.sun.net.httpserver bawaan JDK.
+ * Data dimuat sekali saat start (snapshot + journal, sama seperti menu). Setiap perubahan
+ * lewat API dicatat ke journal yang sama dengan menu, urut nomor commit, dan autosave
+ * meng-append-nya ke journal.log; POST /save menunggu sampai semua perubahan ada di disk
+ * lalu menulis snapshot penuh. Mode mapped store (-Dpetcare.store=mapped) tidak didukung.
+ *
+ * <pre>
+ * POST /pets                    id, name, breed, age, owner, contact
+ * POST /appointments            petId, type, date (yyyy-MM-dd), time (HH:mm), notes
+ * GET  /pets/{id}/appointments
+ * GET  /appointments/upcoming
+ * GET  /appointments/past
+ * GET  /reports/upcoming        7 hari ke depan
+ * GET  /reports/overdue         belum ke dokter hewan dalam 6 bulan
+ * POST /save
+ * </pre>
+ * Parameter diterima dari query string atau body form-urlencoded. Respons berupa JSON;
+ * daftar ditulis langsung ke response (chunked) saat diiterasi, bukan dibangun dulu di memori.
+ *
+ * Setiap request dijalankan di virtual thread jika JDK mendukung (21+), selain itu di
+ * cached thread pool.
+ *
+ * Usage: java PetCareScheduler.ApiServer [port]
+ */
+public class ApiServer {
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int MAX_BODY = 64 * 1024;
+
+    private final SchedulerService service;
+    private final Journal journal;
+    private final AutoSaver autoSaver;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // Perubahan 'service' dicatat ke 'journal' sejak konstruktor ini
+    public ApiServer(SchedulerService service, Journal journal, int port) throws IOException {
+        this.service = service;
+        this.journal = journal;
+        this.autoSaver = new AutoSaver(() -> persist(false),
+                Long.getLong("petcare.autosave.delayMillis", 2000));
+        journal.setOnRecord(autoSaver::markDirty);
+        // Menggantikan gauge data menu: state statis PetCareScheduler kosong di proses ini
+        Metrics.gauge("pets", service::petCount);
+        Metrics.gauge("appointments", service::appointmentCount);
+        service.setCommitListener(new SchedulerService.CommitListener() {
+            @Override
+            public void registered(Pet pet) {
+                journal.recordRegister(pet);
+            }
+
+            @Override
+            public void booked(Pet pet, Appointment appointment) {
+                journal.recordSchedule(pet, appointment);
+            }
+
+            @Override
+            public void cancelled(Pet pet, Appointment appointment) {
+                journal.appointmentRemoved(pet, appointment);
+            }
+        });
+        // Backlog besar agar ribuan klien yang connect bersamaan tidak ditolak kernel
+        this.server = HttpServer.create(new InetSocketAddress(port), Integer.getInteger("petcare.http.backlog", 4096));
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/pets", guarded(this::pets));
+        server.createContext("/appointments", guarded(this::appointments));
+        server.createContext("/reports", guarded(this::reports));
+        server.createContext("/save", guarded(this::save));
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+        if (PetCareScheduler.usesMappedStore()) {
+            System.out.println("The API does not support -Dpetcare.store=mapped; start it without that option.");
+            System.exit(1);
+        }
+        PetCareScheduler.loadAll();
+        SchedulerService service = new SchedulerService();
+        service.reserveAppointmentIds(PetCareScheduler.nextAppointmentId());
+        // Kepemilikan data pindah ke service; state statis menu tidak dipakai lagi di proses ini
+        service.importPets(new ArrayList<>(PetCareScheduler.allPets()));
+        PetCareScheduler.clearData();
+
+        ApiServer api = new ApiServer(service, PetCareScheduler.journal(), port);
+        api.start();
+        System.out.println("Pet Care Scheduler API listening on port " + api.getPort());
+        Runtime.getRuntime().addShutdownHook(new Thread(api::stop));
+    }
+
+    public void start() {
+        if (!"false".equalsIgnoreCase(System.getProperty("petcare.autosave"))) {
+            autoSaver.start();
+        }
+        server.start();
+    }
+
+    // Request yang sedang berjalan diberi waktu 1 detik; perubahan yang sudah di-commit disimpan dulu
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            autoSaver.flush();
+        } catch (IOException e) {
+            System.out.println("Error saving data: " + e.getMessage());
+        }
+        autoSaver.stop();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Virtual thread per request (JDK 21+) lewat reflection agar tetap bisa dikompilasi di JDK 11
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    // ========== Handlers ==========
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    /*
+     * Exception yang tidak tertangkap menjadi 500, bukan koneksi yang ditutup diam-diam. Jika
+     * header sudah terkirim (daftar yang sedang di-stream), status tidak bisa diganti lagi:
+     * error dicatat dan exchange ditutup, klien menerima JSON yang terpotong.
+     */
+    private static HttpHandler guarded(Handler handler) {
+        return exchange -> {
+            try {
+                handler.handle(exchange);
+            } catch (RuntimeException e) {
+                if (headersSent(exchange)) {
+                    System.out.println("Error while streaming " + exchange.getRequestMethod() + " "
+                            + exchange.getRequestURI() + ": " + e);
+                } else {
+                    sendError(exchange, 500, "Internal error: " + e);
+                }
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    // getResponseCode() tetap -1 sampai sendResponseHeaders() dipanggil
+    private static boolean headersSent(HttpExchange exchange) {
+        return exchange.getResponseCode() != -1;
+    }
+
+    private void pets(HttpExchange exchange) throws IOException {
+        String[] path = pathSegments(exchange);
+        if (path.length == 1 && isMethod(exchange, "POST")) {
+            registerPet(exchange);
+        } else if (path.length == 3 && path[2].equals("appointments") && isMethod(exchange, "GET")) {
+            Pet pet;
+            try {
+                pet = service.snapshot().getPet(Integer.parseInt(path[1]));
+            } catch (NumberFormatException e) {
+                sendError(exchange, 400, "Invalid Pet ID: " + path[1]);
+                return;
+            }
+            if (pet == null) {
+                sendError(exchange, 404, "Pet not found: " + path[1]);
+                return;
+            }
+            streamAppointments(exchange, pet.getAppointments());
+        } else {
+            sendError(exchange, 404, "Not found");
+        }
+    }
+
+    private void registerPet(HttpExchange exchange) throws IOException {
+        Map<String, String> p = params(exchange);
+        int id;
+        int age;
+        try {
+            id = Integer.parseInt(p.getOrDefault("id", ""));
+            age = Integer.parseInt(p.getOrDefault("age", ""));
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "id and age must be integers.");
+            return;
+        }
+        Pet pet = new Pet(id, trim(p.get("name")), trim(p.get("breed")), age, trim(p.get("owner")),
+                trim(p.get("contact")));
+        String error = service.register(pet);
+        if (error != null) {
+            sendError(exchange, service.findPet(id) != null ? 409 : 400, error);
+            return;
+        }
+        send(exchange, 201, "{\"petId\":" + id + "}");
+    }
+
+    private void appointments(HttpExchange exchange) throws IOException {
+        String[] path = pathSegments(exchange);
+        LocalDateTime now = LocalDateTime.now();
+        if (path.length == 1 && isMethod(exchange, "POST")) {
+            scheduleAppointment(exchange);
+        } else if (path.length == 2 && path[1].equals("upcoming") && isMethod(exchange, "GET")) {
+            streamAppointments(exchange, service.snapshot().appointmentsBetween(now, LocalDateTime.MAX));
+        } else if (path.length == 2 && path[1].equals("past") && isMethod(exchange, "GET")) {
+            streamAppointments(exchange, service.snapshot().appointmentsBetween(LocalDateTime.MIN, now));
+        } else {
+            sendError(exchange, 404, "Not found");
+        }
+    }
+
+    private void scheduleAppointment(HttpExchange exchange) throws IOException {
+        Map<String, String> p = params(exchange);
+        int petId;
+        LocalDateTime dateTime;
+        try {
+            petId = Integer.parseInt(p.getOrDefault("petId", ""));
+            dateTime = LocalDateTime.parse(trim(p.get("date")) + " " + trim(p.get("time")), Validation.INPUT_DATE_TIME);
+        } catch (NumberFormatException | DateTimeException e) {
+            sendError(exchange, 400, "petId must be an integer, date yyyy-MM-dd and time HH:mm.");
+            return;
+        }
+        String type = trim(p.get("type")).toLowerCase(Locale.ROOT);
+        String error = Validation.firstError(Validation.checkAppointmentType(type), Validation.checkFuture(dateTime));
+        if (error != null) {
+            sendError(exchange, 400, error);
+            return;
+        }
+        if (service.findPet(petId) == null) {
+            sendError(exchange, 404, "Pet not found: " + petId);
+            return;
+        }
+        Appointment appointment = new Appointment(type, dateTime, trim(p.get("notes")));
+        error = service.book(petId, appointment);
+        if (error != null) {
+            sendError(exchange, 409, error); // slot penuh
+            return;
+        }
+        send(exchange, 201, "{\"id\":" + appointment.getId() + ",\"petId\":" + petId + ",\"type\":" + json(type)
+                + ",\"dateTime\":" + json(dateTime.toString()) + "}");
+    }
+
+    private void reports(HttpExchange exchange) throws IOException {
+        String[] path = pathSegments(exchange);
+        if (path.length != 2 || !isMethod(exchange, "GET")) {
+            sendError(exchange, 404, "Not found");
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (path[1].equals("upcoming")) {
+            long start = Metrics.REPORT_UPCOMING.start();
+            streamAppointments(exchange, service.snapshot().appointmentsBetween(now, now.plusDays(7)));
+            Metrics.REPORT_UPCOMING.record(start);
+        } else if (path[1].equals("overdue")) {
+            long start = Metrics.REPORT_OVERDUE.start();
+            streamPets(exchange, service.snapshot().overdueVetVisits(now.minusMonths(6)));
+            Metrics.REPORT_OVERDUE.record(start);
+        } else {
+            sendError(exchange, 404, "Not found");
+        }
+    }
+
+    private void save(HttpExchange exchange) throws IOException {
+        if (!isMethod(exchange, "POST")) {
+            sendError(exchange, 405, "Use POST");
+            return;
+        }
+        SchedulerService.Snapshot snapshot;
+        try {
+            snapshot = persist(true);
+        } catch (IOException e) {
+            sendError(exchange, 500, "Save failed: " + e.getMessage());
+            return;
+        }
+        send(exchange, 200, "{\"pets\":" + snapshot.getPets().size() + ",\"appointments\":"
+                + snapshot.getAppointmentCount() + "}");
+    }
+
+    /*
+     * Satu putaran save (autosave atau /save); hanya satu yang berjalan pada satu waktu, jadi
+     * snapshot yang lebih lama tidak pernah menimpa yang lebih baru. Jumlah entri journal dibaca
+     * tepat sebelum snapshot diambil, jadi semua entri itu sudah ada di snapshot dan dibuang
+     * bersama journal lama. Entri sesudahnya tetap pending lalu di-append; jika perubahannya
+     * ternyata juga sudah ada di snapshot, replay melewatinya. Writer lain tetap berjalan
+     * selama file ditulis.
+     */
+    private synchronized SchedulerService.Snapshot persist(boolean fullSnapshot) throws IOException {
+        SchedulerService.Snapshot snapshot = null;
+        if (fullSnapshot || journal.needsCompaction()) {
+            int[] included = new int[1];
+            snapshot = service.snapshot(() -> included[0] = journal.pendingCount());
+            PetCareScheduler.writeSnapshot(snapshot.getPets(), service.nextAppointmentId(), included[0]);
+        }
+        journal.flush();
+        return snapshot;
+    }
+
+    // ========== Streaming JSON ==========
+
+    private static void streamAppointments(HttpExchange exchange, Iterable<Appointment> items) throws IOException {
+        try (Writer out = openStream(exchange)) {
+            out.write('[');
+            boolean first = true;
+            for (Appointment a : items) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                out.write("{\"id\":");
+                out.write(Long.toString(a.getId()));
+                out.write(",\"petId\":");
+                out.write(a.getPet() == null ? "null" : Integer.toString(a.getPet().getPetId()));
+                out.write(",\"type\":");
+                out.write(json(a.getAppointmentType()));
+                out.write(",\"dateTime\":");
+                out.write(json(a.getDateTime().toString()));
+                out.write(",\"notes\":");
+                out.write(json(a.getNotes()));
+                out.write("}\n");
+            }
+            out.write("]\n");
+        }
+    }
+
+    private static void streamPets(HttpExchange exchange, Iterable<Pet> items) throws IOException {
+        try (Writer out = openStream(exchange)) {
+            out.write('[');
+            boolean first = true;
+            for (Pet p : items) {
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                out.write("{\"petId\":" + p.getPetId());
+                out.write(",\"name\":" + json(p.getName()));
+                out.write(",\"breed\":" + json(p.getSpeciesOrBreed()));
+                out.write(",\"age\":" + p.getAge());
+                out.write(",\"owner\":" + json(p.getOwnerName()));
+                out.write(",\"contact\":" + json(p.getContactInfo()));
+                out.write(",\"lastVetVisit\":"
+                        + (p.getLastVetVisit() == null ? "null" : json(p.getLastVetVisit().toString())));
+                out.write("}\n");
+            }
+            out.write("]\n");
+        }
+    }
+
+    // Panjang 0 = chunked transfer encoding; isi dikirim per blok buffer
+    private static Writer openStream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8),
+                16 * 1024);
+    }
+
+    private static String json(String s) {
+        if (s == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    // ========== Helpers ==========
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "{\"error\":" + json(message) + "}");
+    }
+
+    private static boolean isMethod(HttpExchange exchange, String method) {
+        return exchange.getRequestMethod().equalsIgnoreCase(method);
+    }
+
+    // "/pets/12/appointments" -> ["pets", "12", "appointments"]
+    private static String[] pathSegments(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        while (path.endsWith("/") && path.length() > 1) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return path.substring(1).split("/");
+    }
+
+    // Parameter dari query string dan (untuk POST) body form-urlencoded
+    private static Map<String, String> params(HttpExchange exchange) throws IOException {
+        Map<String, String> result = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), result);
+        if (isMethod(exchange, "POST")) {
+            InputStream in = exchange.getRequestBody();
+            byte[] body = in.readNBytes(MAX_BODY);
+            parseForm(new String(body, StandardCharsets.UTF_8), result);
+        }
+        return result;
+    }
+
+    private static void parseForm(String raw, Map<String, String> into) {
+        if (raw == null || raw.isEmpty()) {
+            return;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            into.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String trim(String s) {
+        return s == null ? "" : s.trim();
+    }
+}
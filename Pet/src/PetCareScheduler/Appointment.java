@@ -5,9 +5,12 @@ import java.time.format.DateTimeFormatter;
 
 public class Appointment {
 
+    private long id; // 0 = belum punya ID; diberikan oleh PetCareScheduler saat dimasukkan
     private String appointmentType; // vet visit, grooming, vaccination
     private LocalDateTime dateTime; // Date & time of appointment
     private String notes; // Optional
+    private Pet pet; // Owner, diisi oleh Pet.addAppointment
+    private int slot = -1; // posisi di RecordTable global, dikelola oleh RecordTable
 
     // Constructor
     public Appointment(String appointmentType, LocalDateTime dateTime, String notes) {
@@ -17,6 +20,10 @@ public class Appointment {
     }
 
     // Getters
+    public long getId() {
+        return id;
+    }
+
     public String getAppointmentType() {
         return appointmentType;
     }
@@ -29,31 +36,80 @@ public class Appointment {
         return notes;
     }
 
+    // Pet pemilik janji temu ini, atau null jika belum ditautkan
+    public Pet getPet() {
+        return pet;
+    }
+
     // Setters
     public void setAppointmentType(String appointmentType) {
+        String oldType = this.appointmentType;
         this.appointmentType = appointmentType;
+        if (pet != null) {
+            pet.appointmentChanged(this);
+        }
+        DataVersion.bump();
+        SchedulerEvents.appointmentTypeChanged(this, oldType);
     }
 
     public void setDateTime(LocalDateTime dateTime) {
+        LocalDateTime oldDateTime = this.dateTime;
         this.dateTime = dateTime;
+        if (pet != null) {
+            pet.appointmentChanged(this);
+        }
+        DataVersion.bump();
+        // Beri tahu index waktu agar posisi janji temu ikut diperbarui
+        SchedulerEvents.appointmentRescheduled(this, oldDateTime);
+    }
+
+    void setPet(Pet pet) {
+        this.pet = pet;
+    }
+
+    void setId(long id) {
+        this.id = id;
+    }
+
+    int slot() {
+        return slot;
+    }
+
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    boolean isVetVisit() {
+        return "vet".equalsIgnoreCase(appointmentType);
     }
 
     public void setNotes(String notes) {
+        String oldNotes = this.notes;
         this.notes = notes;
+        DataVersion.bump();
+        SchedulerEvents.appointmentNotesChanged(this, oldNotes);
     }
 
-    // Override toString for readable output
-    @Override
-    public String toString() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-        String output = "Appointment Type: " + appointmentType +
-                "\nDate & Time: " + dateTime.format(formatter);
+    // Format tampilan "yyyy-MM-dd HH:mm"; DateTimeFormatter immutable dan thread-safe, cukup satu
+    static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
+    // Menulis bentuk tampilan ke 'sb' tanpa String perantara (dipakai toString dan Renderer)
+    void appendTo(StringBuilder sb) {
+        if (id != 0) {
+            sb.append("Appointment ID: ").append(id).append('\n');
+        }
+        sb.append("Appointment Type: ").append(appointmentType).append("\nDate & Time: ");
+        DISPLAY_FORMAT.formatTo(dateTime, sb);
         if (notes != null && !notes.trim().isEmpty()) {
-            output += "\nNotes: " + notes;
+            sb.append("\nNotes: ").append(notes);
         }
+    }
 
-        return output;
+    // Override toString for readable output
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(64);
+        appendTo(sb);
+        return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package PetCareScheduler;
+
+import java.util.Arrays;
+
+/**
+ * Hash index dari Appointment ID ke objek Appointment, untuk cancel/reschedule O(1).
+ * Sama seperti PetIndex: open addressing (linear probing) di atas array long primitif,
+ * remove memakai backward-shift deletion sehingga tabel tidak menumpuk tombstone.
+ */
+public class AppointmentIdIndex {
+
+    private static final int DEFAULT_CAPACITY = 16; // must be a power of two
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Appointment[] values; // null slot = empty
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    // Constructor
+    public AppointmentIdIndex() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    // Getters
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Mengembalikan Appointment dengan ID tersebut, atau null jika tidak ada.
+     */
+    public Appointment get(long id) {
+        int i = mix(id) & mask;
+        Appointment a;
+        while ((a = values[i]) != null) {
+            if (keys[i] == id) {
+                return a;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Menambahkan Appointment hanya jika ID-nya belum terdaftar.
+     *
+     * @return true jika ditambahkan, false jika ID sudah ada (entri lama dipertahankan)
+     */
+    public boolean putIfAbsent(Appointment appointment) {
+        long id = appointment.getId();
+        int i = mix(id) & mask;
+        while (values[i] != null) {
+            if (keys[i] == id) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = id;
+        values[i] = appointment;
+        if (++size > resizeThreshold) {
+            rehash(values.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * @return Appointment yang dihapus, atau null jika tidak ada
+     */
+    public Appointment remove(long id) {
+        int i = mix(id) & mask;
+        Appointment a;
+        while ((a = values[i]) != null) {
+            if (keys[i] == id) {
+                shiftBack(i);
+                size--;
+                return a;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // Pre-sizes the table so a bulk load does not rehash repeatedly
+    public void ensureCapacity(int expectedSize) {
+        long needed = (long) Math.max(expectedSize, 1) * 2; // keep load factor <= 0.5
+        int capacity = values.length;
+        while (capacity < needed && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        if (capacity > values.length) {
+            rehash(capacity);
+        }
+    }
+
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            Appointment a = values[i];
+            if (a == null) {
+                break;
+            }
+            int home = mix(keys[i]) & mask;
+            // Entry at i may move into the hole only if its home slot is not in (hole, i]
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = a;
+                hole = i;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        Appointment[] oldValues = values;
+        allocate(newCapacity);
+        for (int j = 0; j < oldValues.length; j++) {
+            Appointment a = oldValues[j];
+            if (a != null) {
+                int i = mix(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = a;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Appointment[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // ID berurutan (1, 2, 3, ...) akan menggerombol tanpa diacak
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
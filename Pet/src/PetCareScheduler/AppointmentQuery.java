@@ -0,0 +1,323 @@
+package PetCareScheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Query atas appointment: gabungan filter (AND) pada field pet, tipe, rentang waktu dan
+ * catatan, ditambah sort dan limit. Ditulis sebagai pasangan key=value, misalnya
+ *
+ * <pre>
+ *   type=grooming species=cat date=2027-03 sort=date limit=20
+ *   type=vaccination owner="ann smith" sort=date:desc
+ * </pre>
+ *
+ * Filter teks (name, species, owner, contact, notes) memakai pencocokan yang sama dengan
+ * Search: setiap kata harus menjadi prefix dari salah satu kata di field tersebut.
+ * Rencana eksekusi (jalur akses mana yang dipakai) ditentukan oleh QueryEngine.
+ */
+final class AppointmentQuery {
+
+    enum SortField {
+        DATE, TYPE, PET, ID
+    }
+
+    static final String SYNTAX = "id=<appointment id> pet=<pet id> type=<type>"
+            + " name=|species=|owner=|contact=|notes=<words> from=|to=<yyyy-MM-dd[THH:mm]>"
+            + " date=<yyyy[-MM[-dd]]> sort=date|type|pet|id[:desc] limit=<n>";
+
+    Long appointmentId;
+    Integer petId;
+    String type;
+    // Kata (huruf kecil) per field teks; kosong = tanpa filter
+    List<String> name = Collections.emptyList();
+    List<String> species = Collections.emptyList();
+    List<String> owner = Collections.emptyList();
+    List<String> contact = Collections.emptyList();
+    List<String> notes = Collections.emptyList();
+    LocalDateTime from; // inklusif, null = tanpa batas
+    LocalDateTime to; // eksklusif, null = tanpa batas
+    SortField sort = SortField.DATE;
+    boolean descending;
+    int limit; // 0 = tanpa batas
+
+    /**
+     * @throws IllegalArgumentException jika ada key yang tidak dikenal atau nilai yang tidak valid
+     */
+    static AppointmentQuery parse(String text) {
+        AppointmentQuery q = new AppointmentQuery();
+        for (String term : split(text)) {
+            int eq = term.indexOf('=');
+            if (eq <= 0 || eq == term.length() - 1) {
+                throw new IllegalArgumentException("Expected key=value but got '" + term + "'.");
+            }
+            String key = term.substring(0, eq).toLowerCase(Locale.ROOT);
+            String value = term.substring(eq + 1);
+            switch (key) {
+                case "id":
+                    q.appointmentId = parseLong(key, value);
+                    break;
+                case "pet":
+                    q.petId = (int) Math.min(Integer.MAX_VALUE, parseLong(key, value));
+                    break;
+                case "type":
+                    q.type = value;
+                    break;
+                case "name":
+                    q.name = words(key, value);
+                    break;
+                case "species":
+                case "breed":
+                    q.species = words(key, value);
+                    break;
+                case "owner":
+                    q.owner = words(key, value);
+                    break;
+                case "contact":
+                    q.contact = words(key, value);
+                    break;
+                case "notes":
+                    q.notes = words(key, value);
+                    break;
+                case "from":
+                    q.narrow(parseDateTime(key, value, false), null);
+                    break;
+                case "to":
+                    // Tanggal saja berarti sampai akhir hari itu
+                    q.narrow(null, parseDateTime(key, value, true));
+                    break;
+                case "date":
+                    parsePeriod(q, value);
+                    break;
+                case "sort":
+                    parseSort(q, value);
+                    break;
+                case "limit":
+                    long limit = parseLong(key, value);
+                    if (limit < 0) {
+                        throw new IllegalArgumentException("limit cannot be negative.");
+                    }
+                    q.limit = (int) Math.min(Integer.MAX_VALUE, limit);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown query key '" + key + "'.");
+            }
+        }
+        return q;
+    }
+
+    boolean hasPetText() {
+        return !name.isEmpty() || !species.isEmpty() || !owner.isEmpty() || !contact.isEmpty();
+    }
+
+    boolean hasTimeRange() {
+        return from != null || to != null;
+    }
+
+    // Semua kata filter pet sebagai satu query untuk index teks pet (kandidat superset)
+    String petText() {
+        List<String> all = new ArrayList<>();
+        all.addAll(name);
+        all.addAll(species);
+        all.addAll(owner);
+        all.addAll(contact);
+        return String.join(" ", all);
+    }
+
+    String notesText() {
+        return String.join(" ", notes);
+    }
+
+    // Semua filter sekaligus; jalur akses QueryEngine hanya mempersempit kandidat
+    boolean matches(Appointment a) {
+        if (appointmentId != null && a.getId() != appointmentId) {
+            return false;
+        }
+        if (type != null && !type.equalsIgnoreCase(a.getAppointmentType())) {
+            return false;
+        }
+        LocalDateTime t = a.getDateTime();
+        if ((from != null && t.isBefore(from)) || (to != null && !t.isBefore(to))) {
+            return false;
+        }
+        if (!notes.isEmpty() && !TextIndex.containsWords(a.getNotes(), notes)) {
+            return false;
+        }
+        if (petId == null && !hasPetText()) {
+            return true;
+        }
+        Pet pet = a.getPet();
+        return pet != null
+                && (petId == null || pet.getPetId() == petId)
+                && TextIndex.containsWords(pet.getName(), name)
+                && TextIndex.containsWords(pet.getSpeciesOrBreed(), species)
+                && TextIndex.containsWords(pet.getOwnerName(), owner)
+                && TextIndex.containsWords(pet.getContactInfo(), contact);
+    }
+
+    // Urutan hasil; waktu yang sama diurutkan berdasarkan ID agar hasilnya deterministik
+    Comparator<Appointment> comparator() {
+        Comparator<Appointment> byTimeThenId = Comparator.comparing(Appointment::getDateTime)
+                .thenComparingLong(Appointment::getId);
+        Comparator<Appointment> c;
+        switch (sort) {
+            case TYPE:
+                c = Comparator.comparing(Appointment::getAppointmentType, String.CASE_INSENSITIVE_ORDER)
+                        .thenComparing(byTimeThenId);
+                break;
+            case PET:
+                c = Comparator.comparing((Appointment a) -> a.getPet() == null ? "" : a.getPet().getName(),
+                        String.CASE_INSENSITIVE_ORDER).thenComparing(byTimeThenId);
+                break;
+            case ID:
+                c = Comparator.comparingLong(Appointment::getId);
+                break;
+            default:
+                c = byTimeThenId;
+        }
+        return descending ? c.reversed() : c;
+    }
+
+    // Ringkasan filter untuk explain, misalnya "type=grooming species~cat date in [..)"
+    List<String> describeFilters() {
+        List<String> parts = new ArrayList<>();
+        if (appointmentId != null) {
+            parts.add("id=" + appointmentId);
+        }
+        if (petId != null) {
+            parts.add("pet=" + petId);
+        }
+        if (type != null) {
+            parts.add("type=" + type.toLowerCase(Locale.ROOT));
+        }
+        describeWords(parts, "name", name);
+        describeWords(parts, "species", species);
+        describeWords(parts, "owner", owner);
+        describeWords(parts, "contact", contact);
+        describeWords(parts, "notes", notes);
+        if (hasTimeRange()) {
+            parts.add("date in " + describeRange(from, to));
+        }
+        return parts;
+    }
+
+    static String describeRange(LocalDateTime from, LocalDateTime to) {
+        return "[" + (from == null ? "-inf" : from) + ", " + (to == null ? "+inf" : to) + ")";
+    }
+
+    private static void describeWords(List<String> parts, String field, List<String> words) {
+        if (!words.isEmpty()) {
+            parts.add(field + "~\"" + String.join(" ", words) + "\"");
+        }
+    }
+
+    // Mempersempit rentang waktu ke irisan dengan [newFrom, newTo)
+    private void narrow(LocalDateTime newFrom, LocalDateTime newTo) {
+        if (newFrom != null && (from == null || newFrom.isAfter(from))) {
+            from = newFrom;
+        }
+        if (newTo != null && (to == null || newTo.isBefore(to))) {
+            to = newTo;
+        }
+    }
+
+    // ========== Parsing ==========
+
+    // Memecah di spasi; teks dalam tanda kutip ("ann smith") tetap satu nilai
+    private static List<String> split(String text) {
+        List<String> terms = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (current.length() > 0) {
+                    terms.add(current.toString());
+                    current.setLength(0);
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote.");
+        }
+        if (current.length() > 0) {
+            terms.add(current.toString());
+        }
+        return terms;
+    }
+
+    private static List<String> words(String key, String value) {
+        List<String> words = new ArrayList<>();
+        TextIndex.tokenize(value, words::add);
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException(key + " needs at least one letter or digit.");
+        }
+        return words;
+    }
+
+    private static long parseLong(String key, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a number.");
+        }
+    }
+
+    // yyyy-MM-dd atau yyyy-MM-ddTHH:mm; 'endOfDay' membuat tanggal saja menjadi awal hari berikutnya
+    private static LocalDateTime parseDateTime(String key, String value, boolean endOfDay) {
+        try {
+            if (value.indexOf('T') >= 0) {
+                return LocalDateTime.parse(value);
+            }
+            LocalDate date = LocalDate.parse(value);
+            return (endOfDay ? date.plusDays(1) : date).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(key + " must be yyyy-MM-dd or yyyy-MM-ddTHH:mm.");
+        }
+    }
+
+    // date=2027 (satu tahun), date=2027-03 (satu bulan) atau date=2027-03-15 (satu hari)
+    private static void parsePeriod(AppointmentQuery q, String value) {
+        try {
+            switch (value.length()) {
+                case 4:
+                    LocalDate year = LocalDate.of(Integer.parseInt(value), 1, 1);
+                    q.narrow(year.atStartOfDay(), year.plusYears(1).atStartOfDay());
+                    return;
+                case 7:
+                    YearMonth month = YearMonth.parse(value);
+                    q.narrow(month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+                    return;
+                default:
+                    LocalDate day = LocalDate.parse(value);
+                    q.narrow(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("date must be yyyy, yyyy-MM or yyyy-MM-dd.");
+        }
+    }
+
+    private static void parseSort(AppointmentQuery q, String value) {
+        String[] parts = value.toLowerCase(Locale.ROOT).split(":", 2);
+        try {
+            q.sort = SortField.valueOf(parts[0].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("sort must be date, type, pet or id.");
+        }
+        if (parts.length == 2 && !parts[1].equals("asc") && !parts[1].equals("desc")) {
+            throw new IllegalArgumentException("sort order must be asc or desc.");
+        }
+        q.descending = parts.length == 2 && parts[1].equals("desc");
+    }
+}
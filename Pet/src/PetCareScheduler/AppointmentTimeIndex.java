@@ -0,0 +1,172 @@
+package PetCareScheduler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Index janji temu yang terurut berdasarkan waktu (Appointment.getDateTime()).
+ * Query rentang waktu berjalan dalam O(log n + k), bukan scan O(n).
+ * Janji temu dengan waktu yang sama disimpan dalam satu bucket sesuai urutan masuk.
+ */
+public class AppointmentTimeIndex implements SchedulerEvents.Listener {
+
+    private final TreeMap<LocalDateTime, ArrayList<Appointment>> byTime = new TreeMap<>();
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Waktu appointment paling akhir, atau null jika index kosong
+    public LocalDateTime last() {
+        return byTime.isEmpty() ? null : byTime.lastKey();
+    }
+
+    public void add(Appointment appointment) {
+        byTime.computeIfAbsent(appointment.getDateTime(), t -> new ArrayList<>(1)).add(appointment);
+        size++;
+    }
+
+    public boolean remove(Appointment appointment) {
+        return removeAt(appointment, appointment.getDateTime());
+    }
+
+    public void clear() {
+        byTime.clear();
+        size = 0;
+    }
+
+    // Dipanggil lewat SchedulerEvents ketika Appointment.setDateTime mengubah waktu
+    @Override
+    public void appointmentRescheduled(Appointment appointment, LocalDateTime oldDateTime) {
+        if (removeAt(appointment, oldDateTime)) {
+            add(appointment);
+        }
+    }
+
+    // Janji temu yang dilepas dari pet-nya juga dikeluarkan dari index
+    @Override
+    public void appointmentRemoved(Pet pet, Appointment appointment) {
+        remove(appointment);
+    }
+
+    @Override
+    public void petRemoved(Pet pet) {
+        for (Appointment a : pet.getAppointments()) {
+            remove(a);
+        }
+    }
+
+    /**
+     * Semua janji temu dengan waktu setelah 'time' (eksklusif).
+     */
+    public Iterable<Appointment> after(LocalDateTime time) {
+        return flatten(byTime.tailMap(time, false));
+    }
+
+    /**
+     * Semua janji temu dengan waktu sebelum 'time' (eksklusif).
+     */
+    public Iterable<Appointment> before(LocalDateTime time) {
+        return flatten(byTime.headMap(time, false));
+    }
+
+    /**
+     * Janji temu dalam rentang (from, to) - kedua batas eksklusif.
+     */
+    public Iterable<Appointment> between(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return Collections.emptyList();
+        }
+        return flatten(byTime.subMap(from, false, to, false));
+    }
+
+    /**
+     * Janji temu dalam rentang [from, to): 'from' inklusif, 'to' eksklusif; null berarti tanpa batas.
+     */
+    public Iterable<Appointment> range(LocalDateTime from, LocalDateTime to) {
+        return flatten(rangeMap(from, to));
+    }
+
+    /**
+     * Jumlah janji temu dalam rentang [from, to), berhenti menghitung setelah mencapai 'cap'
+     * (cukup untuk membandingkan selektivitas tanpa menyusuri seluruh rentang).
+     */
+    public long countRange(LocalDateTime from, LocalDateTime to, long cap) {
+        if (from == null && to == null) {
+            return Math.min(size, cap);
+        }
+        long count = 0;
+        for (ArrayList<Appointment> bucket : rangeMap(from, to).values()) {
+            count += bucket.size();
+            if (count >= cap) {
+                return cap;
+            }
+        }
+        return count;
+    }
+
+    private NavigableMap<LocalDateTime, ArrayList<Appointment>> rangeMap(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null) {
+            return from.isBefore(to) ? byTime.subMap(from, true, to, false) : Collections.emptyNavigableMap();
+        }
+        if (from != null) {
+            return byTime.tailMap(from, true);
+        }
+        return to != null ? byTime.headMap(to, false) : byTime;
+    }
+
+    private boolean removeAt(Appointment appointment, LocalDateTime time) {
+        ArrayList<Appointment> bucket = byTime.get(time);
+        if (bucket == null) {
+            return false;
+        }
+        // Bandingkan identitas objek, bukan equals()
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i) == appointment) {
+                bucket.remove(i);
+                if (bucket.isEmpty()) {
+                    byTime.remove(time);
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Iterasi lazy atas bucket di dalam view NavigableMap
+    private static Iterable<Appointment> flatten(NavigableMap<LocalDateTime, ArrayList<Appointment>> range) {
+        return () -> new Iterator<Appointment>() {
+            private final Iterator<ArrayList<Appointment>> buckets = range.values().iterator();
+            private ArrayList<Appointment> current = null;
+            private int pos = 0;
+
+            @Override
+            public boolean hasNext() {
+                while ((current == null || pos >= current.size()) && buckets.hasNext()) {
+                    current = buckets.next();
+                    pos = 0;
+                }
+                return current != null && pos < current.size();
+            }
+
+            @Override
+            public Appointment next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.get(pos++);
+            }
+        };
+    }
+}
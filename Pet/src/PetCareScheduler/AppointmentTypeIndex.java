@@ -0,0 +1,115 @@
+package PetCareScheduler;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Appointment dipartisi per tipe ("vet", "grooming", ...), dan di dalam setiap partisi
+ * terurut waktu (satu AppointmentTimeIndex per tipe). Query "grooming di bulan Maret"
+ * cukup membaca partisi grooming pada rentang itu, bukan semua appointment.
+ *
+ * Seperti SearchIndex, index ini baru dibangun saat query pertama yang membutuhkannya;
+ * sebelum itu semua update diabaikan sehingga load dan benchmark tidak membayar biayanya.
+ * Setelah dibangun, perubahan tipe/waktu dan penghapusan diikuti lewat SchedulerEvents.
+ */
+public class AppointmentTypeIndex implements SchedulerEvents.Listener {
+
+    private final Map<String, AppointmentTimeIndex> byType = new HashMap<>();
+    private boolean built;
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    // Membangun index dari semua appointment; tidak melakukan apa pun jika sudah dibangun
+    public void build(Iterable<Appointment> appointments) {
+        if (built) {
+            return;
+        }
+        built = true;
+        for (Appointment a : appointments) {
+            add(a);
+        }
+    }
+
+    public void clear() {
+        byType.clear();
+        built = false;
+    }
+
+    public void add(Appointment appointment) {
+        if (built) {
+            byType.computeIfAbsent(key(appointment.getAppointmentType()), t -> new AppointmentTimeIndex())
+                    .add(appointment);
+        }
+    }
+
+    public boolean remove(Appointment appointment) {
+        return removeFrom(appointment.getAppointmentType(), appointment);
+    }
+
+    @Override
+    public void appointmentRescheduled(Appointment appointment, LocalDateTime oldDateTime) {
+        AppointmentTimeIndex partition = byType.get(key(appointment.getAppointmentType()));
+        if (partition != null) {
+            partition.appointmentRescheduled(appointment, oldDateTime);
+        }
+    }
+
+    @Override
+    public void appointmentTypeChanged(Appointment appointment, String oldType) {
+        // Appointment yang tidak terdaftar (misalnya salinan SchedulerService) diabaikan
+        if (removeFrom(oldType, appointment)) {
+            add(appointment);
+        }
+    }
+
+    @Override
+    public void appointmentRemoved(Pet pet, Appointment appointment) {
+        remove(appointment);
+    }
+
+    @Override
+    public void petRemoved(Pet pet) {
+        for (Appointment a : pet.getAppointments()) {
+            remove(a);
+        }
+    }
+
+    // ========== Queries ==========
+
+    public int size(String type) {
+        AppointmentTimeIndex partition = byType.get(key(type));
+        return partition == null ? 0 : partition.size();
+    }
+
+    // Appointment bertipe 'type' dalam rentang [from, to), urut waktu; null berarti tanpa batas
+    public Iterable<Appointment> range(String type, LocalDateTime from, LocalDateTime to) {
+        AppointmentTimeIndex partition = byType.get(key(type));
+        return partition == null ? Collections.emptyList() : partition.range(from, to);
+    }
+
+    public long countRange(String type, LocalDateTime from, LocalDateTime to, long cap) {
+        AppointmentTimeIndex partition = byType.get(key(type));
+        return partition == null ? 0 : partition.countRange(from, to, cap);
+    }
+
+    private boolean removeFrom(String type, Appointment appointment) {
+        AppointmentTimeIndex partition = byType.get(key(type));
+        if (partition == null || !partition.remove(appointment)) {
+            return false;
+        }
+        if (partition.isEmpty()) {
+            byType.remove(key(type));
+        }
+        return true;
+    }
+
+    // Tipe dibandingkan tanpa membedakan huruf besar/kecil, sama seperti Appointment.isVetVisit()
+    private static String key(String type) {
+        return type == null ? "" : type.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,69 @@
+package PetCareScheduler;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Menulis ulang file secara crash-safe: isi baru ditulis ke "&lt;nama&gt;.tmp" di direktori yang
+ * sama, di-fsync, lalu di-rename (atomik) menimpa file lama, dan direktorinya di-fsync agar
+ * rename itu sendiri tahan crash. Pembaca selalu melihat file lama utuh atau file baru utuh,
+ * tidak pernah file yang setengah tertulis.
+ */
+final class AtomicFiles {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Isi file; stream sudah di-buffer dan tidak perlu ditutup oleh pemanggil.
+     */
+    interface Body {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private AtomicFiles() {
+    }
+
+    static void write(Path target, Body body) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Path tmp = dir.resolve(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(ch), BUFFER_SIZE);
+            body.writeTo(out);
+            out.flush();
+            ch.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        replace(tmp, target);
+    }
+
+    // Rename 'source' (sudah di-fsync) menimpa 'target', lalu fsync direktorinya
+    static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // File system tanpa rename atomik: tetap lebih aman daripada menulis di tempat
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    // Tidak semua platform bisa membuka direktori (misalnya Windows); di sana langkah ini dilewati
+    private static void syncDirectory(Path dir) {
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException e) {
+            // best effort
+        }
+    }
+}
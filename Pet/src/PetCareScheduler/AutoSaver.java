@@ -0,0 +1,178 @@
+package PetCareScheduler;
+
+import java.io.IOException;
+
+/**
+ * Menyimpan data di thread latar belakang setelah ada perubahan. Perubahan yang datang
+ * beruntun digabung: setelah perubahan pertama saver menunggu 'delayMillis', lalu satu
+ * save mencakup semua perubahan sampai saat itu.
+ *
+ * flush() adalah barrier: kembali setelah semua perubahan yang ditandai sebelum flush()
+ * dipanggil sudah tersimpan (tanpa menunggu delay), atau melempar error save tersebut.
+ * Save yang gagal diulang setelah delay berikutnya; perubahannya tidak hilang.
+ *
+ * Tanpa start() (batch mode, autosave dimatikan) flush() menjalankan save langsung di
+ * thread pemanggil.
+ */
+final class AutoSaver {
+
+    /**
+     * Satu putaran save; dipanggil dari satu thread pada satu waktu.
+     */
+    interface SaveTask {
+        void save() throws IOException;
+    }
+
+    private final SaveTask task;
+    private final long delayMillis;
+
+    // Dijaga oleh 'this'
+    private long changes; // jumlah markDirty() sejak awal
+    private long saved; // nilai 'changes' yang sudah tercakup oleh save terakhir yang berhasil
+    private long failures;
+    private IOException lastError;
+    private boolean flushRequested;
+    private boolean stopping;
+    private Thread thread;
+
+    AutoSaver(SaveTask task, long delayMillis) {
+        this.task = task;
+        this.delayMillis = Math.max(0, delayMillis);
+    }
+
+    synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        stopping = false;
+        thread = new Thread(this::run, "petcare-autosave");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Murah; dipanggil setiap kali ada perubahan yang perlu disimpan
+    synchronized void markDirty() {
+        changes++;
+        notifyAll();
+    }
+
+    synchronized boolean isDirty() {
+        return changes != saved;
+    }
+
+    synchronized long failureCount() {
+        return failures;
+    }
+
+    /**
+     * Menunggu sampai semua perubahan sebelum panggilan ini tersimpan.
+     *
+     * @throws IOException error dari save yang seharusnya mencakup perubahan tersebut
+     */
+    void flush() throws IOException {
+        long target;
+        synchronized (this) {
+            target = changes;
+            if (thread != null) {
+                long failuresBefore = failures;
+                flushRequested = true;
+                notifyAll();
+                while (saved < target) {
+                    if (failures != failuresBefore) {
+                        throw lastError;
+                    }
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Interrupted while waiting for save");
+                    }
+                }
+                return;
+            }
+        }
+        // Tidak ada thread latar: save langsung
+        task.save();
+        synchronized (this) {
+            saved = Math.max(saved, target);
+        }
+    }
+
+    // Menghentikan thread latar; perubahan yang belum tersimpan tidak ditulis (panggil flush() dulu)
+    void stop() {
+        Thread t;
+        synchronized (this) {
+            stopping = true;
+            notifyAll();
+            t = thread;
+            thread = null;
+        }
+        if (t != null) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        while (true) {
+            long target;
+            synchronized (this) {
+                try {
+                    while (!stopping && changes == saved) {
+                        wait();
+                    }
+                    // Coalescing: tunggu perubahan berikutnya selama 'delayMillis', kecuali ada flush
+                    long deadline = System.currentTimeMillis() + delayMillis;
+                    long remaining;
+                    while (!stopping && !flushRequested
+                            && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                        wait(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (stopping) {
+                    return;
+                }
+                flushRequested = false;
+                target = changes;
+            }
+
+            IOException error = null;
+            try {
+                task.save();
+            } catch (IOException e) {
+                error = e;
+            } catch (RuntimeException e) {
+                error = new IOException(e.toString(), e);
+            }
+
+            synchronized (this) {
+                if (error == null) {
+                    saved = Math.max(saved, target);
+                } else {
+                    failures++;
+                    lastError = error;
+                    System.out.println("\nAutosave failed: " + error.getMessage() + " (will retry)");
+                }
+                notifyAll();
+                if (error != null) {
+                    // Jeda sebelum mencoba lagi, kecuali ada flush baru atau stop
+                    try {
+                        long deadline = System.currentTimeMillis() + Math.max(delayMillis, 1000);
+                        long remaining;
+                        while (!stopping && !flushRequested
+                                && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                            wait(remaining);
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package PetCareScheduler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch mode: menjalankan perintah dari file, satu perintah per baris,
+ * dengan validasi yang sama seperti menu interaktif.
+ *
+ * <pre>
+ * register|petId|name|species/breed|age|owner|contact
+ * schedule|petId|type|yyyy-MM-dd|HH:mm|notes
+ * cancel|appointmentId
+ * reschedule|appointmentId|yyyy-MM-dd|HH:mm
+ * remove-pet|petId
+ * </pre>
+ * Baris kosong dan baris yang diawali '#' diabaikan. Notes boleh kosong dan boleh
+ * mengandung '|'. Perintah yang ditolak tidak menghentikan batch; ringkasan error
+ * dicetak di akhir. Tidak ada I/O save per perintah; pemanggil menyimpan sekali
+ * setelah run() selesai.
+ *
+ * Usage: java PetCareScheduler.PetCareScheduler --batch commands.txt
+ */
+public class BatchRunner {
+
+    private static final int MAX_SAMPLES = 10;
+
+    private long lineNumber;
+    private int registered;
+    private int scheduled;
+    private int cancelled;
+    private int rescheduled;
+    private int removed;
+    private int rejected;
+    private final List<String> samples = new ArrayList<>();
+
+    private BatchRunner() {
+    }
+
+    /**
+     * Menjalankan semua perintah di 'file' lalu mencetak ringkasan throughput dan error.
+     *
+     * @return jumlah perintah yang ditolak, atau -1 jika file tidak bisa dibaca
+     */
+    public static int run(Path file) {
+        BatchRunner runner = new BatchRunner();
+        long start = System.nanoTime();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                runner.lineNumber++;
+                line = line.trim();
+                if (!line.isEmpty() && line.charAt(0) != '#') {
+                    runner.execute(line);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Batch Error: cannot read " + file + ": " + e.getMessage());
+            return -1;
+        }
+        runner.printSummary(System.nanoTime() - start);
+        return runner.rejected;
+    }
+
+    private void execute(String line) {
+        int bar = line.indexOf('|');
+        String command = (bar < 0 ? line : line.substring(0, bar)).trim().toLowerCase();
+        String error;
+        switch (command) {
+            case "register":
+                error = register(line.split("\\|", -1));
+                break;
+            case "schedule":
+                error = schedule(line.split("\\|", 6));
+                break;
+            case "cancel":
+                error = cancel(line.split("\\|", -1));
+                break;
+            case "reschedule":
+                error = reschedule(line.split("\\|", -1));
+                break;
+            case "remove-pet":
+                error = removePet(line.split("\\|", -1));
+                break;
+            default:
+                error = "Unknown command '" + command
+                        + "' (expected register, schedule, cancel, reschedule or remove-pet).";
+        }
+        if (error != null) {
+            reject(error);
+        }
+    }
+
+    private String register(String[] f) {
+        if (f.length != 7) {
+            return "register expects 6 fields: petId|name|species/breed|age|owner|contact";
+        }
+        int id;
+        int age;
+        try {
+            id = Integer.parseInt(f[1].trim());
+        } catch (NumberFormatException e) {
+            return "Invalid ID format: " + f[1].trim();
+        }
+        try {
+            age = Integer.parseInt(f[4].trim());
+        } catch (NumberFormatException e) {
+            return "Invalid age format: " + f[4].trim();
+        }
+        String error = Validation.firstError(PetCareScheduler.checkPetId(id),
+                Validation.checkText(f[2], "Pet Name"),
+                Validation.checkText(f[3], "Species/Breed"),
+                Validation.checkAge(age),
+                Validation.checkText(f[5], "Owner Name"),
+                Validation.checkText(f[6], "Contact Info"));
+        if (error != null) {
+            return error;
+        }
+        PetCareScheduler.addPet(new Pet(id, f[2].trim(), f[3].trim(), age, f[5].trim(), f[6].trim()));
+        registered++;
+        return null;
+    }
+
+    private String schedule(String[] f) {
+        if (f.length < 5) {
+            return "schedule expects petId|type|yyyy-MM-dd|HH:mm[|notes]";
+        }
+        Pet pet;
+        try {
+            pet = PetCareScheduler.findPetById(Integer.parseInt(f[1].trim()));
+        } catch (NumberFormatException e) {
+            return "Invalid Pet ID format: " + f[1].trim();
+        }
+        if (pet == null) {
+            return "Pet not found: " + f[1].trim();
+        }
+        String type = f[2].trim().toLowerCase();
+        String error = Validation.checkAppointmentType(type);
+        if (error != null) {
+            return error;
+        }
+        LocalDateTime dateTime;
+        try {
+            dateTime = LocalDateTime.parse(f[3].trim() + " " + f[4].trim(), Validation.INPUT_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            return "Invalid date/time (expected yyyy-MM-dd|HH:mm): " + f[3].trim() + " " + f[4].trim();
+        }
+        error = PetCareScheduler.checkSchedule(type, dateTime);
+        if (error != null) {
+            return error;
+        }
+        String notes = f.length > 5 ? f[5].trim() : "";
+        PetCareScheduler.bookAppointment(pet, new Appointment(type, dateTime, notes));
+        scheduled++;
+        return null;
+    }
+
+    private String cancel(String[] f) {
+        if (f.length != 2) {
+            return "cancel expects appointmentId";
+        }
+        try {
+            if (PetCareScheduler.cancelBooking(Long.parseLong(f[1].trim())) == null) {
+                return "Appointment not found: " + f[1].trim();
+            }
+        } catch (NumberFormatException e) {
+            return "Invalid Appointment ID format: " + f[1].trim();
+        }
+        cancelled++;
+        return null;
+    }
+
+    private String reschedule(String[] f) {
+        if (f.length != 4) {
+            return "reschedule expects appointmentId|yyyy-MM-dd|HH:mm";
+        }
+        long id;
+        try {
+            id = Long.parseLong(f[1].trim());
+        } catch (NumberFormatException e) {
+            return "Invalid Appointment ID format: " + f[1].trim();
+        }
+        LocalDateTime dateTime;
+        try {
+            dateTime = LocalDateTime.parse(f[2].trim() + " " + f[3].trim(), Validation.INPUT_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            return "Invalid date/time (expected yyyy-MM-dd|HH:mm): " + f[2].trim() + " " + f[3].trim();
+        }
+        String error = PetCareScheduler.moveAppointment(id, dateTime);
+        if (error != null) {
+            return error;
+        }
+        rescheduled++;
+        return null;
+    }
+
+    private String removePet(String[] f) {
+        if (f.length != 2) {
+            return "remove-pet expects petId";
+        }
+        try {
+            if (PetCareScheduler.removePet(Integer.parseInt(f[1].trim())) == null) {
+                return "Pet not found: " + f[1].trim();
+            }
+        } catch (NumberFormatException e) {
+            return "Invalid Pet ID format: " + f[1].trim();
+        }
+        removed++;
+        return null;
+    }
+
+    private void reject(String message) {
+        rejected++;
+        if (samples.size() < MAX_SAMPLES) {
+            samples.add("Batch Error Line " + lineNumber + ": " + message);
+        }
+    }
+
+    private void printSummary(long elapsedNanos) {
+        int commands = registered + scheduled + cancelled + rescheduled + removed + rejected;
+        double seconds = elapsedNanos / 1e9;
+        System.out.println(String.format("Batch: %,d command(s) in %.3f s (%,.0f commands/s)", commands, seconds,
+                seconds > 0 ? commands / seconds : 0.0));
+        System.out.println("  " + registered + " pet(s) registered, " + scheduled + " appointment(s) scheduled, "
+                + cancelled + " cancelled, " + rescheduled + " rescheduled, " + removed + " pet(s) removed, "
+                + rejected + " rejected"
+                + (rejected > samples.size() ? " (first " + samples.size() + " shown):" : rejected > 0 ? ":" : "."));
+        for (String s : samples) {
+            System.out.println("  " + s);
+        }
+    }
+}
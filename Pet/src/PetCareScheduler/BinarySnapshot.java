@@ -0,0 +1,305 @@
+package PetCareScheduler;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Format snapshot biner (petcare.snap) sebagai alternatif pets.txt + appointments.txt.
+ *
+ * <pre>
+ * Header : int magic "PCSN", short version, short flags, long createdAtMillis,
+ *          int petCount, int appointmentCount, int dictionarySize
+ * Dict   : dictionarySize x string            (type, species/breed, owner)
+ * Pet    : int petId, string name, varint speciesCode, int age,
+ *          varint ownerCode, string contact, int registrationEpochDay
+ * Appt   : int petId, varlong appointmentId (sejak versi 2), varint (typeCode &lt;&lt; 2 | flags),
+ *          int epochMinute (long jika WIDE_TIME), [long nanoOfMinute jika HAS_SECONDS],
+ *          nullable string notes
+ * Footer : int CRC32 dari semua byte sebelumnya
+ * </pre>
+ * Snapshot versi 1 (tanpa Appointment ID) tetap bisa dibaca; ID-nya diberikan saat dimuat.
+ * string = varint panjang + UTF-8; nullable string = varint (panjang + 1), 0 berarti null.
+ * Waktu disimpan sebagai menit sejak epoch (UTC, tanpa zona); detik/nano hanya ditulis
+ * jika ada sehingga nilai LocalDateTime tetap identik setelah dibaca kembali.
+ */
+public class BinarySnapshot {
+
+    static final int MAGIC = 0x5043534E; // "PCSN"
+    static final short VERSION = 2;
+    private static final short VERSION_WITHOUT_IDS = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int HAS_SECONDS = 1; // waktu tidak tepat di awal menit
+    private static final int WIDE_TIME = 2; // epochMinute di luar rentang int
+
+    private BinarySnapshot() {
+    }
+
+    // ========== Write ==========
+
+    /**
+     * Menulis semua pet beserta appointment-nya ke 'file'.
+     * Appointment yang tidak tertaut ke pet tidak ikut disimpan (sama seperti format teks).
+     */
+    public static void write(Collection<Pet> pets, Path file) throws IOException {
+        // Pass 1: bangun dictionary dan hitung jumlah appointment
+        HashMap<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int appointmentCount = 0;
+        for (Pet p : pets) {
+            code(p.getSpeciesOrBreed(), codes, dictionary);
+            code(p.getOwnerName(), codes, dictionary);
+            for (Appointment a : p.getAppointments()) {
+                code(a.getAppointmentType(), codes, dictionary);
+                appointmentCount++;
+            }
+        }
+
+        int totalAppointments = appointmentCount;
+        CRC32 crc = new CRC32();
+        // Ditulis ke file sementara lalu di-rename (AtomicFiles), snapshot lama tetap utuh jika crash
+        AtomicFiles.write(file, file0 -> {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new CheckedOutputStream(file0, crc), BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(0);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(pets.size());
+            out.writeInt(totalAppointments);
+            out.writeInt(dictionary.size());
+            for (String s : dictionary) {
+                writeString(out, s);
+            }
+
+            for (Pet p : pets) {
+                out.writeInt(p.getPetId());
+                writeString(out, p.getName());
+                writeVarInt(out, codes.get(p.getSpeciesOrBreed()));
+                out.writeInt(p.getAge());
+                writeVarInt(out, codes.get(p.getOwnerName()));
+                writeString(out, p.getContactInfo());
+                out.writeInt((int) p.getRegistrationDate().toEpochDay());
+            }
+
+            for (Pet p : pets) {
+                for (Appointment a : p.getAppointments()) {
+                    LocalDateTime t = a.getDateTime();
+                    long epochSecond = t.toEpochSecond(ZoneOffset.UTC);
+                    long epochMinute = Math.floorDiv(epochSecond, 60);
+                    long nanoOfMinute = Math.floorMod(epochSecond, 60) * 1_000_000_000L + t.getNano();
+                    int flags = (nanoOfMinute != 0 ? HAS_SECONDS : 0)
+                            | (epochMinute != (int) epochMinute ? WIDE_TIME : 0);
+
+                    out.writeInt(p.getPetId());
+                    writeVarLong(out, a.getId());
+                    writeVarInt(out, codes.get(a.getAppointmentType()) << 2 | flags);
+                    if ((flags & WIDE_TIME) != 0) {
+                        out.writeLong(epochMinute);
+                    } else {
+                        out.writeInt((int) epochMinute);
+                    }
+                    if ((flags & HAS_SECONDS) != 0) {
+                        out.writeLong(nanoOfMinute);
+                    }
+                    writeNullableString(out, a.getNotes());
+                }
+            }
+
+            out.flush();
+            out.writeInt((int) crc.getValue());
+            out.flush();
+        });
+    }
+
+    private static void code(String s, HashMap<String, Integer> codes, List<String> dictionary) {
+        if (!codes.containsKey(s)) {
+            codes.put(s, dictionary.size());
+            dictionary.add(s);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeNullableString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    // ========== Read ==========
+
+    /**
+     * Membaca snapshot biner. Nomor "baris" pada report adalah nomor record.
+     *
+     * @throws IOException jika magic, versi, atau checksum tidak valid
+     */
+    public static FastDataLoader.LoadedData read(Path file, LoadReport petReport, LoadReport appointmentReport)
+            throws IOException {
+        long start = System.nanoTime();
+        ByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large: " + ch.size() + " bytes");
+            }
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        if (buf.limit() < 32) {
+            throw new IOException("Snapshot truncated");
+        }
+
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buf.duplicate();
+        body.limit(buf.limit() - 4);
+        crc.update(body);
+        if ((int) crc.getValue() != buf.getInt(buf.limit() - 4)) {
+            throw new IOException("Snapshot checksum mismatch (file corrupted)");
+        }
+
+        Reader in = new Reader(buf);
+        if (in.buf.getInt() != MAGIC) {
+            throw new IOException("Not a PetCareScheduler snapshot");
+        }
+        short version = in.buf.getShort();
+        if (version != VERSION && version != VERSION_WITHOUT_IDS) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        in.buf.getShort(); // flags
+        in.buf.getLong(); // createdAtMillis
+        int petCount = in.buf.getInt();
+        int appointmentCount = in.buf.getInt();
+        String[] dictionary = new String[in.buf.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.string();
+        }
+
+        FastDataLoader.PetBatch pets = new FastDataLoader.PetBatch();
+        pets.pets.ensureCapacity(petCount);
+        for (int i = 0; i < petCount; i++) {
+            int id = in.buf.getInt();
+            String name = in.string();
+            String species = dictionary[in.varInt()];
+            int age = in.buf.getInt();
+            String owner = dictionary[in.varInt()];
+            String contact = in.string();
+            LocalDate registered = LocalDate.ofEpochDay(in.buf.getInt());
+            pets.pets.add(new Pet(id, name, species, age, owner, contact, registered));
+            petReport.recordLine();
+            petReport.recordLoaded();
+        }
+
+        FastDataLoader.AppointmentBatch appointments = new FastDataLoader.AppointmentBatch();
+        appointments.appointments.ensureCapacity(appointmentCount);
+        for (int i = 0; i < appointmentCount; i++) {
+            int petId = in.buf.getInt();
+            long appointmentId = version == VERSION_WITHOUT_IDS ? 0 : in.varLong();
+            int typeAndFlags = in.varInt();
+            long epochSecond = ((typeAndFlags & WIDE_TIME) != 0 ? in.buf.getLong() : in.buf.getInt()) * 60L;
+            long nanoOfMinute = (typeAndFlags & HAS_SECONDS) != 0 ? in.buf.getLong() : 0;
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond + nanoOfMinute / 1_000_000_000L,
+                    (int) (nanoOfMinute % 1_000_000_000L), ZoneOffset.UTC);
+            String notes = in.nullableString();
+            Appointment a = new Appointment(dictionary[typeAndFlags >>> 2], dateTime, notes);
+            a.setId(appointmentId);
+            appointments.add(petId, i + 1, a);
+            appointmentReport.recordLine();
+            appointmentReport.recordLoaded();
+        }
+
+        petReport.setBytes(buf.limit());
+        long elapsed = System.nanoTime() - start;
+        petReport.setElapsedNanos(elapsed);
+        appointmentReport.setElapsedNanos(elapsed);
+        return new FastDataLoader.LoadedData(pets, appointments);
+    }
+
+    // Decoder kecil di atas ByteBuffer (mapped buffer tidak punya backing array)
+    private static final class Reader {
+        final ByteBuffer buf;
+        private byte[] scratch = new byte[256];
+
+        Reader(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        int varInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buf.get();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        long varLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buf.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        String string() {
+            return decode(varInt());
+        }
+
+        String nullableString() {
+            int n = varInt();
+            return n == 0 ? null : decode(n - 1);
+        }
+
+        private String decode(int len) {
+            if (scratch.length < len) {
+                scratch = new byte[Math.max(len, scratch.length * 2)];
+            }
+            buf.get(scratch, 0, len);
+            return new String(scratch, 0, len, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package PetCareScheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nomor versi seluruh data scheduler: naik setiap kali pet, appointment atau aturan
+ * berulang berubah (lewat setter, Pet.addAppointment/removeAppointment, load, remove).
+ * Hasil turunan yang mahal (misalnya ReportCache) cukup menyimpan versi saat dihitung;
+ * versi yang berbeda berarti hasil itu mungkin sudah basi.
+ */
+public final class DataVersion {
+
+    private static final AtomicLong version = new AtomicLong();
+
+    private DataVersion() {
+    }
+
+    public static long current() {
+        return version.get();
+    }
+
+    static void bump() {
+        version.incrementAndGet();
+    }
+}
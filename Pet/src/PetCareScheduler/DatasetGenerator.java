@@ -0,0 +1,265 @@
+package PetCareScheduler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Membuat pets.txt dan appointments.txt sintetis dengan format yang persis sama
+ * dengan writePetData / writeAppointmentData, untuk uji beban dan benchmark.
+ *
+ * Data ditulis langsung ke disk baris per baris (tidak ada list di memori), jadi
+ * jutaan pet bisa dibuat dengan heap kecil. Hasilnya identik byte per byte untuk opsi dan
+ * seed yang sama; tanggal awal default tetap (2025-01-01), tidak bergantung pada hari ini.
+ *
+ * Usage:
+ * <pre>
+ * java PetCareScheduler.DatasetGenerator [--pets 100000] [--per-pet 5]
+ *      [--mix vet=40,grooming=35,vaccination=25] [--start 2025-01-01] [--days 730]
+ *      [--malformed 0.001] [--seed 42] [--out .]
+ * </pre>
+ */
+public class DatasetGenerator {
+
+    private static final String[] NAMES = { "Milo", "Luna", "Bella", "Charlie", "Max", "Coco", "Oreo", "Simba",
+            "Kitty", "Bruno", "Mochi", "Lucy", "Rocky", "Nala", "Buddy", "Kiki", "Leo", "Daisy", "Tiger", "Snow" };
+    private static final String[] BREEDS = { "Dog - Golden Retriever", "Dog - Poodle", "Dog - Beagle",
+            "Dog - Shih Tzu", "Dog - Mixed", "Cat - Persian", "Cat - Maine Coon", "Cat - Siamese", "Cat - Domestic",
+            "Rabbit - Holland Lop", "Bird - Parrot", "Hamster - Syrian" };
+    private static final String[] FIRST_NAMES = { "Andi", "Budi", "Citra", "Dewi", "Eka", "Fajar", "Gita", "Hadi",
+            "Indah", "Joko", "Kartika", "Lestari", "Maria", "Nur", "Putri", "Rina", "Sari", "Tono", "Wati", "Yusuf" };
+    private static final String[] LAST_NAMES = { "Santoso", "Wijaya", "Pratama", "Saputra", "Hidayat", "Siregar",
+            "Lubis", "Nasution", "Kusuma", "Halim" };
+    private static final String[] NOTES = { "Routine check", "Annual booster", "Nail trim", "Skin allergy follow-up",
+            "Dental cleaning", "Full grooming package", "Rabies shot", "Limping on left leg" };
+
+    // Jam buka klinik: slot 15 menit dari 08:00 sampai 17:45
+    private static final int OPEN_HOUR = 8;
+    private static final int SLOTS_PER_DAY = 40;
+
+    private int petCount = 100_000;
+    private int appointmentsPerPet = 5;
+    private WeightedMix typeMix = WeightedMix.parse("vet=40,grooming=35,vaccination=25");
+    private LocalDate startDate = LocalDate.of(2025, 1, 1);
+    private int spreadDays = 730;
+    private double malformedRatio;
+    private long seed = 42;
+
+    /**
+     * Ringkasan satu kali generate.
+     */
+    public static final class Result {
+        private final int pets;
+        private final long appointments;
+        private final long malformedLines;
+
+        Result(int pets, long appointments, long malformedLines) {
+            this.pets = pets;
+            this.appointments = appointments;
+            this.malformedLines = malformedLines;
+        }
+
+        public int getPets() {
+            return pets;
+        }
+
+        public long getAppointments() {
+            return appointments;
+        }
+
+        public long getMalformedLines() {
+            return malformedLines;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        DatasetGenerator generator = new DatasetGenerator();
+        Path out = Paths.get(".");
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + args[i]);
+                return;
+            }
+            String value = args[i + 1];
+            try {
+                switch (args[i]) {
+                    case "--pets":
+                        generator.setPetCount(Integer.parseInt(value));
+                        break;
+                    case "--per-pet":
+                        generator.setAppointmentsPerPet(Integer.parseInt(value));
+                        break;
+                    case "--mix":
+                        generator.setTypeMix(value);
+                        break;
+                    case "--start":
+                        generator.setStartDate(LocalDate.parse(value));
+                        break;
+                    case "--days":
+                        generator.setSpreadDays(Integer.parseInt(value));
+                        break;
+                    case "--malformed":
+                        generator.setMalformedRatio(Double.parseDouble(value));
+                        break;
+                    case "--seed":
+                        generator.setSeed(Long.parseLong(value));
+                        break;
+                    case "--out":
+                        out = Paths.get(value);
+                        break;
+                    default:
+                        usage("Unknown option " + args[i]);
+                        return;
+                }
+            } catch (RuntimeException e) {
+                usage("Invalid value for " + args[i] + ": " + e.getMessage());
+                return;
+            }
+        }
+
+        Files.createDirectories(out);
+        Path petFile = out.resolve("pets.txt");
+        Path appointmentFile = out.resolve("appointments.txt");
+        long start = System.nanoTime();
+        Result result = generator.generate(petFile, appointmentFile);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Wrote %,d pets and %,d appointments (%,d malformed lines) in %.2f s: %s, %s%n",
+                result.getPets(), result.getAppointments(), result.getMalformedLines(), seconds, petFile,
+                appointmentFile);
+    }
+
+    private static void usage(String error) {
+        System.out.println(error);
+        System.out.println("Usage: DatasetGenerator [--pets N] [--per-pet N]");
+        System.out.println("       [--mix vet=40,grooming=35,vaccination=25] [--start yyyy-MM-dd] [--days N] [--malformed 0.001] [--seed N] [--out dir]");
+    }
+
+    // Setters
+    public void setPetCount(int petCount) {
+        if (petCount < 0) {
+            throw new IllegalArgumentException("petCount must be >= 0");
+        }
+        this.petCount = petCount;
+    }
+
+    public void setAppointmentsPerPet(int appointmentsPerPet) {
+        if (appointmentsPerPet < 0) {
+            throw new IllegalArgumentException("appointmentsPerPet must be >= 0");
+        }
+        this.appointmentsPerPet = appointmentsPerPet;
+    }
+
+    public void setTypeMix(String spec) {
+        this.typeMix = WeightedMix.parse(spec);
+    }
+
+    // Hari pertama rentang appointment; pet terdaftar dalam setahun sebelumnya
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public void setSpreadDays(int spreadDays) {
+        if (spreadDays < 1) {
+            throw new IllegalArgumentException("spreadDays must be >= 1");
+        }
+        this.spreadDays = spreadDays;
+    }
+
+    // Proporsi baris (0..1) yang sengaja dirusak untuk menguji jalur error loader
+    public void setMalformedRatio(double malformedRatio) {
+        if (!(malformedRatio >= 0 && malformedRatio <= 1)) {
+            throw new IllegalArgumentException("malformedRatio must be between 0 and 1");
+        }
+        this.malformedRatio = malformedRatio;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    // ========== Generate ==========
+
+    public Result generate(Path petFile, Path appointmentFile) throws IOException {
+        Random random = new Random(seed);
+        int malformedPets = 0;
+        long malformedAppointments = 0;
+        long appointments = 0;
+
+        try (BufferedWriter w = Files.newBufferedWriter(petFile, StandardCharsets.UTF_8)) {
+            for (int id = 1; id <= petCount; id++) {
+                if (isMalformed(random)) {
+                    w.write(malformedPet(random, id));
+                    malformedPets++;
+                } else {
+                    w.write(id + "|" + pick(random, NAMES) + "|" + pick(random, BREEDS) + "|" + random.nextInt(21)
+                            + "|" + pick(random, FIRST_NAMES) + " " + pick(random, LAST_NAMES) + "|08"
+                            + (1_000_000_000 + random.nextInt(1_000_000_000)) + "|"
+                            + startDate.minusDays(random.nextInt(365)));
+                }
+                w.write('\n');
+            }
+        }
+
+        try (BufferedWriter w = Files.newBufferedWriter(appointmentFile, StandardCharsets.UTF_8)) {
+            StringBuilder line = new StringBuilder(96);
+            for (int id = 1; id <= petCount; id++) {
+                for (int k = 0; k < appointmentsPerPet; k++) {
+                    line.setLength(0);
+                    if (isMalformed(random)) {
+                        line.append(malformedAppointment(random, id));
+                        malformedAppointments++;
+                    } else {
+                        LocalDateTime when = startDate.plusDays(random.nextInt(spreadDays))
+                                .atTime(OPEN_HOUR, 0).plusMinutes(15L * random.nextInt(SLOTS_PER_DAY));
+                        line.append(id).append('|').append(typeMix.pick(random)).append('|').append(when)
+                                .append('|');
+                        if (random.nextInt(3) == 0) {
+                            line.append(pick(random, NOTES));
+                        }
+                        appointments++;
+                    }
+                    w.append(line).write('\n');
+                }
+            }
+        }
+        return new Result(petCount - malformedPets, appointments, malformedPets + malformedAppointments);
+    }
+
+    private boolean isMalformed(Random random) {
+        return malformedRatio > 0 && random.nextDouble() < malformedRatio;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // Kesalahan yang biasa muncul di file hasil edit tangan: field kurang, angka rusak, tanggal rusak
+    private String malformedPet(Random random, int id) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return id + "|" + pick(random, NAMES) + "|" + pick(random, BREEDS);
+            case 1:
+                return id + "|" + pick(random, NAMES) + "|" + pick(random, BREEDS) + "|two|Owner|0800|"
+                        + startDate;
+            default:
+                return id + "|" + pick(random, NAMES) + "|" + pick(random, BREEDS) + "|3|Owner|0800|31/12/2024";
+        }
+    }
+
+    private String malformedAppointment(Random random, int id) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return id + "|vet";
+            case 1:
+                return "pet" + id + "|vet|" + startDate.atTime(OPEN_HOUR, 0) + "|";
+            default:
+                return id + "|" + typeMix.pick(random) + "|" + startDate + " 9am|";
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package PetCareScheduler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Loader pets.txt / appointments.txt berbasis NIO.
+ * File dibaca per blok lewat FileChannel, dipecah langsung pada byte '|' dan '\n',
+ * lalu angka dan tanggal di-parse dari byte tanpa substring atau regex.
+ * Error per baris dikumpulkan di LoadReport, bukan dicetak satu per satu.
+ *
+ * Aturan validasi sama dengan loader berbasis Scanner di PetCareScheduler:
+ * pets harus tepat 7 field, appointments minimal 3 field (notes opsional),
+ * field kosong di akhir baris diabaikan seperti String.split.
+ *
+ * Baris appointment dengan 5 field atau lebih yang field terakhirnya angka membawa
+ * Appointment ID di field terakhir; notes adalah semua field di antaranya (boleh
+ * mengandung '|'). Baris lama tanpa ID mendapat ID baru saat dimasukkan.
+ */
+public class FastDataLoader {
+
+    static final int PET_FIELDS = 7; // petId, name, breed, age, owner, contact, registrationDate
+    static final int MIN_APPOINTMENT_FIELDS = 3; // petId, type, dateTime, (optional) notes, (optional) id
+    static final int APPOINTMENT_FIELDS_WITH_ID = 5;
+
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final byte SEP = '|';
+    private static final byte NL = '\n';
+    private static final byte CR = '\r';
+
+    private FastDataLoader() {
+    }
+
+    /**
+     * Hasil parse pets.txt (urut sesuai file).
+     */
+    static final class PetBatch {
+        final ArrayList<Pet> pets = new ArrayList<>();
+    }
+
+    /**
+     * Hasil parse appointments.txt. Pet ID dan nomor baris disimpan paralel
+     * dengan list appointments agar bisa ditautkan setelah semua pet siap.
+     */
+    static final class AppointmentBatch {
+        final ArrayList<Appointment> appointments = new ArrayList<>();
+        int[] petIds = new int[16];
+        long[] lineNumbers = new long[16];
+
+        int size() {
+            return appointments.size();
+        }
+
+        void add(int petId, long lineNumber, Appointment appointment) {
+            int n = appointments.size();
+            if (n == petIds.length) {
+                petIds = Arrays.copyOf(petIds, n * 2);
+                lineNumbers = Arrays.copyOf(lineNumbers, n * 2);
+            }
+            petIds[n] = petId;
+            lineNumbers[n] = lineNumber;
+            appointments.add(appointment);
+        }
+
+        // Menambahkan batch lain di belakang batch ini, nomor baris digeser 'lineOffset'
+        void append(AppointmentBatch other, long lineOffset) {
+            int n = appointments.size();
+            int m = other.size();
+            if (n + m > petIds.length) {
+                int cap = Math.max(n + m, petIds.length * 2);
+                petIds = Arrays.copyOf(petIds, cap);
+                lineNumbers = Arrays.copyOf(lineNumbers, cap);
+            }
+            System.arraycopy(other.petIds, 0, petIds, n, m);
+            for (int i = 0; i < m; i++) {
+                lineNumbers[n + i] = other.lineNumbers[i] + lineOffset;
+            }
+            appointments.addAll(other.appointments);
+        }
+    }
+
+    /**
+     * Pasangan hasil load pets dan appointments (misalnya dari mode paralel atau
+     * snapshot biner). Appointment belum ditautkan ke pet.
+     */
+    static final class LoadedData {
+        final PetBatch pets;
+        final AppointmentBatch appointments;
+
+        LoadedData(PetBatch pets, AppointmentBatch appointments) {
+            this.pets = pets;
+            this.appointments = appointments;
+        }
+    }
+
+    // ========== Public entry points ==========
+
+    public static PetBatch readPets(Path file, LoadReport report) throws IOException {
+        PetParser parser = new PetParser(report);
+        scan(file, parser, report);
+        return parser.out;
+    }
+
+    public static AppointmentBatch readAppointments(Path file, LoadReport report) throws IOException {
+        AppointmentParser parser = new AppointmentParser(report);
+        scan(file, parser, report);
+        return parser.out;
+    }
+
+    // Membaca file per blok; baris yang terpotong di akhir blok dibawa ke blok berikutnya
+    private static void scan(Path file, LineParser parser, LoadReport report) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(BLOCK_SIZE);
+            long total = 0;
+            boolean eof = false;
+            while (!eof) {
+                int n = ch.read(buf);
+                if (n < 0) {
+                    eof = true;
+                } else {
+                    total += n;
+                }
+                buf.flip();
+                int consumed = parser.parseLines(buf, 0, buf.limit(), eof);
+                buf.position(consumed);
+                buf.compact();
+                if (!eof && buf.position() == buf.capacity()) {
+                    // Satu baris lebih panjang dari buffer: perbesar buffer
+                    ByteBuffer bigger = ByteBuffer.allocate(buf.capacity() * 2);
+                    buf.flip();
+                    bigger.put(buf);
+                    buf = bigger;
+                }
+            }
+            report.setBytes(total);
+        }
+        report.setElapsedNanos(System.nanoTime() - start);
+    }
+
+    // ========== Line tokenizer ==========
+
+    /**
+     * Memecah baris dalam ByteBuffer menjadi field berdasarkan '|'.
+     * Subclass menangani satu baris yang sudah ditokenisasi.
+     */
+    abstract static class LineParser {
+
+        private static final int MAX_TRACKED_FIELDS = 8;
+
+        final LoadReport report;
+        final int[] fieldStart = new int[MAX_TRACKED_FIELDS];
+        final int[] fieldEnd = new int[MAX_TRACKED_FIELDS];
+        private byte[] scratch = new byte[256];
+        long lineNumber; // nomor baris terakhir yang diproses (1-based)
+        // Posisi field tidak kosong terakhir (juga jika melewati MAX_TRACKED_FIELDS)
+        int lastStart;
+        int lastEnd;
+
+        LineParser(LoadReport report) {
+            this.report = report;
+        }
+
+        /**
+         * Memproses semua baris lengkap dalam buf[from, to).
+         * Jika endOfInput, sisa data tanpa '\n' di akhir juga diproses sebagai baris.
+         *
+         * @return posisi byte pertama yang belum diproses
+         */
+        int parseLines(ByteBuffer buf, int from, int to, boolean endOfInput) {
+            int pos = from;
+            while (pos < to) {
+                int nl = pos;
+                while (nl < to && buf.get(nl) != NL) {
+                    nl++;
+                }
+                if (nl == to && !endOfInput) {
+                    return pos;
+                }
+                int end = nl;
+                if (end > pos && buf.get(end - 1) == CR) {
+                    end--;
+                }
+                lineNumber++;
+                report.recordLine();
+                parseLine(buf, pos, end);
+                pos = nl + 1;
+            }
+            return Math.min(pos, to);
+        }
+
+        private void parseLine(ByteBuffer buf, int start, int end) {
+            int count = 0;
+            int lastNonEmpty = -1;
+            int fs = start;
+            for (int i = start; i <= end; i++) {
+                if (i == end || buf.get(i) == SEP) {
+                    if (count < MAX_TRACKED_FIELDS) {
+                        fieldStart[count] = fs;
+                        fieldEnd[count] = i;
+                    }
+                    if (i > fs) {
+                        lastNonEmpty = count;
+                        lastStart = fs;
+                        lastEnd = i;
+                    }
+                    count++;
+                    fs = i + 1;
+                }
+            }
+            // Sama seperti String.split: field kosong di akhir dibuang,
+            // tetapi baris tanpa separator tetap dihitung sebagai 1 field
+            int fields = count == 1 ? 1 : lastNonEmpty + 1;
+            handleRecord(buf, fields);
+        }
+
+        abstract void handleRecord(ByteBuffer buf, int fields);
+
+        // ---------- Field helpers (semua dengan trim seperti String.trim) ----------
+
+        int trimmedStart(ByteBuffer buf, int field) {
+            int s = fieldStart[field];
+            int e = fieldEnd[field];
+            while (s < e && (buf.get(s) & 0xff) <= ' ') {
+                s++;
+            }
+            return s;
+        }
+
+        int trimmedEnd(ByteBuffer buf, int field) {
+            int s = fieldStart[field];
+            int e = fieldEnd[field];
+            while (e > s && (buf.get(e - 1) & 0xff) <= ' ') {
+                e--;
+            }
+            return e;
+        }
+
+        String string(ByteBuffer buf, int field) {
+            return string(buf, fieldStart[field], fieldEnd[field]);
+        }
+
+        // Teks buf[start, end) dengan trim
+        String string(ByteBuffer buf, int start, int end) {
+            int s = start;
+            int e = end;
+            while (s < e && (buf.get(s) & 0xff) <= ' ') {
+                s++;
+            }
+            while (e > s && (buf.get(e - 1) & 0xff) <= ' ') {
+                e--;
+            }
+            int len = e - s;
+            if (len <= 0) {
+                return "";
+            }
+            if (buf.hasArray()) {
+                return new String(buf.array(), buf.arrayOffset() + s, len, StandardCharsets.UTF_8);
+            }
+            if (scratch.length < len) {
+                scratch = new byte[Math.max(len, scratch.length * 2)];
+            }
+            for (int i = 0; i < len; i++) {
+                scratch[i] = buf.get(s + i);
+            }
+            return new String(scratch, 0, len, StandardCharsets.UTF_8);
+        }
+
+        int parseInt(ByteBuffer buf, int field) {
+            int s = trimmedStart(buf, field);
+            int e = trimmedEnd(buf, field);
+            int i = s;
+            boolean negative = false;
+            if (i < e && (buf.get(i) == '-' || buf.get(i) == '+')) {
+                negative = buf.get(i) == '-';
+                i++;
+            }
+            if (i == e) {
+                throw numberFormat(buf, s, e);
+            }
+            long value = 0;
+            for (; i < e; i++) {
+                int d = buf.get(i) - '0';
+                if (d < 0 || d > 9) {
+                    throw numberFormat(buf, s, e);
+                }
+                value = value * 10 + d;
+                if (value > (long) Integer.MAX_VALUE + 1) {
+                    throw numberFormat(buf, s, e);
+                }
+            }
+            if (negative) {
+                value = -value;
+            }
+            if (value > Integer.MAX_VALUE) {
+                throw numberFormat(buf, s, e);
+            }
+            return (int) value;
+        }
+
+        /**
+         * Parse ISO_LOCAL_DATE_TIME (yyyy-MM-ddTHH:mm[:ss[.fffffffff]]) langsung dari byte.
+         * Format lain diserahkan ke LocalDateTime.parse agar hasilnya identik.
+         */
+        LocalDateTime parseDateTime(ByteBuffer buf, int field) {
+            int s = trimmedStart(buf, field);
+            int len = trimmedEnd(buf, field) - s;
+            if (len >= 16 && isDate(buf, s) && buf.get(s + 10) == 'T'
+                    && isDigits(buf, s + 11, 2) && buf.get(s + 13) == ':' && isDigits(buf, s + 14, 2)) {
+                int second = 0;
+                int nano = 0;
+                boolean ok = len == 16;
+                if (len >= 19 && buf.get(s + 16) == ':' && isDigits(buf, s + 17, 2)) {
+                    second = digits(buf, s + 17, 2);
+                    ok = len == 19;
+                    if (len > 20 && len <= 29 && buf.get(s + 19) == '.' && isDigits(buf, s + 20, len - 20)) {
+                        nano = digits(buf, s + 20, len - 20);
+                        for (int k = len - 20; k < 9; k++) {
+                            nano *= 10;
+                        }
+                        ok = true;
+                    }
+                }
+                if (ok) {
+                    return LocalDateTime.of(digits(buf, s, 4), digits(buf, s + 5, 2), digits(buf, s + 8, 2),
+                            digits(buf, s + 11, 2), digits(buf, s + 14, 2), second, nano);
+                }
+            }
+            return LocalDateTime.parse(string(buf, field));
+        }
+
+        // Parse ISO_LOCAL_DATE (yyyy-MM-dd), dengan fallback ke LocalDate.parse
+        LocalDate parseDate(ByteBuffer buf, int field) {
+            int s = trimmedStart(buf, field);
+            int len = trimmedEnd(buf, field) - s;
+            if (len == 10 && isDate(buf, s)) {
+                return LocalDate.of(digits(buf, s, 4), digits(buf, s + 5, 2), digits(buf, s + 8, 2));
+            }
+            return LocalDate.parse(string(buf, field));
+        }
+
+        private static boolean isDate(ByteBuffer buf, int s) {
+            return isDigits(buf, s, 4) && buf.get(s + 4) == '-' && isDigits(buf, s + 5, 2)
+                    && buf.get(s + 7) == '-' && isDigits(buf, s + 8, 2);
+        }
+
+        private static boolean isDigits(ByteBuffer buf, int s, int n) {
+            for (int i = s; i < s + n; i++) {
+                byte b = buf.get(i);
+                if (b < '0' || b > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int digits(ByteBuffer buf, int s, int n) {
+            int v = 0;
+            for (int i = s; i < s + n; i++) {
+                v = v * 10 + (buf.get(i) - '0');
+            }
+            return v;
+        }
+
+        private NumberFormatException numberFormat(ByteBuffer buf, int s, int e) {
+            byte[] raw = new byte[e - s];
+            for (int i = 0; i < raw.length; i++) {
+                raw[i] = buf.get(s + i);
+            }
+            return new NumberFormatException(
+                    "For input string: \"" + new String(raw, StandardCharsets.UTF_8) + "\"");
+        }
+    }
+
+    // ID positif dari buf[s, e) (hanya digit, maksimal 18), atau -1 jika bukan ID
+    static long parseId(ByteBuffer buf, int start, int end) {
+        int s = start;
+        int e = end;
+        while (s < e && (buf.get(s) & 0xff) <= ' ') {
+            s++;
+        }
+        while (e > s && (buf.get(e - 1) & 0xff) <= ' ') {
+            e--;
+        }
+        if (e <= s || e - s > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = s; i < e; i++) {
+            byte b = buf.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    // ========== Record handlers ==========
+
+    static final class PetParser extends LineParser {
+        final PetBatch out = new PetBatch();
+
+        PetParser(LoadReport report) {
+            super(report);
+        }
+
+        @Override
+        void handleRecord(ByteBuffer buf, int fields) {
+            if (fields != PET_FIELDS) {
+                report.addError(lineNumber, "Skipping malformed line. Expected " + PET_FIELDS
+                        + " fields, got " + fields + ".");
+                return;
+            }
+            try {
+                int id = parseInt(buf, 0);
+                String name = string(buf, 1);
+                String breed = string(buf, 2);
+                int age = parseInt(buf, 3);
+                String owner = string(buf, 4);
+                String contact = string(buf, 5);
+                LocalDate registrationDate = parseDate(buf, 6);
+
+                out.pets.add(new Pet(id, name, breed, age, owner, contact, registrationDate));
+                report.recordLoaded();
+            } catch (NumberFormatException e) {
+                report.addError(lineNumber, "Invalid number format (ID or Age). " + e.getMessage());
+            } catch (DateTimeException e) {
+                report.addError(lineNumber, "Invalid date format for Registration Date. " + e.getMessage());
+            }
+        }
+    }
+
+    static final class AppointmentParser extends LineParser {
+        final AppointmentBatch out = new AppointmentBatch();
+
+        AppointmentParser(LoadReport report) {
+            super(report);
+        }
+
+        @Override
+        void handleRecord(ByteBuffer buf, int fields) {
+            if (fields < MIN_APPOINTMENT_FIELDS) {
+                report.addError(lineNumber, "Skipping malformed line. Expected at least "
+                        + MIN_APPOINTMENT_FIELDS + " fields, got " + fields + ".");
+                return;
+            }
+            try {
+                int petId = parseInt(buf, 0);
+                String type = string(buf, 1);
+                LocalDateTime dateTime = parseDateTime(buf, 2);
+                long id = fields >= APPOINTMENT_FIELDS_WITH_ID ? parseId(buf, lastStart, lastEnd) : -1;
+                String notes;
+                if (id > 0) {
+                    // Semua field antara dateTime dan ID, termasuk '|' di dalam notes
+                    notes = string(buf, fieldStart[3], lastStart - 1);
+                } else {
+                    notes = fields > 3 ? string(buf, 3) : "";
+                }
+
+                Appointment appointment = new Appointment(type, dateTime, notes);
+                if (id > 0) {
+                    appointment.setId(id);
+                }
+                out.add(petId, lineNumber, appointment);
+                report.recordLoaded();
+            } catch (NumberFormatException e) {
+                report.addError(lineNumber, "Invalid number format for Pet ID. " + e.getMessage());
+            } catch (DateTimeException e) {
+                report.addError(lineNumber, "Invalid date/time format. " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package PetCareScheduler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Write-ahead journal untuk perubahan sejak snapshot terakhir (pets.txt + appointments.txt,
+ * atau petcare.snap).
+ * Saat save hanya entri baru yang di-append ke journal.log, sehingga biaya save
+ * sebanding dengan jumlah perubahan, bukan ukuran seluruh data.
+ *
+ * Format baris (dipisah '|', sama seperti file data):
+ * <pre>
+ * #snapshot|generation                                        (header, baris pertama)
+ * R|petId|name|breed|age|owner|contact|registrationDate     register pet
+ * A|appointmentId|petId|type|dateTime|notes                   schedule appointment
+ * X|appointmentId                                             cancel appointment
+ * N|appointmentId|newDateTime                                 reschedule appointment
+ * D|petId                                                     remove pet (dan semua appointment-nya)
+ * P|petId|type|start|every|until|notes                        aturan berulang (format recurrences.txt)
+ * </pre>
+ * Journal lama tanpa Appointment ID (S|petId|type|dateTime|notes, C|petId|type|dateTime,
+ * M|petId|type|oldDateTime|newDateTime) tetap bisa di-replay; appointment dicari lewat pet,
+ * tipe dan waktu.
+ * Header mencatat generation snapshot (SnapshotManifest) tempat journal ini berlaku. Journal
+ * selalu di-replay, apa pun generation-nya: setiap entri idempoten (pet/ID/aturan yang sudah
+ * ada dilewati, cancel/remove atas ID yang tidak ada tidak berbuat apa-apa, reschedule menulis
+ * waktu absolut), dan ID appointment tidak pernah dipakai ulang (manifest menyimpan ID
+ * berikutnya). Jadi journal dari generation lama, misalnya karena compaction selesai tetapi
+ * journal belum dikosongkan, aman di-replay di atas snapshot mana pun yang tersisa. Journal
+ * yang generation-nya tidak cocok (termasuk header lama berisi stamp file) di-compact pada
+ * save berikutnya.
+ */
+public class Journal implements SchedulerEvents.Listener {
+
+    private static final String HEADER = "#snapshot";
+
+    private final Path file;
+    private final Path[] snapshotFiles;
+    // Generation snapshot yang berlaku; ditulis di header journal
+    private volatile long generation;
+    // Generation di header journal.log berbeda dari snapshot; compaction berikutnya merapikannya
+    private volatile boolean stale;
+    // Dijaga oleh 'this': entri dicatat di thread menu, di-flush oleh thread autosave
+    private final List<String> pending = new ArrayList<>();
+    private volatile boolean recording = true;
+    private volatile Runnable onRecord = () -> { };
+
+    /**
+     * Callback untuk menerapkan entri journal ke data di memori saat replay.
+     */
+    public interface Handler {
+        void register(Pet pet);
+
+        void schedule(int petId, Appointment appointment);
+
+        void cancel(int petId, String type, LocalDateTime dateTime);
+
+        void reschedule(int petId, String type, LocalDateTime oldDateTime, LocalDateTime newDateTime);
+
+        void cancel(long appointmentId);
+
+        void reschedule(long appointmentId, LocalDateTime newDateTime);
+
+        void removePet(int petId);
+
+        void addRule(RecurrenceRule rule);
+    }
+
+    // Constructor: snapshotFiles = file snapshot tempat journal ini berlaku
+    public Journal(Path file, Path... snapshotFiles) {
+        this.file = file;
+        this.snapshotFiles = snapshotFiles.clone();
+    }
+
+    // Dipanggil setelah manifest dibaca atau snapshot baru di-commit, sebelum replay() atau reset()
+    public void setGeneration(long generation) {
+        this.generation = generation;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    // Dipanggil setiap kali entri baru dicatat (misalnya untuk memicu autosave)
+    public void setOnRecord(Runnable onRecord) {
+        this.onRecord = onRecord;
+    }
+
+    private void record(String entry) {
+        synchronized (this) {
+            pending.add(entry);
+        }
+        onRecord.run();
+    }
+
+    // Ukuran journal.log di disk (0 jika belum ada)
+    public long size() throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    /**
+     * Menonaktifkan pencatatan sementara, misalnya saat load atau replay,
+     * agar perubahan yang berasal dari disk tidak dicatat ulang.
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    // ========== Recording ==========
+
+    public void recordRegister(Pet p) {
+        if (recording) {
+            record("R|" + p.getPetId() + "|" + p.getName() + "|" + p.getSpeciesOrBreed() + "|" + p.getAge()
+                    + "|" + p.getOwnerName() + "|" + p.getContactInfo() + "|" + p.getRegistrationDate());
+        }
+    }
+
+    // Appointment tanpa ID (misalnya salinan di luar PetCareScheduler) memakai format lama
+    public void recordSchedule(Pet p, Appointment a) {
+        if (recording) {
+            String fields = p.getPetId() + "|" + a.getAppointmentType() + "|" + a.getDateTime() + "|" + a.getNotes();
+            record(a.getId() != 0 ? "A|" + a.getId() + "|" + fields : "S|" + fields);
+        }
+    }
+
+    public void recordRecurrence(RecurrenceRule rule) {
+        if (recording) {
+            record("P|" + Recurrences.format(rule));
+        }
+    }
+
+    @Override
+    public void appointmentRemoved(Pet pet, Appointment a) {
+        if (recording) {
+            record(a.getId() != 0 ? "X|" + a.getId()
+                    : "C|" + pet.getPetId() + "|" + a.getAppointmentType() + "|" + a.getDateTime());
+        }
+    }
+
+    @Override
+    public void appointmentRescheduled(Appointment a, LocalDateTime oldDateTime) {
+        if (recording && a.getPet() != null) {
+            record(a.getId() != 0 ? "N|" + a.getId() + "|" + a.getDateTime()
+                    : "M|" + a.getPet().getPetId() + "|" + a.getAppointmentType() + "|" + oldDateTime + "|"
+                            + a.getDateTime());
+        }
+    }
+
+    // Satu entri untuk pet dan semua appointment-nya
+    @Override
+    public void petRemoved(Pet pet) {
+        if (recording) {
+            record("D|" + pet.getPetId());
+        }
+    }
+
+    // ========== Save ==========
+
+    /**
+     * Meng-append entri yang tertunda ke journal.log dan memaksanya ke disk (fsync).
+     *
+     * @return jumlah entri yang ditulis
+     */
+    public int flush() throws IOException {
+        List<String> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+        try {
+            StringBuilder sb = new StringBuilder();
+            if (!Files.exists(file) || Files.size(file) == 0) {
+                sb.append(header()).append('\n');
+            }
+            for (String entry : batch) {
+                sb.append(entry).append('\n');
+            }
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+                while (buf.hasRemaining()) {
+                    ch.write(buf);
+                }
+                ch.force(false);
+            }
+        } catch (IOException e) {
+            // Entri dikembalikan ke depan antrean agar ikut di flush berikutnya
+            synchronized (this) {
+                pending.addAll(0, batch);
+            }
+            throw e;
+        }
+        return batch.size();
+    }
+
+    /**
+     * Journal perlu di-compact jika ukurannya melebihi seperempat snapshot
+     * (minimal 1 MB), agar replay saat startup tetap singkat.
+     */
+    public boolean needsCompaction() throws IOException {
+        if (stale) {
+            return true;
+        }
+        long snapshotSize = 0;
+        for (Path p : snapshotFiles) {
+            snapshotSize += sizeOf(p);
+        }
+        return size() > Math.max(1L << 20, snapshotSize / 4);
+    }
+
+    /**
+     * Dipanggil setelah snapshot baru berhasil di-commit: journal dikosongkan dan
+     * header baru mencatat generation snapshot tersebut.
+     */
+    public void reset() throws IOException {
+        reset(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Seperti reset(), tetapi hanya 'included' entri pending pertama (yang sudah termasuk di
+     * snapshot) yang dibuang; entri yang dicatat sesudah snapshot diambil tetap pending untuk
+     * flush berikutnya.
+     */
+    public void reset(int included) throws IOException {
+        synchronized (this) {
+            pending.subList(0, Math.min(included, pending.size())).clear();
+        }
+        byte[] content = (header() + "\n").getBytes(StandardCharsets.UTF_8);
+        AtomicFiles.write(file, out -> out.write(content));
+        stale = false;
+    }
+
+    // ========== Replay ==========
+
+    /**
+     * Menerapkan semua entri journal di atas snapshot yang sudah dimuat. Handler harus
+     * idempoten (lihat komentar kelas); generation di header hanya menentukan apakah journal
+     * perlu di-compact. Baris yang rusak (misalnya baris terakhir yang terpotong saat crash) dilewati
+     * dan dicatat di report.
+     */
+    public void replay(Handler handler, LoadReport report) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                report.recordLine();
+                if (line.startsWith(HEADER)) {
+                    if (!line.equals(header())) {
+                        report.addWarning(lineNumber, "Journal was started for snapshot '"
+                                + line.substring(Math.min(line.length(), HEADER.length() + 1))
+                                + "', current snapshot generation is " + generation
+                                + "; entries already in the snapshot have no effect.");
+                        stale = true;
+                    }
+                    continue;
+                }
+                try {
+                    apply(line, handler);
+                    report.recordLoaded();
+                } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                    report.addError(lineNumber, "Skipping malformed journal entry. " + e.getMessage());
+                }
+            }
+        }
+        report.setBytes(size());
+        report.setElapsedNanos(System.nanoTime() - start);
+    }
+
+    private static void apply(String line, Handler handler) {
+        String[] data = line.split("\\|", -1);
+        switch (data[0]) {
+            case "R":
+                handler.register(new Pet(Integer.parseInt(data[1]), data[2], data[3], Integer.parseInt(data[4]),
+                        data[5], data[6], LocalDate.parse(data[7])));
+                break;
+            case "A": {
+                // Notes boleh mengandung '|' (semua sisa baris)
+                String notes = line.substring(nthSeparator(line, 5) + 1);
+                Appointment a = new Appointment(data[3], LocalDateTime.parse(data[4]), notes);
+                a.setId(Long.parseLong(data[1]));
+                handler.schedule(Integer.parseInt(data[2]), a);
+                break;
+            }
+            case "X":
+                handler.cancel(Long.parseLong(data[1]));
+                break;
+            case "N":
+                handler.reschedule(Long.parseLong(data[1]), LocalDateTime.parse(data[2]));
+                break;
+            case "D":
+                handler.removePet(Integer.parseInt(data[1]));
+                break;
+            case "P":
+                handler.addRule(Recurrences.parse(line.substring(2)));
+                break;
+            case "S": {
+                String notes = line.substring(nthSeparator(line, 4) + 1);
+                handler.schedule(Integer.parseInt(data[1]),
+                        new Appointment(data[2], LocalDateTime.parse(data[3]), notes));
+                break;
+            }
+            case "C":
+                handler.cancel(Integer.parseInt(data[1]), data[2], LocalDateTime.parse(data[3]));
+                break;
+            case "M":
+                handler.reschedule(Integer.parseInt(data[1]), data[2], LocalDateTime.parse(data[3]),
+                        LocalDateTime.parse(data[4]));
+                break;
+            default:
+                throw new NumberFormatException("Unknown journal entry type '" + data[0] + "'");
+        }
+    }
+
+    private static int nthSeparator(String line, int n) {
+        int pos = -1;
+        for (int i = 0; i < n; i++) {
+            pos = line.indexOf('|', pos + 1);
+            if (pos < 0) {
+                throw new ArrayIndexOutOfBoundsException("Expected " + (n + 1) + " fields");
+            }
+        }
+        return pos;
+    }
+
+    private String header() {
+        return HEADER + "|" + generation;
+    }
+
+    private static long sizeOf(Path p) throws IOException {
+        return Files.exists(p) ? Files.size(p) : 0;
+    }
+}
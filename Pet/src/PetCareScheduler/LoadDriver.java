@@ -0,0 +1,336 @@
+package PetCareScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Uji beban: memuat dataset ke SchedulerService lalu menjalankan campuran register,
+ * booking, pembatalan dan report dari beberapa thread, dan mencetak persentil latensi
+ * per jenis operasi.
+ *
+ * Tanpa --rate setiap thread langsung mengirim operasi berikutnya (closed loop). Dengan
+ * --rate (operasi/detik, total) setiap operasi punya jadwal mulai; latensi dihitung dari
+ * jadwal itu, bukan dari saat operasi benar-benar dimulai, sehingga antrean akibat operasi
+ * lambat ikut terlihat di persentil atas.
+ *
+ * Usage:
+ * <pre>
+ * java PetCareScheduler.LoadDriver [--pets-file pets.txt --appointments-file appointments.txt | --generate 20000]
+ *      [--threads 4] [--ops 20000] [--warmup 2000] [--rate 0] [--seed 1]
+ *      [--mix register=10,book=70,cancel=17,upcoming=2,overdue=1]
+ * </pre>
+ * Tanpa file, dataset dibuat dengan DatasetGenerator di direktori sementara.
+ */
+public class LoadDriver {
+
+    private static final String[] OPERATIONS = { "register", "book", "cancel", "upcoming", "overdue" };
+    private static final String[] TYPES = { "vet", "grooming", "vaccination" };
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String DEFAULT_MIX = "register=10,book=70,cancel=17,upcoming=2,overdue=1";
+    private static final int BOOKING_WINDOW_DAYS = 180;
+
+    private final SchedulerService service;
+    private final WeightedMix mix;
+    private final int threads;
+    private final long seed;
+    private final AtomicInteger nextPetId;
+    private final int maxLoadedPetId;
+
+    /**
+     * Latensi satu jenis operasi dari satu thread (nanodetik), tanpa sinkronisasi.
+     */
+    private static final class Recorder {
+        long[] latencies = new long[1024];
+        int count;
+        int rejected;
+
+        void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                rejected++;
+            }
+        }
+    }
+
+    // Booking yang berhasil, kandidat untuk dibatalkan oleh thread yang sama
+    private static final class Booking {
+        final int petId;
+        final String type;
+        final LocalDateTime dateTime;
+
+        Booking(int petId, String type, LocalDateTime dateTime) {
+            this.petId = petId;
+            this.type = type;
+            this.dateTime = dateTime;
+        }
+    }
+
+    LoadDriver(SchedulerService service, String mix, int threads, long seed) {
+        this.service = service;
+        this.mix = WeightedMix.parse(mix);
+        for (String name : this.mix.names()) {
+            if (!Arrays.asList(OPERATIONS).contains(name)) {
+                throw new IllegalArgumentException("Unknown operation '" + name + "' (expected one of "
+                        + String.join(", ", OPERATIONS) + ")");
+            }
+        }
+        this.threads = threads;
+        this.seed = seed;
+        int maxId = 0;
+        for (Pet p : service.snapshot().getPets()) {
+            maxId = Math.max(maxId, p.getPetId());
+        }
+        this.maxLoadedPetId = Math.max(1, maxId);
+        this.nextPetId = new AtomicInteger(maxId + 1);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                usage("Invalid argument " + args[i]);
+                return;
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+
+        int threads;
+        long ops;
+        long warmup;
+        double rate;
+        long seed;
+        int generate;
+        try {
+            threads = Integer.parseInt(options.getOrDefault("threads", "4"));
+            ops = Long.parseLong(options.getOrDefault("ops", "20000"));
+            warmup = Long.parseLong(options.getOrDefault("warmup", String.valueOf(ops / 10)));
+            rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+            seed = Long.parseLong(options.getOrDefault("seed", "1"));
+            generate = Integer.parseInt(options.getOrDefault("generate", "20000"));
+        } catch (NumberFormatException e) {
+            usage("Invalid number: " + e.getMessage());
+            return;
+        }
+        if (threads < 1 || ops < 1 || warmup < 0 || rate < 0) {
+            usage("threads and ops must be >= 1, warmup and rate >= 0");
+            return;
+        }
+
+        File petFile;
+        File appointmentFile;
+        Path generatedDir = null;
+        if (options.containsKey("pets-file")) {
+            petFile = new File(options.get("pets-file"));
+            appointmentFile = new File(options.getOrDefault("appointments-file", "appointments.txt"));
+        } else {
+            generatedDir = Files.createTempDirectory("petcare-load");
+            petFile = generatedDir.resolve("pets.txt").toFile();
+            appointmentFile = generatedDir.resolve("appointments.txt").toFile();
+            DatasetGenerator generator = new DatasetGenerator();
+            generator.setPetCount(generate);
+            generator.setStartDate(LocalDate.now().minusYears(1));
+            generator.setSeed(seed);
+            generator.generate(petFile.toPath(), appointmentFile.toPath());
+        }
+
+        PetCareScheduler.loadData(petFile, appointmentFile);
+        SchedulerService service = new SchedulerService();
+        service.importPets(new ArrayList<>(PetCareScheduler.allPets()));
+        PetCareScheduler.clearData();
+        Metrics.gauge("pets", service::petCount);
+        Metrics.gauge("appointments", service::appointmentCount);
+        if (generatedDir != null) {
+            Files.delete(petFile.toPath());
+            Files.delete(appointmentFile.toPath());
+            Files.delete(generatedDir);
+        }
+
+        LoadDriver driver;
+        try {
+            driver = new LoadDriver(service, options.getOrDefault("mix", DEFAULT_MIX), threads, seed);
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+            return;
+        }
+        System.out.printf("Loaded %,d pets / %,d appointments; mix %s, %d thread(s), %s%n", service.petCount(),
+                service.snapshot().getAppointmentCount(), driver.mix, threads,
+                rate > 0 ? String.format("target %,.0f ops/s", rate) : "closed loop");
+
+        if (warmup > 0) {
+            driver.run(warmup, rate);
+        }
+        long start = System.nanoTime();
+        List<Map<String, Recorder>> results = driver.run(ops, rate);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        printReport(results, ops, seconds);
+    }
+
+    private static void usage(String error) {
+        System.out.println(error);
+        System.out.println("Usage: LoadDriver [--pets-file f --appointments-file f | --generate N] [--threads N]");
+        System.out.println("       [--ops N] [--warmup N] [--rate opsPerSecond] [--seed N] [--mix op=weight,...]");
+        System.out.println("Operations: " + String.join(", ", OPERATIONS));
+    }
+
+    // ========== Workload ==========
+
+    /**
+     * Menjalankan 'ops' operasi dibagi rata ke semua thread.
+     *
+     * @return recorder per thread, dikunci nama operasi
+     */
+    List<Map<String, Recorder>> run(long ops, double rate) throws InterruptedException {
+        List<Map<String, Recorder>> results = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            long share = ops / threads + (t < ops % threads ? 1 : 0);
+            // Jarak antar operasi per thread agar total mendekati 'rate'
+            long intervalNanos = rate > 0 ? (long) (1e9 * threads / rate) : 0;
+            Map<String, Recorder> recorders = new LinkedHashMap<>();
+            for (String op : OPERATIONS) {
+                recorders.put(op, new Recorder());
+            }
+            results.add(recorders);
+            Random random = new Random(seed * 31 + t);
+            Thread worker = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                work(share, intervalNanos, random, recorders);
+            }, "load-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        ready.await();
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return results;
+    }
+
+    private void work(long ops, long intervalNanos, Random random, Map<String, Recorder> recorders) {
+        ArrayDeque<Booking> booked = new ArrayDeque<>();
+        long scheduled = System.nanoTime();
+        for (long i = 0; i < ops; i++) {
+            String op = mix.pick(random);
+            long start;
+            if (intervalNanos > 0) {
+                scheduled += intervalNanos;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                start = scheduled;
+            } else {
+                start = System.nanoTime();
+            }
+            boolean ok = execute(op, random, booked);
+            recorders.get(op).record(System.nanoTime() - start, ok);
+        }
+    }
+
+    private boolean execute(String op, Random random, ArrayDeque<Booking> booked) {
+        LocalDateTime now = LocalDateTime.now();
+        switch (op) {
+            case "register": {
+                int id = nextPetId.getAndIncrement();
+                return service.register(new Pet(id, "Load" + id, "Dog - Mixed", random.nextInt(21), "Load Owner",
+                        "08" + (1_000_000_000 + random.nextInt(1_000_000_000)))) == null;
+            }
+            case "book": {
+                int petId = 1 + random.nextInt(maxLoadedPetId);
+                String type = TYPES[random.nextInt(TYPES.length)];
+                // Jam buka 08:00-17:45 dalam BOOKING_WINDOW_DAYS hari ke depan, mulai besok
+                LocalDateTime when = now.toLocalDate().plusDays(1 + random.nextInt(BOOKING_WINDOW_DAYS)).atTime(8, 0)
+                        .plusMinutes(15L * random.nextInt(40));
+                boolean ok = service.book(petId, type, when, "") == null;
+                if (ok) {
+                    booked.add(new Booking(petId, type, when));
+                }
+                return ok;
+            }
+            case "cancel": {
+                Booking b = booked.poll();
+                return b != null && service.cancel(b.petId, b.type, b.dateTime);
+            }
+            case "upcoming": {
+                // Report dikonsumsi penuh, seperti saat dicetak ke layar
+                for (Appointment a : service.snapshot().appointmentsBetween(now, now.plusDays(7))) {
+                    a.getDateTime();
+                }
+                return true;
+            }
+            case "overdue":
+                for (Pet p : service.snapshot().overdueVetVisits(now.minusMonths(6))) {
+                    p.getLastVetVisit();
+                }
+                return true;
+            default:
+                throw new IllegalArgumentException(op);
+        }
+    }
+
+    // ========== Report ==========
+
+    private static void printReport(List<Map<String, Recorder>> results, long ops, double seconds) {
+        System.out.printf("%,d ops in %.2f s (%,.0f ops/s)%n", ops, seconds, ops / seconds);
+        System.out.printf("%-10s %10s %9s %10s %10s %10s %10s %10s%n", "operation", "count", "rejected",
+                "p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+        for (String op : OPERATIONS) {
+            int count = 0;
+            int rejected = 0;
+            for (Map<String, Recorder> r : results) {
+                count += r.get(op).count;
+                rejected += r.get(op).rejected;
+            }
+            if (count == 0) {
+                continue;
+            }
+            long[] all = new long[count];
+            int offset = 0;
+            for (Map<String, Recorder> r : results) {
+                Recorder rec = r.get(op);
+                System.arraycopy(rec.latencies, 0, all, offset, rec.count);
+                offset += rec.count;
+            }
+            Arrays.sort(all);
+            StringBuilder line = new StringBuilder(String.format("%-10s %,10d %,9d", op, count, rejected));
+            for (double p : PERCENTILES) {
+                line.append(String.format(" %10.1f", percentile(all, p) / 1e3));
+            }
+            line.append(String.format(" %10.1f", all[all.length - 1] / 1e3));
+            System.out.println(line);
+        }
+        System.out.println("(rejected = booking conflict / cancel with nothing to cancel; latency still counted)");
+    }
+
+    // Nearest-rank: nilai terkecil yang >= p% dari semua sampel
+    private static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
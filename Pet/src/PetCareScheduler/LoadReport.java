@@ -0,0 +1,139 @@
+package PetCareScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ringkasan hasil load satu file data.
+ * Error per baris dikumpulkan (hanya beberapa contoh pertama yang disimpan)
+ * lalu dicetak sekali di akhir, bukan satu println per baris yang rusak.
+ */
+public class LoadReport {
+
+    private static final int MAX_SAMPLES = 10;
+
+    private final String label; // "Pets" atau "Appointments"
+    private long lines;
+    private int loaded;
+    private int errors;
+    private int warnings;
+    private long bytes;
+    private long elapsedNanos;
+    private final List<Issue> samples = new ArrayList<>();
+
+    // Satu baris bermasalah yang disimpan sebagai contoh
+    private static final class Issue {
+        final long line;
+        final String message;
+        final boolean warning;
+
+        Issue(long line, String message, boolean warning) {
+            this.line = line;
+            this.message = message;
+            this.warning = warning;
+        }
+    }
+
+    // Constructor
+    public LoadReport(String label) {
+        this.label = label;
+    }
+
+    // Getters
+    public String getLabel() {
+        return label;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public int getLoaded() {
+        return loaded;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    public int getWarnings() {
+        return warnings;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public List<String> getSamples() {
+        List<String> result = new ArrayList<>(samples.size());
+        for (Issue i : samples) {
+            result.add("Load " + (i.warning ? "Warning" : "Error") + " (" + label + ") Line " + i.line + ": "
+                    + i.message);
+        }
+        return result;
+    }
+
+    void recordLine() {
+        lines++;
+    }
+
+    void recordLoaded() {
+        loaded++;
+    }
+
+    void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    void addError(long lineNumber, String message) {
+        errors++;
+        addSample(new Issue(lineNumber, message, false));
+    }
+
+    void addWarning(long lineNumber, String message) {
+        warnings++;
+        addSample(new Issue(lineNumber, message, true));
+    }
+
+    /**
+     * Menggabungkan report dari bagian file berikutnya. Nomor baris pada 'other'
+     * bersifat lokal terhadap bagiannya, sehingga digeser sebesar 'lineOffset'.
+     */
+    void merge(LoadReport other, long lineOffset) {
+        lines += other.lines;
+        loaded += other.loaded;
+        errors += other.errors;
+        warnings += other.warnings;
+        bytes += other.bytes;
+        for (Issue i : other.samples) {
+            addSample(new Issue(i.line + lineOffset, i.message, i.warning));
+        }
+    }
+
+    private void addSample(Issue issue) {
+        if (samples.size() < MAX_SAMPLES) {
+            samples.add(issue);
+        }
+    }
+
+    public void printSummary() {
+        String what = label.equals("Pets") ? "pet"
+                : label.equals("Appointments") ? "appointment" : label.toLowerCase();
+        System.out.println("Loaded " + loaded + " " + what + " records successfully.");
+        if (errors > 0 || warnings > 0) {
+            System.out.println("  " + errors + " line(s) skipped, " + warnings + " warning(s)"
+                    + (errors + warnings > samples.size() ? " (first " + samples.size() + " shown):" : ":"));
+            for (String s : getSamples()) {
+                System.out.println("  " + s);
+            }
+        }
+    }
+}
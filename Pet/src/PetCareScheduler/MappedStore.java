@@ -0,0 +1,1136 @@
+package PetCareScheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+/**
+ * Store persisten di atas memory-mapped file (-Dpetcare.store=mapped). Pet dan appointment
+ * disimpan sebagai record berukuran tetap, jadi record ke-n selalu ada di offset
+ * HEADER + n * ukuranRecord dan dibaca langsung dari region yang di-map tanpa parse.
+ * Membuka store hanya me-map file dan memeriksa header, sehingga waktunya tidak bergantung
+ * pada jumlah data.
+ *
+ * <pre>
+ * pets.dat         record 48 byte: status, petId, age, registrationEpochDay, appointmentCount,
+ *                  appointment pertama/terakhir, ref name/species/owner/contact
+ * appointments.dat record 48 byte: status, record pet, id, epochSecond, nano, ref type/notes,
+ *                  appointment sebelum/sesudahnya milik pet yang sama, petId
+ * ids.dat          hash table (linear probing, slot 16 byte): key -> nomor record, untuk Pet ID
+ *                  (bit 62 diset) dan Appointment ID
+ * strings.dat      heap string: int panjang + UTF-8; ref = offset di file, -1 = null
+ * </pre>
+ * Setiap file diawali header 64 byte: magic, versi, jenis file, ukuran record, flags,
+ * generation, penghitung (jumlah record, record hidup, free list, ID appointment terbesar)
+ * dan CRC32 header. Record yang dihapus masuk free list dan dipakai ulang.
+ *
+ * Perubahan ditulis langsung di tempat (lewat putPet/putAppointment dan SchedulerEvents),
+ * dan sudah aman jika proses crash karena halaman yang di-map ada di page cache OS.
+ * force() adalah titik durability terhadap crash OS/listrik: semua file di-flush, lalu flag
+ * DIRTY di pets.dat dihapus. Jika store dibuka dalam keadaan DIRTY, semua record diperiksa
+ * dan index serta rantai per pet dibangun ulang (recover()), sekali itu saja O(n).
+ *
+ * Tulis ulang penuh (write()) membuat file "*.tmp" dengan generation baru; rename pets.dat
+ * adalah titik commit, dan rename file lainnya diselesaikan oleh open() jika terputus.
+ *
+ * Tidak thread-safe: penulisan dan force() harus diserialisasi oleh pemanggil; pembacaan
+ * boleh dari thread lain selama tidak ada penulisan.
+ */
+public final class MappedStore implements SchedulerEvents.Listener {
+
+    static final int MAGIC = 0x50434D53; // "PCMS"
+    static final short VERSION = 1;
+
+    private static final String PETS = "pets.dat";
+    private static final String APPOINTMENTS = "appointments.dat";
+    private static final String IDS = "ids.dat";
+    private static final String STRINGS = "strings.dat";
+
+    private static final int KIND_PETS = 0;
+    private static final int KIND_APPOINTMENTS = 1;
+    private static final int KIND_IDS = 2;
+    private static final int KIND_STRINGS = 3;
+
+    // Header: magic(0) version(4) kind(6) recordSize(8) flags(12) lalu field di bawah ini
+    private static final int HEADER = 64;
+    private static final int H_FLAGS = 12;
+    private static final int H_GENERATION = 16;
+    private static final int H_END = 24; // record terpakai / kapasitas hash table / akhir heap string
+    private static final int H_LIVE = 32; // record hidup / entri hash table
+    private static final int H_FREE = 40; // kepala free list / byte string yang tidak terpakai lagi
+    private static final int H_MAX_ID = 48; // Appointment ID terbesar (appointments.dat)
+    private static final int H_CRC = 56;
+    private static final int DIRTY = 1;
+
+    // Record pet
+    private static final int PET_RECORD = 48;
+    private static final int P_ID = 4;
+    private static final int P_AGE = 8;
+    private static final int P_REGISTERED = 12;
+    private static final int P_COUNT = 16;
+    private static final int P_FIRST = 20;
+    private static final int P_LAST = 24;
+    private static final int P_NAME = 28;
+    private static final int P_SPECIES = 32;
+    private static final int P_OWNER = 36;
+    private static final int P_CONTACT = 40;
+
+    // Record appointment
+    private static final int APPOINTMENT_RECORD = 48;
+    private static final int A_PET = 4;
+    private static final int A_ID = 8;
+    private static final int A_SECOND = 16;
+    private static final int A_NANO = 24;
+    private static final int A_TYPE = 28;
+    private static final int A_NOTES = 32;
+    private static final int A_PREV = 36;
+    private static final int A_NEXT = 40;
+    private static final int A_PET_ID = 44;
+
+    private static final int ID_SLOT = 16;
+    private static final int MIN_ID_CAPACITY = 1024;
+
+    private static final byte LIVE = 1;
+    private static final int NONE = -1;
+    private static final int NEXT_FREE = 4; // record kosong: nomor record kosong berikutnya
+    private static final long PET_KEY = 1L << 62;
+
+    // String yang sering berulang (tipe, species, owner) ditulis sekali per sesi
+    private static final int MAX_SHARED_STRINGS = 4096;
+    private static final long MIN_COMPACTION_GARBAGE = 1 << 20;
+
+    private final Path dir;
+    private final Region petFile;
+    private final Region appointmentFile;
+    private final Region idFile;
+    private final Region stringFile;
+    private final HashMap<String, Integer> shared = new HashMap<>();
+    private boolean dirty;
+    private String recoveryNote;
+    private volatile Runnable onWrite = () -> { };
+
+    private MappedStore(Path dir, Region petFile, Region appointmentFile, Region idFile, Region stringFile) {
+        this.dir = dir;
+        this.petFile = petFile;
+        this.appointmentFile = appointmentFile;
+        this.idFile = idFile;
+        this.stringFile = stringFile;
+    }
+
+    // ========== Open / Create ==========
+
+    static boolean exists(Path dir) {
+        return Files.exists(dir.resolve(PETS));
+    }
+
+    /**
+     * Me-map file store di 'dir' dan memeriksa header-nya. Store yang tidak ditutup bersih
+     * (DIRTY) diperiksa ulang dulu; lihat recoveryNote().
+     *
+     * @throws IOException jika file tidak ada, bukan file store, versinya berbeda, atau headernya rusak
+     */
+    static MappedStore open(Path dir) throws IOException {
+        finishRewrite(dir);
+        Region[] regions = new Region[4];
+        try {
+            regions[0] = Region.open(dir.resolve(PETS), KIND_PETS, PET_RECORD);
+            regions[1] = Region.open(dir.resolve(APPOINTMENTS), KIND_APPOINTMENTS, APPOINTMENT_RECORD);
+            regions[2] = Region.open(dir.resolve(IDS), KIND_IDS, ID_SLOT);
+            regions[3] = Region.open(dir.resolve(STRINGS), KIND_STRINGS, 1);
+            MappedStore store = new MappedStore(dir, regions[0], regions[1], regions[2], regions[3]);
+            store.validate();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            close(regions);
+            throw e;
+        }
+    }
+
+    /**
+     * Menulis ulang store di 'dir' dari 'pets' beserta appointment-nya (store baru atau
+     * compaction). Appointment tanpa ID, atau dengan ID yang sudah dipakai, mendapat ID baru.
+     * Store yang sedang terbuka di 'dir' tetap membaca isi lama sampai ditutup.
+     */
+    static void write(Path dir, Collection<Pet> pets) throws IOException {
+        Files.createDirectories(dir);
+        int petCount = 0;
+        long appointmentCount = 0;
+        long maxId = 0;
+        for (Pet p : pets) {
+            petCount++;
+            for (Appointment a : p.getAppointments()) {
+                appointmentCount++;
+                maxId = Math.max(maxId, a.getId());
+            }
+        }
+
+        long generation = storedGeneration(dir) + 1;
+        int idCapacity = idCapacity(petCount + appointmentCount);
+        Region[] regions = new Region[4];
+        try {
+            regions[0] = Region.create(tmp(dir, PETS), KIND_PETS, PET_RECORD, generation,
+                    HEADER + (long) petCount * PET_RECORD);
+            regions[1] = Region.create(tmp(dir, APPOINTMENTS), KIND_APPOINTMENTS, APPOINTMENT_RECORD, generation,
+                    HEADER + appointmentCount * APPOINTMENT_RECORD);
+            regions[2] = Region.create(tmp(dir, IDS), KIND_IDS, ID_SLOT, generation,
+                    HEADER + (long) idCapacity * ID_SLOT);
+            regions[3] = Region.create(tmp(dir, STRINGS), KIND_STRINGS, 1, generation, HEADER + (1 << 20));
+            MappedStore out = new MappedStore(dir, regions[0], regions[1], regions[2], regions[3]);
+            out.dirty = true;
+            out.petFile.setHeader(H_FREE, NONE);
+            out.appointmentFile.setHeader(H_FREE, NONE);
+            out.idFile.setHeader(H_END, idCapacity);
+            out.stringFile.setHeader(H_END, HEADER);
+            for (Pet p : pets) {
+                int petRecord = out.insertPet(p);
+                if (petRecord == NONE) {
+                    continue; // Pet ID duplikat: hanya yang pertama disimpan
+                }
+                for (Appointment a : p.getAppointments()) {
+                    long id = a.getId();
+                    if (id <= 0 || id >= PET_KEY || out.idGet(id) != NONE) {
+                        id = ++maxId;
+                    }
+                    out.insertAppointment(petRecord, p.getPetId(), a, id);
+                }
+            }
+            out.force();
+        } catch (IOException | RuntimeException e) {
+            close(regions);
+            for (String name : new String[] { PETS, APPOINTMENTS, IDS, STRINGS }) {
+                Files.deleteIfExists(tmp(dir, name));
+            }
+            if (e instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e).getCause();
+            }
+            throw e;
+        }
+        close(regions);
+
+        // pets.dat adalah titik commit; open() menyelesaikan rename lainnya jika terputus di sini
+        AtomicFiles.replace(tmp(dir, PETS), dir.resolve(PETS));
+        for (String name : new String[] { APPOINTMENTS, IDS, STRINGS }) {
+            AtomicFiles.replace(tmp(dir, name), dir.resolve(name));
+        }
+    }
+
+    // Tulis ulang yang terputus: sebelum commit file .tmp dibuang, sesudahnya rename dilanjutkan
+    private static void finishRewrite(Path dir) throws IOException {
+        if (Files.exists(tmp(dir, PETS))) {
+            for (String name : new String[] { PETS, APPOINTMENTS, IDS, STRINGS }) {
+                Files.deleteIfExists(tmp(dir, name));
+            }
+            return;
+        }
+        for (String name : new String[] { APPOINTMENTS, IDS, STRINGS }) {
+            if (Files.exists(tmp(dir, name))) {
+                AtomicFiles.replace(tmp(dir, name), dir.resolve(name));
+            }
+        }
+    }
+
+    private static Path tmp(Path dir, String name) {
+        return dir.resolve(name + ".tmp");
+    }
+
+    private static long storedGeneration(Path dir) {
+        try (FileChannel ch = FileChannel.open(dir.resolve(PETS), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            if (ch.read(header, 0) < HEADER || header.getInt(0) != MAGIC) {
+                return 0;
+            }
+            return header.getLong(H_GENERATION);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static int idCapacity(long entries) {
+        long capacity = MIN_ID_CAPACITY;
+        while (capacity < entries * 2) {
+            capacity <<= 1;
+        }
+        return (int) Math.min(capacity, 1 << 26);
+    }
+
+    private void validate() throws IOException {
+        long generation = petFile.header(H_GENERATION);
+        for (Region r : new Region[] { appointmentFile, idFile, stringFile }) {
+            if (r.header(H_GENERATION) != generation) {
+                throw new IOException("Store files in " + dir + " are from different generations");
+            }
+        }
+        if ((petFile.buf.getInt(H_FLAGS) & DIRTY) != 0) {
+            dirty = true;
+            recover();
+            return;
+        }
+        for (Region r : new Region[] { petFile, appointmentFile, idFile, stringFile }) {
+            if (r.buf.getInt(H_CRC) != r.headerCrc()) {
+                throw new IOException(r.path.getFileName() + " header checksum mismatch (file corrupted)");
+            }
+        }
+        long capacity = idFile.header(H_END);
+        if (!fits(petFile, petFile.header(H_END) * PET_RECORD)
+                || !fits(appointmentFile, appointmentFile.header(H_END) * APPOINTMENT_RECORD)
+                || Long.bitCount(capacity) != 1 || !fits(idFile, capacity * ID_SLOT)
+                || !fits(stringFile, stringFile.header(H_END) - HEADER)) {
+            throw new IOException("Store in " + dir + " is truncated");
+        }
+    }
+
+    private static boolean fits(Region r, long bytes) {
+        return bytes >= 0 && HEADER + bytes <= r.buf.capacity();
+    }
+
+    // Pesan hasil pemeriksaan jika store tidak ditutup bersih, atau null
+    String recoveryNote() {
+        return recoveryNote;
+    }
+
+    Path directory() {
+        return dir;
+    }
+
+    // Dipanggil setiap kali ada perubahan yang belum di-force() (misalnya untuk memicu autosave)
+    void setOnWrite(Runnable onWrite) {
+        this.onWrite = onWrite;
+    }
+
+    void close() {
+        close(new Region[] { petFile, appointmentFile, idFile, stringFile });
+    }
+
+    private static void close(Region[] regions) {
+        for (Region r : regions) {
+            if (r != null) {
+                r.close();
+            }
+        }
+    }
+
+    // ========== Durability ==========
+
+    /**
+     * Titik durability: semua perubahan sejauh ini di-flush ke disk, lalu store ditandai bersih.
+     */
+    void force() {
+        if (!dirty) {
+            return;
+        }
+        Region[] all = { stringFile, appointmentFile, idFile, petFile };
+        for (Region r : all) {
+            r.buf.force();
+        }
+        petFile.buf.putInt(H_FLAGS, 0);
+        for (Region r : all) {
+            r.buf.putInt(H_CRC, r.headerCrc());
+            r.buf.force();
+        }
+        dirty = false;
+    }
+
+    // Flag DIRTY harus ada di disk sebelum halaman data mana pun, jadi langsung di-force (sekali per save)
+    private void beginWrite() {
+        if (!dirty) {
+            dirty = true;
+            petFile.buf.putInt(H_FLAGS, DIRTY);
+            petFile.buf.force();
+        }
+    }
+
+    private void written() {
+        onWrite.run();
+    }
+
+    long garbageBytes() {
+        return stringFile.header(H_FREE);
+    }
+
+    // Sebagian besar heap string sudah tidak dipakai; write() menulis store yang ringkas
+    boolean needsCompaction() {
+        return garbageBytes() > Math.max(MIN_COMPACTION_GARBAGE, (stringFile.header(H_END) - HEADER) / 2);
+    }
+
+    // ========== Read ==========
+
+    int petCount() {
+        return (int) petFile.header(H_LIVE);
+    }
+
+    int appointmentCount() {
+        return (int) appointmentFile.header(H_LIVE);
+    }
+
+    /**
+     * Isi satu record pet, dibaca dari region yang di-map (untuk ditampilkan).
+     */
+    static final class PetRecord {
+        final int petId;
+        final String name;
+        final String speciesOrBreed;
+        final int age;
+        final String ownerName;
+        final String contactInfo;
+        final LocalDate registrationDate;
+        final int appointmentCount;
+
+        PetRecord(int petId, String name, String speciesOrBreed, int age, String ownerName, String contactInfo,
+                LocalDate registrationDate, int appointmentCount) {
+            this.petId = petId;
+            this.name = name;
+            this.speciesOrBreed = speciesOrBreed;
+            this.age = age;
+            this.ownerName = ownerName;
+            this.contactInfo = contactInfo;
+            this.registrationDate = registrationDate;
+            this.appointmentCount = appointmentCount;
+        }
+
+        void appendTo(StringBuilder sb) {
+            Pet.appendTo(sb, petId, name, speciesOrBreed, age, ownerName, contactInfo, registrationDate,
+                    appointmentCount);
+        }
+    }
+
+    // Urutan record di file; record yang dibaca hanya yang benar-benar diambil iterator
+    Iterable<PetRecord> pets() {
+        return () -> new Records<PetRecord>(petFile, PET_RECORD) {
+            @Override
+            PetRecord read(int rec) {
+                return petRecord(rec);
+            }
+        };
+    }
+
+    // Salinan appointment (dengan ID); perubahan lewat setter tidak ditulis balik ke store
+    Iterable<Appointment> appointments() {
+        return () -> new Records<Appointment>(appointmentFile, APPOINTMENT_RECORD) {
+            @Override
+            Appointment read(int rec) {
+                return appointment(rec);
+            }
+        };
+    }
+
+    /**
+     * Membuat objek untuk semua record, dalam bentuk yang sama dengan hasil loader teks:
+     * pet urut record, appointment urut per pet. "Baris" pada report adalah nomor record.
+     */
+    FastDataLoader.LoadedData readAll(LoadReport petReport, LoadReport appointmentReport) {
+        long start = System.nanoTime();
+        FastDataLoader.PetBatch pets = new FastDataLoader.PetBatch();
+        FastDataLoader.AppointmentBatch appointments = new FastDataLoader.AppointmentBatch();
+        pets.pets.ensureCapacity(petCount());
+        long end = petFile.header(H_END);
+        long line = 0;
+        for (int rec = 0; rec < end; rec++) {
+            ByteBuffer p = petFile.buf;
+            int at = petAt(rec);
+            if (p.get(at) != LIVE) {
+                continue;
+            }
+            PetRecord r = petRecord(rec);
+            pets.pets.add(new Pet(r.petId, r.name, r.speciesOrBreed, r.age, r.ownerName, r.contactInfo,
+                    r.registrationDate));
+            petReport.recordLine();
+            petReport.recordLoaded();
+            int a = p.getInt(at + P_FIRST);
+            for (; a != NONE; a = appointmentFile.buf.getInt(appointmentAt(a) + A_NEXT)) {
+                appointments.add(r.petId, ++line, appointment(a));
+                appointmentReport.recordLine();
+                appointmentReport.recordLoaded();
+            }
+        }
+        petReport.setBytes(petFile.buf.capacity() + appointmentFile.buf.capacity() + stringFile.header(H_END));
+        long elapsed = System.nanoTime() - start;
+        petReport.setElapsedNanos(elapsed);
+        appointmentReport.setElapsedNanos(elapsed);
+        return new FastDataLoader.LoadedData(pets, appointments);
+    }
+
+    private PetRecord petRecord(int rec) {
+        ByteBuffer p = petFile.buf;
+        int at = petAt(rec);
+        return new PetRecord(p.getInt(at + P_ID), string(p.getInt(at + P_NAME)), string(p.getInt(at + P_SPECIES)),
+                p.getInt(at + P_AGE), string(p.getInt(at + P_OWNER)), string(p.getInt(at + P_CONTACT)),
+                LocalDate.ofEpochDay(p.getInt(at + P_REGISTERED)), p.getInt(at + P_COUNT));
+    }
+
+    private Appointment appointment(int rec) {
+        ByteBuffer b = appointmentFile.buf;
+        int at = appointmentAt(rec);
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(b.getLong(at + A_SECOND), b.getInt(at + A_NANO),
+                ZoneOffset.UTC);
+        Appointment a = new Appointment(string(b.getInt(at + A_TYPE)), dateTime, string(b.getInt(at + A_NOTES)));
+        a.setId(b.getLong(at + A_ID));
+        return a;
+    }
+
+    private abstract static class Records<T> implements Iterator<T> {
+        private final Region region;
+        private final int recordSize;
+        private final long end;
+        private int next = -1;
+
+        Records(Region region, int recordSize) {
+            this.region = region;
+            this.recordSize = recordSize;
+            this.end = region.header(H_END);
+            advance();
+        }
+
+        abstract T read(int rec);
+
+        private void advance() {
+            do {
+                next++;
+            } while (next < end && region.buf.get(HEADER + next * recordSize) != LIVE);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < end;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T item = read(next);
+            advance();
+            return item;
+        }
+    }
+
+    // ========== Write ==========
+
+    // Pet baru (sudah divalidasi); Pet ID yang sudah ada diabaikan
+    void putPet(Pet pet) {
+        if (idGet(petKey(pet.getPetId())) != NONE) {
+            return;
+        }
+        beginWrite();
+        insertPet(pet);
+        written();
+    }
+
+    // Appointment baru milik 'pet'; diabaikan jika pet tidak ada di store atau ID sudah dipakai
+    void putAppointment(Pet pet, Appointment a) {
+        int petRecord = idGet(petKey(pet.getPetId()));
+        if (petRecord == NONE || a.getId() <= 0 || a.getId() >= PET_KEY || idGet(a.getId()) != NONE) {
+            return;
+        }
+        beginWrite();
+        insertAppointment(petRecord, pet.getPetId(), a, a.getId());
+        written();
+    }
+
+    @Override
+    public void appointmentRemoved(Pet pet, Appointment appointment) {
+        int rec = idGet(appointment.getId());
+        if (rec != NONE) {
+            beginWrite();
+            removeAppointment(rec);
+            written();
+        }
+    }
+
+    // Pet beserta semua appointment-nya
+    @Override
+    public void petRemoved(Pet pet) {
+        int rec = idGet(petKey(pet.getPetId()));
+        if (rec == NONE) {
+            return;
+        }
+        beginWrite();
+        int first;
+        while ((first = petFile.buf.getInt(petAt(rec) + P_FIRST)) != NONE) {
+            removeAppointment(first);
+        }
+        int at = petAt(rec);
+        release(petFile.buf.getInt(at + P_NAME));
+        release(petFile.buf.getInt(at + P_CONTACT));
+        idRemove(petKey(pet.getPetId()));
+        free(petFile, PET_RECORD, rec);
+        written();
+    }
+
+    @Override
+    public void appointmentRescheduled(Appointment appointment, LocalDateTime oldDateTime) {
+        int rec = idGet(appointment.getId());
+        if (rec != NONE) {
+            beginWrite();
+            LocalDateTime t = appointment.getDateTime();
+            appointmentFile.buf.putLong(appointmentAt(rec) + A_SECOND, t.toEpochSecond(ZoneOffset.UTC));
+            appointmentFile.buf.putInt(appointmentAt(rec) + A_NANO, t.getNano());
+            written();
+        }
+    }
+
+    @Override
+    public void appointmentTypeChanged(Appointment appointment, String oldType) {
+        int rec = idGet(appointment.getId());
+        if (rec != NONE) {
+            beginWrite();
+            int ref = putString(appointment.getAppointmentType(), true);
+            appointmentFile.buf.putInt(appointmentAt(rec) + A_TYPE, ref);
+            written();
+        }
+    }
+
+    @Override
+    public void appointmentNotesChanged(Appointment appointment, String oldNotes) {
+        int rec = idGet(appointment.getId());
+        if (rec != NONE) {
+            beginWrite();
+            release(appointmentFile.buf.getInt(appointmentAt(rec) + A_NOTES));
+            int ref = putString(appointment.getNotes(), false);
+            appointmentFile.buf.putInt(appointmentAt(rec) + A_NOTES, ref);
+            written();
+        }
+    }
+
+    @Override
+    public void petDetailsChanged(Pet pet, String field, String oldValue) {
+        int rec = idGet(petKey(pet.getPetId()));
+        if (rec == NONE) {
+            return;
+        }
+        beginWrite();
+        int at = petAt(rec);
+        switch (field) {
+            case "name":
+                release(petFile.buf.getInt(at + P_NAME));
+                petFile.buf.putInt(at + P_NAME, putString(pet.getName(), false));
+                break;
+            case "speciesOrBreed":
+                petFile.buf.putInt(at + P_SPECIES, putString(pet.getSpeciesOrBreed(), true));
+                break;
+            case "ownerName":
+                petFile.buf.putInt(at + P_OWNER, putString(pet.getOwnerName(), true));
+                break;
+            case "contactInfo":
+                release(petFile.buf.getInt(at + P_CONTACT));
+                petFile.buf.putInt(at + P_CONTACT, putString(pet.getContactInfo(), false));
+                break;
+            case "age":
+                petFile.buf.putInt(at + P_AGE, pet.getAge());
+                break;
+            default:
+                break;
+        }
+        written();
+    }
+
+    // Isi record ditulis dulu, status LIVE dan entri ID paling akhir
+    private int insertPet(Pet pet) {
+        if (idGet(petKey(pet.getPetId())) != NONE) {
+            return NONE;
+        }
+        int name = putString(pet.getName(), false);
+        int species = putString(pet.getSpeciesOrBreed(), true);
+        int owner = putString(pet.getOwnerName(), true);
+        int contact = putString(pet.getContactInfo(), false);
+        int rec = allocate(petFile, PET_RECORD);
+        ByteBuffer p = petFile.buf;
+        int at = petAt(rec);
+        p.putInt(at + P_ID, pet.getPetId());
+        p.putInt(at + P_AGE, pet.getAge());
+        p.putInt(at + P_REGISTERED, (int) pet.getRegistrationDate().toEpochDay());
+        p.putInt(at + P_COUNT, 0);
+        p.putInt(at + P_FIRST, NONE);
+        p.putInt(at + P_LAST, NONE);
+        p.putInt(at + P_NAME, name);
+        p.putInt(at + P_SPECIES, species);
+        p.putInt(at + P_OWNER, owner);
+        p.putInt(at + P_CONTACT, contact);
+        p.put(at, LIVE);
+        idPut(petKey(pet.getPetId()), rec);
+        return rec;
+    }
+
+    // Ditambahkan di akhir rantai appointment milik pet (urutan booking tetap)
+    private void insertAppointment(int petRecord, int petId, Appointment a, long id) {
+        int type = putString(a.getAppointmentType(), true);
+        int notes = putString(a.getNotes(), false);
+        int rec = allocate(appointmentFile, APPOINTMENT_RECORD);
+        ByteBuffer b = appointmentFile.buf;
+        ByteBuffer p = petFile.buf;
+        int at = appointmentAt(rec);
+        int petAt = petAt(petRecord);
+        int last = p.getInt(petAt + P_LAST);
+        LocalDateTime t = a.getDateTime();
+        b.putInt(at + A_PET, petRecord);
+        b.putLong(at + A_ID, id);
+        b.putLong(at + A_SECOND, t.toEpochSecond(ZoneOffset.UTC));
+        b.putInt(at + A_NANO, t.getNano());
+        b.putInt(at + A_TYPE, type);
+        b.putInt(at + A_NOTES, notes);
+        b.putInt(at + A_PREV, last);
+        b.putInt(at + A_NEXT, NONE);
+        b.putInt(at + A_PET_ID, petId);
+        b.put(at, LIVE);
+        link(petRecord, rec, last);
+        idPut(id, rec);
+        if (id > appointmentFile.header(H_MAX_ID)) {
+            appointmentFile.setHeader(H_MAX_ID, id);
+        }
+    }
+
+    private void link(int petRecord, int rec, int last) {
+        ByteBuffer p = petFile.buf;
+        int petAt = petAt(petRecord);
+        if (last == NONE) {
+            p.putInt(petAt + P_FIRST, rec);
+        } else {
+            appointmentFile.buf.putInt(appointmentAt(last) + A_NEXT, rec);
+        }
+        p.putInt(petAt + P_LAST, rec);
+        p.putInt(petAt + P_COUNT, p.getInt(petAt + P_COUNT) + 1);
+    }
+
+    private void removeAppointment(int rec) {
+        ByteBuffer b = appointmentFile.buf;
+        ByteBuffer p = petFile.buf;
+        int at = appointmentAt(rec);
+        int petAt = petAt(b.getInt(at + A_PET));
+        int prev = b.getInt(at + A_PREV);
+        int next = b.getInt(at + A_NEXT);
+        if (prev == NONE) {
+            p.putInt(petAt + P_FIRST, next);
+        } else {
+            b.putInt(appointmentAt(prev) + A_NEXT, next);
+        }
+        if (next == NONE) {
+            p.putInt(petAt + P_LAST, prev);
+        } else {
+            b.putInt(appointmentAt(next) + A_PREV, prev);
+        }
+        p.putInt(petAt + P_COUNT, p.getInt(petAt + P_COUNT) - 1);
+        release(b.getInt(at + A_NOTES));
+        idRemove(b.getLong(at + A_ID));
+        free(appointmentFile, APPOINTMENT_RECORD, rec);
+    }
+
+    private static int petAt(int rec) {
+        return HEADER + rec * PET_RECORD;
+    }
+
+    private static int appointmentAt(int rec) {
+        return HEADER + rec * APPOINTMENT_RECORD;
+    }
+
+    // Record dari free list, atau record baru di akhir file
+    private static int allocate(Region r, int recordSize) {
+        int rec = (int) r.header(H_FREE);
+        if (rec != NONE) {
+            r.setHeader(H_FREE, r.buf.getInt(HEADER + rec * recordSize + NEXT_FREE));
+        } else {
+            long end = r.header(H_END);
+            r.ensure(HEADER + (end + 1) * recordSize);
+            rec = (int) end;
+            r.setHeader(H_END, end + 1);
+        }
+        r.setHeader(H_LIVE, r.header(H_LIVE) + 1);
+        return rec;
+    }
+
+    private static void free(Region r, int recordSize, int rec) {
+        int at = HEADER + rec * recordSize;
+        r.buf.put(at, (byte) 0);
+        r.buf.putInt(at + NEXT_FREE, (int) r.header(H_FREE));
+        r.setHeader(H_FREE, rec);
+        r.setHeader(H_LIVE, r.header(H_LIVE) - 1);
+    }
+
+    // ========== Strings ==========
+
+    private String string(int ref) {
+        if (ref == NONE) {
+            return null;
+        }
+        ByteBuffer b = stringFile.buf.duplicate();
+        byte[] bytes = new byte[b.getInt(ref)];
+        b.position(ref + 4);
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int putString(String s, boolean share) {
+        if (s == null) {
+            return NONE;
+        }
+        if (share) {
+            Integer ref = shared.get(s);
+            if (ref != null) {
+                return ref;
+            }
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        long ref = stringFile.header(H_END);
+        stringFile.ensure(ref + 4 + bytes.length);
+        ByteBuffer b = stringFile.buf.duplicate();
+        b.putInt((int) ref, bytes.length);
+        b.position((int) ref + 4);
+        b.put(bytes);
+        stringFile.setHeader(H_END, ref + 4 + bytes.length);
+        if (share) {
+            if (shared.size() >= MAX_SHARED_STRINGS) {
+                shared.clear();
+            }
+            shared.put(s, (int) ref);
+        }
+        return (int) ref;
+    }
+
+    // String yang tidak dipakai bersama dan tidak dirujuk lagi; dihitung untuk needsCompaction()
+    private void release(int ref) {
+        if (ref != NONE) {
+            stringFile.setHeader(H_FREE, stringFile.header(H_FREE) + 4 + stringFile.buf.getInt(ref));
+        }
+    }
+
+    private boolean validString(int ref) {
+        if (ref == NONE) {
+            return true;
+        }
+        long capacity = stringFile.buf.capacity();
+        return ref >= HEADER && ref + 4L <= capacity && stringFile.buf.getInt(ref) >= 0
+                && ref + 4L + stringFile.buf.getInt(ref) <= capacity;
+    }
+
+    // ========== ID Index ==========
+
+    private static long petKey(int petId) {
+        return PET_KEY | (petId & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key, int mask) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    private int idGet(long key) {
+        ByteBuffer b = idFile.buf;
+        int mask = (int) idFile.header(H_END) - 1;
+        for (int i = hash(key, mask);; i = (i + 1) & mask) {
+            int at = HEADER + i * ID_SLOT;
+            long k = b.getLong(at);
+            if (k == key) {
+                return b.getInt(at + 8);
+            }
+            if (k == 0) {
+                return NONE;
+            }
+        }
+    }
+
+    private void idPut(long key, int rec) {
+        if ((idFile.header(H_LIVE) + 1) * 2 > idFile.header(H_END)) {
+            growIds();
+        }
+        ByteBuffer b = idFile.buf;
+        int mask = (int) idFile.header(H_END) - 1;
+        for (int i = hash(key, mask);; i = (i + 1) & mask) {
+            int at = HEADER + i * ID_SLOT;
+            long k = b.getLong(at);
+            if (k == 0 || k == key) {
+                b.putLong(at, key);
+                b.putInt(at + 8, rec);
+                if (k == 0) {
+                    idFile.setHeader(H_LIVE, idFile.header(H_LIVE) + 1);
+                }
+                return;
+            }
+        }
+    }
+
+    // Backward-shift deletion: entri sesudahnya digeser agar probing tidak terputus (tanpa tombstone)
+    private void idRemove(long key) {
+        ByteBuffer b = idFile.buf;
+        int mask = (int) idFile.header(H_END) - 1;
+        int i = hash(key, mask);
+        while (b.getLong(HEADER + i * ID_SLOT) != key) {
+            if (b.getLong(HEADER + i * ID_SLOT) == 0) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        for (int j = (i + 1) & mask;; j = (j + 1) & mask) {
+            long k = b.getLong(HEADER + j * ID_SLOT);
+            if (k == 0) {
+                break;
+            }
+            int home = hash(k, mask);
+            boolean stays = i <= j ? i < home && home <= j : i < home || home <= j;
+            if (!stays) {
+                b.putLong(HEADER + i * ID_SLOT, k);
+                b.putInt(HEADER + i * ID_SLOT + 8, b.getInt(HEADER + j * ID_SLOT + 8));
+                i = j;
+            }
+        }
+        b.putLong(HEADER + i * ID_SLOT, 0);
+        idFile.setHeader(H_LIVE, idFile.header(H_LIVE) - 1);
+    }
+
+    private void growIds() {
+        int capacity = (int) idFile.header(H_END);
+        int size = (int) idFile.header(H_LIVE);
+        long[] keys = new long[size];
+        int[] recs = new int[size];
+        int n = 0;
+        ByteBuffer b = idFile.buf;
+        for (int i = 0; i < capacity; i++) {
+            long k = b.getLong(HEADER + i * ID_SLOT);
+            if (k != 0) {
+                keys[n] = k;
+                recs[n++] = b.getInt(HEADER + i * ID_SLOT + 8);
+            }
+        }
+        clearIds(capacity * 2);
+        for (int i = 0; i < n; i++) {
+            idPut(keys[i], recs[i]);
+        }
+    }
+
+    private void clearIds(int capacity) {
+        idFile.ensure(HEADER + (long) capacity * ID_SLOT);
+        ByteBuffer b = idFile.buf;
+        for (int i = 0; i < capacity; i++) {
+            b.putLong(HEADER + i * ID_SLOT, 0);
+        }
+        idFile.setHeader(H_END, capacity);
+        idFile.setHeader(H_LIVE, 0);
+    }
+
+    // ========== Recovery ==========
+
+    /**
+     * Store tidak ditutup bersih: perubahan setelah force() terakhir mungkin hanya sebagian
+     * sampai di disk. Semua record dibaca ulang; record yang tidak utuh (status, ref string,
+     * pet pemilik, ID) dibuang, lalu free list, rantai per pet (urut ID), index ID dan
+     * penghitung dibangun ulang dari record yang tersisa. Penghitung di header tidak dipercaya, jadi
+     * batasnya diambil dari ukuran file.
+     */
+    private void recover() {
+        int dropped = 0;
+        long stringEnd = HEADER;
+        clearIds(MIN_ID_CAPACITY);
+
+        int petEnd = 0;
+        int petSlots = (petFile.buf.capacity() - HEADER) / PET_RECORD;
+        ByteBuffer p = petFile.buf;
+        for (int rec = 0; rec < petSlots; rec++) {
+            int at = petAt(rec);
+            if (p.get(at) != LIVE) {
+                continue;
+            }
+            int id = p.getInt(at + P_ID);
+            if (id > 0 && validString(p.getInt(at + P_NAME)) && validString(p.getInt(at + P_SPECIES))
+                    && validString(p.getInt(at + P_OWNER)) && validString(p.getInt(at + P_CONTACT))
+                    && idGet(petKey(id)) == NONE) {
+                p.putInt(at + P_COUNT, 0);
+                p.putInt(at + P_FIRST, NONE);
+                p.putInt(at + P_LAST, NONE);
+                idPut(petKey(id), rec);
+                for (int field : new int[] { P_NAME, P_SPECIES, P_OWNER, P_CONTACT }) {
+                    stringEnd = Math.max(stringEnd, stringEnd(p.getInt(at + field)));
+                }
+                petEnd = rec + 1;
+            } else {
+                p.put(at, (byte) 0);
+                dropped++;
+            }
+        }
+        rebuildFreeList(petFile, PET_RECORD, petEnd);
+
+        int appointmentEnd = 0;
+        int appointmentSlots = (appointmentFile.buf.capacity() - HEADER) / APPOINTMENT_RECORD;
+        long[] ids = new long[appointmentSlots];
+        int live = 0;
+        ByteBuffer b = appointmentFile.buf;
+        for (int rec = 0; rec < appointmentSlots; rec++) {
+            int at = appointmentAt(rec);
+            if (b.get(at) != LIVE) {
+                continue;
+            }
+            int petRecord = b.getInt(at + A_PET);
+            long id = b.getLong(at + A_ID);
+            boolean owned = petRecord >= 0 && petRecord < petEnd && p.get(petAt(petRecord)) == LIVE
+                    && p.getInt(petAt(petRecord) + P_ID) == b.getInt(at + A_PET_ID);
+            if (owned && id > 0 && id < PET_KEY && validString(b.getInt(at + A_TYPE))
+                    && validString(b.getInt(at + A_NOTES)) && idGet(id) == NONE) {
+                idPut(id, rec);
+                ids[live++] = id;
+                stringEnd = Math.max(stringEnd, stringEnd(b.getInt(at + A_TYPE)));
+                stringEnd = Math.max(stringEnd, stringEnd(b.getInt(at + A_NOTES)));
+                appointmentEnd = rec + 1;
+            } else {
+                b.put(at, (byte) 0);
+                dropped++;
+            }
+        }
+        // Rantai per pet disusun ulang menurut ID (= urutan booking), bukan urutan slot
+        Arrays.sort(ids, 0, live);
+        for (int i = 0; i < live; i++) {
+            int rec = idGet(ids[i]);
+            int at = appointmentAt(rec);
+            int petRecord = b.getInt(at + A_PET);
+            int last = p.getInt(petAt(petRecord) + P_LAST);
+            b.putInt(at + A_PREV, last);
+            b.putInt(at + A_NEXT, NONE);
+            link(petRecord, rec, last);
+        }
+        long maxId = live == 0 ? 0 : ids[live - 1];
+        rebuildFreeList(appointmentFile, APPOINTMENT_RECORD, appointmentEnd);
+        appointmentFile.setHeader(H_MAX_ID, maxId);
+
+        // String baru tidak boleh menimpa string yang masih dirujuk
+        stringFile.setHeader(H_END, Math.max(stringEnd, Math.min(stringFile.header(H_END),
+                stringFile.buf.capacity())));
+        recoveryNote = String.format("Store %s was not closed cleanly; checked %,d pet and %,d appointment "
+                + "record(s), dropped %,d incomplete record(s).", dir, petEnd, appointmentEnd, dropped);
+        force();
+    }
+
+    private long stringEnd(int ref) {
+        return ref == NONE ? HEADER : ref + 4L + stringFile.buf.getInt(ref);
+    }
+
+    private static void rebuildFreeList(Region r, int recordSize, int end) {
+        int free = NONE;
+        int live = 0;
+        for (int rec = end - 1; rec >= 0; rec--) {
+            int at = HEADER + rec * recordSize;
+            if (r.buf.get(at) == LIVE) {
+                live++;
+            } else {
+                r.buf.putInt(at + NEXT_FREE, free);
+                free = rec;
+            }
+        }
+        r.setHeader(H_END, end);
+        r.setHeader(H_LIVE, live);
+        r.setHeader(H_FREE, free);
+    }
+
+    // ========== File ==========
+
+    /**
+     * Satu file store yang di-map seluruhnya. Mapping diperbesar (dan file ikut membesar)
+     * dengan kelipatan dua; buffer lama tetap valid sampai di-GC.
+     */
+    private static final class Region {
+        final Path path;
+        final FileChannel channel;
+        MappedByteBuffer buf;
+
+        private Region(Path path, FileChannel channel, MappedByteBuffer buf) {
+            this.path = path;
+            this.channel = channel;
+            this.buf = buf;
+        }
+
+        static Region create(Path path, int kind, int recordSize, long generation, long bytes) throws IOException {
+            FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                Region r = new Region(path, ch, map(ch, path, bytes));
+                r.buf.putInt(0, MAGIC);
+                r.buf.putShort(4, VERSION);
+                r.buf.putShort(6, (short) kind);
+                r.buf.putInt(8, recordSize);
+                r.setHeader(H_GENERATION, generation);
+                return r;
+            } catch (IOException | RuntimeException e) {
+                ch.close();
+                throw e;
+            }
+        }
+
+        static Region open(Path path, int kind, int recordSize) throws IOException {
+            FileChannel ch = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                if (ch.size() < HEADER) {
+                    throw new IOException(path.getFileName() + " is truncated");
+                }
+                Region r = new Region(path, ch, map(ch, path, ch.size()));
+                if (r.buf.getInt(0) != MAGIC) {
+                    throw new IOException(path.getFileName() + " is not a PetCareScheduler store file");
+                }
+                if (r.buf.getShort(4) != VERSION) {
+                    throw new IOException("Unsupported store version " + r.buf.getShort(4) + " in "
+                            + path.getFileName());
+                }
+                if (r.buf.getShort(6) != kind || r.buf.getInt(8) != recordSize) {
+                    throw new IOException(path.getFileName() + " has an unexpected record layout");
+                }
+                return r;
+            } catch (IOException | RuntimeException e) {
+                ch.close();
+                throw e;
+            }
+        }
+
+        private static MappedByteBuffer map(FileChannel ch, Path path, long bytes) throws IOException {
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IOException(path.getFileName() + " would exceed 2 GB");
+            }
+            return ch.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(HEADER, bytes));
+        }
+
+        void ensure(long bytes) {
+            if (bytes > buf.capacity()) {
+                try {
+                    buf = map(channel, path, Math.min(Integer.MAX_VALUE, Math.max(bytes, 2L * buf.capacity())));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        long header(int offset) {
+            return buf.getLong(offset);
+        }
+
+        void setHeader(int offset, long value) {
+            buf.putLong(offset, value);
+        }
+
+        int headerCrc() {
+            ByteBuffer h = buf.duplicate();
+            h.position(0);
+            h.limit(H_CRC);
+            CRC32 crc = new CRC32();
+            crc.update(h);
+            return (int) crc.getValue();
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // mapping tetap valid; tidak ada yang perlu dibereskan
+            }
+        }
+    }
+}
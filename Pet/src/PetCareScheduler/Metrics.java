@@ -0,0 +1,388 @@
+package PetCareScheduler;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Metrik runtime: timer per operasi (jumlah, total waktu, maksimum, histogram latensi),
+ * gauge jumlah pet/appointment, dan jumlah baris rusak per file pada load terakhir.
+ *
+ * Timer memakai LongAdder sehingga thread yang mencatat bersamaan tidak berebut satu
+ * cache line. Histogram log-linear: 8 bucket per pangkat dua, jadi persentil yang
+ * dilaporkan paling banyak ~12.5% di atas nilai sebenarnya.
+ *
+ * Operasi yang sangat cepat (lookup, puluhan nanodetik) selalu dihitung tetapi hanya
+ * 1 dari 64 yang diukur waktunya; dua nanoTime per panggilan lebih mahal dari lookup-nya.
+ *
+ * Didaftarkan sebagai platform MBean "PetCareScheduler:type=Metrics" (lihat dengan
+ * jconsole / VisualVM / jcmd) dan bisa dicetak lewat menu Reports. Matikan seluruhnya
+ * dengan -Dpetcare.metrics=false; start() dan record() lalu tidak memanggil nanoTime.
+ */
+final class Metrics {
+
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("petcare.metrics"));
+    static final String OBJECT_NAME = "PetCareScheduler:type=Metrics";
+
+    private static final Map<String, Timer> timers = new LinkedHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, Long> parseErrors = new ConcurrentHashMap<>();
+
+    static final Timer REGISTER = timer("register", 0);
+    static final Timer SCHEDULE = timer("schedule", 0);
+    static final Timer CANCEL = timer("cancel", 0);
+    static final Timer LOOKUP = timer("lookup", 6);
+    static final Timer SEARCH = timer("search", 0);
+    static final Timer QUERY = timer("query", 0);
+    static final Timer REPORT_UPCOMING = timer("report.upcoming", 0);
+    static final Timer REPORT_OVERDUE = timer("report.overdue", 0);
+    static final Timer REPORT_EXPORT = timer("report.export", 0);
+    static final Timer REPORT_AGGREGATE = timer("report.aggregate", 0);
+    static final Timer LOAD = timer("load", 0);
+    static final Timer SAVE = timer("save", 0);
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new MBean(), new ObjectName(OBJECT_NAME));
+            } catch (JMException | RuntimeException e) {
+                // Tanpa JMX (atau sudah terdaftar oleh classloader lain) metrik tetap bisa dicetak dari menu
+                System.out.println("Metrics: JMX registration skipped (" + e.getMessage() + ")");
+            }
+        }
+    }
+
+    private Metrics() {
+    }
+
+    private static Timer timer(String name, int sampleBits) {
+        Timer t = new Timer(name, sampleBits);
+        timers.put(name, t);
+        return t;
+    }
+
+    /**
+     * Mendaftarkan gauge; nama yang sama menggantikan pemasok sebelumnya
+     * (misalnya ApiServer dan LoadDriver menggantikan data menu dengan SchedulerService).
+     */
+    static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    // Jumlah baris rusak pada load terakhir file 'file' (pets, appointments)
+    static void parseErrors(String file, long errors) {
+        parseErrors.put(file.toLowerCase(), errors);
+    }
+
+    static void parseErrors(LoadReport report) {
+        parseErrors(report.getLabel(), report.getErrors());
+    }
+
+    static Timer get(String name) {
+        return timers.get(name);
+    }
+
+    static void reset() {
+        for (Timer t : timers.values()) {
+            t.reset();
+        }
+    }
+
+    // ========== Timer ==========
+
+    /**
+     * Statistik latensi satu operasi. Semua method aman dipanggil dari banyak thread.
+     */
+    static final class Timer {
+        private static final int SUB_BITS = 3;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_COUNT;
+        private static final long NOT_TIMED = Long.MIN_VALUE;
+
+        private final String name;
+        private final int sampleMask; // 0: setiap operasi diukur waktunya
+        private final LongAdder count = new LongAdder();
+        private final LongAdder timedCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        private Timer(String name, int sampleBits) {
+            this.name = name;
+            this.sampleMask = (1 << sampleBits) - 1;
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        String getName() {
+            return name;
+        }
+
+        // Waktu mulai untuk record(); operasi yang tidak disampel hanya dihitung di sini
+        long start() {
+            if (!ENABLED) {
+                return NOT_TIMED;
+            }
+            if (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+                count.increment();
+                return NOT_TIMED;
+            }
+            return System.nanoTime();
+        }
+
+        // Mencatat satu operasi yang dimulai pada 'startNanos' (dari start())
+        void record(long startNanos) {
+            if (startNanos != NOT_TIMED) {
+                recordNanos(System.nanoTime() - startNanos);
+            }
+        }
+
+        // Seperti record(), tanpa 'excludedNanos' (misalnya waktu menunggu input pengguna)
+        void record(long startNanos, long excludedNanos) {
+            if (startNanos != NOT_TIMED) {
+                recordNanos(System.nanoTime() - startNanos - excludedNanos);
+            }
+        }
+
+        void recordNanos(long nanos) {
+            long v = Math.max(0, nanos);
+            count.increment();
+            timedCount.increment();
+            totalNanos.add(v);
+            maxNanos.accumulate(v);
+            buckets[bucketOf(v)].increment();
+        }
+
+        // Nilai < 8 punya bucket sendiri; di atasnya 8 bucket per pangkat dua
+        static int bucketOf(long v) {
+            if (v < SUB_COUNT) {
+                return (int) v;
+            }
+            int exp = 63 - Long.numberOfLeadingZeros(v);
+            int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+            return (exp - SUB_BITS + 1) * SUB_COUNT + sub;
+        }
+
+        // Nilai terbesar yang masuk bucket 'index'
+        static long bucketUpperBound(int index) {
+            if (index < SUB_COUNT) {
+                return index;
+            }
+            int exp = index / SUB_COUNT + SUB_BITS - 1;
+            long sub = index % SUB_COUNT;
+            long lower = (SUB_COUNT + sub) << (exp - SUB_BITS);
+            return lower + (1L << (exp - SUB_BITS)) - 1;
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        double getMeanNanos() {
+            long n = timedCount.sum();
+            return n == 0 ? 0 : (double) totalNanos.sum() / n;
+        }
+
+        long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Persentil (0-100) dalam nanodetik, dibulatkan ke atas ke batas bucket dan
+         * tidak melebihi maksimum yang tercatat. Dibaca tanpa lock, jadi selama operasi
+         * masih berjalan hasilnya perkiraan.
+         */
+        long percentileNanos(double p) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(p / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+
+        void reset() {
+            count.reset();
+            timedCount.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            for (LongAdder b : buckets) {
+                b.reset();
+            }
+        }
+    }
+
+    // ========== Dump ==========
+
+    static String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-18s %10s %10s %10s %10s %10s %10s%n", "operation", "count", "mean us", "p50 us",
+                "p90 us", "p99 us", "max us"));
+        for (Timer t : timers.values()) {
+            sb.append(String.format("%-18s %,10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", t.getName(), t.getCount(),
+                    t.getMeanNanos() / 1e3, t.percentileNanos(50) / 1e3, t.percentileNanos(90) / 1e3,
+                    t.percentileNanos(99) / 1e3, t.getMaxNanos() / 1e3));
+        }
+        Map<String, Long> values = gaugeValues();
+        sb.append("Gauges:");
+        for (Map.Entry<String, Long> e : values.entrySet()) {
+            sb.append(' ').append(e.getKey()).append('=').append(e.getValue());
+        }
+        if (values.isEmpty()) {
+            sb.append(" (none)");
+        }
+        if (!ENABLED) {
+            sb.append(String.format("%n(timers disabled by -Dpetcare.metrics=false)"));
+        }
+        return sb.toString();
+    }
+
+    // Gauge dan parse error dengan urutan stabil: gauge terdaftar lalu parseErrors.<file>
+    private static Map<String, Long> gaugeValues() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (String name : new String[] { "pets", "appointments" }) {
+            LongSupplier g = gauges.get(name);
+            if (g != null) {
+                values.put(name, g.getAsLong());
+            }
+        }
+        for (Map.Entry<String, LongSupplier> e : gauges.entrySet()) {
+            values.putIfAbsent(e.getKey(), e.getValue().getAsLong());
+        }
+        for (Map.Entry<String, Long> e : parseErrors.entrySet()) {
+            values.put("parseErrors." + e.getKey(), e.getValue());
+        }
+        return values;
+    }
+
+    // ========== JMX ==========
+
+    /**
+     * Atribut read-only "&lt;operasi&gt;.count|meanMicros|p50Micros|p90Micros|p99Micros|maxMicros",
+     * gauge, "parseErrors.&lt;file&gt;", dan operasi reset() / dump().
+     * Daftar atribut dibangun ulang setiap getMBeanInfo karena gauge bisa bertambah.
+     */
+    private static final class MBean implements DynamicMBean {
+        private static final String[] STATS = { "count", "meanMicros", "p50Micros", "p90Micros", "p99Micros",
+                "maxMicros" };
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Long gauge = gaugeValues().get(attribute);
+            if (gauge != null) {
+                return gauge;
+            }
+            int dot = attribute.lastIndexOf('.');
+            Timer t = dot < 0 ? null : timers.get(attribute.substring(0, dot));
+            if (t != null) {
+                switch (attribute.substring(dot + 1)) {
+                    case "count":
+                        return t.getCount();
+                    case "meanMicros":
+                        return t.getMeanNanos() / 1e3;
+                    case "p50Micros":
+                        return t.percentileNanos(50) / 1e3;
+                    case "p90Micros":
+                        return t.percentileNanos(90) / 1e3;
+                    case "p99Micros":
+                        return t.percentileNanos(99) / 1e3;
+                    case "maxMicros":
+                        return t.getMaxNanos() / 1e3;
+                    default:
+                        break;
+                }
+            }
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String name : attributes) {
+                try {
+                    list.add(new Attribute(name, getAttribute(name)));
+                } catch (AttributeNotFoundException e) {
+                    // Atribut yang tidak dikenal dilewati, sesuai kontrak getAttributes
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            switch (actionName) {
+                case "reset":
+                    reset();
+                    return null;
+                case "dump":
+                    return dump();
+                default:
+                    throw new ReflectionException(new NoSuchMethodException(actionName));
+            }
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (String name : gaugeValues().keySet()) {
+                attributes.add(new MBeanAttributeInfo(name, "long", "Gauge " + name, true, false, false));
+            }
+            for (Timer t : timers.values()) {
+                for (String stat : STATS) {
+                    attributes.add(new MBeanAttributeInfo(t.getName() + "." + stat,
+                            stat.equals("count") ? "long" : "double", stat + " of " + t.getName(), true, false,
+                            false));
+                }
+            }
+            MBeanOperationInfo[] operations = {
+                    new MBeanOperationInfo("reset", "Reset all timers", new MBeanParameterInfo[0], "void",
+                            MBeanOperationInfo.ACTION),
+                    new MBeanOperationInfo("dump", "All metrics as a text table", new MBeanParameterInfo[0],
+                            "java.lang.String", MBeanOperationInfo.INFO) };
+            return new MBeanInfo(Metrics.class.getName(), "Pet Care Scheduler runtime metrics",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, operations, null);
+        }
+    }
+}
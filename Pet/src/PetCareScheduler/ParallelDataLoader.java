@@ -0,0 +1,183 @@
+package PetCareScheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Mode load paralel untuk file data besar.
+ * Setiap file dipecah menjadi rentang byte yang selalu berakhir di '\n',
+ * tiap rentang di-map (memory-mapped) dan di-parse oleh FastDataLoader.LineParser
+ * di ForkJoinPool, lalu hasilnya digabung sesuai urutan file.
+ * Nomor baris pada error dihitung ulang saat penggabungan sehingga tetap
+ * sama dengan nomor baris di file.
+ */
+public class ParallelDataLoader {
+
+    // Ukuran target per chunk; dibatasi agar satu chunk selalu muat dalam satu mapping
+    private static final long DEFAULT_CHUNK_SIZE = 8L << 20;
+    private static final long MAX_CHUNK_SIZE = 256L << 20;
+    private static final byte NL = '\n';
+
+    private ParallelDataLoader() {
+    }
+
+    /**
+     * Mem-parse pets dan appointments bersamaan di pool yang sama.
+     * File yang tidak ada dilewati (batch kosong). Appointment belum ditautkan ke pet;
+     * penautan dilakukan pemanggil setelah semua pet terpasang.
+     */
+    static FastDataLoader.LoadedData load(Path petFile, LoadReport petReport, Path appointmentFile, LoadReport appointmentReport,
+            ForkJoinPool pool) throws IOException {
+        long start = System.nanoTime();
+
+        List<ChunkTask> petTasks = tasks(petFile, FastDataLoader.PetParser::new, pool.getParallelism());
+        List<ChunkTask> appointmentTasks = tasks(appointmentFile, FastDataLoader.AppointmentParser::new,
+                pool.getParallelism());
+
+        List<ChunkTask> all = new ArrayList<>(petTasks);
+        all.addAll(appointmentTasks);
+        try {
+            pool.submit(() -> ForkJoinTask.invokeAll(all)).join();
+        } catch (RuntimeException e) {
+            // ForkJoinTask.join dapat membungkus ulang exception; cari IOException aslinya
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof IOException) {
+                    throw (IOException) t;
+                }
+            }
+            throw e;
+        }
+
+        // Penggabungan deterministik: urutan chunk = urutan di file
+        FastDataLoader.PetBatch pets = new FastDataLoader.PetBatch();
+        long lineOffset = 0;
+        for (ChunkTask t : petTasks) {
+            FastDataLoader.PetParser parser = (FastDataLoader.PetParser) t.join();
+            pets.pets.addAll(parser.out.pets);
+            petReport.merge(parser.report, lineOffset);
+            lineOffset += parser.lineNumber;
+        }
+
+        FastDataLoader.AppointmentBatch appointments = new FastDataLoader.AppointmentBatch();
+        lineOffset = 0;
+        for (ChunkTask t : appointmentTasks) {
+            FastDataLoader.AppointmentParser parser = (FastDataLoader.AppointmentParser) t.join();
+            appointments.append(parser.out, lineOffset);
+            appointmentReport.merge(parser.report, lineOffset);
+            lineOffset += parser.lineNumber;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        petReport.setElapsedNanos(elapsed);
+        appointmentReport.setElapsedNanos(elapsed);
+        return new FastDataLoader.LoadedData(pets, appointments);
+    }
+
+    // Membuat satu task per rentang baris dari file (kosong jika file tidak ada)
+    private static List<ChunkTask> tasks(Path file, ParserFactory factory, int parallelism) throws IOException {
+        List<ChunkTask> tasks = new ArrayList<>();
+        if (file == null || !file.toFile().exists()) {
+            return tasks;
+        }
+        long[] bounds = splitAtLines(file, parallelism);
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            tasks.add(new ChunkTask(file, bounds[i], bounds[i + 1], factory));
+        }
+        return tasks;
+    }
+
+    /**
+     * Menghitung batas chunk: [0, b1, b2, ..., size], setiap batas tepat setelah '\n'.
+     */
+    static long[] splitAtLines(Path file, int parallelism) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            // Minimal satu chunk per core, tapi tidak lebih kecil dari DEFAULT_CHUNK_SIZE / 8
+            long chunk = Math.max(DEFAULT_CHUNK_SIZE / 8, Math.min(DEFAULT_CHUNK_SIZE, size / parallelism + 1));
+            List<Long> bounds = new ArrayList<>();
+            bounds.add(0L);
+            ByteBuffer probe = ByteBuffer.allocate(4096);
+            long pos = 0;
+            while (size - pos > chunk) {
+                long next = nextLineStart(ch, pos + chunk, size, probe);
+                if (next - pos > MAX_CHUNK_SIZE) {
+                    throw new IOException("Line longer than " + MAX_CHUNK_SIZE + " bytes near offset " + pos);
+                }
+                if (next >= size) {
+                    break;
+                }
+                bounds.add(next);
+                pos = next;
+            }
+            bounds.add(size);
+            long[] result = new long[bounds.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = bounds.get(i);
+            }
+            return result;
+        }
+    }
+
+    // Posisi byte pertama setelah '\n' berikutnya yang berada di atau setelah 'from'
+    private static long nextLineStart(FileChannel ch, long from, long size, ByteBuffer probe) throws IOException {
+        long pos = from;
+        while (pos < size) {
+            probe.clear();
+            int n = ch.read(probe, pos);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == NL) {
+                    return pos + i + 1;
+                }
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    interface ParserFactory {
+        FastDataLoader.LineParser create(LoadReport report);
+    }
+
+    // Mem-parse satu rentang file; nomor baris di report bersifat lokal terhadap chunk
+    private static final class ChunkTask extends RecursiveTask<FastDataLoader.LineParser> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path file;
+        private final long start;
+        private final long end;
+        private final ParserFactory factory;
+
+        ChunkTask(Path file, long start, long end, ParserFactory factory) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+            this.factory = factory;
+        }
+
+        @Override
+        protected FastDataLoader.LineParser compute() {
+            FastDataLoader.LineParser parser = factory.create(new LoadReport("chunk"));
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                parser.parseLines(buf, 0, buf.limit(), true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            parser.report.setBytes(end - start);
+            return parser;
+        }
+    }
+}
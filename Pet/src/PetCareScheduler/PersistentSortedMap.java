@@ -0,0 +1,185 @@
+package PetCareScheduler;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Map terurut yang immutable: treap dengan path copying. put() dan remove() mengembalikan map
+ * baru dalam O(log n) dengan menyalin hanya node di jalur menuju key tersebut; node lainnya
+ * dipakai bersama, jadi map lama tetap utuh untuk reader yang masih memegangnya.
+ * Prioritas node acak, sehingga tinggi pohon O(log n) apa pun urutan key yang dimasukkan.
+ */
+final class PersistentSortedMap<K extends Comparable<? super K>, V> {
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final int priority;
+        final Node<K, V> left;
+        final Node<K, V> right;
+        final int size;
+
+        Node(K key, V value, int priority, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + sizeOf(left) + sizeOf(right);
+        }
+    }
+
+    private static final PersistentSortedMap<?, ?> EMPTY = new PersistentSortedMap<>(null);
+
+    private final Node<K, V> root;
+
+    private PersistentSortedMap(Node<K, V> root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K extends Comparable<? super K>, V> PersistentSortedMap<K, V> empty() {
+        return (PersistentSortedMap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return sizeOf(root);
+    }
+
+    V get(K key) {
+        Node<K, V> n = root;
+        while (n != null) {
+            int c = key.compareTo(n.key);
+            if (c == 0) {
+                return n.value;
+            }
+            n = c < 0 ? n.left : n.right;
+        }
+        return null;
+    }
+
+    // Value ke-'index' dalam urutan key (0-based)
+    V valueAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size());
+        }
+        Node<K, V> n = root;
+        while (true) {
+            int leftSize = sizeOf(n.left);
+            if (index < leftSize) {
+                n = n.left;
+            } else if (index == leftSize) {
+                return n.value;
+            } else {
+                index -= leftSize + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    // Map baru dengan 'key' -> 'value'; value lama untuk key yang sama diganti
+    PersistentSortedMap<K, V> put(K key, V value) {
+        return new PersistentSortedMap<>(put(root, key, value, ThreadLocalRandom.current().nextInt()));
+    }
+
+    // Map baru tanpa 'key'; map ini sendiri jika key tidak ada
+    PersistentSortedMap<K, V> remove(K key) {
+        Node<K, V> n = remove(root, key);
+        return n == root ? this : new PersistentSortedMap<>(n);
+    }
+
+    Iterator<V> values() {
+        return valuesAfter(null);
+    }
+
+    // Value dengan key > 'from' (semua jika null), urut key
+    Iterator<V> valuesAfter(K from) {
+        ArrayDeque<Node<K, V>> stack = new ArrayDeque<>();
+        for (Node<K, V> n = root; n != null;) {
+            if (from == null || n.key.compareTo(from) > 0) {
+                stack.push(n);
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+        return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public V next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<K, V> n = stack.pop();
+                for (Node<K, V> m = n.right; m != null; m = m.left) {
+                    stack.push(m);
+                }
+                return n.value;
+            }
+        };
+    }
+
+    private static int sizeOf(Node<?, ?> n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> put(Node<K, V> n, K key, V value, int priority) {
+        if (n == null) {
+            return new Node<>(key, value, priority, null, null);
+        }
+        int c = key.compareTo(n.key);
+        if (c == 0) {
+            return new Node<>(key, value, n.priority, n.left, n.right);
+        }
+        if (c < 0) {
+            Node<K, V> l = put(n.left, key, value, priority);
+            if (l.priority > n.priority) { // rotasi kanan: node baru naik
+                return new Node<>(l.key, l.value, l.priority, l.left,
+                        new Node<>(n.key, n.value, n.priority, l.right, n.right));
+            }
+            return new Node<>(n.key, n.value, n.priority, l, n.right);
+        }
+        Node<K, V> r = put(n.right, key, value, priority);
+        if (r.priority > n.priority) { // rotasi kiri
+            return new Node<>(r.key, r.value, r.priority,
+                    new Node<>(n.key, n.value, n.priority, n.left, r.left), r.right);
+        }
+        return new Node<>(n.key, n.value, n.priority, n.left, r);
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> remove(Node<K, V> n, K key) {
+        if (n == null) {
+            return null;
+        }
+        int c = key.compareTo(n.key);
+        if (c == 0) {
+            return merge(n.left, n.right);
+        }
+        if (c < 0) {
+            Node<K, V> l = remove(n.left, key);
+            return l == n.left ? n : new Node<>(n.key, n.value, n.priority, l, n.right);
+        }
+        Node<K, V> r = remove(n.right, key);
+        return r == n.right ? n : new Node<>(n.key, n.value, n.priority, n.left, r);
+    }
+
+    // Semua key di 'a' lebih kecil dari semua key di 'b'
+    private static <K, V> Node<K, V> merge(Node<K, V> a, Node<K, V> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            return new Node<>(a.key, a.value, a.priority, a.left, merge(a.right, b));
+        }
+        return new Node<>(b.key, b.value, b.priority, merge(a, b.left), b.right);
+    }
+}
@@ -1,6 +1,7 @@
 package PetCareScheduler;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections; // Digunakan untuk membuat daftar yang tidak dapat diubah
 import java.util.List; // Digunakan untuk encapsulation yang lebih baik
@@ -19,17 +20,25 @@ public class Pet {
     // immutable (read-only)
     private final LocalDate registrationDate;
     private final ArrayList<Appointment> appointments; // List of appointments
+    private LocalDateTime lastVetVisit; // Waktu vet visit terbaru, null jika belum ada
+    private int slot = -1; // posisi di RecordTable global, dikelola oleh RecordTable
 
     // Constructor
     public Pet(int petId, String name, String speciesOrBreed, int age,
             String ownerName, String contactInfo) {
+        this(petId, name, speciesOrBreed, age, ownerName, contactInfo, LocalDate.now());
+    }
+
+    // Constructor untuk data yang dimuat dari file (tanggal registrasi asli dipertahankan)
+    public Pet(int petId, String name, String speciesOrBreed, int age,
+            String ownerName, String contactInfo, LocalDate registrationDate) {
         this.petId = petId;
         this.name = name;
         this.speciesOrBreed = speciesOrBreed;
         this.age = age;
         this.ownerName = ownerName;
         this.contactInfo = contactInfo;
-        this.registrationDate = LocalDate.now();
+        this.registrationDate = registrationDate;
         this.appointments = new ArrayList<>(); // initialize list
     }
 
@@ -62,6 +71,15 @@ public class Pet {
         return registrationDate;
     }
 
+    /**
+     * Waktu janji temu "vet" yang paling akhir (termasuk yang terjadwal ke depan),
+     * atau null jika pet ini belum memiliki janji temu vet.
+     * Diperbarui secara incremental, bukan dihitung ulang setiap kali dibaca.
+     */
+    public LocalDateTime getLastVetVisit() {
+        return lastVetVisit;
+    }
+
     /**
      * Mengembalikan tampilan daftar janji temu yang tidak dapat diubah
      * (unmodifiable list)
@@ -74,44 +92,139 @@ public class Pet {
 
     // Setters
     public void setName(String name) {
+        String old = this.name;
         this.name = name;
+        DataVersion.bump();
+        SchedulerEvents.petDetailsChanged(this, "name", old);
     }
 
     public void setSpeciesOrBreed(String speciesOrBreed) {
+        String old = this.speciesOrBreed;
         this.speciesOrBreed = speciesOrBreed;
+        DataVersion.bump();
+        SchedulerEvents.petDetailsChanged(this, "speciesOrBreed", old);
     }
 
     public void setAge(int age) {
+        int old = this.age;
         this.age = age;
+        DataVersion.bump();
+        SchedulerEvents.petDetailsChanged(this, "age", String.valueOf(old));
     }
 
     public void setOwnerName(String ownerName) {
+        String old = this.ownerName;
         this.ownerName = ownerName;
+        DataVersion.bump();
+        SchedulerEvents.petDetailsChanged(this, "ownerName", old);
     }
 
     public void setContactInfo(String contactInfo) {
+        String old = this.contactInfo;
         this.contactInfo = contactInfo;
+        DataVersion.bump();
+        SchedulerEvents.petDetailsChanged(this, "contactInfo", old);
     }
 
     // Add an appointment
     public void addAppointment(Appointment appointment) {
         this.appointments.add(appointment);
+        DataVersion.bump();
+        appointment.setPet(this);
+        if (appointment.isVetVisit()
+                && (lastVetVisit == null || appointment.getDateTime().isAfter(lastVetVisit))) {
+            updateLastVetVisit(appointment.getDateTime());
+        }
     }
 
-    // Method untuk menghapus janji temu (untuk kelengkapan)
+    /**
+     * Melepas janji temu dari pet ini. Dicari berdasarkan identitas objek, bukan equals():
+     * dua janji temu dengan tipe dan waktu yang sama tetap dua record berbeda. Biayanya
+     * sebanding dengan jumlah janji temu pet ini saja.
+     */
     public boolean removeAppointment(Appointment appointment) {
-        return this.appointments.remove(appointment);
+        boolean removed = false;
+        for (int i = appointments.size() - 1; i >= 0; i--) {
+            if (appointments.get(i) == appointment) {
+                appointments.remove(i);
+                removed = true;
+                break;
+            }
+        }
+        if (removed && appointment.getPet() == this) {
+            appointment.setPet(null);
+        }
+        // Hanya perlu hitung ulang jika yang dihapus adalah vet visit terbaru
+        if (removed && appointment.isVetVisit() && appointment.getDateTime().equals(lastVetVisit)) {
+            updateLastVetVisit(computeLastVetVisit());
+        }
+        if (removed) {
+            DataVersion.bump();
+            SchedulerEvents.appointmentRemoved(this, appointment);
+        }
+        return removed;
+    }
+
+    int slot() {
+        return slot;
+    }
+
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    // Dipanggil oleh Appointment ketika tipe atau waktu janji temu milik pet ini berubah
+    void appointmentChanged(Appointment appointment) {
+        if (appointment.isVetVisit()
+                && (lastVetVisit == null || appointment.getDateTime().isAfter(lastVetVisit))) {
+            updateLastVetVisit(appointment.getDateTime());
+        } else {
+            // Janji temu ini mungkin sebelumnya adalah vet visit terbaru
+            updateLastVetVisit(computeLastVetVisit());
+        }
+    }
+
+    private LocalDateTime computeLastVetVisit() {
+        LocalDateTime latest = null;
+        for (Appointment a : appointments) {
+            if (a.isVetVisit() && (latest == null || a.getDateTime().isAfter(latest))) {
+                latest = a.getDateTime();
+            }
+        }
+        return latest;
+    }
+
+    private void updateLastVetVisit(LocalDateTime newLastVetVisit) {
+        LocalDateTime old = this.lastVetVisit;
+        if (old == null ? newLastVetVisit == null : old.equals(newLastVetVisit)) {
+            return;
+        }
+        this.lastVetVisit = newLastVetVisit;
+        SchedulerEvents.lastVetVisitChanged(this, old);
     }
 
     @Override
     public String toString() {
-        return "Pet ID: " + petId +
-                "\nName: " + name +
-                "\nSpecies/Breed: " + speciesOrBreed +
-                "\nAge: " + age +
-                "\nOwner: " + ownerName +
-                "\nContact: " + contactInfo +
-                "\nRegistered: " + registrationDate +
-                "\nTotal Appointments: " + appointments.size();
+        StringBuilder sb = new StringBuilder(160);
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    // Menulis bentuk tampilan ke 'sb' tanpa String perantara (dipakai toString dan Renderer)
+    void appendTo(StringBuilder sb) {
+        appendTo(sb, petId, name, speciesOrBreed, age, ownerName, contactInfo, registrationDate, appointments.size());
+    }
+
+    // Format yang sama untuk pet yang dibaca langsung dari MappedStore
+    static void appendTo(StringBuilder sb, int petId, String name, String speciesOrBreed, int age, String ownerName,
+            String contactInfo, LocalDate registrationDate, int appointmentCount) {
+        sb.append("Pet ID: ").append(petId)
+                .append("\nName: ").append(name)
+                .append("\nSpecies/Breed: ").append(speciesOrBreed)
+                .append("\nAge: ").append(age)
+                .append("\nOwner: ").append(ownerName)
+                .append("\nContact: ").append(contactInfo)
+                .append("\nRegistered: ").append(registrationDate)
+                .append("\nTotal Appointments: ").append(appointmentCount);
     }
 }
\ No newline at end of file
@@ -1,28 +1,159 @@
 package PetCareScheduler;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
 
 public class PetCareScheduler {
 
-    private static ArrayList<Pet> pets = new ArrayList<>();
-    private static ArrayList<Appointment> appointments = new ArrayList<>();
+    // Remove hanya meninggalkan tombstone; tombstone dibersihkan oleh thread autosave (persist)
+    private static final RecordTable<Pet> pets = new RecordTable<>(Pet::slot, Pet::setSlot);
+    private static final RecordTable<Appointment> appointments = new RecordTable<>(Appointment::slot,
+            Appointment::setSlot);
+    // Index Pet ID -> Pet, harus selalu sinkron dengan list 'pets'
+    private static PetIndex petIndex = new PetIndex();
+    // Index Appointment ID -> Appointment untuk cancel/reschedule
+    private static final AppointmentIdIndex appointmentIds = new AppointmentIdIndex();
+    // ID berikutnya; selalu lebih besar dari semua ID yang pernah dimuat atau diberikan
+    private static long nextAppointmentId = 1;
+    // Index terurut waktu atas 'appointments' untuk query upcoming/past/7 hari
+    private static AppointmentTimeIndex timeIndex = new AppointmentTimeIndex();
+    // Pet terurut berdasarkan vet visit terakhir untuk report overdue
+    private static VetVisitIndex vetVisitIndex = new VetVisitIndex();
+    // Jumlah booking per slot 15 menit per tipe, untuk cek bentrok jadwal
+    private static SlotIndex slotIndex = new SlotIndex();
+    // Aturan janji temu berulang; kejadiannya dihitung per query, tidak disimpan di 'appointments'
+    private static final Recurrences recurrences = new Recurrences();
+    // Index teks untuk menu Search; dibangun saat pencarian pertama
+    private static final SearchIndex searchIndex = new SearchIndex(p -> petIndex.get(p.getPetId()) == p);
+    // Partisi appointment per tipe (urut waktu) untuk menu Query; dibangun saat query pertama yang memakai type=
+    private static final AppointmentTypeIndex typeIndex = new AppointmentTypeIndex();
+    // Planner + eksekusi query gabungan atas index di atas
+    private static final QueryEngine queryEngine = new QueryEngine(appointments, pets::size, petIndex,
+            appointmentIds, timeIndex, typeIndex, searchIndex);
 
     private static final String PET_FILE = "pets.txt";
     private static final String APPOINTMENT_FILE = "appointments.txt";
+    private static final String JOURNAL_FILE = "journal.log";
+    private static final String SNAPSHOT_FILE = "petcare.snap";
+    private static final String MANIFEST_FILE = "petcare.manifest";
+    private static final String EXPORT_FILE = "petcare-export.txt";
+    private static final String RECURRENCE_FILE = "recurrences.txt";
+
+    // Batas ke depan untuk kejadian berulang pada query yang tidak punya batas akhir (upcoming, per pet),
+    // dan untuk kejadian aturan baru yang dicek bentrok dengan aturan lain
+    private static final int RECURRENCE_HORIZON_DAYS = Integer.getInteger("petcare.recurrence.horizonDays", 365);
+
+    // -Dpetcare.format=binary menyimpan snapshot di petcare.snap, bukan file teks
+    private static final boolean BINARY_SNAPSHOT = "binary".equalsIgnoreCase(System.getProperty("petcare.format"));
+
+    // -Dpetcare.store=mapped: pet dan appointment disimpan sebagai record berukuran tetap di memory-mapped
+    // file (MappedStore, direktori -Dpetcare.store.dir); startup hanya membuka store, tanpa parse
+    private static final boolean MAPPED_STORE = "mapped".equalsIgnoreCase(System.getProperty("petcare.store"));
+    private static final Path STORE_DIR = Paths.get(System.getProperty("petcare.store.dir", "petcare-store"));
+    // Store yang sedang terbuka (null jika bukan mode mapped); diganti saat store ditulis ulang
+    private static volatile MappedStore store;
+    // Terbuka setelah semua data ada di memori; mode mapped mengisinya di background setelah menu muncul
+    private static final CountDownLatch loaded = new CountDownLatch(1);
+
+    // Snapshot yang berlaku (generation + format); dibaca di loadAll(), diganti setiap compaction
+    private static SnapshotManifest manifest;
+    // Perubahan sejak snapshot terakhir; save (autosave atau option 9) hanya meng-append journal ini
+    private static Journal journal = BINARY_SNAPSHOT
+            ? new Journal(Paths.get(JOURNAL_FILE), Paths.get(SNAPSHOT_FILE))
+            : new Journal(Paths.get(JOURNAL_FILE), Paths.get(PET_FILE), Paths.get(APPOINTMENT_FILE));
+
+    // Hasil report upcoming/overdue per time bucket; dibuang otomatis saat DataVersion berubah
+    private static final ReportCache reportCache = ReportCache.fromSystemProperties();
+    // Lebar time bucket report cache; report dalam bucket yang sama memakai hasil yang sama
+    private static final long REPORT_BUCKET_SECONDS =
+            Math.max(1, Long.getLong("petcare.reportCache.bucketSeconds", 60));
+
+    // Reminder 24h/1h sebelum appointment; hanya aktif setelah start() di menu interaktif
+    private static final ReminderEngine reminders = ReminderEngine.fromSystemProperties();
+    // Reminder kejadian aturan berulang dalam jendela pendek ke depan
+    private static final RecurrenceReminders recurrenceReminders = new RecurrenceReminders(reminders);
+
+    // -Dpetcare.autosave=false: hanya simpan lewat option 9 (seperti dulu)
+    private static final boolean AUTOSAVE = !"false".equalsIgnoreCase(System.getProperty("petcare.autosave"));
+    // Perubahan beruntun dalam jeda ini digabung menjadi satu save
+    private static final long AUTOSAVE_DELAY_MILLIS = Long.getLong("petcare.autosave.delayMillis", 2000);
+
+    // Menyimpan perubahan di thread latar belakang; option 9 dan 0 memakai flush() sebagai barrier
+    private static final AutoSaver autoSaver = new AutoSaver(PetCareScheduler::persist, AUTOSAVE_DELAY_MILLIS);
+    // Mutasi memegang write lock; compaction di thread autosave membaca data di bawah read lock
+    private static final ReadWriteLock dataLock = new ReentrantReadWriteLock();
+
+    static {
+        SchedulerEvents.register(timeIndex);
+        SchedulerEvents.register(vetVisitIndex);
+        SchedulerEvents.register(slotIndex);
+        SchedulerEvents.register(journal);
+        SchedulerEvents.register(reminders);
+        SchedulerEvents.register(searchIndex);
+        SchedulerEvents.register(typeIndex);
+        journal.setOnRecord(autoSaver::markDirty);
+        Metrics.gauge("pets", pets::size);
+        Metrics.gauge("appointments", appointments::size);
+        Metrics.gauge("tombstones", () -> pets.tombstones() + appointments.tombstones());
+        Metrics.gauge("recurrence.rules", recurrences::size);
+        Metrics.gauge("recurrence.reminders", recurrenceReminders::size);
+        Metrics.gauge("reminders.pending", reminders::pendingCount);
+        Metrics.gauge("reminders.fired", reminders::firedCount);
+        Metrics.gauge("reportCache.entries", reportCache::size);
+        Metrics.gauge("reportCache.hits", reportCache::hits);
+        Metrics.gauge("reportCache.misses", reportCache::misses);
+        Metrics.gauge("reportCache.evictions", reportCache::evictions);
+        Metrics.gauge("store.garbageBytes", () -> store == null ? 0 : store.garbageBytes());
+    }
 
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System.in);
 
-        loadPetData();
-        loadAppointmentData();
+        boolean batch = args.length > 0 && args[0].equals("--batch");
+        // Mode mapped: menu langsung muncul setelah store dibuka; data di memori diisi di background
+        boolean background = !batch && loadInBackground();
+        if (!background) {
+            loadAll();
+        }
+
+        // --batch <file>: jalankan perintah dari file lalu simpan sekali di akhir, tanpa menu
+        if (batch) {
+            if (args.length < 2) {
+                System.out.println("Usage: PetCareScheduler --batch <command file>");
+                return;
+            }
+            BatchRunner.run(Paths.get(args[1]));
+            saveData();
+            return;
+        }
 
+        if (!background) {
+            startReminders();
+        }
+        if (AUTOSAVE) {
+            autoSaver.start();
+        }
         boolean running = true;
 
         while (running) {
@@ -38,11 +169,22 @@ public class PetCareScheduler {
             System.out.println("--- Reports & Save ---");
             System.out.println("8. Generate Overdue Reports");
             System.out.println("9. Save Data");
+            System.out.println("--- Search ---");
+            System.out.println("10. Search Pets & Appointment Notes");
+            System.out.println("--- Manage ---");
+            System.out.println("11. Cancel Appointment");
+            System.out.println("12. Reschedule Appointment");
+            System.out.println("13. Remove Pet");
+            System.out.println("--- Query ---");
+            System.out.println("14. Query Appointments (filters, sort, explain)");
             System.out.println("0. Exit");
             System.out.print("Choose an option: ");
 
             try {
                 int choice = Integer.parseInt(scanner.nextLine());
+                if (needsLoadedData(choice)) {
+                    awaitLoaded();
+                }
 
                 switch (choice) {
                     case 1:
@@ -52,30 +194,47 @@ public class PetCareScheduler {
                         scheduleAppointment(scanner);
                         break;
                     case 3:
-                        displayPets();
+                        displayPets(scanner);
                         break;
                     case 4:
-                        displayAppointments();
+                        displayAppointments(scanner);
                         break;
                     case 5:
                         displayAppointmentsForPet(scanner);
                         break;
                     case 6:
-                        displayUpcomingAppointments();
+                        displayUpcomingAppointments(scanner);
                         break;
                     case 7:
-                        displayPastAppointments();
+                        displayPastAppointments(scanner);
                         break;
                     case 8:
                         generateReports(scanner);
                         break;
                     case 9:
-                        savePetData();
-                        saveAppointmentData();
-                        System.out.println("Data saved successfully!");
+                        saveData();
+                        break;
+                    case 10:
+                        searchData(scanner);
+                        break;
+                    case 11:
+                        cancelAppointment(scanner);
+                        break;
+                    case 12:
+                        rescheduleAppointment(scanner);
+                        break;
+                    case 13:
+                        unregisterPet(scanner);
+                        break;
+                    case 14:
+                        queryAppointments(scanner);
                         break;
                     case 0:
                         running = false;
+                        if (AUTOSAVE && autoSaver.isDirty()) {
+                            System.out.println("Saving pending changes...");
+                            saveData();
+                        }
                         System.out.println("Exiting... Goodbye!");
                         break;
                     default:
@@ -86,6 +245,9 @@ public class PetCareScheduler {
             }
         }
 
+        autoSaver.stop();
+        recurrenceReminders.stop();
+        reminders.stop();
         scanner.close();
     }
 
@@ -103,15 +265,10 @@ public class PetCareScheduler {
             try {
                 id = Integer.parseInt(scanner.nextLine());
 
-                // Cek ID harus bilangan positif
-                if (id <= 0) {
-                    System.out.println("Error: Pet ID must be a positive integer.");
-                    continue;
-                }
-
-                // Cek ID duplikat
-                if (findPetById(id) != null) {
-                    System.out.println("Error: Pet ID already exists! Please choose a different ID.");
+                // Cek ID harus bilangan positif dan belum dipakai
+                String error = checkPetId(id);
+                if (error != null) {
+                    System.out.println("Error: " + error);
                 } else {
                     idValid = true;
                 }
@@ -132,8 +289,7 @@ public class PetCareScheduler {
 
         // 4. Buat objek Pet. Tanggal registrasi dan list appointment diinisialisasi
         // dalam konstruktor Pet.
-        Pet pet = new Pet(id, name, breed, age, owner, contact);
-        pets.add(pet);
+        addPet(new Pet(id, name, breed, age, owner, contact));
 
         System.out.println("Pet registered successfully!");
         System.out.println("Reminder: Select option 9 to save data permanently.");
@@ -147,8 +303,9 @@ public class PetCareScheduler {
         while (input.trim().isEmpty()) {
             System.out.print(prompt);
             input = scanner.nextLine().trim();
-            if (input.isEmpty()) {
-                System.out.println("Error: " + fieldName + " cannot be empty. Please try again.");
+            String error = Validation.checkText(input, fieldName);
+            if (error != null) {
+                System.out.println("Error: " + error + " Please try again.");
             }
         }
         return input;
@@ -160,14 +317,14 @@ public class PetCareScheduler {
      */
     private static int readValidAge(Scanner scanner) {
         int age = -1;
-        final int MAX_AGE = 30;
 
-        while (age < 0 || age > MAX_AGE) {
-            System.out.print("Age (years, 0-" + MAX_AGE + "): ");
+        while (age < 0 || age > Validation.MAX_AGE) {
+            System.out.print("Age (years, 0-" + Validation.MAX_AGE + "): ");
             try {
                 age = Integer.parseInt(scanner.nextLine());
-                if (age < 0 || age > MAX_AGE) {
-                    System.out.println("Error: Age must be between 0 and " + MAX_AGE + " years. Please try again.");
+                String error = Validation.checkAge(age);
+                if (error != null) {
+                    System.out.println("Error: " + error + " Please try again.");
                 }
             } catch (NumberFormatException e) {
                 System.out.println("Error: Invalid age format. Please enter a whole number.");
@@ -196,8 +353,9 @@ public class PetCareScheduler {
             System.out.print("Appointment Type (vet, grooming, vaccination): ");
             String type = scanner.nextLine().toLowerCase();
 
-            if (!type.equals("vet") && !type.equals("grooming") && !type.equals("vaccination")) {
-                System.out.println("Error: Invalid appointment type!");
+            String error = Validation.checkAppointmentType(type);
+            if (error != null) {
+                System.out.println("Error: " + error);
                 return;
             }
 
@@ -207,65 +365,457 @@ public class PetCareScheduler {
             System.out.print("Time (HH:mm): ");
             String timeInput = scanner.nextLine();
 
-            LocalDateTime dateTime = LocalDateTime.parse(
-                    dateInput + " " + timeInput,
-                    DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+            LocalDateTime dateTime = LocalDateTime.parse(dateInput + " " + timeInput, Validation.INPUT_DATE_TIME);
 
-            if (dateTime.isBefore(LocalDateTime.now())) {
-                System.out.println("Error: Appointment must be scheduled for a future date/time!");
+            error = checkSchedule(type, dateTime);
+            if (error != null) {
+                System.out.println("Error: " + error);
                 return;
             }
 
             System.out.print("Notes (optional): ");
             String notes = scanner.nextLine();
 
-            Appointment appointment = new Appointment(type, dateTime, notes);
+            System.out.print("Repeat every (e.g. 6 months, 2 weeks; blank = one-off): ");
+            String every = scanner.nextLine().trim();
+            if (!every.isEmpty()) {
+                System.out.print("Until (yyyy-MM-dd, blank = no end): ");
+                String until = scanner.nextLine().trim();
+                // Kejadiannya dicek bentrok dengan booking dan aturan lain (lihat addRecurrence)
+                error = addRecurrence(pet, RecurrenceRule.parse(pet.getPetId(), type, dateTime, every,
+                        until.isEmpty() ? null : LocalDate.parse(until), notes));
+                if (error != null) {
+                    System.out.println("Error: " + error);
+                    return;
+                }
+                System.out.println("Recurring appointment scheduled successfully!");
+                return;
+            }
 
-            appointments.add(appointment);
-            pet.addAppointment(appointment);
+            Appointment appointment = new Appointment(type, dateTime, notes);
+            bookAppointment(pet, appointment);
 
-            System.out.println("Appointment scheduled successfully!");
+            System.out.println("Appointment scheduled successfully! (Appointment ID: " + appointment.getId() + ")");
 
         } catch (Exception e) {
             System.out.println("Error scheduling appointment: " + e.getMessage());
         }
     }
 
-    private static Pet findPetById(int id) {
-        for (Pet p : pets) {
-            if (p.getPetId() == id)
-                return p;
+    // ========== Cancel / Reschedule / Remove Pet ==========
+    // Appointment dicari lewat ID yang tampil di semua daftar appointment
+    private static Appointment readAppointmentId(Scanner scanner) {
+        System.out.print("Appointment ID: ");
+        long id = Long.parseLong(scanner.nextLine().trim());
+        Appointment a = appointmentIds.get(id);
+        if (a == null) {
+            System.out.println("Error: Appointment not found!");
+        }
+        return a;
+    }
+
+    private static void cancelAppointment(Scanner scanner) {
+        try {
+            System.out.println("\n=== Cancel Appointment ===");
+            Appointment a = readAppointmentId(scanner);
+            if (a == null) {
+                return;
+            }
+            System.out.println(a);
+            cancelBooking(a.getId());
+            System.out.println("Appointment cancelled.");
+        } catch (NumberFormatException e) {
+            System.out.println("Error: Invalid ID format. Please enter a number.");
+        }
+    }
+
+    private static void rescheduleAppointment(Scanner scanner) {
+        try {
+            System.out.println("\n=== Reschedule Appointment ===");
+            Appointment a = readAppointmentId(scanner);
+            if (a == null) {
+                return;
+            }
+            System.out.println(a);
+            System.out.print("New Date (yyyy-MM-dd): ");
+            String dateInput = scanner.nextLine();
+            System.out.print("New Time (HH:mm): ");
+            String timeInput = scanner.nextLine();
+            LocalDateTime dateTime = LocalDateTime.parse(dateInput + " " + timeInput, Validation.INPUT_DATE_TIME);
+
+            String error = moveAppointment(a.getId(), dateTime);
+            if (error != null) {
+                System.out.println("Error: " + error);
+                return;
+            }
+            System.out.println("Appointment rescheduled successfully!");
+        } catch (NumberFormatException e) {
+            System.out.println("Error: Invalid ID format. Please enter a number.");
+        } catch (DateTimeParseException e) {
+            System.out.println("Error: Invalid date/time format. Use yyyy-MM-dd and HH:mm.");
+        }
+    }
+
+    private static void unregisterPet(Scanner scanner) {
+        try {
+            System.out.println("\n=== Remove Pet ===");
+            System.out.print("Pet ID: ");
+            int petId = Integer.parseInt(scanner.nextLine().trim());
+            Pet pet = findPetById(petId);
+            if (pet == null) {
+                System.out.println("Error: Pet not found!");
+                return;
+            }
+            System.out.print("Remove " + pet.getName() + " and " + pet.getAppointments().size()
+                    + " appointment(s)? (y/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                System.out.println("Cancelled; nothing removed.");
+                return;
+            }
+            removePet(petId);
+            System.out.println("Pet removed.");
+        } catch (NumberFormatException e) {
+            System.out.println("Error: Invalid ID format. Please enter an integer.");
+        }
+    }
+
+    // ========== Validation & Mutation (dipakai menu interaktif dan batch mode) ==========
+    // Check yang bergantung pada data di memori; aturan lainnya ada di Validation
+
+    static String checkPetId(int id) {
+        String error = Validation.checkPetId(id);
+        if (error == null && findPetById(id) != null) {
+            return "Pet ID already exists! Please choose a different ID.";
+        }
+        return error;
+    }
+
+    // Kejadian aturan berulang di sekitar 'dateTime' dihitung saat cek, bukan dipesan di slotIndex
+    static String checkSchedule(String type, LocalDateTime dateTime) {
+        String error = Validation.checkFuture(dateTime);
+        if (error != null) {
+            return error;
+        }
+        dataLock.readLock().lock();
+        try {
+            if (hasConflict(type, dateTime)) {
+                return Validation.conflictMessage(slotIndex, type, nextFreeSlot(type, dateTime));
+            }
+        } finally {
+            dataLock.readLock().unlock();
         }
         return null;
     }
 
-    // ========== Display Pets ==========
-    private static void displayPets() {
-        System.out.println("\n=== All Registered Pets ===");
+    // Pemanggil memegang lock data (recurrences dibaca)
+    private static boolean hasConflict(String type, LocalDateTime dateTime) {
+        return slotIndex.hasConflict(type, dateTime, recurrences.near(type, dateTime));
+    }
 
-        if (pets.isEmpty()) {
-            System.out.println("No pets found.");
-            return;
+    // Slot kosong berikutnya di slotIndex yang juga tidak ditempati kejadian berulang
+    private static LocalDateTime nextFreeSlot(String type, LocalDateTime from) {
+        LocalDateTime t = slotIndex.nextFreeSlot(type, from);
+        // Dibatasi: aturan yang memenuhi setiap slot tidak membuat loop ini berjalan tanpa akhir
+        for (int i = 0; i < SlotIndex.SLOTS_PER_DAY * 7 && hasConflict(type, t); i++) {
+            t = slotIndex.nextFreeSlot(type, t.plusMinutes(SlotIndex.SLOT_MINUTES));
         }
+        return t;
+    }
 
-        for (Pet pet : pets) {
-            System.out.println(pet);
-            System.out.println("------------------------------");
+    // Pet baru yang sudah divalidasi; dicatat ke journal, ditulis saat save
+    static void addPet(Pet pet) {
+        long start = Metrics.REGISTER.start();
+        dataLock.writeLock().lock();
+        try {
+            pets.add(pet);
+            petIndex.putIfAbsent(pet);
+            vetVisitIndex.add(pet);
+            searchIndex.addPet(pet);
+            DataVersion.bump();
+            journal.recordRegister(pet);
+            if (store != null) {
+                store.putPet(pet);
+            }
+        } finally {
+            dataLock.writeLock().unlock();
         }
+        Metrics.REGISTER.record(start);
     }
 
-    // ========== Display Appointments ==========
-    private static void displayAppointments() {
-        System.out.println("\n=== All Appointments ===");
+    static void bookAppointment(Pet pet, Appointment appointment) {
+        long start = Metrics.SCHEDULE.start();
+        dataLock.writeLock().lock();
+        try {
+            addAppointment(pet, appointment);
+            journal.recordSchedule(pet, appointment);
+            if (store != null) {
+                store.putAppointment(pet, appointment);
+            }
+        } finally {
+            dataLock.writeLock().unlock();
+        }
+        Metrics.SCHEDULE.record(start);
+    }
 
-        if (appointments.isEmpty()) {
-            System.out.println("No appointments found.");
-            return;
+    /**
+     * Membatalkan appointment: dilepas dari pet, semua index (lewat SchedulerEvents) dan
+     * list global (tombstone), dalam O(1)/O(log n).
+     *
+     * @return appointment yang dibatalkan, atau null jika ID tidak ada
+     */
+    static Appointment cancelBooking(long appointmentId) {
+        long start = Metrics.CANCEL.start();
+        Appointment a;
+        dataLock.writeLock().lock();
+        try {
+            a = appointmentIds.get(appointmentId);
+            if (a != null) {
+                detachAppointment(a);
+            }
+        } finally {
+            dataLock.writeLock().unlock();
+        }
+        Metrics.CANCEL.record(start);
+        return a;
+    }
+
+    /**
+     * Memindahkan appointment ke waktu baru dengan validasi yang sama seperti booking baru;
+     * slot lama appointment ini sendiri tidak dihitung sebagai bentrok.
+     *
+     * @return pesan error, atau null jika berhasil
+     */
+    static String moveAppointment(long appointmentId, LocalDateTime dateTime) {
+        long start = Metrics.SCHEDULE.start();
+        dataLock.writeLock().lock();
+        try {
+            Appointment a = appointmentIds.get(appointmentId);
+            if (a == null) {
+                return "Appointment ID " + appointmentId + " not found.";
+            }
+            boolean booked = a.getPet() != null;
+            if (booked) {
+                slotIndex.remove(a);
+            }
+            String error = checkSchedule(a.getAppointmentType(), dateTime);
+            if (booked) {
+                slotIndex.add(a);
+            }
+            if (error == null) {
+                // Index waktu, slot, reminder, journal dan vet visit pet diperbarui lewat SchedulerEvents
+                a.setDateTime(dateTime);
+            }
+            return error;
+        } finally {
+            dataLock.writeLock().unlock();
+            Metrics.SCHEDULE.record(start);
+        }
+    }
+
+    /**
+     * Menghapus pet beserta semua appointment dan aturan berulangnya.
+     *
+     * @return pet yang dihapus, atau null jika ID tidak ada
+     */
+    static Pet removePet(int petId) {
+        long start = Metrics.CANCEL.start();
+        Pet pet;
+        dataLock.writeLock().lock();
+        try {
+            pet = petIndex.get(petId);
+            if (pet != null) {
+                detachPet(pet);
+            }
+        } finally {
+            dataLock.writeLock().unlock();
         }
+        Metrics.CANCEL.record(start);
+        return pet;
+    }
+
+    /**
+     * Menambahkan aturan berulang; aturan dicatat di journal. Kejadiannya tidak memakai slot:
+     * booking berikutnya menghitungnya saat cek (checkSchedule). Yang dicek di sini hanya
+     * kejadian sampai horizon setelah 'start' (terhadap booking dan aturan lain) dan kejadian
+     * di sekitar booking yang lebih jauh, sehingga aturan tanpa akhir tidak pernah diekspansi.
+     *
+     * @return pesan error untuk kejadian pertama yang bentrok, atau null jika berhasil
+     */
+    static String addRecurrence(Pet pet, RecurrenceRule rule) {
+        long start = Metrics.SCHEDULE.start();
+        dataLock.writeLock().lock();
+        try {
+            String error = Validation.checkFuture(rule.getStart());
+            if (error != null) {
+                return error;
+            }
+            rule.setPet(pet);
+            String type = rule.getAppointmentType();
+            LocalDateTime conflict = firstConflict(rule);
+            if (conflict != null) {
+                return "Occurrence on " + conflict.format(Validation.INPUT_DATE_TIME) + " conflicts: "
+                        + Validation.conflictMessage(slotIndex, type, nextFreeSlot(type, conflict));
+            }
+            recurrences.add(pet, rule);
+            recurrenceReminders.add(rule, LocalDateTime.now());
+            journal.recordRecurrence(rule);
+        } finally {
+            dataLock.writeLock().unlock();
+            Metrics.SCHEDULE.record(start);
+        }
+        autoSaver.markDirty();
+        return null;
+    }
 
-        for (Appointment app : appointments) {
-            System.out.println(app);
-            System.out.println("------------------------------");
+    // Kejadian pertama 'rule' yang bentrok, atau null. Pemanggil memegang write lock.
+    private static LocalDateTime firstConflict(RecurrenceRule rule) {
+        String type = rule.getAppointmentType();
+        LocalDateTime horizon = rule.getStart().plusDays(RECURRENCE_HORIZON_DAYS);
+        TreeSet<LocalDateTime> candidates = new TreeSet<>();
+        Iterator<RecurrenceRule.Occurrence> it = rule.between(rule.getStart().minusNanos(1), horizon);
+        while (it.hasNext()) {
+            candidates.add(it.next().getDateTime());
+        }
+        // Booking setelah horizon jumlahnya terbatas; hanya kejadian di sekitarnya yang dicek
+        for (Appointment a : timeIndex.after(horizon.minusDays(1))) {
+            if (a.getPet() != null && a.getAppointmentType().equalsIgnoreCase(type)) {
+                LocalDateTime t = a.getDateTime();
+                it = rule.between(t.minusDays(1), t.plusDays(1));
+                while (it.hasNext()) {
+                    candidates.add(it.next().getDateTime());
+                }
+            }
+        }
+        for (LocalDateTime t : candidates) {
+            if (hasConflict(type, t)) {
+                return t;
+            }
+        }
+        return null;
+    }
+
+    // Reminder appointment dan kejadian berulang; dipanggil setelah semua data dimuat
+    private static void startReminders() {
+        reminders.start(appointments);
+        recurrenceReminders.reset(recurrences.all(), LocalDateTime.now());
+        recurrenceReminders.start(dataLock.writeLock());
+    }
+
+    // O(1) lookup melalui petIndex (sebelumnya linear scan atas list 'pets')
+    static Pet findPetById(int id) {
+        long start = Metrics.LOOKUP.start();
+        Pet pet = petIndex.get(id);
+        Metrics.LOOKUP.record(start);
+        return pet;
+    }
+
+    // ========== Paged Display ==========
+    // Record per halaman di menu; -Dpetcare.pageSize=0 menampilkan semua tanpa jeda
+    private static final int PAGE_SIZE = Integer.getInteger("petcare.pageSize", 20);
+
+    /**
+     * Menampilkan 'items' per halaman. Setelah setiap halaman pengguna bisa lanjut (Enter),
+     * melompat ke record nomor N, atau berhenti (q). Record yang dilompati tidak diformat.
+     * Tanpa scanner (misalnya dari benchmark) semua record ditampilkan.
+     *
+     * @return jumlah record yang ditampilkan
+     */
+    private static <T> int displayPaged(Renderer out, Scanner scanner, Iterable<T> items,
+            BiConsumer<Renderer, ? super T> render) {
+        return displayPaged(out, scanner, items, render, null, 0);
+    }
+
+    /**
+     * Seperti di atas, lalu mencatat waktu sejak 'start' ke 'timer' tanpa waktu menunggu
+     * input pengguna di antara halaman.
+     */
+    private static <T> int displayPaged(Renderer out, Scanner scanner, Iterable<T> items,
+            BiConsumer<Renderer, ? super T> render, Metrics.Timer timer, long start) {
+        long waitNanos = 0;
+        try {
+            Iterator<T> it = items.iterator();
+            int pageSize = scanner == null ? 0 : PAGE_SIZE;
+            int shown = 0;
+            long position = 0; // nomor record terakhir yang sudah dilewati atau ditampilkan
+            while (true) {
+                int written = out.page(it, pageSize, render);
+                shown += written;
+                position += written;
+                if (pageSize <= 0 || !it.hasNext()) {
+                    return shown;
+                }
+                out.println("-- Up to record " + position
+                        + ". Enter = next page, number = jump to record, q = stop --");
+                out.flush();
+                long waitStart = System.nanoTime();
+                String answer = scanner.nextLine().trim();
+                waitNanos += System.nanoTime() - waitStart;
+                if (answer.equalsIgnoreCase("q")) {
+                    return shown;
+                }
+                if (!answer.isEmpty()) {
+                    try {
+                        long target = Long.parseLong(answer);
+                        position += Renderer.skip(it, target - 1 - position);
+                    } catch (NumberFormatException e) {
+                        out.println("Invalid input; showing the next page.");
+                    }
+                }
+            }
+        } finally {
+            if (timer != null) {
+                out.flush();
+                timer.record(start, waitNanos);
+            }
+        }
+    }
+
+    // ========== Display Pets ==========
+    private static void displayPets(Scanner scanner) {
+        try (Renderer out = Renderer.toConsole()) {
+            out.println("\n=== All Registered Pets ===");
+
+            MappedStore s = store;
+            if (s != null) {
+                // Mode mapped: dibaca langsung dari file, tanpa menunggu data di memori
+                if (s.petCount() == 0) {
+                    out.println("No pets found.");
+                } else {
+                    displayPaged(out, scanner, s.pets(), Renderer::storedPet);
+                }
+                return;
+            }
+
+            if (pets.isEmpty()) {
+                out.println("No pets found.");
+                return;
+            }
+
+            displayPaged(out, scanner, pets, Renderer::pet);
+        }
+    }
+
+    // ========== Display Appointments ==========
+    private static void displayAppointments(Scanner scanner) {
+        try (Renderer out = Renderer.toConsole()) {
+            out.println("\n=== All Appointments ===");
+
+            MappedStore s = store;
+            if (s != null) {
+                if (s.appointmentCount() == 0) {
+                    out.println("No appointments found.");
+                } else {
+                    displayPaged(out, scanner, s.appointments(), Renderer::appointment);
+                }
+                return;
+            }
+
+            if (appointments.isEmpty()) {
+                out.println("No appointments found.");
+                return;
+            }
+
+            displayPaged(out, scanner, appointments, Renderer::appointment);
         }
     }
 
@@ -288,73 +838,209 @@ public class PetCareScheduler {
             return;
         }
 
-        System.out.println("\n--- Displaying appointments for: " + pet.getName() + " (ID: " + pet.getPetId() + ") ---");
+        try (Renderer out = Renderer.toConsole()) {
+            out.println("\n--- Displaying appointments for: " + pet.getName() + " (ID: " + pet.getPetId() + ") ---");
 
-        // Menggunakan List sebagai tipe data kembalian (konsisten dengan Pet.java baru)
-        List<Appointment> petAppointments = pet.getAppointments();
+            // Menggunakan List sebagai tipe data kembalian (konsisten dengan Pet.java baru)
+            List<Appointment> petAppointments = pet.getAppointments();
+            List<RecurrenceRule> petRules = recurrences.forPet(pet);
 
-        if (petAppointments.isEmpty()) {
-            System.out.println("This pet has no scheduled appointments.");
-            return;
-        }
+            if (petAppointments.isEmpty() && petRules.isEmpty()) {
+                out.println("This pet has no scheduled appointments.");
+                return;
+            }
 
-        for (Appointment app : petAppointments) {
-            System.out.println(app);
-            System.out.println("------------------------------");
+            if (!petAppointments.isEmpty()) {
+                displayPaged(out, scanner, petAppointments, Renderer::appointment);
+            }
+            if (!petRules.isEmpty()) {
+                // Kejadian berulang hanya dihitung untuk rentang [now, now + horizon)
+                LocalDateTime now = LocalDateTime.now();
+                out.println("\n--- Recurring appointments (next " + RECURRENCE_HORIZON_DAYS + " days) ---");
+                if (displayPaged(out, scanner, recurrences.forPet(pet, now, now.plusDays(RECURRENCE_HORIZON_DAYS)),
+                        Renderer::appointment) == 0) {
+                    out.println("No occurrences in this period.");
+                }
+            }
         }
     }
 
     // ========== Display Upcoming Appointments ==========
-    private static void displayUpcomingAppointments() {
-        System.out.println("\n=== Upcoming Appointments (All Pets) ===");
-        LocalDateTime now = LocalDateTime.now();
-        boolean found = false;
-
-        // Menggunakan daftar 'appointments' global
-        for (Appointment app : appointments) {
-            // Cek apakah janji temu terjadi 'setelah' waktu sekarang
-            if (app.getDateTime().isAfter(now)) {
-                System.out.println(app);
-                System.out.println("------------------------------");
-                found = true;
+    private static void displayUpcomingAppointments(Scanner scanner) {
+        try (Renderer out = Renderer.toConsole()) {
+            out.println("\n=== Upcoming Appointments (All Pets) ===");
+
+            // Hanya bagian index setelah 'now' yang dikunjungi (urut waktu), dan hanya sebanyak halaman yang dibuka.
+            // Kejadian berulang (sampai horizon) digabung lazy sesuai urutan waktu.
+            LocalDateTime now = LocalDateTime.now();
+            Iterable<Appointment> upcoming = Recurrences.merge(timeIndex.after(now),
+                    recurrences.between(now, now.plusDays(RECURRENCE_HORIZON_DAYS)));
+            if (displayPaged(out, scanner, upcoming, Renderer::appointment) == 0) {
+                out.println("No upcoming appointments found.");
             }
         }
+    }
+
+    // ========== Display Past Appointments (Uses List) ==========
+    private static void displayPastAppointments(Scanner scanner) {
+        try (Renderer out = Renderer.toConsole()) {
+            out.println("\n=== Past Appointment History (By Pet) ===");
+            LocalDateTime now = LocalDateTime.now();
 
-        if (!found) {
-            System.out.println("No upcoming appointments found.");
+            if (pets.isEmpty()) {
+                out.println("No pets registered to check history.");
+                return;
+            }
+
+            // Kelompokkan janji temu masa lalu per Pet dari bagian index sebelum 'now'
+            IdentityHashMap<Pet, List<Appointment>> pastByPet = new IdentityHashMap<>();
+            for (Appointment app : timeIndex.before(now)) {
+                if (app.getPet() != null) {
+                    pastByPet.computeIfAbsent(app.getPet(), k -> new ArrayList<>()).add(app);
+                }
+            }
+
+            // Satu record per pet: judul lalu riwayatnya
+            displayPaged(out, scanner, pets, (r, pet) -> {
+                r.println("\n--- History for " + pet.getName() + " (ID: " + pet.getPetId() + ") ---");
+
+                List<Appointment> petPast = pastByPet.get(pet);
+                if (petPast == null) {
+                    r.println("No past appointment history found for this pet.");
+                    return;
+                }
+                for (Appointment app : petPast) {
+                    r.appointment(app);
+                }
+            });
         }
     }
 
-    // ========== Display Past Appointments (Uses List) ==========
-    private static void displayPastAppointments() {
-        System.out.println("\n=== Past Appointment History (By Pet) ===");
-        LocalDateTime now = LocalDateTime.now();
+    // ========== Search ==========
+    private static final int SEARCH_LIMIT = Integer.getInteger("petcare.search.limit", 100);
 
-        if (pets.isEmpty()) {
-            System.out.println("No pets registered to check history.");
+    // Prefix match atas nama/spesies/pemilik/kontak pet dan catatan appointment; beberapa kata = AND
+    // Index teks dibangun saat pertama dipakai; di bawah write lock karena compaction bisa berjalan
+    private static void buildSearchIndex() {
+        if (searchIndex.isBuilt()) {
             return;
         }
+        long buildStart = System.nanoTime();
+        dataLock.writeLock().lock();
+        try {
+            searchIndex.build(pets);
+        } finally {
+            dataLock.writeLock().unlock();
+        }
+        System.out.printf("(Search index built: %,d terms in %d ms)%n", searchIndex.termCount(),
+                (System.nanoTime() - buildStart) / 1_000_000);
+    }
 
-        // Iterasi melalui setiap hewan peliharaan
-        for (Pet pet : pets) {
-            System.out.println("\n--- History for " + pet.getName() + " (ID: " + pet.getPetId() + ") ---");
+    private static void searchData(Scanner scanner) {
+        System.out.println("\n=== Search ===");
+        System.out.print("Search for (name, owner, contact, breed or note words): ");
+        String query = scanner.nextLine().trim();
+        if (query.isEmpty()) {
+            System.out.println("Error: Search text cannot be empty.");
+            return;
+        }
 
-            // Menggunakan List sebagai tipe data kembalian (konsisten dengan Pet.java baru)
-            List<Appointment> petAppointments = pet.getAppointments();
-            boolean found = false;
+        buildSearchIndex();
 
-            for (Appointment app : petAppointments) {
-                // Cek apakah janji temu terjadi 'sebelum' waktu sekarang
-                if (app.getDateTime().isBefore(now)) {
-                    System.out.println(app);
-                    System.out.println("------------------------------");
-                    found = true;
-                }
+        long start = System.nanoTime();
+        List<Pet> foundPets;
+        List<Appointment> foundAppointments;
+        // Compaction index di thread autosave memegang write lock
+        dataLock.readLock().lock();
+        try {
+            foundPets = searchIndex.searchPets(query, SEARCH_LIMIT);
+            foundAppointments = searchIndex.searchNotes(query, SEARCH_LIMIT);
+        } finally {
+            dataLock.readLock().unlock();
+        }
+        long elapsed = System.nanoTime() - start;
+        Metrics.SEARCH.recordNanos(elapsed);
+
+        try (Renderer out = Renderer.toConsole()) {
+            out.println(String.format("Found %d pet(s) and %d appointment(s) in %.3f ms%s", foundPets.size(),
+                    foundAppointments.size(), elapsed / 1e6,
+                    foundPets.size() == SEARCH_LIMIT || foundAppointments.size() == SEARCH_LIMIT
+                            ? " (showing the first " + SEARCH_LIMIT + " of each)" : ""));
+            if (!foundPets.isEmpty()) {
+                out.println("\n--- Pets ---");
+                displayPaged(out, scanner, foundPets, Renderer::pet);
+            }
+            if (!foundAppointments.isEmpty()) {
+                out.println("\n--- Appointments (notes) ---");
+                displayPaged(out, scanner, foundAppointments, (r, a) -> {
+                    Pet pet = a.getPet();
+                    r.println("Pet: " + pet.getName() + " (ID: " + pet.getPetId() + ")");
+                    r.appointment(a);
+                });
             }
+        }
+    }
+
+    // ========== Query ==========
+    /**
+     * Query gabungan, misalnya "type=grooming species=cat date=2027-03 limit=20". Diawali
+     * "explain" untuk menampilkan rencana eksekusi (jalur akses yang dipilih) tanpa daftar hasil.
+     */
+    private static void queryAppointments(Scanner scanner) {
+        System.out.println("\n=== Query Appointments ===");
+        System.out.println("Syntax: " + AppointmentQuery.SYNTAX);
+        System.out.println("Prefix with 'explain' to show the query plan.");
+        System.out.print("Query: ");
+        String text = scanner.nextLine().trim();
+        boolean explain = text.regionMatches(true, 0, "explain", 0, 7)
+                && (text.length() == 7 || Character.isWhitespace(text.charAt(7)));
+        if (explain) {
+            text = text.substring(7).trim();
+        }
+
+        AppointmentQuery query;
+        try {
+            query = AppointmentQuery.parse(text);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            return;
+        }
+
+        // Index yang dibangun saat dibutuhkan pertama kali, seperti menu Search
+        if (query.type != null && !typeIndex.isBuilt()) {
+            long buildStart = System.nanoTime();
+            typeIndex.build(appointments);
+            System.out.printf("(Type index built in %d ms)%n", (System.nanoTime() - buildStart) / 1_000_000);
+        }
+        if (query.hasPetText() || !query.notes.isEmpty()) {
+            buildSearchIndex();
+        }
 
-            if (!found) {
-                System.out.println("No past appointment history found for this pet.");
+        QueryEngine.Result result;
+        dataLock.readLock().lock();
+        try {
+            result = queryEngine.execute(query);
+        } finally {
+            dataLock.readLock().unlock();
+        }
+        Metrics.QUERY.recordNanos(result.elapsedNanos);
+
+        try (Renderer out = Renderer.toConsole()) {
+            if (explain) {
+                for (String line : QueryEngine.explain(query, result)) {
+                    out.println(line);
+                }
+                return;
             }
+            out.println(String.format("Found %d appointment(s) in %.3f ms via %s", result.rows.size(),
+                    result.elapsedNanos / 1e6, result.plan.chosen.access.label));
+            displayPaged(out, scanner, result.rows, (r, a) -> {
+                Pet pet = a.getPet();
+                if (pet != null) {
+                    r.println("Pet: " + pet.getName() + " (ID: " + pet.getPetId() + ")");
+                }
+                r.appointment(a);
+            });
         }
     }
 
@@ -366,6 +1052,9 @@ public class PetCareScheduler {
             System.out.println("\n=== Generate Reports ===");
             System.out.println("1. Upcoming Appointments (Next 7 Days)");
             System.out.println("2. Pets Overdue for Vet Visit (6 Months)");
+            System.out.println("3. Export Pets & Appointments to File");
+            System.out.println("4. Runtime Metrics");
+            System.out.println("5. Capacity Planning (Bookings per Type, Species, Vet-Visit Gaps)");
             System.out.println("0. Back to Main Menu");
             System.out.print("Choose report option: ");
 
@@ -373,10 +1062,20 @@ public class PetCareScheduler {
                 int choice = Integer.parseInt(scanner.nextLine());
                 switch (choice) {
                     case 1:
-                        reportUpcomingAppointments();
+                        reportUpcomingAppointments(scanner);
                         break;
                     case 2:
-                        reportOverdueVetVisits();
+                        reportOverdueVetVisits(scanner);
+                        break;
+                    case 3:
+                        exportData(scanner);
+                        break;
+                    case 4:
+                        System.out.println("\n=== Runtime Metrics ===");
+                        System.out.println(Metrics.dump());
+                        break;
+                    case 5:
+                        reportCapacityPlanning(scanner);
                         break;
                     case 0:
                         reporting = false;
@@ -392,88 +1091,429 @@ public class PetCareScheduler {
 
     // ========== Report 1: Upcoming Appointments (Extracted and Hardened)
     // ==========
-    private static void reportUpcomingAppointments() {
-        System.out.println("\n=== Upcoming Appointments (Next 7 Days) ===");
+    static void reportUpcomingAppointments() {
+        reportUpcomingAppointments(null);
+    }
 
-        if (appointments.isEmpty()) {
-            System.out.println("No appointments found in the system.");
-            return;
+    private static void reportUpcomingAppointments(Scanner scanner) {
+        long start = Metrics.REPORT_UPCOMING.start();
+        try (Renderer out = Renderer.toConsole()) {
+            out.println("\n=== Upcoming Appointments (Next 7 Days) ===");
+
+            if (appointments.isEmpty() && recurrences.isEmpty()) {
+                out.println("No appointments found in the system.");
+                return;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime weekAhead = now.plusDays(7);
+            long bucket = reportBucket(now);
+
+            // Range query pada index waktu, ditambah kejadian berulang di rentang yang sama. Yang di-cache
+            // mencakup seluruh bucket (awal bucket, akhir bucket + 7 hari); lalu dipotong ke (now, now + 7 hari).
+            List<Appointment> cached = reportCache.get("upcoming", bucket, () -> {
+                LocalDateTime from = bucketStart(bucket);
+                LocalDateTime to = bucketStart(bucket + 1).plusDays(7);
+                List<Appointment> list = new ArrayList<>();
+                for (Appointment a : Recurrences.merge(timeIndex.between(from, to), recurrences.between(from, to))) {
+                    list.add(a);
+                }
+                return list;
+            });
+            List<Appointment> week = cached.subList(countUntil(cached, now, true),
+                    countUntil(cached, weekAhead, false));
+            if (displayPaged(out, scanner, week, Renderer::appointment, Metrics.REPORT_UPCOMING, start) == 0) {
+                out.println("No upcoming appointments found in the next 7 days.");
+            }
         }
+    }
 
-        LocalDateTime now = LocalDateTime.now();
-        boolean found = false;
+    // ========== Report 2: Pets Overdue for Vet Visit (Extracted and Hardened)
+    // ==========
+    static void reportOverdueVetVisits() {
+        reportOverdueVetVisits(null);
+    }
 
-        for (Appointment a : appointments) {
-            // Cek janji temu yang berada di masa depan DAN dalam 7 hari ke depan
-            if (a.getDateTime().isAfter(now) &&
-                    a.getDateTime().isBefore(now.plusDays(7))) {
+    private static void reportOverdueVetVisits(Scanner scanner) {
+        long start = Metrics.REPORT_OVERDUE.start();
+        try (Renderer out = Renderer.toConsole()) {
+            out.println("\n=== Pets Overdue for Vet Visit (6 Months) ===");
 
-                System.out.println(a);
-                System.out.println("------------------------------");
-                found = true;
+            if (pets.isEmpty()) {
+                out.println("No pets registered in the system.");
+                return;
             }
-        }
 
-        if (!found) {
-            System.out.println("No upcoming appointments found in the next 7 days.");
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime sixMonthsAgo = now.minusMonths(6);
+            long bucket = reportBucket(now);
+
+            // Range query: pet tanpa vet visit, atau vet visit terakhir sebelum 6 bulan lalu.
+            // Vet visit terakhir dipelihara incremental oleh Pet (lihat Pet.getLastVetVisit()).
+            // Aturan vet berulang yang masih berjalan setelah batas itu membuat pet tidak overdue.
+            // Yang di-cache memakai batas dari akhir bucket (superset), lalu disaring dengan batas sebenarnya.
+            List<Pet> candidates = reportCache.get("overdue", bucket, () -> {
+                LocalDateTime cutoff = bucketStart(bucket + 1).minusMonths(6);
+                List<Pet> list = vetVisitIndex.overdueSince(cutoff);
+                if (!recurrences.isEmpty()) {
+                    list.removeIf(pet -> recurrences.hasVetVisitSince(pet, cutoff));
+                }
+                return list;
+            });
+            List<Pet> overdue = new ArrayList<>(candidates.size());
+            for (Pet pet : candidates) {
+                LocalDateTime last = pet.getLastVetVisit();
+                if ((last == null || last.isBefore(sixMonthsAgo))
+                        && (recurrences.isEmpty() || !recurrences.hasVetVisitSince(pet, sixMonthsAgo))) {
+                    overdue.add(pet);
+                }
+            }
+            if (displayPaged(out, scanner, overdue, Renderer::overdue, Metrics.REPORT_OVERDUE, start) == 0) {
+                out.println(
+                        "No pets found overdue for a vet visit (all have had a vet visit within the last 6 months).");
+            }
         }
     }
 
-    // ========== Report 2: Pets Overdue for Vet Visit (Extracted and Hardened)
-    // ==========
-    private static void reportOverdueVetVisits() {
-        System.out.println("\n=== Pets Overdue for Vet Visit (6 Months) ===");
+    // Nomor time bucket report cache untuk waktu t
+    private static long reportBucket(LocalDateTime t) {
+        return Math.floorDiv(t.toEpochSecond(ZoneOffset.UTC), REPORT_BUCKET_SECONDS);
+    }
+
+    private static LocalDateTime bucketStart(long bucket) {
+        return LocalDateTime.ofEpochSecond(bucket * REPORT_BUCKET_SECONDS, 0, ZoneOffset.UTC);
+    }
+
+    // Jumlah appointment di awal list (urut waktu) yang sebelum t, atau sebelum/sama dengan t jika 'orAt'
+    private static int countUntil(List<Appointment> sorted, LocalDateTime t, boolean orAt) {
+        int lo = 0;
+        int hi = sorted.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = sorted.get(mid).getDateTime().compareTo(t);
+            if (c < 0 || (orAt && c == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
 
-        if (pets.isEmpty()) {
-            System.out.println("No pets registered in the system.");
+    // ========== Report 3: Export ==========
+    // Semua pet lalu semua appointment (urut waktu) ke file teks, tanpa paging
+    private static void exportData(Scanner scanner) {
+        System.out.print("Export file name [" + EXPORT_FILE + "]: ");
+        String name = scanner.nextLine().trim();
+        Path file = Paths.get(name.isEmpty() ? EXPORT_FILE : name);
+
+        long start = System.nanoTime();
+        try (Renderer out = Renderer.toFile(file)) {
+            out.println("=== All Registered Pets ===");
+            out.page(pets, 0, 0, Renderer::pet);
+            out.println("\n=== All Appointments (By Date) ===");
+            out.page(timeIndex.between(LocalDateTime.MIN, LocalDateTime.MAX), 0, 0, Renderer::appointment);
+            out.println("\n=== Recurring Appointment Rules ===");
+            for (RecurrenceRule rule : recurrences.all()) {
+                out.println("Pet ID: " + rule.getPetId() + "\n" + rule + "\n" + Renderer.SEPARATOR);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Export Error: " + e.getMessage());
             return;
         }
+        Metrics.REPORT_EXPORT.record(start);
+        System.out.printf("Exported %,d pets and %,d appointments to %s in %d ms.%n", pets.size(),
+                timeIndex.size(), file, (System.nanoTime() - start) / 1_000_000);
+    }
 
-        LocalDateTime sixMonthsAgo = LocalDateTime.now().minusMonths(6);
-        boolean overdueFound = false;
+    // ========== Report 5: Capacity Planning ==========
+    private static void reportCapacityPlanning(Scanner scanner) {
+        System.out.println("\n=== Capacity Planning ===");
+        System.out.print("Group bookings by (day/week/month) [month]: ");
+        String group = scanner.nextLine().trim();
+        AggregationReport.Granularity granularity;
+        try {
+            granularity = group.isEmpty() ? AggregationReport.Granularity.MONTH
+                    : AggregationReport.Granularity.valueOf(group.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: Choose day, week or month.");
+            return;
+        }
 
-        for (Pet p : pets) {
-            boolean hasRecentVet = false;
+        LocalDate defaultFrom = LocalDate.now().withDayOfMonth(1);
+        LocalDate from;
+        LocalDate to;
+        try {
+            System.out.print("From (yyyy-MM-dd) [" + defaultFrom + "]: ");
+            String fromText = scanner.nextLine().trim();
+            from = fromText.isEmpty() ? defaultFrom : LocalDate.parse(fromText);
+            LocalDate defaultTo = from.plusYears(1).minusDays(1);
+            System.out.print("To (yyyy-MM-dd) [" + defaultTo + "]: ");
+            String toText = scanner.nextLine().trim();
+            to = toText.isEmpty() ? defaultTo : LocalDate.parse(toText);
+        } catch (DateTimeParseException e) {
+            System.out.println("Error: Invalid date format. Use yyyy-MM-dd.");
+            return;
+        }
 
-            // Menggunakan List untuk konsistensi dengan Pet.java yang sudah direvisi
-            List<Appointment> petAppointments = p.getAppointments();
+        long start = Metrics.REPORT_AGGREGATE.start();
+        AggregationReport report;
+        try {
+            report = aggregate(from, to, granularity, ForkJoinPool.commonPool());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            return;
+        }
+        try (Renderer out = Renderer.toConsole()) {
+            out.println(String.format("Aggregated %,d pets, %,d appointments and %,d recurring occurrences"
+                    + " in %.1f ms (%d worker thread(s))", report.petCount(), report.appointmentCount(),
+                    report.occurrenceCount(), report.elapsedNanos / 1e6, report.parallelism));
+            displayPaged(out, scanner, report.render(), Renderer::println, Metrics.REPORT_AGGREGATE, start);
+        }
+    }
 
-            for (Appointment a : petAppointments) {
-                // Robustness: Menggunakan equalsIgnoreCase untuk perbandingan tipe janji temu
-                // Cek apakah kunjungan dokter hewan terjadi 6 bulan yang lalu atau lebih baru
-                if (a.getAppointmentType().equalsIgnoreCase("vet") &&
-                        (a.getDateTime().isEqual(sixMonthsAgo) || a.getDateTime().isAfter(sixMonthsAgo))) {
+    // Satu kali jalan paralel atas snapshot semua pet; dipakai menu dan benchmark
+    static AggregationReport aggregate(LocalDate from, LocalDate to, AggregationReport.Granularity granularity,
+            ForkJoinPool pool) {
+        return AggregationReport.compute(pets.toArray(new Pet[0]), recurrences::forPet, from, to, granularity, pool);
+    }
 
-                    hasRecentVet = true;
-                    break;
-                }
+    // ========== File I/O : STARTUP ==========
+    // Snapshot (teks atau biner) + replay journal; dipakai menu dan ApiServer
+    static void loadAll() {
+        long start = Metrics.LOAD.start();
+        // Data dari disk tidak dicatat ulang ke journal
+        journal.setRecording(false);
+        if (MAPPED_STORE && MappedStore.exists(STORE_DIR)) {
+            openStore();
+            loadStore(true);
+            loadRecurrences(true);
+        } else {
+            openManifest();
+            // Format yang tercatat di manifest, bukan -Dpetcare.format: snapshot terakhir bisa dari format lain
+            if (manifest.format().equals(SnapshotManifest.BINARY)) {
+                loadBinarySnapshot(new File(SNAPSHOT_FILE));
+            } else {
+                loadData(new File(PET_FILE), new File(APPOINTMENT_FILE));
             }
-
-            if (!hasRecentVet) {
-                System.out.println("Pet: " + p.getName() + " (ID: " + p.getPetId() + ") - NEEDS VET ATTENTION!");
-                overdueFound = true;
+            // ID yang pernah dipakai lalu dibatalkan tidak diberikan lagi, agar replay tetap idempoten
+            nextAppointmentId = Math.max(nextAppointmentId, manifest.nextAppointmentId());
+            replayJournal();
+            // Sebelum journal bisa dikosongkan (konversi format), agar aturan dari journal sudah ada di file
+            loadRecurrences(true);
+            if (MAPPED_STORE) {
+                createStore();
+            } else if (!manifest.format().equals(snapshotFormat())) {
+                convertSnapshot();
             }
         }
+        // Mode mapped menulis perubahan langsung ke store, bukan ke journal
+        journal.setRecording(store == null);
+        loaded.countDown();
+        Metrics.LOAD.record(start);
+    }
 
-        if (!overdueFound) {
-            System.out.println(
-                    "No pets found overdue for a vet visit (all have had a vet visit within the last 6 months).");
+    // Commit snapshot yang terputus diselesaikan di sini, sebelum file snapshot dibaca
+    private static void openManifest() {
+        String defaultFormat = BINARY_SNAPSHOT && new File(SNAPSHOT_FILE).exists()
+                ? SnapshotManifest.BINARY : SnapshotManifest.TEXT;
+        try {
+            manifest = SnapshotManifest.open(Paths.get(MANIFEST_FILE), defaultFormat, Paths.get(PET_FILE),
+                    Paths.get(APPOINTMENT_FILE), Paths.get(SNAPSHOT_FILE));
+        } catch (IOException e) {
+            System.out.println("Load Error (Snapshot): " + e.getMessage());
+            System.exit(1);
         }
+        journal.setGeneration(manifest.generation());
     }
 
-    // ========== File I/O : SAVE ==========
-    // ========== File I/O : SAVE PETS (REVISED) ==========
-    private static void savePetData() {
-        // 1. Add null/empty guard
-        if (pets == null || pets.isEmpty()) {
-            System.out.println("Warning: No pets to save. Skipping pet data saving.");
+    private static String snapshotFormat() {
+        return BINARY_SNAPSHOT ? SnapshotManifest.BINARY : SnapshotManifest.TEXT;
+    }
+
+    /**
+     * Format snapshot diganti (misalnya run pertama dengan -Dpetcare.format=binary): data yang
+     * baru dimuat, termasuk journal, langsung ditulis sebagai snapshot format baru. Journal
+     * baru dikosongkan setelah snapshot itu di-commit; jika gagal, snapshot lama dan journal
+     * tetap dipakai.
+     */
+    private static void convertSnapshot() {
+        try {
+            System.out.println("Converting " + manifest.format() + " snapshot to " + snapshotFormat() + "...");
+            commitSnapshot(pets);
+            journal.reset();
+        } catch (IOException e) {
+            System.out.println("Error converting snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mode mapped dengan store yang sudah ada: store dibuka (map + cek header) di thread ini,
+     * lalu objek di memori dan semua index diisi dari store di thread "petcare-load".
+     * Perintah yang memerlukan data di memori menunggu lewat awaitLoaded(). Jika pengisian
+     * gagal, proses keluar tanpa menulis apa pun, sehingga data di store tetap utuh.
+     *
+     * @return false jika data harus dimuat lewat loadAll()
+     */
+    private static boolean loadInBackground() {
+        if (!MAPPED_STORE || !MappedStore.exists(STORE_DIR)) {
+            return false;
+        }
+        long start = Metrics.LOAD.start();
+        journal.setRecording(false);
+        openStore();
+        System.out.printf("Opened %s: %,d pets, %,d appointments in %.1f ms%n", STORE_DIR, store.petCount(),
+                store.appointmentCount(), (System.nanoTime() - start) / 1e6);
+        Thread loader = new Thread(() -> {
+            // Mutasi dan compaction menunggu sampai data lengkap
+            dataLock.writeLock().lock();
+            try {
+                loadStore(false);
+                loadRecurrences(false);
+                startReminders();
+                loaded.countDown();
+                Metrics.LOAD.record(start);
+            } catch (RuntimeException | Error e) {
+                // Data di memori tidak lengkap: 'loaded' tidak dilepas, jadi menu dan persist() tidak
+                // pernah memakainya (rewriteStore akan membuang record yang hanya ada di store).
+                // Keluar dengan write lock masih dipegang, seperti error load lain saat startup.
+                System.out.println("Load Error (Store): " + e);
+                System.exit(1);
+            } finally {
+                dataLock.writeLock().unlock();
+            }
+        }, "petcare-load");
+        loader.setDaemon(true);
+        loader.start();
+        return true;
+    }
+
+    // Display All Pets/Appointments membaca store langsung; Save dan Exit hanya memakai lock
+    private static boolean needsLoadedData(int choice) {
+        boolean fromStore = store != null && (choice == 3 || choice == 4);
+        return !fromStore && choice != 9 && choice != 0;
+    }
+
+    private static void awaitLoaded() {
+        if (loaded.getCount() == 0) {
             return;
         }
+        System.out.println("Loading data from " + STORE_DIR + "...");
+        try {
+            loaded.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Menulis 'data' sebagai snapshot penuh (format sesuai -Dpetcare.format). 'includedEntries'
+     * entri journal pertama yang masih pending sudah termasuk di 'data' dan dibuang; entri
+     * sesudahnya tetap pending. Dipakai ApiServer, yang datanya ada di SchedulerService.
+     *
+     * @param nextId ID appointment berikutnya menurut pemilik 'data'
+     */
+    static void writeSnapshot(Collection<Pet> data, long nextId, int includedEntries) throws IOException {
+        long start = Metrics.SAVE.start();
+        nextAppointmentId = Math.max(nextAppointmentId, nextId);
+        commitSnapshot(data);
+        journal.reset(includedEntries);
+        Metrics.SAVE.record(start);
+    }
+
+    /**
+     * Menulis 'data' sebagai snapshot generation berikutnya. File snapshot ditulis ke staging,
+     * lalu manifest menjadi satu titik commit untuk semuanya (lihat SnapshotManifest); journal
+     * baru mencatat generation itu. Pemanggil memegang read lock atau memiliki 'data' sendiri.
+     */
+    private static void commitSnapshot(Collection<Pet> data) throws IOException {
+        long nextId = nextAppointmentId;
+        for (Pet p : data) {
+            for (Appointment a : p.getAppointments()) {
+                nextId = Math.max(nextId, a.getId() + 1);
+            }
+        }
+        if (BINARY_SNAPSHOT) {
+            Path snapshot = Paths.get(SNAPSHOT_FILE);
+            BinarySnapshot.write(data, manifest.staged(snapshot));
+            manifest.commit(SnapshotManifest.BINARY, nextId, snapshot);
+        } else {
+            Path petFile = Paths.get(PET_FILE);
+            Path appointmentFile = Paths.get(APPOINTMENT_FILE);
+            writePetData(data, manifest.staged(petFile).toFile());
+            writeAppointmentData(data, manifest.staged(appointmentFile).toFile());
+            manifest.commit(SnapshotManifest.TEXT, nextId, petFile, appointmentFile);
+        }
+        journal.setGeneration(manifest.generation());
+    }
+
+    // ========== File I/O : SAVE (JOURNAL + COMPACTION) ==========
+    // Option 9 dan batch mode: barrier sampai semua perubahan sejauh ini ada di disk
+    private static void saveData() {
+        try {
+            autoSaver.flush();
+            System.out.println("Data saved successfully!");
+        } catch (IOException e) {
+            System.out.println("Error saving data: " + e.getMessage());
+        }
+    }
 
-        // 2. Catch specific IOException
-        try (PrintWriter writer = new PrintWriter(new FileWriter(PET_FILE))) {
+    /**
+     * Satu putaran save, dijalankan oleh AutoSaver (thread autosave, atau thread pemanggil
+     * saat autosave tidak aktif). Journal di-append tanpa lock; compaction dan recurrences.txt
+     * ditulis di bawah read lock agar tidak bertabrakan dengan mutasi dari menu.
+     */
+    private static void persist() throws IOException {
+        long start = Metrics.SAVE.start();
+        journal.flush();
+        dataLock.readLock().lock();
+        try {
+            if (store != null) {
+                // Mode mapped: perubahan sudah ada di file; di sini titik durability-nya
+                // Store hanya ditulis ulang dari memori setelah load di background selesai dengan sukses
+                if (loaded.getCount() == 0 && store.needsCompaction()) {
+                    rewriteStore(pets);
+                } else {
+                    store.force();
+                }
+            }
+            if (recurrences.isDirty()) {
+                // Aturan sedikit dan ringkas, jadi ditulis ulang utuh; sebelum compaction membuang entri P
+                recurrences.write(Paths.get(RECURRENCE_FILE));
+            }
+            if (store == null && journal.needsCompaction()) {
+                // Lipat journal kembali ke snapshot agar replay saat startup tetap singkat
+                commitSnapshot(pets);
+                // Snapshot memuat semua perubahan sampai read lock diambil, termasuk entri yang masih
+                // pending sejak flush di atas; reset() membuang entri itu bersama isi journal
+                journal.reset();
+            }
+        } finally {
+            dataLock.readLock().unlock();
+        }
+        if (pets.needsCompaction() || appointments.needsCompaction() || searchIndex.needsCompaction()) {
+            // Tombstone dari cancel/remove dibersihkan di sini, bukan di jalur menu
+            dataLock.writeLock().lock();
+            try {
+                pets.compact();
+                appointments.compact();
+                searchIndex.compact();
+            } finally {
+                dataLock.writeLock().unlock();
+            }
+        }
+        Metrics.SAVE.record(start);
+    }
 
-            for (Pet p : pets) {
+    // ========== File I/O : SAVE ==========
+    // Daftar kosong tetap ditulis (file kosong), agar pets.txt tidak menyimpan data yang sudah tidak ada
+    // Format teks pets.txt: petId|name|breed|age|owner|contact|registrationDate
+    // Ditulis ke file sementara lalu di-rename, sehingga crash tidak meninggalkan pets.txt setengah jadi
+    static void writePetData(Collection<Pet> petList, File file) throws IOException {
+        AtomicFiles.write(file.toPath(), out -> {
+            PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+            for (Pet p : petList) {
                 writer.println(
                         p.getPetId() + "|" +
                                 p.getName() + "|" +
@@ -484,26 +1524,20 @@ public class PetCareScheduler {
                                 p.getRegistrationDate());
             }
 
-        } catch (IOException e) {
-            System.out.println("Error saving pets: " + e.getMessage());
-        }
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("Write to " + file + " failed");
+            }
+        });
     }
 
-    // ========== File I/O : SAVE APPOINTMENTS (REVISED for Pet ID Association)
-    // ==========
-    private static void saveAppointmentData() {
-        // 1. Add null/empty guard
-        if (pets == null || pets.isEmpty()) {
-            // Jika tidak ada pets, tidak ada appointments yang perlu disimpan.
-            System.out.println("Warning: No pets available. Skipping appointment data saving.");
-            return;
-        }
-
-        // 2. Catch specific IOException
-        try (PrintWriter writer = new PrintWriter(new FileWriter(APPOINTMENT_FILE))) {
+    // Format teks appointments.txt: petId|type|dateTime|notes|appointmentId
+    static void writeAppointmentData(Collection<Pet> petList, File file) throws IOException {
+        AtomicFiles.write(file.toPath(), out -> {
+            PrintWriter writer = new PrintWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
 
             // ITERASI melalui PETS untuk mendapatkan asosiasi ID
-            for (Pet p : pets) {
+            for (Pet p : petList) {
                 // Menggunakan getAppointments() dari Pet yang mengembalikan List yang valid
                 // untuk iterasi
                 for (Appointment a : p.getAppointments()) {
@@ -512,18 +1546,99 @@ public class PetCareScheduler {
                             p.getPetId() + "|" +
                                     a.getAppointmentType() + "|" +
                                     a.getDateTime() + "|" +
-                                    a.getNotes());
+                                    a.getNotes() + "|" +
+                                    a.getId());
                 }
             }
 
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("Write to " + file + " failed");
+            }
+        });
+    }
+
+    // ========== File I/O : MAPPED STORE ==========
+    // Store yang tidak bisa dibuka tidak ditimpa dari file teks; pengguna harus memindahkannya dulu
+    private static void openStore() {
+        try {
+            useStore(MappedStore.open(STORE_DIR));
+        } catch (IOException e) {
+            System.out.println("Load Error (Store): " + e.getMessage());
+            System.out.println("Move " + STORE_DIR + " away to rebuild it from " + PET_FILE + " and "
+                    + APPOINTMENT_FILE + ".");
+            System.exit(1);
+        }
+        if (store.recoveryNote() != null) {
+            System.out.println(store.recoveryNote());
+        }
+    }
+
+    // Pertama kali mode mapped dipakai: data yang baru dimuat dari file teks/snapshot menjadi isi store
+    private static void createStore() {
+        try {
+            System.out.println("Creating mapped store " + STORE_DIR + "...");
+            MappedStore.write(STORE_DIR, pets);
+            useStore(MappedStore.open(STORE_DIR));
+        } catch (IOException e) {
+            // Tetap memakai journal dan file teks untuk sesi ini
+            System.out.println("Error creating store: " + e.getMessage());
+        }
+    }
+
+    private static void loadStore(boolean printSummary) {
+        LoadReport petReport = new LoadReport("Pets");
+        LoadReport appointmentReport = new LoadReport("Appointments");
+        FastDataLoader.LoadedData data = store.readAll(petReport, appointmentReport);
+        installPets(data.pets);
+        installAppointments(data.appointments, appointmentReport);
+        if (printSummary) {
+            petReport.printSummary();
+            appointmentReport.printSummary();
+        }
+    }
+
+    // Menulis ulang store dari 'data' (compaction heap string, atau snapshot dari ApiServer) lalu beralih
+    private static void rewriteStore(Collection<Pet> data) throws IOException {
+        store.force();
+        MappedStore.write(STORE_DIR, data);
+        useStore(MappedStore.open(STORE_DIR));
+    }
+
+    // Store lama ditutup, tetapi mapping-nya tetap valid untuk pembaca yang masih memakainya
+    private static void useStore(MappedStore next) {
+        MappedStore previous = store;
+        if (next != null) {
+            next.setOnWrite(autoSaver::markDirty);
+            SchedulerEvents.register(next);
+        }
+        store = next;
+        if (previous != null) {
+            SchedulerEvents.unregister(previous);
+            previous.close();
+        }
+    }
+
+    // ========== File I/O : BINARY SNAPSHOT ==========
+    static void loadBinarySnapshot(File file) {
+        LoadReport petReport = new LoadReport("Pets");
+        LoadReport appointmentReport = new LoadReport("Appointments");
+        try {
+            System.out.println("Loading snapshot " + file + "...");
+            FastDataLoader.LoadedData data = BinarySnapshot.read(file.toPath(), petReport, appointmentReport);
+            installPets(data.pets);
+            installAppointments(data.appointments, appointmentReport);
         } catch (IOException e) {
-            System.out.println("Error saving appointments: " + e.getMessage());
+            System.out.println("Load Error (Snapshot): " + e.getMessage());
         }
+        petReport.printSummary();
+        appointmentReport.printSummary();
+        Metrics.parseErrors(petReport);
+        Metrics.parseErrors(appointmentReport);
     }
 
     // ========== File I/O : LOAD (REVISED for registrationDate) ==========
-    private static void loadPetData() {
-        File file = new File(PET_FILE);
+    static void loadPetData(File file) {
         if (!file.exists()) {
             // System.out.println("Info: Pet file not found. Starting with empty list.");
             return;
@@ -556,9 +1671,16 @@ public class PetCareScheduler {
                     int age = Integer.parseInt(data[3].trim());
                     String owner = data[4].trim();
                     String contact = data[5].trim();
+                    LocalDate registrationDate = LocalDate.parse(data[6].trim());
 
-                    Pet p = new Pet(id, name, breed, age, owner, contact);
+                    Pet p = new Pet(id, name, breed, age, owner, contact, registrationDate);
                     pets.add(p);
+                    // Jika ID duplikat, entri pertama tetap dipakai untuk lookup
+                    if (petIndex.putIfAbsent(p)) {
+                        vetVisitIndex.add(p);
+                        searchIndex.addPet(p);
+                    }
+                    DataVersion.bump();
                     loadedCount++;
 
                 } catch (NumberFormatException e) {
@@ -580,12 +1702,12 @@ public class PetCareScheduler {
 
         // 4. Print Ringkasan
         System.out.println("Loaded " + loadedCount + " pet records successfully.");
+        Metrics.parseErrors("pets", lineCounter - loadedCount);
     }
 
     // ========== File I/O : LOAD APPOINTMENTS (REVISED for Robustness and Pet ID
     // link) ==========
-    private static void loadAppointmentData() {
-        File file = new File(APPOINTMENT_FILE);
+    static void loadAppointmentData(File file) {
         if (!file.exists()) {
             // System.out.println("Info: Appointment file not found. Starting with empty
             // list.");
@@ -594,7 +1716,7 @@ public class PetCareScheduler {
 
         int loadedCount = 0;
         int lineCounter = 0;
-        final int MIN_EXPECTED_FIELDS = 3; // petId, type, dateTime, (optional) notes
+        final int MIN_EXPECTED_FIELDS = 3; // petId, type, dateTime, (optional) notes, (optional) id
 
         try (Scanner sc = new Scanner(file)) {
 
@@ -618,18 +1740,27 @@ public class PetCareScheduler {
                     String type = data[1].trim();
                     LocalDateTime dateTime = LocalDateTime.parse(data[2].trim());
 
-                    // Defensively handle optional Notes field
-                    String notes = data.length > 3 ? data[3].trim() : "";
+                    // Defensively handle optional Notes field; ID (jika ada) adalah field terakhir,
+                    // notes di antaranya boleh mengandung '|' (lihat FastDataLoader)
+                    long appointmentId = data.length >= FastDataLoader.APPOINTMENT_FIELDS_WITH_ID
+                            ? parseAppointmentId(data[data.length - 1]) : -1;
+                    String notes;
+                    if (appointmentId > 0) {
+                        notes = String.join("|", Arrays.asList(data).subList(3, data.length - 1)).trim();
+                    } else {
+                        notes = data.length > 3 ? data[3].trim() : "";
+                    }
 
                     Appointment a = new Appointment(type, dateTime, notes);
-                    appointments.add(a);
+                    if (appointmentId > 0) {
+                        a.setId(appointmentId);
+                    }
                     loadedCount++;
 
                     // Menghubungkan Appointment kembali ke objek Pet yang benar
                     Pet pet = findPetById(petId);
-                    if (pet != null) {
-                        pet.addAppointment(a);
-                    } else {
+                    addAppointment(pet, a);
+                    if (pet == null) {
                         System.out.println("Load Warning (Appointments) Line " + lineCounter
                                 + ": Appointment loaded, but Pet ID " + petId + " not found to link.");
                     }
@@ -651,5 +1782,364 @@ public class PetCareScheduler {
 
         // 4. Print Ringkasan
         System.out.println("Loaded " + loadedCount + " appointment records successfully.");
+        Metrics.parseErrors("appointments", lineCounter - loadedCount);
+    }
+
+    // ID positif, atau -1 jika field bukan ID (baris format lama yang notes-nya mengandung '|')
+    private static long parseAppointmentId(String field) {
+        String s = field.trim();
+        if (s.isEmpty() || s.length() > 18) {
+            return -1;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return Long.parseLong(s);
+    }
+
+    // ========== File I/O : RECURRENCES ==========
+    // Setelah replay journal, karena aturan bisa milik pet yang baru ada di journal
+    // printSummary false: dimuat di background, jangan menimpa tampilan menu
+    private static void loadRecurrences(boolean printSummary) {
+        LoadReport report = new LoadReport("Recurrences");
+        try {
+            recurrences.load(Paths.get(RECURRENCE_FILE), PetCareScheduler::findPetById, report);
+            if (recurrences.isDirty()) {
+                // Aturan yang hanya ada di journal ditulis sekarang, sebelum journal bisa dikosongkan
+                recurrences.write(Paths.get(RECURRENCE_FILE));
+            }
+        } catch (IOException e) {
+            System.out.println("Load Error (Recurrences): " + e.getMessage());
+        }
+        if (printSummary && report.getLines() > 0) {
+            report.printSummary();
+        }
+        Metrics.parseErrors(report);
+
+    }
+
+    // ========== File I/O : JOURNAL REPLAY ==========
+    // Setiap entri idempoten: journal dari generation lama boleh di-replay di atas snapshot yang lebih baru
+    private static void replayJournal() {
+        LoadReport report = new LoadReport("Journal");
+        try {
+            journal.replay(new Journal.Handler() {
+                @Override
+                public void register(Pet pet) {
+                    if (petIndex.putIfAbsent(pet)) {
+                        pets.add(pet);
+                        vetVisitIndex.add(pet);
+                        searchIndex.addPet(pet);
+                        DataVersion.bump();
+                    }
+                }
+
+                @Override
+                public void schedule(int petId, Appointment appointment) {
+                    Pet pet = findPetById(petId);
+                    // Pet sudah dihapus, atau appointment sudah ada di snapshot
+                    boolean known = appointment.getId() > 0 ? appointmentIds.get(appointment.getId()) != null
+                            : findAppointment(petId, appointment.getAppointmentType(),
+                                    appointment.getDateTime()) != null;
+                    if (pet != null && !known) {
+                        addAppointment(pet, appointment);
+                    }
+                }
+
+                @Override
+                public void cancel(int petId, String type, LocalDateTime dateTime) {
+                    Appointment a = findAppointment(petId, type, dateTime);
+                    if (a != null) {
+                        detachAppointment(a);
+                    }
+                }
+
+                @Override
+                public void cancel(long appointmentId) {
+                    Appointment a = appointmentIds.get(appointmentId);
+                    if (a != null) {
+                        detachAppointment(a);
+                    }
+                }
+
+                @Override
+                public void reschedule(long appointmentId, LocalDateTime newDateTime) {
+                    Appointment a = appointmentIds.get(appointmentId);
+                    if (a != null) {
+                        a.setDateTime(newDateTime);
+                    }
+                }
+
+                @Override
+                public void removePet(int petId) {
+                    Pet pet = petIndex.get(petId);
+                    if (pet != null) {
+                        detachPet(pet);
+                    }
+                }
+
+                // Reminder kejadiannya didaftarkan saat reminder dijalankan (startReminders)
+                @Override
+                public void addRule(RecurrenceRule rule) {
+                    Pet pet = findPetById(rule.getPetId());
+                    if (pet != null && !recurrences.contains(rule)) {
+                        recurrences.add(pet, rule);
+                    }
+                }
+
+                @Override
+                public void reschedule(int petId, String type, LocalDateTime oldDateTime,
+                        LocalDateTime newDateTime) {
+                    Appointment a = findAppointment(petId, type, oldDateTime);
+                    if (a != null) {
+                        a.setDateTime(newDateTime);
+                    }
+                }
+            }, report);
+        } catch (IOException e) {
+            System.out.println("Load Error (Journal): " + e.getMessage());
+        }
+        if (report.getLines() > 1 || report.getWarnings() > 0) {
+            report.printSummary();
+        }
+    }
+
+    // Mencari janji temu milik pet berdasarkan tipe dan waktu (dipakai oleh replay journal)
+    private static Appointment findAppointment(int petId, String type, LocalDateTime dateTime) {
+        Pet pet = findPetById(petId);
+        if (pet == null) {
+            return null;
+        }
+        for (Appointment a : pet.getAppointments()) {
+            if (a.getAppointmentType().equalsIgnoreCase(type) && a.getDateTime().equals(dateTime)) {
+                return a;
+            }
+        }
+        return null;
+    }
+
+    // ========== File I/O : LOAD MODE SELECTION ==========
+    // -Dpetcare.loader=scanner|nio|parallel (default: parallel untuk file besar di mesin multi-core)
+    private static final long PARALLEL_LOAD_THRESHOLD = 16L << 20;
+
+    static void loadData(File petFile, File appointmentFile) {
+        String mode = System.getProperty("petcare.loader", "auto").toLowerCase();
+        if (mode.equals("auto")) {
+            long size = petFile.length() + appointmentFile.length();
+            boolean parallel = Runtime.getRuntime().availableProcessors() > 1 && size >= PARALLEL_LOAD_THRESHOLD;
+            mode = parallel ? "parallel" : "nio";
+        }
+
+        switch (mode) {
+            case "scanner":
+                loadPetData(petFile);
+                loadAppointmentData(appointmentFile);
+                break;
+            case "parallel":
+                loadDataParallel(petFile, appointmentFile, ForkJoinPool.commonPool());
+                break;
+            default:
+                loadPetDataFast(petFile);
+                loadAppointmentDataFast(appointmentFile);
+        }
+    }
+
+    // ========== File I/O : PARALLEL LOAD ==========
+    static void loadDataParallel(File petFile, File appointmentFile, ForkJoinPool pool) {
+        if (!petFile.exists() && !appointmentFile.exists()) {
+            return;
+        }
+
+        LoadReport petReport = new LoadReport("Pets");
+        LoadReport appointmentReport = new LoadReport("Appointments");
+        try {
+            System.out.println("Loading pet and appointment data (parallel, " + pool.getParallelism()
+                    + " workers)...");
+            FastDataLoader.LoadedData result = ParallelDataLoader.load(petFile.toPath(), petReport,
+                    appointmentFile.toPath(), appointmentReport, pool);
+            // Pet harus lengkap dulu sebelum appointment ditautkan
+            installPets(result.pets);
+            installAppointments(result.appointments, appointmentReport);
+        } catch (IOException e) {
+            System.out.println("Load Error: " + e.getMessage());
+        }
+        if (petFile.exists()) {
+            petReport.printSummary();
+            Metrics.parseErrors(petReport);
+        }
+        if (appointmentFile.exists()) {
+            appointmentReport.printSummary();
+            Metrics.parseErrors(appointmentReport);
+        }
+    }
+
+    // ========== File I/O : FAST LOAD (NIO) ==========
+    static void loadPetDataFast(File file) {
+        if (!file.exists()) {
+            return;
+        }
+
+        LoadReport report = new LoadReport("Pets");
+        try {
+            System.out.println("Loading pet data...");
+            installPets(FastDataLoader.readPets(file.toPath(), report));
+        } catch (IOException e) {
+            System.out.println("Load Error (Pets): " + e.getMessage());
+        }
+        report.printSummary();
+        Metrics.parseErrors(report);
+    }
+
+    static void loadAppointmentDataFast(File file) {
+        if (!file.exists()) {
+            return;
+        }
+
+        LoadReport report = new LoadReport("Appointments");
+        try {
+            System.out.println("Loading appointment data...");
+            installAppointments(FastDataLoader.readAppointments(file.toPath(), report), report);
+        } catch (IOException e) {
+            System.out.println("Load Error (Appointments): " + e.getMessage());
+        }
+        report.printSummary();
+        Metrics.parseErrors(report);
+    }
+
+    // Memasukkan hasil parse ke list global dan semua index
+    private static void installPets(FastDataLoader.PetBatch batch) {
+        pets.ensureCapacity(pets.size() + batch.pets.size());
+        petIndex.ensureCapacity(petIndex.size() + batch.pets.size());
+        for (Pet p : batch.pets) {
+            pets.add(p);
+            // Jika ID duplikat, entri pertama tetap dipakai untuk lookup
+            if (petIndex.putIfAbsent(p)) {
+                vetVisitIndex.add(p);
+                searchIndex.addPet(p);
+            }
+        }
+        DataVersion.bump();
+    }
+
+    // Menautkan appointment ke pet lewat petIndex (O(1) per baris)
+    private static void installAppointments(FastDataLoader.AppointmentBatch batch, LoadReport report) {
+        appointments.ensureCapacity(appointments.size() + batch.size());
+        appointmentIds.ensureCapacity(appointmentIds.size() + batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Appointment a = batch.appointments.get(i);
+            Pet pet = findPetById(batch.petIds[i]);
+            addAppointment(pet, a);
+            if (pet == null) {
+                report.addWarning(batch.lineNumbers[i],
+                        "Appointment loaded, but Pet ID " + batch.petIds[i] + " not found to link.");
+            }
+        }
+    }
+
+    /**
+     * Satu-satunya jalur untuk memasukkan appointment ke list global dan index-nya.
+     * Appointment yang tidak punya pet tetap disimpan di list, tetapi tidak memakai slot
+     * (tidak bisa dibatalkan/diubah, jadi tidak pernah dilepas dari slot index).
+     * Data yang dimuat tidak ditolak walaupun bentrok; pengecekan hanya saat menjadwalkan.
+     */
+    private static void addAppointment(Pet pet, Appointment a) {
+        assignId(a);
+        appointments.add(a);
+        timeIndex.add(a);
+        typeIndex.add(a);
+        if (pet != null) {
+            pet.addAppointment(a);
+            slotIndex.add(a);
+            reminders.add(a);
+            searchIndex.addAppointment(a);
+        }
+    }
+
+    /**
+     * Appointment dari file lama (tanpa ID) atau booking baru mendapat ID berikutnya. ID yang
+     * diberikan saat load deterministik (urutan snapshot lalu journal), sehingga entri journal
+     * yang merujuk ID tersebut tetap cocok sampai compaction menyimpannya.
+     */
+    private static void assignId(Appointment a) {
+        if (a.getId() <= 0 || appointmentIds.get(a.getId()) != null) {
+            a.setId(nextAppointmentId++);
+        } else if (a.getId() >= nextAppointmentId) {
+            nextAppointmentId = a.getId() + 1;
+        }
+        appointmentIds.putIfAbsent(a);
+    }
+
+    // Kebalikan addAppointment; index lain melepas appointment lewat SchedulerEvents.appointmentRemoved
+    private static void detachAppointment(Appointment a) {
+        Pet pet = a.getPet();
+        if (pet == null || !pet.removeAppointment(a)) {
+            // Appointment tanpa pet hanya ada di index waktu dan tipe
+            timeIndex.remove(a);
+            typeIndex.remove(a);
+        }
+        appointments.remove(a);
+        appointmentIds.remove(a.getId());
+    }
+
+    // Index turunan melepas pet dan semua appointment-nya lewat SchedulerEvents.petRemoved
+    private static void detachPet(Pet pet) {
+        SchedulerEvents.petRemoved(pet);
+        for (Appointment a : pet.getAppointments()) {
+            appointments.remove(a);
+            appointmentIds.remove(a.getId());
+        }
+        pets.remove(pet);
+        petIndex.remove(pet.getPetId());
+        for (RecurrenceRule rule : recurrences.forPet(pet)) {
+            recurrenceReminders.remove(rule);
+        }
+        recurrences.removePet(pet);
+        DataVersion.bump();
+    }
+
+    // Mengosongkan semua data di memori (dipakai oleh benchmark loader); store tidak lagi mengikuti data ini
+    static void clearData() {
+        useStore(null);
+        pets.clear();
+        appointments.clear();
+        appointmentIds.clear();
+        nextAppointmentId = 1;
+        petIndex.clear();
+        timeIndex.clear();
+        vetVisitIndex.clear();
+        slotIndex.clear();
+        reminders.clear();
+        recurrenceReminders.clear();
+        recurrences.clear();
+        searchIndex.clear();
+        typeIndex.clear();
+    }
+
+    // Journal menu; ApiServer mencatat perubahan SchedulerService ke sini setelah loadAll()
+    static Journal journal() {
+        return journal;
+    }
+
+    // ID appointment berikutnya setelah loadAll() (termasuk ID yang pernah dipakai lalu dibatalkan)
+    static long nextAppointmentId() {
+        return nextAppointmentId;
+    }
+
+    static boolean usesMappedStore() {
+        return MAPPED_STORE;
+    }
+
+    static Collection<Pet> allPets() {
+        return Collections.unmodifiableCollection(pets);
+    }
+
+    static int petCount() {
+        return pets.size();
+    }
+
+    static int appointmentCount() {
+        return appointments.size();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,169 @@
+package PetCareScheduler;
+
+import java.util.Arrays;
+
+/**
+ * Hash index dari Pet ID ke objek Pet.
+ * Menggunakan open addressing (linear probing) di atas array int primitif
+ * sehingga key tidak pernah di-box menjadi Integer.
+ */
+public class PetIndex {
+
+    private static final int DEFAULT_CAPACITY = 16; // harus pangkat dua
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Pet[] values; // slot null = kosong
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    // Constructor
+    public PetIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PetIndex(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    // Getters
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsId(int petId) {
+        return get(petId) != null;
+    }
+
+    /**
+     * Mengembalikan Pet dengan ID tersebut, atau null jika tidak ada.
+     */
+    public Pet get(int petId) {
+        int i = mix(petId) & mask;
+        Pet p;
+        while ((p = values[i]) != null) {
+            if (keys[i] == petId) {
+                return p;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Menambahkan Pet hanya jika ID-nya belum terdaftar.
+     *
+     * @return true jika ditambahkan, false jika ID sudah ada (entri lama dipertahankan)
+     */
+    public boolean putIfAbsent(Pet pet) {
+        int petId = pet.getPetId();
+        int i = mix(petId) & mask;
+        while (values[i] != null) {
+            if (keys[i] == petId) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = petId;
+        values[i] = pet;
+        if (++size > resizeThreshold) {
+            rehash(values.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Menghapus Pet dengan ID tersebut (backward-shift deletion, tanpa tombstone).
+     *
+     * @return Pet yang dihapus, atau null jika tidak ada
+     */
+    public Pet remove(int petId) {
+        int i = mix(petId) & mask;
+        Pet p;
+        while ((p = values[i]) != null) {
+            if (keys[i] == petId) {
+                shiftBack(i);
+                size--;
+                return p;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // Memperbesar tabel di awal agar bulk load tidak berulang kali rehash
+    public void ensureCapacity(int expectedSize) {
+        int needed = tableSizeFor(expectedSize);
+        if (needed > values.length) {
+            rehash(needed);
+        }
+    }
+
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            Pet p = values[i];
+            if (p == null) {
+                break;
+            }
+            int home = mix(keys[i]) & mask;
+            // Entri di i boleh pindah ke lubang hanya jika home slot-nya tidak di (hole, i]
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = p;
+                hole = i;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        Pet[] oldValues = values;
+        allocate(newCapacity);
+        for (int j = 0; j < oldValues.length; j++) {
+            Pet p = oldValues[j];
+            if (p != null) {
+                int i = mix(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = p;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Pet[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.max(expectedSize, 1) * 2; // load factor tetap <= 0.5
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < needed && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // ID berurutan (1, 2, 3, ...) akan menggerombol tanpa diacak dulu
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,292 @@
+package PetCareScheduler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Menjalankan AppointmentQuery dengan planner sederhana: setiap jalur akses yang bisa
+ * dipakai query (lookup ID appointment, ID pet, partisi tipe, rentang waktu, index teks,
+ * atau scan semua appointment) diberi perkiraan jumlah baris, lalu yang paling kecil
+ * dipilih. Semua filter tetap dicek pada setiap baris kandidat, jadi jalur akses hanya
+ * menentukan berapa banyak baris yang dibaca, bukan hasilnya.
+ *
+ * Perkiraan diambil dari index tanpa membaca baris: ukuran pasti untuk lookup dan partisi
+ * tipe, hitungan rentang TreeMap yang berhenti setelah melewati kandidat terbaik, dan
+ * posting list kata paling selektif untuk index teks.
+ *
+ * Jika jalur akses sudah urut waktu dan query meminta sort=date (naik), eksekusi berhenti
+ * setelah 'limit' hasil. Selain itu hasil disortir; dengan limit hanya top-k yang disimpan.
+ *
+ * Index tipe dan index teks hanya dipertimbangkan jika sudah dibangun (lihat isBuilt()).
+ */
+final class QueryEngine {
+
+    enum Access {
+        APPOINTMENT_ID("appointment-id lookup"),
+        PET_ID("pet-id lookup"),
+        TYPE_PARTITION("type partition"),
+        TIME_RANGE("time range"),
+        NOTES_INDEX("notes text index"),
+        PET_INDEX("pet text index"),
+        FULL_SCAN("full scan");
+
+        final String label;
+
+        Access(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Satu jalur akses beserta perkiraan baris yang akan dibacanya.
+     */
+    static final class Candidate {
+        final Access access;
+        final String detail;
+        final long estimate;
+        final boolean capped; // perhitungan berhenti di batas; jumlah sebenarnya >= estimate
+        final boolean timeOrdered;
+        private final Supplier<Iterable<Appointment>> source;
+
+        Candidate(Access access, String detail, long estimate, boolean capped, boolean timeOrdered,
+                Supplier<Iterable<Appointment>> source) {
+            this.access = access;
+            this.detail = detail;
+            this.estimate = estimate;
+            this.capped = capped;
+            this.timeOrdered = timeOrdered;
+            this.source = source;
+        }
+
+        String describe() {
+            return access.label + (detail.isEmpty() ? "" : " " + detail) + " (est. " + (capped ? ">= " : "")
+                    + String.format("%,d", estimate) + " row(s))";
+        }
+    }
+
+    /**
+     * Jalur akses yang dipilih dan semua jalur yang dipertimbangkan (urutan evaluasi).
+     */
+    static final class Plan {
+        final Candidate chosen;
+        final List<Candidate> considered;
+        final boolean streaming; // urutan index = urutan hasil; berhenti setelah limit
+
+        Plan(Candidate chosen, List<Candidate> considered, boolean streaming) {
+            this.chosen = chosen;
+            this.considered = considered;
+            this.streaming = streaming;
+        }
+    }
+
+    static final class Result {
+        final Plan plan;
+        final List<Appointment> rows;
+        final long examined;
+        final long matched; // pada eksekusi streaming: hanya yang ditemukan sebelum berhenti
+        final long elapsedNanos;
+
+        Result(Plan plan, List<Appointment> rows, long examined, long matched, long elapsedNanos) {
+            this.plan = plan;
+            this.rows = rows;
+            this.examined = examined;
+            this.matched = matched;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    private final Collection<Appointment> appointments;
+    private final PetIndex petIndex;
+    private final AppointmentIdIndex appointmentIds;
+    private final AppointmentTimeIndex timeIndex;
+    private final AppointmentTypeIndex typeIndex;
+    private final SearchIndex searchIndex;
+    private final IntSupplier petCount;
+
+    QueryEngine(Collection<Appointment> appointments, IntSupplier petCount, PetIndex petIndex,
+            AppointmentIdIndex appointmentIds, AppointmentTimeIndex timeIndex, AppointmentTypeIndex typeIndex,
+            SearchIndex searchIndex) {
+        this.appointments = appointments;
+        this.petCount = petCount;
+        this.petIndex = petIndex;
+        this.appointmentIds = appointmentIds;
+        this.timeIndex = timeIndex;
+        this.typeIndex = typeIndex;
+        this.searchIndex = searchIndex;
+    }
+
+    // ========== Planner ==========
+
+    Plan plan(AppointmentQuery q) {
+        List<Candidate> considered = new ArrayList<>();
+        Candidate best = null;
+
+        if (q.appointmentId != null) {
+            Appointment a = appointmentIds.get(q.appointmentId);
+            best = cheaper(best, considered, new Candidate(Access.APPOINTMENT_ID, "#" + q.appointmentId,
+                    a == null ? 0 : 1, false, true,
+                    () -> a == null ? Collections.emptyList() : Collections.singletonList(a)));
+        }
+        if (q.petId != null) {
+            Pet pet = petIndex.get(q.petId);
+            List<Appointment> own = pet == null ? Collections.emptyList() : pet.getAppointments();
+            best = cheaper(best, considered, new Candidate(Access.PET_ID, "#" + q.petId, own.size(), false, false,
+                    () -> own));
+        }
+        if (q.type != null && typeIndex.isBuilt()) {
+            long cap = cap(best);
+            long n = typeIndex.countRange(q.type, q.from, q.to, cap);
+            String detail = "'" + q.type + "'"
+                    + (q.hasTimeRange() ? " " + AppointmentQuery.describeRange(q.from, q.to) : "");
+            best = cheaper(best, considered, new Candidate(Access.TYPE_PARTITION, detail, n, n >= cap, true,
+                    () -> typeIndex.range(q.type, q.from, q.to)));
+        }
+        if (!q.notes.isEmpty() && searchIndex.isBuilt()) {
+            String text = q.notesText();
+            long n = searchIndex.estimateNotes(text);
+            best = cheaper(best, considered, new Candidate(Access.NOTES_INDEX, "\"" + text + "\"", n, false, false,
+                    () -> searchIndex.searchNotes(text, Integer.MAX_VALUE)));
+        }
+        if (q.hasPetText() && searchIndex.isBuilt()) {
+            String text = q.petText();
+            long petsMatched = searchIndex.estimatePets(text);
+            // Pet yang cocok x rata-rata appointment per pet
+            long perPet = Math.max(1, appointments.size() / Math.max(1, petCount.getAsInt()));
+            long n = petsMatched > Long.MAX_VALUE / perPet ? Long.MAX_VALUE : petsMatched * perPet;
+            best = cheaper(best, considered, new Candidate(Access.PET_INDEX, "\"" + text + "\"", n, false, false,
+                    () -> appointmentsOf(searchIndex.searchPets(text, Integer.MAX_VALUE))));
+        }
+        if (q.hasTimeRange()) {
+            long cap = cap(best);
+            long n = timeIndex.countRange(q.from, q.to, cap);
+            best = cheaper(best, considered, new Candidate(Access.TIME_RANGE,
+                    AppointmentQuery.describeRange(q.from, q.to), n, n >= cap, true,
+                    () -> timeIndex.range(q.from, q.to)));
+        }
+        best = cheaper(best, considered, new Candidate(Access.FULL_SCAN, "", appointments.size(), false, false,
+                () -> appointments));
+
+        boolean streaming = best.timeOrdered && q.sort == AppointmentQuery.SortField.DATE && !q.descending;
+        return new Plan(best, considered, streaming);
+    }
+
+    // Kandidat baru menggantikan yang terbaik hanya jika lebih murah; jika sama, yang dievaluasi lebih dulu menang
+    private static Candidate cheaper(Candidate best, List<Candidate> considered, Candidate c) {
+        considered.add(c);
+        return best == null || c.estimate < best.estimate ? c : best;
+    }
+
+    // Menghitung rentang lebih jauh dari kandidat terbaik (atau dari full scan) tidak mengubah pilihan
+    private long cap(Candidate best) {
+        return best == null ? appointments.size() : best.estimate;
+    }
+
+    private static Iterable<Appointment> appointmentsOf(List<Pet> pets) {
+        return () -> new Iterator<Appointment>() {
+            private final Iterator<Pet> petIt = pets.iterator();
+            private Iterator<Appointment> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && petIt.hasNext()) {
+                    current = petIt.next().getAppointments().iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public Appointment next() {
+                hasNext();
+                return current.next();
+            }
+        };
+    }
+
+    // ========== Execution ==========
+
+    Result execute(AppointmentQuery q) {
+        long start = System.nanoTime();
+        Plan plan = plan(q);
+        Comparator<Appointment> order = q.comparator();
+        long examined = 0;
+        long matched = 0;
+        List<Appointment> rows;
+
+        if (plan.streaming) {
+            rows = new ArrayList<>();
+            LocalDateTime last = null;
+            for (Appointment a : plan.chosen.source.get()) {
+                // Setelah limit tercapai, sisa appointment pada waktu yang sama tetap dibaca agar urutan ID benar
+                if (q.limit > 0 && rows.size() >= q.limit && !a.getDateTime().equals(last)) {
+                    break;
+                }
+                examined++;
+                if (q.matches(a)) {
+                    rows.add(a);
+                    last = a.getDateTime();
+                    matched++;
+                }
+            }
+            rows.sort(order);
+            if (q.limit > 0 && rows.size() > q.limit) {
+                rows = new ArrayList<>(rows.subList(0, q.limit));
+            }
+        } else if (q.limit > 0) {
+            // Top-k: heap berisi 'limit' hasil terbaik, kepala heap = yang paling buruk
+            PriorityQueue<Appointment> top = new PriorityQueue<>(Math.min(q.limit, 1024) + 1, order.reversed());
+            for (Appointment a : plan.chosen.source.get()) {
+                examined++;
+                if (q.matches(a)) {
+                    matched++;
+                    top.add(a);
+                    if (top.size() > q.limit) {
+                        top.poll();
+                    }
+                }
+            }
+            rows = new ArrayList<>(top);
+            rows.sort(order);
+        } else {
+            rows = new ArrayList<>();
+            for (Appointment a : plan.chosen.source.get()) {
+                examined++;
+                if (q.matches(a)) {
+                    rows.add(a);
+                }
+            }
+            matched = rows.size();
+            rows.sort(order);
+        }
+        return new Result(plan, rows, examined, matched, System.nanoTime() - start);
+    }
+
+    // ========== Explain ==========
+
+    static List<String> explain(AppointmentQuery q, Result r) {
+        Plan plan = r.plan;
+        List<String> lines = new ArrayList<>();
+        lines.add("Access : " + plan.chosen.describe());
+        List<String> filters = q.describeFilters();
+        lines.add("Filter : " + (filters.isEmpty() ? "(none)" : String.join(" AND ", filters)));
+        String sort = q.sort.name().toLowerCase(Locale.ROOT) + (q.descending ? " desc" : " asc");
+        lines.add("Sort   : " + sort + (plan.streaming ? " (index order, stops after limit)"
+                : q.limit > 0 ? " (top-" + q.limit + " heap)" : " (full sort)"));
+        lines.add("Limit  : " + (q.limit > 0 ? String.valueOf(q.limit) : "(none)"));
+        lines.add("Considered:");
+        for (Candidate c : plan.considered) {
+            lines.add((c == plan.chosen ? "  * " : "    ") + c.describe());
+        }
+        lines.add(String.format("Executed: examined %,d row(s), matched %,d%s, returned %,d in %.3f ms", r.examined,
+                r.matched, plan.streaming ? " before stopping" : "", r.rows.size(), r.elapsedNanos / 1e6));
+        return lines;
+    }
+}
@@ -0,0 +1,158 @@
+package PetCareScheduler;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Koleksi record (pet atau appointment) di atas array, dengan remove O(1): setiap record
+ * menyimpan posisinya sendiri (slot), dan remove hanya mengosongkan slot itu (tombstone)
+ * tanpa menggeser isi array. Urutan iterasi tetap urutan masuk.
+ *
+ * Tombstone dibersihkan oleh compact(), yang dijalankan di luar jalur menu (thread autosave)
+ * saat needsCompaction(). compact() tidak mengubah array lama tetapi membuat array baru,
+ * sehingga iterator yang sedang berjalan tetap melihat isi yang konsisten.
+ *
+ * Mutasi (add, remove, compact, clear) harus diserialisasi oleh pemanggil; iterasi boleh
+ * berjalan bersamaan dengan compact().
+ */
+final class RecordTable<T> extends AbstractCollection<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    // Compaction tidak sepadan untuk beberapa tombstone saja
+    private static final int MIN_TOMBSTONES = 1024;
+
+    private final ToIntFunction<T> slotOf;
+    private final ObjIntConsumer<T> setSlot;
+    private volatile Object[] items = new Object[DEFAULT_CAPACITY];
+    private int end; // slot berikutnya yang dipakai add()
+    private int live;
+
+    RecordTable(ToIntFunction<T> slotOf, ObjIntConsumer<T> setSlot) {
+        this.slotOf = slotOf;
+        this.setSlot = setSlot;
+    }
+
+    @Override
+    public int size() {
+        return live;
+    }
+
+    int tombstones() {
+        return end - live;
+    }
+
+    // Tombstone melebihi seperempat record hidup (minimal MIN_TOMBSTONES)
+    boolean needsCompaction() {
+        return tombstones() > Math.max(MIN_TOMBSTONES, live / 4);
+    }
+
+    @Override
+    public boolean add(T item) {
+        if (end == items.length) {
+            items = Arrays.copyOf(items, end + (end >> 1) + 1);
+        }
+        items[end] = item;
+        setSlot.accept(item, end);
+        end++;
+        live++;
+        return true;
+    }
+
+    // O(1): slot record dikosongkan; record yang tidak ada di tabel ini diabaikan
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+        T item = (T) o;
+        int slot = slotOf.applyAsInt(item);
+        Object[] arr = items;
+        if (slot < 0 || slot >= end || arr[slot] != item) {
+            return false;
+        }
+        arr[slot] = null;
+        setSlot.accept(item, -1);
+        live--;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        @SuppressWarnings("unchecked")
+        int slot = slotOf.applyAsInt((T) o);
+        return slot >= 0 && slot < end && items[slot] == o;
+    }
+
+    @Override
+    public void clear() {
+        // Slot lama di record tidak perlu direset: remove()/contains() mengecek identitas
+        items = new Object[DEFAULT_CAPACITY];
+        end = 0;
+        live = 0;
+    }
+
+    void ensureCapacity(int expectedSize) {
+        if (expectedSize > items.length) {
+            items = Arrays.copyOf(items, expectedSize);
+        }
+    }
+
+    /**
+     * Memadatkan record hidup ke array baru dan memperbarui slot masing-masing.
+     *
+     * @return jumlah tombstone yang dibersihkan
+     */
+    @SuppressWarnings("unchecked")
+    int compact() {
+        int reclaimed = end - live;
+        Object[] old = items;
+        Object[] fresh = new Object[Math.max(DEFAULT_CAPACITY, live + (live >> 2))];
+        int j = 0;
+        for (int i = 0; i < end; i++) {
+            Object item = old[i];
+            if (item != null) {
+                fresh[j] = item;
+                setSlot.accept((T) item, j);
+                j++;
+            }
+        }
+        items = fresh;
+        end = j;
+        return reclaimed;
+    }
+
+    // Iterator membaca satu array (yang terbaru saat dibuat) dan melewati tombstone
+    @Override
+    public Iterator<T> iterator() {
+        Object[] arr = items;
+        return new Iterator<T>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                int i = from;
+                while (i < arr.length && arr[i] == null) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < arr.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (next >= arr.length) {
+                    throw new NoSuchElementException();
+                }
+                T item = (T) arr[next];
+                next = advance(next + 1);
+                return item;
+            }
+        };
+    }
+}
@@ -0,0 +1,166 @@
+package PetCareScheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Reminder untuk kejadian aturan berulang. Kejadian tidak memakai slot di SlotIndex (bentrok
+ * dicek saat booking lewat Recurrences.near()), jadi yang disimpan di sini hanya kejadian dalam
+ * jendela pendek ke depan yang sudah didaftarkan ke ReminderEngine.
+ *
+ * Jendela (now, until] selebar offset reminder terbesar ditambah satu hari, dan digeser maju
+ * setiap jam oleh advance(). Kejadian yang sudah lewat dilepas, sehingga memori sebanding
+ * dengan jumlah aturan, bukan dengan umur atau batas akhir aturan.
+ *
+ * Tidak thread-safe; pemanggil memegang write lock data (thread advance mengambilnya sendiri).
+ */
+final class RecurrenceReminders {
+
+    static final long ADVANCE_MINUTES = 60;
+
+    private final ReminderEngine reminders;
+    // Setiap aturan yang terdaftar, termasuk yang belum punya kejadian dalam jendela
+    private final Map<RecurrenceRule, List<RecurrenceRule.Occurrence>> registered = new IdentityHashMap<>();
+    // Kejadian sampai 'until' sudah didaftarkan; null sebelum reset()
+    private LocalDateTime until;
+    // Jumlah kejadian yang didaftarkan; dibaca gauge metrics tanpa lock
+    private volatile int count;
+    private ScheduledExecutorService ticker;
+
+    RecurrenceReminders(ReminderEngine reminders) {
+        this.reminders = reminders;
+    }
+
+    private Duration window() {
+        return reminders.longestOffset().plusDays(1);
+    }
+
+    /**
+     * Mendaftarkan kejadian semua 'rules' di (now, now + jendela]. Dipanggil setelah
+     * ReminderEngine.start(); sebelum itu engine tidak menyimpan apa pun.
+     */
+    void reset(Collection<RecurrenceRule> rules, LocalDateTime now) {
+        clear();
+        until = now.plus(window());
+        for (RecurrenceRule rule : rules) {
+            List<RecurrenceRule.Occurrence> list = new ArrayList<>();
+            register(rule, now, until, list);
+            registered.put(rule, list);
+        }
+    }
+
+    void clear() {
+        for (List<RecurrenceRule.Occurrence> list : registered.values()) {
+            release(list);
+        }
+        registered.clear();
+        until = null;
+        count = 0;
+    }
+
+    int size() {
+        return count;
+    }
+
+    // Aturan baru (pet-nya sudah di-set); tidak melakukan apa pun sebelum reset()
+    void add(RecurrenceRule rule, LocalDateTime now) {
+        if (until == null) {
+            return;
+        }
+        List<RecurrenceRule.Occurrence> list = new ArrayList<>();
+        register(rule, now, until, list);
+        registered.put(rule, list);
+    }
+
+    // Aturan dihapus (pet dihapus): reminder kejadiannya dibatalkan
+    void remove(RecurrenceRule rule) {
+        List<RecurrenceRule.Occurrence> list = registered.remove(rule);
+        if (list != null) {
+            release(list);
+        }
+    }
+
+    /**
+     * Menggeser jendela ke (now, now + jendela]: kejadian yang sudah lewat dilupakan
+     * (reminder-nya sudah jatuh tempo) dan kejadian yang baru masuk jendela didaftarkan.
+     */
+    void advance(LocalDateTime now) {
+        if (until == null) {
+            return;
+        }
+        LocalDateTime next = now.plus(window());
+        for (Map.Entry<RecurrenceRule, List<RecurrenceRule.Occurrence>> e : registered.entrySet()) {
+            List<RecurrenceRule.Occurrence> list = e.getValue();
+            int past = 0;
+            while (past < list.size() && !list.get(past).getDateTime().isAfter(now)) {
+                past++;
+            }
+            list.subList(0, past).clear();
+            count -= past;
+            if (next.isAfter(until)) {
+                register(e.getKey(), until, next, list);
+            }
+        }
+        if (next.isAfter(until)) {
+            until = next;
+        }
+    }
+
+    // ========== Lifecycle ==========
+
+    // Menjalankan advance() setiap ADVANCE_MINUTES di thread daemon, di bawah 'lock'
+    void start(Lock lock) {
+        if (ticker != null || reminders.longestOffset().isZero()) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "petcare-recurrence-reminders");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(() -> {
+            lock.lock();
+            try {
+                advance(LocalDateTime.now());
+            } finally {
+                lock.unlock();
+            }
+        }, ADVANCE_MINUTES, ADVANCE_MINUTES, TimeUnit.MINUTES);
+    }
+
+    void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    // Kejadian di (after, upTo] ditambahkan ke 'into' dan ke ReminderEngine
+    private void register(RecurrenceRule rule, LocalDateTime after, LocalDateTime upTo,
+            List<RecurrenceRule.Occurrence> into) {
+        Iterator<RecurrenceRule.Occurrence> it = rule.between(after, upTo.plusNanos(1));
+        while (it.hasNext()) {
+            RecurrenceRule.Occurrence o = it.next();
+            reminders.add(o);
+            into.add(o);
+            count++;
+        }
+    }
+
+    private void release(List<RecurrenceRule.Occurrence> list) {
+        for (RecurrenceRule.Occurrence o : list) {
+            reminders.remove(o);
+        }
+        count -= list.size();
+    }
+}
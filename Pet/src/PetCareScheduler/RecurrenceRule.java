@@ -0,0 +1,243 @@
+package PetCareScheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Janji temu berulang untuk satu pet, misalnya vaksinasi setiap 12 bulan sampai tanggal
+ * tertentu. Disimpan sebagai satu aturan, bukan satu baris per kejadian; kejadian ke-k
+ * dihitung langsung sebagai start + k * interval (untuk bulan/tahun dari 'start', jadi
+ * tanggal 31 tidak bergeser permanen ke 28 setelah Februari).
+ */
+public class RecurrenceRule {
+
+    private final int petId;
+    private final String appointmentType;
+    private final LocalDateTime start;
+    private final int interval;
+    private final ChronoUnit unit;
+    private final LocalDate until; // inklusif, null = tanpa batas
+    private final String notes;
+    private Pet pet; // diisi saat aturan dimasukkan ke Recurrences
+
+    public RecurrenceRule(int petId, String appointmentType, LocalDateTime start, int interval, ChronoUnit unit,
+            LocalDate until, String notes) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval must be at least 1.");
+        }
+        if (unit != ChronoUnit.DAYS && unit != ChronoUnit.WEEKS && unit != ChronoUnit.MONTHS
+                && unit != ChronoUnit.YEARS) {
+            throw new IllegalArgumentException("Unit must be days, weeks, months or years.");
+        }
+        if (until != null && until.isBefore(start.toLocalDate())) {
+            throw new IllegalArgumentException("End date is before the first occurrence.");
+        }
+        this.petId = petId;
+        this.appointmentType = appointmentType;
+        this.start = start;
+        this.interval = interval;
+        this.unit = unit;
+        this.until = until;
+        this.notes = notes;
+    }
+
+    /**
+     * Kejadian dari satu aturan. Tidak tersimpan di list appointment maupun index mana pun;
+     * dibuat saat query dan dibuang setelah ditampilkan.
+     */
+    static final class Occurrence extends Appointment {
+        private final RecurrenceRule rule;
+
+        Occurrence(RecurrenceRule rule, LocalDateTime dateTime) {
+            super(rule.appointmentType, dateTime, rule.notes);
+            this.rule = rule;
+            setPet(rule.pet);
+        }
+
+        RecurrenceRule getRule() {
+            return rule;
+        }
+
+        @Override
+        void appendTo(StringBuilder sb) {
+            super.appendTo(sb);
+            sb.append("\nRepeats: ");
+            rule.describeTo(sb);
+        }
+    }
+
+    // Getters
+    public int getPetId() {
+        return petId;
+    }
+
+    public Pet getPet() {
+        return pet;
+    }
+
+    public String getAppointmentType() {
+        return appointmentType;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    void setPet(Pet pet) {
+        this.pet = pet;
+    }
+
+    boolean isVetVisit() {
+        return "vet".equalsIgnoreCase(appointmentType);
+    }
+
+    // ========== Occurrences ==========
+
+    LocalDateTime occurrence(long k) {
+        return start.plus(k * interval, unit);
+    }
+
+    private boolean withinEnd(LocalDateTime time) {
+        return until == null || !time.toLocalDate().isAfter(until);
+    }
+
+    // Indeks kejadian pertama yang waktunya setelah 't' (eksklusif); O(1), tanpa iterasi dari 'start'
+    private long firstIndexAfter(LocalDateTime t) {
+        if (t.isBefore(start)) {
+            return 0;
+        }
+        long k = Math.max(0, unit.between(start, t) / interval);
+        while (k > 0 && occurrence(k - 1).isAfter(t)) {
+            k--;
+        }
+        while (!occurrence(k).isAfter(t)) {
+            k++;
+        }
+        return k;
+    }
+
+    /**
+     * Kejadian terakhir aturan ini, atau null jika aturan tidak punya batas akhir.
+     */
+    LocalDateTime lastOccurrence() {
+        if (until == null) {
+            return null;
+        }
+        long k = firstIndexAfter(until.plusDays(1).atStartOfDay().minusNanos(1));
+        return occurrence(k - 1); // k >= 1 karena 'until' tidak sebelum tanggal 'start'
+    }
+
+    // Ada kejadian pada atau setelah 'time' (aturan tanpa batas selalu true)
+    boolean occursOnOrAfter(LocalDateTime time) {
+        return until == null || !lastOccurrence().isBefore(time);
+    }
+
+    /**
+     * Kejadian dalam rentang (from, to) - kedua batas eksklusif, sama seperti
+     * AppointmentTimeIndex.between. Dihitung lazy saat iterasi; 'to' harus terbatas
+     * karena aturan tanpa 'until' tidak pernah habis.
+     */
+    Iterator<Occurrence> between(LocalDateTime from, LocalDateTime to) {
+        long first = firstIndexAfter(from);
+        return new Iterator<Occurrence>() {
+            private long k = first;
+            private LocalDateTime next = occurrence(first);
+
+            @Override
+            public boolean hasNext() {
+                return next.isBefore(to) && withinEnd(next);
+            }
+
+            @Override
+            public Occurrence next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Occurrence o = new Occurrence(RecurrenceRule.this, next);
+                next = occurrence(++k);
+                return o;
+            }
+        };
+    }
+
+    // ========== Text form ==========
+
+    // "every 6 months until 2030-03-01"
+    void describeTo(StringBuilder sb) {
+        sb.append("every ");
+        if (interval == 1) {
+            String name = unit.toString().toLowerCase();
+            sb.append(name, 0, name.length() - 1);
+        } else {
+            sb.append(interval).append(' ').append(unit.toString().toLowerCase());
+        }
+        if (until != null) {
+            sb.append(" until ").append(until);
+        }
+    }
+
+    /**
+     * Membuat aturan dari teks interval seperti "6 months", "2 weeks", "1 year" atau
+     * "10 days" (spasi dan akhiran 's' boleh tidak ada). Dipakai oleh menu dan loader.
+     *
+     * @throws IllegalArgumentException jika interval atau batas akhir tidak valid
+     */
+    static RecurrenceRule parse(int petId, String appointmentType, LocalDateTime start, String every,
+            LocalDate until, String notes) {
+        String s = every.trim().toLowerCase();
+        int i = 0;
+        while (i < s.length() && Character.isDigit(s.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i > 9) {
+            throw new IllegalArgumentException("Expected e.g. '6 months' or '2 weeks', got '" + every.trim() + "'.");
+        }
+        int n = Integer.parseInt(s.substring(0, i));
+        String name = s.substring(i).trim();
+        String plural = name.endsWith("s") ? name : name + "s";
+        for (ChronoUnit unit : new ChronoUnit[] { ChronoUnit.DAYS, ChronoUnit.WEEKS, ChronoUnit.MONTHS,
+                ChronoUnit.YEARS }) {
+            if (unit.toString().equalsIgnoreCase(plural)) {
+                return new RecurrenceRule(petId, appointmentType, start, n, unit, until, notes);
+            }
+        }
+        throw new IllegalArgumentException("Unknown unit '" + name + "' (expected days, weeks, months or years).");
+    }
+
+    // Kebalikan dari parse: "6 months"
+    String everyText() {
+        return interval + " " + unit.toString().toLowerCase();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(96);
+        sb.append("Appointment Type: ").append(appointmentType).append("\nFirst: ");
+        Appointment.DISPLAY_FORMAT.formatTo(start, sb);
+        sb.append("\nRepeats: ");
+        describeTo(sb);
+        if (notes != null && !notes.trim().isEmpty()) {
+            sb.append("\nNotes: ").append(notes);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,316 @@
+package PetCareScheduler;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.IntFunction;
+
+/**
+ * Semua RecurrenceRule, dikelompokkan per pet. Kejadian tidak pernah disimpan: query
+ * waktu (upcoming, report 7 hari, tampilan per pet) menghitung hanya kejadian di dalam
+ * rentangnya dan menggabungkannya (merge lazy, urut waktu) dengan hasil index waktu,
+ * sehingga appointments.txt dan semua scan tidak membengkak oleh baris hasil ekspansi.
+ *
+ * Persistensi: recurrences.txt, satu aturan per baris
+ * <pre>
+ * petId|type|start|every|until|notes      contoh: 7|vaccination|2025-03-01T10:00|12 months|2030-03-01|Rabies
+ * </pre>
+ * 'until' berisi "-" untuk aturan tanpa batas akhir. Aturan baru juga dicatat di journal dengan
+ * format baris yang sama (lihat Journal); aturan yang sama persis hanya disimpan sekali.
+ */
+public class Recurrences {
+
+    private static final String NO_END = "-";
+
+    private final List<RecurrenceRule> rules = new ArrayList<>();
+    private final Map<Integer, List<RecurrenceRule>> byPet = new HashMap<>();
+    private boolean dirty;
+
+    public int size() {
+        return rules.size();
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    public List<RecurrenceRule> all() {
+        return Collections.unmodifiableList(rules);
+    }
+
+    // Aturan untuk pet ini (kosong jika tidak ada)
+    public List<RecurrenceRule> forPet(Pet pet) {
+        List<RecurrenceRule> list = byPet.get(pet.getPetId());
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    public void add(Pet pet, RecurrenceRule rule) {
+        rule.setPet(pet);
+        rules.add(rule);
+        byPet.computeIfAbsent(pet.getPetId(), id -> new ArrayList<>(1)).add(rule);
+        dirty = true;
+        DataVersion.bump();
+    }
+
+    // Aturan dengan pet, tipe, waktu mulai, interval, tanggal akhir dan notes yang sama sudah ada
+    public boolean contains(RecurrenceRule rule) {
+        for (RecurrenceRule r : byPet.getOrDefault(rule.getPetId(), Collections.emptyList())) {
+            if (r.getAppointmentType().equalsIgnoreCase(rule.getAppointmentType())
+                    && r.getStart().equals(rule.getStart()) && r.getInterval() == rule.getInterval()
+                    && r.getUnit() == rule.getUnit() && Objects.equals(r.getUntil(), rule.getUntil())
+                    && Objects.equals(r.getNotes(), rule.getNotes())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Semua aturan milik pet ini ikut dihapus (pet dihapus dari sistem)
+    public boolean removePet(Pet pet) {
+        List<RecurrenceRule> list = byPet.remove(pet.getPetId());
+        if (list == null) {
+            return false;
+        }
+        rules.removeAll(list);
+        dirty = true;
+        DataVersion.bump();
+        return true;
+    }
+
+    public void clear() {
+        rules.clear();
+        byPet.clear();
+        dirty = false;
+        DataVersion.bump();
+    }
+
+    // Ada aturan baru sejak load/save terakhir
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    // ========== Queries ==========
+
+    /**
+     * Kejadian semua aturan dalam rentang (from, to), urut waktu. Biaya awal O(r log r)
+     * untuk r aturan (posisi kejadian pertama dihitung langsung), lalu O(log r) per kejadian.
+     */
+    public Iterable<Appointment> between(LocalDateTime from, LocalDateTime to) {
+        return between(rules, from, to);
+    }
+
+    public Iterable<Appointment> forPet(Pet pet, LocalDateTime from, LocalDateTime to) {
+        return between(forPet(pet), from, to);
+    }
+
+    /**
+     * Kejadian aturan bertipe 'type' yang bisa menempati slot yang sama dengan booking yang
+     * mulai 'start': semua kejadian dari awal hari sebelumnya sampai akhir hari berikutnya
+     * (durasi maksimal satu hari). Dipakai untuk cek bentrok tanpa memesan kejadian di SlotIndex.
+     */
+    public Iterable<Appointment> near(String type, LocalDateTime start) {
+        List<RecurrenceRule> ofType = new ArrayList<>();
+        for (RecurrenceRule r : rules) {
+            if (r.getAppointmentType().equalsIgnoreCase(type)) {
+                ofType.add(r);
+            }
+        }
+        LocalDate day = start.toLocalDate();
+        return between(ofType, day.minusDays(1).atStartOfDay().minusNanos(1), day.plusDays(2).atStartOfDay());
+    }
+
+    /**
+     * Pet punya aturan vet dengan kejadian pada/setelah 'cutoff'. Setara dengan vet visit
+     * terakhir (termasuk yang terjadwal) yang tidak sebelum 'cutoff' di VetVisitIndex.
+     */
+    public boolean hasVetVisitSince(Pet pet, LocalDateTime cutoff) {
+        List<RecurrenceRule> list = byPet.get(pet.getPetId());
+        if (list != null) {
+            for (RecurrenceRule r : list) {
+                if (r.isVetVisit() && r.occursOnOrAfter(cutoff)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Iterable<Appointment> between(List<RecurrenceRule> source, LocalDateTime from,
+            LocalDateTime to) {
+        if (source.isEmpty() || !from.isBefore(to)) {
+            return Collections.emptyList();
+        }
+        return () -> {
+            List<Iterator<? extends Appointment>> cursors = new ArrayList<>();
+            for (RecurrenceRule r : source) {
+                Iterator<RecurrenceRule.Occurrence> it = r.between(from, to);
+                if (it.hasNext()) {
+                    cursors.add(it);
+                }
+            }
+            return merge(cursors);
+        };
+    }
+
+    // ========== Merge ==========
+
+    private static final Comparator<Appointment> BY_TIME = Comparator.comparing(Appointment::getDateTime);
+
+    /**
+     * Menggabungkan dua sumber yang masing-masing sudah urut waktu, lazy. Pada waktu yang
+     * sama, isi 'first' lebih dulu.
+     */
+    public static Iterable<Appointment> merge(Iterable<Appointment> first, Iterable<Appointment> second) {
+        return () -> merge(List.of(first.iterator(), second.iterator()));
+    }
+
+    // K-way merge dengan PriorityQueue berisi kepala setiap sumber
+    private static Iterator<Appointment> merge(List<Iterator<? extends Appointment>> sources) {
+        PriorityQueue<Head> heads = new PriorityQueue<>();
+        for (int i = 0; i < sources.size(); i++) {
+            Iterator<? extends Appointment> it = sources.get(i);
+            if (it.hasNext()) {
+                heads.add(new Head(it.next(), it, i));
+            }
+        }
+        return new Iterator<Appointment>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Appointment next() {
+                Head head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                Appointment result = head.value;
+                if (head.source.hasNext()) {
+                    head.value = head.source.next();
+                    heads.add(head);
+                }
+                return result;
+            }
+        };
+    }
+
+    private static final class Head implements Comparable<Head> {
+        Appointment value;
+        final Iterator<? extends Appointment> source;
+        final int order;
+
+        Head(Appointment value, Iterator<? extends Appointment> source, int order) {
+            this.value = value;
+            this.source = source;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Head o) {
+            int c = BY_TIME.compare(value, o.value);
+            return c != 0 ? c : Integer.compare(order, o.order);
+        }
+    }
+
+    // ========== Persistence ==========
+
+    /**
+     * Memuat recurrences.txt; aturan untuk pet yang tidak dikenal dilewati dengan warning.
+     * Aturan yang sudah ada (misalnya dari replay journal) tidak ditambahkan lagi; jika ada
+     * aturan di memori yang belum tercatat di file, isDirty() tetap true.
+     */
+    public void load(Path file, IntFunction<Pet> findPet, LoadReport report) throws IOException {
+        int existing = rules.size();
+        int inFile = 0;
+        if (Files.exists(file)) {
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                long lineNumber = 0;
+                while ((line = in.readLine()) != null) {
+                    lineNumber++;
+                    report.recordLine();
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        RecurrenceRule rule = parse(line);
+                        if (contains(rule)) {
+                            inFile++;
+                            continue;
+                        }
+                        Pet pet = findPet.apply(rule.getPetId());
+                        if (pet == null) {
+                            report.addWarning(lineNumber, "Pet ID " + rule.getPetId() + " not found; rule skipped.");
+                            continue;
+                        }
+                        add(pet, rule);
+                        report.recordLoaded();
+                    } catch (NumberFormatException e) {
+                        report.addError(lineNumber, "Invalid Pet ID: " + line.split("\\|", 2)[0].trim());
+                    } catch (DateTimeParseException e) {
+                        report.addError(lineNumber, "Invalid date: " + e.getParsedString());
+                    } catch (IllegalArgumentException e) {
+                        report.addError(lineNumber, e.getMessage());
+                    }
+                }
+            }
+        }
+        dirty = inFile < existing;
+    }
+
+    /**
+     * Satu baris recurrences.txt (atau entri journal tanpa awalan) menjadi aturan; pet-nya belum di-set.
+     *
+     * @throws IllegalArgumentException jika baris tidak valid (termasuk NumberFormatException)
+     * @throws DateTimeParseException jika tanggal tidak valid
+     */
+    static RecurrenceRule parse(String line) {
+        String[] f = line.split("\\|", 6);
+        if (f.length < 5) {
+            throw new IllegalArgumentException("Expected petId|type|start|every|until[|notes], got "
+                    + f.length + " field(s).");
+        }
+        int petId = Integer.parseInt(f[0].trim());
+        LocalDateTime start = LocalDateTime.parse(f[2].trim());
+        String until = f[4].trim();
+        return RecurrenceRule.parse(petId, f[1].trim(), start, f[3],
+                until.equals(NO_END) ? null : LocalDate.parse(until), f.length > 5 ? f[5].trim() : "");
+    }
+
+    // Kebalikan dari parse()
+    static String format(RecurrenceRule r) {
+        return r.getPetId() + "|" + r.getAppointmentType() + "|" + r.getStart() + "|" + r.everyText() + "|"
+                + (r.getUntil() == null ? NO_END : r.getUntil().toString()) + "|" + r.getNotes();
+    }
+
+    // Ditulis ulang secara atomik (temp file + rename), lihat AtomicFiles
+    public void write(Path file) throws IOException {
+        AtomicFiles.write(file, stream -> {
+            BufferedWriter out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+            for (RecurrenceRule r : rules) {
+                out.write(format(r));
+                out.newLine();
+            }
+            out.flush();
+        });
+        dirty = false;
+    }
+}
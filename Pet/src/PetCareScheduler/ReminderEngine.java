@@ -0,0 +1,385 @@
+package PetCareScheduler;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reminder di latar belakang, misalnya 24 jam dan 1 jam sebelum setiap appointment,
+ * dikirim ke ReminderSink (file atau console).
+ *
+ * Reminder yang menunggu disimpan di TimingWheel dengan tick 1 detik, jadi setiap tick
+ * hanya menyentuh satu slot, bukan memindai semua appointment. Engine mengikuti
+ * appointment lewat add() (dipanggil dari jalur tambah appointment) dan SchedulerEvents
+ * (reschedule, ganti tipe, hapus); setiap perubahan membatalkan reminder lama dalam O(1)
+ * dan menjadwalkan ulang.
+ *
+ * Hanya appointment yang punya pet dan belum dimulai yang diberi reminder. Reminder yang
+ * waktunya sudah lewat saat dijadwalkan dilewati (booking 2 jam lagi hanya mendapat
+ * reminder 1 jam), sehingga restart program tidak mengirim ulang reminder lama.
+ *
+ * Sebelum start() engine tidak menyimpan apa pun (batch, benchmark dan loader tidak
+ * membayar biayanya); start() menjadwalkan semua appointment yang sudah dimuat sekali.
+ *
+ * Konfigurasi: -Dpetcare.reminders=24h,1h (unit d/h/m/s, "off" untuk mematikan) dan
+ * -Dpetcare.reminders.sink=file:reminders.log atau console.
+ */
+public class ReminderEngine implements SchedulerEvents.Listener {
+
+    static final String DEFAULT_OFFSETS = "24h,1h";
+    static final String DEFAULT_SINK = "file:reminders.log";
+    static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 256;
+
+    /**
+     * Satu notifikasi. Data appointment disalin saat dijadwalkan sehingga sink (di thread
+     * ticker) tidak membaca objek yang sedang diubah thread lain.
+     */
+    public static final class Reminder {
+        private final Appointment appointment;
+        private final Duration before;
+        private final LocalDateTime fireAt;
+        private final LocalDateTime appointmentTime;
+        private final String appointmentType;
+        private final String notes;
+        private final int petId;
+        private final String petName;
+
+        Reminder(Appointment appointment, Duration before, LocalDateTime fireAt) {
+            this.appointment = appointment;
+            this.before = before;
+            this.fireAt = fireAt;
+            this.appointmentTime = appointment.getDateTime();
+            this.appointmentType = appointment.getAppointmentType();
+            this.notes = appointment.getNotes();
+            this.petId = appointment.getPet().getPetId();
+            this.petName = appointment.getPet().getName();
+        }
+
+        public Appointment getAppointment() {
+            return appointment;
+        }
+
+        public Duration getBefore() {
+            return before;
+        }
+
+        public LocalDateTime getFireAt() {
+            return fireAt;
+        }
+
+        public LocalDateTime getAppointmentTime() {
+            return appointmentTime;
+        }
+
+        @Override
+        public String toString() {
+            return fireAt.format(Appointment.DISPLAY_FORMAT) + " | " + formatOffset(before) + " before | "
+                    + appointmentType + " at " + appointmentTime.format(Appointment.DISPLAY_FORMAT)
+                    + " | " + petName + " (ID: " + petId + ") | " + notes;
+        }
+    }
+
+    private final Clock clock;
+    private final ReminderSink sink;
+    // Urut dari yang terbesar (24h, lalu 1h)
+    private final Duration[] offsets;
+    private final Object lock = new Object();
+    private final TimingWheel<Reminder> wheel;
+    // Appointment -> timeout per offset (null untuk offset yang dilewati)
+    private final Map<Appointment, TimingWheel.Timeout<Reminder>[]> pending = new IdentityHashMap<>();
+    private final AtomicLong fired = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean running;
+    private ScheduledExecutorService ticker;
+
+    public ReminderEngine(List<Duration> offsets, ReminderSink sink, Clock clock) {
+        TreeSet<Duration> sorted = new TreeSet<>();
+        for (Duration d : offsets) {
+            if (d.isNegative()) {
+                throw new IllegalArgumentException("Reminder offset must not be negative: " + d);
+            }
+            sorted.add(d);
+        }
+        this.offsets = sorted.descendingSet().toArray(new Duration[0]);
+        this.sink = sink;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, clock.millis());
+    }
+
+    static ReminderEngine fromSystemProperties() {
+        String spec = System.getProperty("petcare.reminders", DEFAULT_OFFSETS);
+        List<Duration> offsets = spec.equalsIgnoreCase("off") ? List.of() : parseOffsets(spec);
+        ReminderSink sink = ReminderSink.parse(System.getProperty("petcare.reminders.sink", DEFAULT_SINK));
+        return new ReminderEngine(offsets, sink, Clock.systemDefaultZone());
+    }
+
+    // "24h,1h,30m" -> [PT24H, PT1H, PT30M]
+    static List<Duration> parseOffsets(String spec) {
+        List<Duration> result = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String s = part.trim().toLowerCase();
+            if (s.isEmpty()) {
+                continue;
+            }
+            long amount;
+            try {
+                amount = Long.parseLong(s.substring(0, s.length() - 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid reminder offset: " + part.trim());
+            }
+            switch (s.charAt(s.length() - 1)) {
+                case 'd':
+                    result.add(Duration.ofDays(amount));
+                    break;
+                case 'h':
+                    result.add(Duration.ofHours(amount));
+                    break;
+                case 'm':
+                    result.add(Duration.ofMinutes(amount));
+                    break;
+                case 's':
+                    result.add(Duration.ofSeconds(amount));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid reminder offset: " + part.trim());
+            }
+        }
+        return result;
+    }
+
+    static String formatOffset(Duration d) {
+        if (d.toHours() > 0 && d.equals(Duration.ofHours(d.toHours()))) {
+            return d.toHours() + "h";
+        }
+        if (d.toMinutes() > 0 && d.equals(Duration.ofMinutes(d.toMinutes()))) {
+            return d.toMinutes() + "m";
+        }
+        return d.getSeconds() + "s";
+    }
+
+    // ========== Lifecycle ==========
+
+    /**
+     * Menjadwalkan reminder untuk appointment yang sudah ada lalu menjalankan thread ticker
+     * (daemon). Tidak melakukan apa pun jika semua offset dimatikan.
+     */
+    public void start(Collection<Appointment> existing) {
+        if (offsets.length == 0) {
+            return;
+        }
+        synchronized (lock) {
+            if (running) {
+                return;
+            }
+            running = true;
+            wheel.advanceTo(clock.millis(), r -> { }); // wheel masih kosong; lompat ke waktu sekarang
+            for (Appointment a : existing) {
+                schedule(a);
+            }
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "petcare-reminders");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        synchronized (lock) {
+            running = false;
+            wheel.clear();
+            pending.clear();
+        }
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+        try {
+            sink.close();
+        } catch (IOException e) {
+            System.out.println("Reminder sink close failed: " + e.getMessage());
+        }
+    }
+
+    // Membuang semua reminder (data dimuat ulang); engine tetap berjalan
+    public void clear() {
+        synchronized (lock) {
+            wheel.clear();
+            pending.clear();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Offset terbesar (misalnya 24h), atau Duration.ZERO jika reminder dimatikan
+    public Duration longestOffset() {
+        return offsets.length == 0 ? Duration.ZERO : offsets[0];
+    }
+
+    public int pendingCount() {
+        synchronized (lock) {
+            return wheel.size();
+        }
+    }
+
+    public long firedCount() {
+        return fired.get();
+    }
+
+    public long failedCount() {
+        return failed.get();
+    }
+
+    // ========== Tracking ==========
+
+    public void add(Appointment appointment) {
+        if (!running) {
+            return;
+        }
+        synchronized (lock) {
+            schedule(appointment);
+        }
+    }
+
+    public void remove(Appointment appointment) {
+        if (!running) {
+            return;
+        }
+        synchronized (lock) {
+            cancel(appointment);
+        }
+    }
+
+    @Override
+    public void appointmentRescheduled(Appointment appointment, LocalDateTime oldDateTime) {
+        add(appointment);
+    }
+
+    // Tipe ikut tercetak di reminder, jadi salinannya diperbarui
+    @Override
+    public void appointmentTypeChanged(Appointment appointment, String oldType) {
+        if (!running) {
+            return;
+        }
+        synchronized (lock) {
+            if (pending.containsKey(appointment)) {
+                schedule(appointment);
+            }
+        }
+    }
+
+    @Override
+    public void appointmentRemoved(Pet pet, Appointment appointment) {
+        remove(appointment);
+    }
+
+    @Override
+    public void petRemoved(Pet pet) {
+        for (Appointment a : pet.getAppointments()) {
+            remove(a);
+        }
+    }
+
+    // Dipanggil dengan lock; menggantikan reminder lama appointment ini jika ada
+    private void schedule(Appointment appointment) {
+        cancel(appointment);
+        if (appointment.getPet() == null || appointment.getDateTime() == null) {
+            return;
+        }
+        long now = clock.millis();
+        long at = toMillis(appointment.getDateTime());
+        if (at <= now) {
+            return;
+        }
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        TimingWheel.Timeout<Reminder>[] timeouts = new TimingWheel.Timeout[offsets.length];
+        boolean any = false;
+        for (int i = 0; i < offsets.length; i++) {
+            long fireAt = at - offsets[i].toMillis();
+            if (fireAt > now) {
+                LocalDateTime fireTime = appointment.getDateTime().minus(offsets[i]);
+                timeouts[i] = wheel.schedule(fireAt, new Reminder(appointment, offsets[i], fireTime));
+                any = true;
+            }
+        }
+        if (any) {
+            pending.put(appointment, timeouts);
+        }
+    }
+
+    private void cancel(Appointment appointment) {
+        TimingWheel.Timeout<Reminder>[] timeouts = pending.remove(appointment);
+        if (timeouts != null) {
+            for (TimingWheel.Timeout<Reminder> t : timeouts) {
+                if (t != null) {
+                    wheel.cancel(t);
+                }
+            }
+        }
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    // ========== Ticking ==========
+
+    private void tick() {
+        advanceTo(clock.millis());
+    }
+
+    /**
+     * Memajukan wheel sampai 'nowMillis' dan mengirim reminder yang jatuh tempo ke sink.
+     * Sink dipanggil setelah lock dilepas agar I/O tidak menahan booking.
+     *
+     * @return jumlah reminder yang dikirim
+     */
+    int advanceTo(long nowMillis) {
+        List<Reminder> due = new ArrayList<>();
+        synchronized (lock) {
+            wheel.advanceTo(nowMillis, due::add);
+            for (Reminder r : due) {
+                forgetIfDone(r.appointment);
+            }
+        }
+        for (Reminder r : due) {
+            try {
+                sink.remind(r);
+                fired.incrementAndGet();
+            } catch (IOException | RuntimeException e) {
+                failed.incrementAndGet();
+                System.out.println("Reminder sink failed: " + e.getMessage());
+            }
+        }
+        return due.size();
+    }
+
+    // Appointment dilepas dari 'pending' setelah reminder terakhirnya jatuh tempo
+    private void forgetIfDone(Appointment appointment) {
+        TimingWheel.Timeout<Reminder>[] timeouts = pending.get(appointment);
+        if (timeouts == null) {
+            return;
+        }
+        for (TimingWheel.Timeout<Reminder> t : timeouts) {
+            if (t != null && t.isPending()) {
+                return;
+            }
+        }
+        pending.remove(appointment);
+    }
+}
@@ -0,0 +1,63 @@
+package PetCareScheduler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tujuan notifikasi dari ReminderEngine. Dipanggil dari thread ticker, di luar lock engine,
+ * jadi implementasi boleh melakukan I/O; exception dicatat oleh engine lalu diabaikan.
+ */
+public interface ReminderSink {
+
+    void remind(ReminderEngine.Reminder reminder) throws IOException;
+
+    default void close() throws IOException {
+    }
+
+    // ========== Built-in sinks ==========
+
+    static ReminderSink console() {
+        return reminder -> System.out.println("[Reminder] " + reminder);
+    }
+
+    // Satu baris per reminder, di-append; file baru dibuat saat reminder pertama jatuh tempo
+    static ReminderSink file(Path file) {
+        return new ReminderSink() {
+            private BufferedWriter out;
+
+            @Override
+            public synchronized void remind(ReminderEngine.Reminder reminder) throws IOException {
+                if (out == null) {
+                    out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                out.write(reminder.toString());
+                out.newLine();
+                out.flush();
+            }
+
+            @Override
+            public synchronized void close() throws IOException {
+                if (out != null) {
+                    out.close();
+                    out = null;
+                }
+            }
+        };
+    }
+
+    /**
+     * "console" atau "file:&lt;path&gt;" (tanpa prefix juga dianggap path file).
+     */
+    static ReminderSink parse(String spec) {
+        if (spec.equalsIgnoreCase("console")) {
+            return console();
+        }
+        return file(Paths.get(spec.startsWith("file:") ? spec.substring("file:".length()) : spec));
+    }
+}
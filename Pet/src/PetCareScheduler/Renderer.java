@@ -0,0 +1,162 @@
+package PetCareScheduler;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+
+/**
+ * Output untuk perintah display, report dan export: satu BufferedWriter besar dan satu
+ * StringBuilder yang dipakai ulang, sebagai ganti dua System.out.println (auto-flush)
+ * per record. Pet dan Appointment ditulis lewat appendTo, tanpa String perantara.
+ *
+ * page() hanya memformat record di halaman yang diminta; record sebelum 'offset' dilewati
+ * tanpa diformat dan iterasi berhenti setelah halaman penuh, sehingga sumber yang lazy
+ * (misalnya index waktu) tidak dibaca sampai habis.
+ *
+ * Renderer untuk console tidak menutup System.out; close() hanya flush. Renderer untuk
+ * file menutup file-nya. Error I/O dilempar sebagai UncheckedIOException.
+ */
+final class Renderer implements Closeable {
+
+    static final String SEPARATOR = "------------------------------";
+
+    private static final int BUFFER_CHARS = 1 << 16;
+
+    private final Writer out;
+    private final boolean ownsOut;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private Renderer(Writer out, boolean ownsOut) {
+        this.out = out;
+        this.ownsOut = ownsOut;
+    }
+
+    // System.out saat ini (bisa sudah dialihkan, misalnya oleh benchmark)
+    static Renderer toConsole() {
+        return new Renderer(new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()),
+                BUFFER_CHARS), false);
+    }
+
+    static Renderer toFile(Path file) throws IOException {
+        return new Renderer(new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file),
+                StandardCharsets.UTF_8), BUFFER_CHARS), true);
+    }
+
+    // ========== Records ==========
+
+    Renderer println(String text) {
+        line.setLength(0);
+        line.append(text);
+        return writeLine();
+    }
+
+    // Satu pet diikuti garis pemisah, sama seperti tampilan menu sebelumnya
+    Renderer pet(Pet pet) {
+        line.setLength(0);
+        pet.appendTo(line);
+        line.append('\n').append(SEPARATOR);
+        return writeLine();
+    }
+
+    Renderer storedPet(MappedStore.PetRecord pet) {
+        line.setLength(0);
+        pet.appendTo(line);
+        line.append('\n').append(SEPARATOR);
+        return writeLine();
+    }
+
+    Renderer appointment(Appointment appointment) {
+        line.setLength(0);
+        appointment.appendTo(line);
+        line.append('\n').append(SEPARATOR);
+        return writeLine();
+    }
+
+    Renderer overdue(Pet pet) {
+        line.setLength(0);
+        line.append("Pet: ").append(pet.getName()).append(" (ID: ").append(pet.getPetId())
+                .append(") - NEEDS VET ATTENTION!");
+        return writeLine();
+    }
+
+    private Renderer writeLine() {
+        line.append('\n');
+        try {
+            out.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    // ========== Paging ==========
+
+    /**
+     * Melewati 'count' record tanpa memformatnya.
+     *
+     * @return jumlah record yang benar-benar dilewati
+     */
+    static long skip(Iterator<?> items, long count) {
+        long skipped = 0;
+        while (skipped < count && items.hasNext()) {
+            items.next();
+            skipped++;
+        }
+        return skipped;
+    }
+
+    /**
+     * Memformat paling banyak 'limit' record berikutnya dari 'items' (limit <= 0: semua).
+     *
+     * @return jumlah record yang ditulis
+     */
+    <T> int page(Iterator<T> items, int limit, BiConsumer<Renderer, ? super T> render) {
+        int written = 0;
+        while ((limit <= 0 || written < limit) && items.hasNext()) {
+            render.accept(this, items.next());
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Satu halaman dari 'items': record ke-offset sampai offset + limit - 1.
+     *
+     * @return jumlah record yang ditulis
+     */
+    <T> int page(Iterable<T> items, long offset, int limit, BiConsumer<Renderer, ? super T> render) {
+        Iterator<T> it = items.iterator();
+        skip(it, offset);
+        return page(it, limit, render);
+    }
+
+    void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (ownsOut) {
+                out.close();
+            } else {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package PetCareScheduler;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Cache hasil report (upcoming, overdue) di memori, dengan key jenis report + time bucket.
+ * Report yang dibuka berulang kali (misalnya dashboard yang polling) dalam bucket yang sama
+ * dan tanpa perubahan data dilayani dari cache tanpa menghitung ulang range query-nya.
+ *
+ * Cache mengingat DataVersion saat entri-entrinya dihitung. Begitu versi data berubah (setter,
+ * appointment baru/dibatalkan, load, remove pet), semua entri dianggap basi dan dibuang.
+ *
+ * Memori dibatasi dua cara: jumlah entri (maxEntries) dan total item di semua entri
+ * (maxItems). Entri yang paling lama tidak dipakai (LRU) dikeluarkan lebih dulu; hasil yang
+ * sendirian sudah melebihi maxItems tidak di-cache sama sekali. maxEntries = 0 mematikan cache.
+ */
+final class ReportCache {
+
+    private static final int DEFAULT_ENTRIES = 32;
+    private static final int DEFAULT_MAX_ITEMS = 1_000_000;
+
+    private static final class Key {
+        final String report;
+        final long bucket;
+
+        Key(String report, long bucket) {
+            this.report = report;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return bucket == k.bucket && report.equals(k.report);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(report, bucket);
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxItems;
+    // Access order: iterasi dimulai dari entri yang paling lama tidak dipakai
+    private final LinkedHashMap<Key, List<?>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Dijaga oleh 'this'
+    private long version = -1; // versi data semua entri saat ini
+    private long cachedItems;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    ReportCache(int maxEntries, long maxItems) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.maxItems = Math.max(0, maxItems);
+    }
+
+    // -Dpetcare.reportCache.entries (0 = mati), -Dpetcare.reportCache.maxItems
+    static ReportCache fromSystemProperties() {
+        return new ReportCache(Integer.getInteger("petcare.reportCache.entries", DEFAULT_ENTRIES),
+                Long.getLong("petcare.reportCache.maxItems", DEFAULT_MAX_ITEMS));
+    }
+
+    /**
+     * Hasil report untuk (report, bucket) dari cache, atau dihitung dengan 'compute' lalu
+     * disimpan jika belum ada atau sudah basi. List yang dikembalikan tidak bisa diubah.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <T> List<T> get(String report, long bucket, Supplier<List<T>> compute) {
+        long current = DataVersion.current();
+        if (current != version) {
+            // Satu versi untuk seluruh data: semua entri lama basi sekaligus
+            entries.clear();
+            cachedItems = 0;
+            version = current;
+        }
+        Key key = new Key(report, bucket);
+        List<?> cached = entries.get(key);
+        if (cached != null) {
+            hits++;
+            return (List<T>) cached;
+        }
+        misses++;
+        List<T> items = Collections.unmodifiableList(compute.get());
+        // Data berubah selama compute (thread lain): hasilnya tetap benar untuk pemanggil ini,
+        // tetapi tidak disimpan dengan versi lama
+        if (maxEntries > 0 && items.size() <= maxItems && DataVersion.current() == current) {
+            entries.put(key, items);
+            cachedItems += items.size();
+            evict();
+        }
+        return items;
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        cachedItems = 0;
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, List<?>>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || cachedItems > maxItems) && it.hasNext()) {
+            cachedItems -= it.next().getValue().size();
+            it.remove();
+            evictions++;
+        }
+    }
+}
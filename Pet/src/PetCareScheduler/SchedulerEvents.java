@@ -0,0 +1,96 @@
+package PetCareScheduler;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry sederhana untuk memberi tahu index/struktur turunan ketika
+ * data Pet atau Appointment berubah lewat setter.
+ */
+public final class SchedulerEvents {
+
+    /**
+     * Callback untuk perubahan data. Semua method default kosong sehingga
+     * listener cukup meng-override event yang relevan.
+     */
+    public interface Listener {
+        default void appointmentRescheduled(Appointment appointment, LocalDateTime oldDateTime) {
+        }
+
+        default void appointmentTypeChanged(Appointment appointment, String oldType) {
+        }
+
+        default void appointmentRemoved(Pet pet, Appointment appointment) {
+        }
+
+        // Dipanggil sebelum pet dilepas; pet.getAppointments() masih berisi semua appointment-nya
+        default void petRemoved(Pet pet) {
+        }
+
+        default void appointmentNotesChanged(Appointment appointment, String oldNotes) {
+        }
+
+        // field: "name", "speciesOrBreed", "ownerName", "contactInfo" atau "age"
+        default void petDetailsChanged(Pet pet, String field, String oldValue) {
+        }
+
+        // oldLastVetVisit / pet.getLastVetVisit() bernilai null jika belum pernah ke dokter hewan
+        default void lastVetVisitChanged(Pet pet, LocalDateTime oldLastVetVisit) {
+        }
+    }
+
+    private static final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private SchedulerEvents() {
+    }
+
+    public static void register(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public static void unregister(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    static void appointmentRescheduled(Appointment appointment, LocalDateTime oldDateTime) {
+        for (Listener l : listeners) {
+            l.appointmentRescheduled(appointment, oldDateTime);
+        }
+    }
+
+    static void appointmentTypeChanged(Appointment appointment, String oldType) {
+        for (Listener l : listeners) {
+            l.appointmentTypeChanged(appointment, oldType);
+        }
+    }
+
+    static void appointmentRemoved(Pet pet, Appointment appointment) {
+        for (Listener l : listeners) {
+            l.appointmentRemoved(pet, appointment);
+        }
+    }
+
+    static void petRemoved(Pet pet) {
+        for (Listener l : listeners) {
+            l.petRemoved(pet);
+        }
+    }
+
+    static void appointmentNotesChanged(Appointment appointment, String oldNotes) {
+        for (Listener l : listeners) {
+            l.appointmentNotesChanged(appointment, oldNotes);
+        }
+    }
+
+    static void petDetailsChanged(Pet pet, String field, String oldValue) {
+        for (Listener l : listeners) {
+            l.petDetailsChanged(pet, field, oldValue);
+        }
+    }
+
+    static void lastVetVisitChanged(Pet pet, LocalDateTime oldLastVetVisit) {
+        for (Listener l : listeners) {
+            l.lastVetVisitChanged(pet, oldLastVetVisit);
+        }
+    }
+}
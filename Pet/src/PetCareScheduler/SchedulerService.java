@@ -0,0 +1,520 @@
+package PetCareScheduler;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Inti scheduler yang aman dipakai banyak thread sekaligus (misalnya beberapa sesi front desk
+ * lewat API).
+ *
+ * Model konkurensi:
+ * <ul>
+ * <li>Setiap pet disimpan sebagai versi immutable (copy-on-write per pet): perubahan membuat
+ * salinan Pet baru, objek yang sudah dipublikasikan tidak pernah diubah lagi.</li>
+ * <li>Writer untuk pet yang sama diserialisasi oleh lock stripe berdasarkan pet ID; validasi,
+ * cek slot dan penyalinan pet berbeda berjalan paralel. Kapasitas slot dijaga SlotIndex yang
+ * mengunci per hari.</li>
+ * <li>Tidak ada lock global: Snapshot baru diterbitkan dengan compare-and-set pada 'head'.
+ * Writer yang kalah balapan membangun ulang snapshot-nya dari head terbaru lalu mencoba lagi;
+ * nomor commit = nomor head sebelumnya + 1, jadi nomor dan urutan publikasi selalu sama.</li>
+ * <li>Snapshot dirawat secara inkremental: pet urut ID, pet urut vet visit terakhir dan
+ * appointment urut waktu disimpan di PersistentSortedMap, sehingga satu commit hanya menyalin
+ * O(log n) node per appointment milik pet yang berubah. Reader cukup membaca 'head' tanpa lock dan tanpa
+ * menahan writer; snapshot lama tetap utuh selama dipegang.</li>
+ * </ul>
+ * Service ini tidak memakai SchedulerEvents untuk datanya sendiri; Appointment yang disimpan
+ * tidak pernah diubah lewat setter.
+ *
+ * Menu konsol sengaja tetap memakai state statis di PetCareScheduler: fiturnya (recurring rule,
+ * search, query, report cache, reminder, mapped store) dibangun di atas Pet/Appointment yang
+ * diubah lewat setter dan listener SchedulerEvents, sedangkan service ini hanya menerbitkan
+ * versi immutable. Keduanya adalah entry point terpisah (menu atau ApiServer) yang berbagi
+ * format file, manifest dan journal, dan tidak dijalankan bersamaan pada data yang sama.
+ */
+public class SchedulerService {
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    // Versi terbaru tiap pet, untuk findPet() dan writer yang memegang lock stripe-nya
+    private final ConcurrentHashMap<Integer, Pet> pets = new ConcurrentHashMap<>();
+    private final Object[] locks;
+    private final SlotIndex slots = new SlotIndex();
+    private final AtomicLong appointmentIds = new AtomicLong();
+
+    // Hanya diganti lewat compare-and-set di publish()
+    private final AtomicReference<Snapshot> head = new AtomicReference<>(Snapshot.EMPTY);
+    private volatile CommitListener listener;
+
+    /**
+     * Menerima setiap perubahan (kecuali importPets) sesudah perubahan itu terbit di snapshot,
+     * misalnya untuk mencatatnya ke journal. Dipanggil sambil memegang lock stripe pet itu, jadi
+     * perubahan pada pet yang sama diterima urut nomor commit; perubahan pet yang berbeda bisa
+     * tertukar urutannya. Harus singkat, thread-safe, dan tidak boleh memanggil service.
+     */
+    public interface CommitListener {
+        void registered(Pet pet);
+
+        void booked(Pet pet, Appointment appointment);
+
+        void cancelled(Pet pet, Appointment appointment);
+    }
+
+    // Constructor
+    public SchedulerService() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public SchedulerService(int stripes) {
+        int n = Integer.highestOneBit(Math.max(1, stripes - 1) << 1); // pangkat dua >= stripes
+        locks = new Object[n];
+        for (int i = 0; i < n; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // ID berurutan otomatis tersebar rata ke semua stripe
+    private Object lockFor(int petId) {
+        return locks[petId & (locks.length - 1)];
+    }
+
+    public void setCommitListener(CommitListener listener) {
+        this.listener = listener;
+    }
+
+    // ID appointment di bawah 'next' tidak diberikan lagi (misalnya ID yang pernah dibatalkan)
+    public void reserveAppointmentIds(long next) {
+        appointmentIds.accumulateAndGet(next - 1, Math::max);
+    }
+
+    public long nextAppointmentId() {
+        return appointmentIds.get() + 1;
+    }
+
+    // ========== Writes ==========
+
+    /**
+     * Memasukkan data yang dimuat dari file (pet beserta appointment-nya) tanpa cek bentrok.
+     * Kepemilikan objek berpindah ke service; pemanggil tidak boleh mengubahnya lagi.
+     * Pet dengan ID yang sudah ada diabaikan. Appointment tanpa ID mendapat ID baru.
+     *
+     * @return jumlah pet yang dimasukkan
+     */
+    public int importPets(Collection<Pet> loaded) {
+        for (Pet p : loaded) {
+            for (Appointment a : p.getAppointments()) {
+                appointmentIds.accumulateAndGet(a.getId(), Math::max);
+            }
+        }
+        int imported = 0;
+        for (Pet p : loaded) {
+            synchronized (lockFor(p.getPetId())) {
+                if (pets.containsKey(p.getPetId())) {
+                    continue;
+                }
+                for (Appointment a : p.getAppointments()) {
+                    if (a.getId() <= 0) {
+                        a.setId(appointmentIds.incrementAndGet());
+                    }
+                    slots.add(a.getAppointmentType(), a.getDateTime());
+                }
+                publish(p, null, null);
+                imported++;
+            }
+        }
+        return imported;
+    }
+
+    /**
+     * Mendaftarkan pet baru dengan aturan validasi yang sama seperti menu.
+     * Hanya data profil yang disalin; appointment milik 'pet' tidak ikut.
+     *
+     * @return pesan error, atau null jika berhasil
+     */
+    public String register(Pet pet) {
+        long start = Metrics.REGISTER.start();
+        try {
+            return doRegister(pet);
+        } finally {
+            Metrics.REGISTER.record(start);
+        }
+    }
+
+    private String doRegister(Pet pet) {
+        String error = Validation.firstError(Validation.checkPetId(pet.getPetId()),
+                Validation.checkText(pet.getName(), "Pet Name"),
+                Validation.checkText(pet.getSpeciesOrBreed(), "Species/Breed"),
+                Validation.checkAge(pet.getAge()),
+                Validation.checkText(pet.getOwnerName(), "Owner Name"),
+                Validation.checkText(pet.getContactInfo(), "Contact Info"));
+        if (error != null) {
+            return error;
+        }
+        synchronized (lockFor(pet.getPetId())) {
+            if (pets.containsKey(pet.getPetId())) {
+                return "Pet ID already exists! Please choose a different ID.";
+            }
+            Pet copy = copyOf(pet, null, null);
+            publish(copy, null, l -> l.registered(copy));
+        }
+        return null;
+    }
+
+    /**
+     * Menjadwalkan appointment. Cek kapasitas slot dan booking terjadi secara atomik,
+     * jadi dua sesi yang berebut slot terakhir tidak bisa sama-sama berhasil.
+     *
+     * @return pesan error, atau null jika berhasil
+     */
+    public String book(int petId, String type, LocalDateTime dateTime, String notes) {
+        return book(petId, new Appointment(type, dateTime, notes));
+    }
+
+    /**
+     * Seperti book(petId, type, dateTime, notes); jika berhasil, ID appointment diisi ke
+     * 'appointment' dan objek itu sendiri yang masuk ke snapshot (jangan diubah lagi).
+     */
+    public String book(int petId, Appointment appointment) {
+        long start = Metrics.SCHEDULE.start();
+        try {
+            return doBook(petId, appointment);
+        } finally {
+            Metrics.SCHEDULE.record(start);
+        }
+    }
+
+    private String doBook(int petId, Appointment added) {
+        String type = added.getAppointmentType();
+        LocalDateTime dateTime = added.getDateTime();
+        String error = Validation.firstError(Validation.checkAppointmentType(type), Validation.checkFuture(dateTime));
+        if (error != null) {
+            return error;
+        }
+        synchronized (lockFor(petId)) {
+            Pet current = pets.get(petId);
+            if (current == null) {
+                return "Pet not found: " + petId;
+            }
+            if (!slots.tryAdd(type, dateTime)) {
+                return Validation.conflictMessage(slots, type, slots.nextFreeSlot(type, dateTime));
+            }
+            added.setId(appointmentIds.incrementAndGet());
+            Pet copy = copyOf(current, added, null);
+            publish(copy, null, l -> l.booked(copy, added));
+        }
+        return null;
+    }
+
+    /**
+     * Membatalkan appointment pet 'petId' dengan tipe dan waktu tersebut.
+     *
+     * @return false jika pet atau appointment tidak ditemukan
+     */
+    public boolean cancel(int petId, String type, LocalDateTime dateTime) {
+        long start = Metrics.CANCEL.start();
+        try {
+            return doCancel(petId, type, dateTime);
+        } finally {
+            Metrics.CANCEL.record(start);
+        }
+    }
+
+    private boolean doCancel(int petId, String type, LocalDateTime dateTime) {
+        synchronized (lockFor(petId)) {
+            Pet current = pets.get(petId);
+            Appointment target = current == null ? null : find(current, type, dateTime);
+            if (target == null) {
+                return false;
+            }
+            slots.remove(target.getAppointmentType(), target.getDateTime());
+            Pet copy = copyOf(current, null, target);
+            publish(copy, target, l -> l.cancelled(copy, target));
+        }
+        return true;
+    }
+
+    private static Appointment find(Pet pet, String type, LocalDateTime dateTime) {
+        for (Appointment a : pet.getAppointments()) {
+            if (a.getAppointmentType().equalsIgnoreCase(type) && a.getDateTime().equals(dateTime)) {
+                return a;
+            }
+        }
+        return null;
+    }
+
+    // Salinan baru dari 'p' dengan satu appointment ditambah atau dibuang (objek lama tetap utuh)
+    private static Pet copyOf(Pet p, Appointment add, Appointment remove) {
+        Pet copy = new Pet(p.getPetId(), p.getName(), p.getSpeciesOrBreed(), p.getAge(), p.getOwnerName(),
+                p.getContactInfo(), p.getRegistrationDate());
+        for (Appointment a : p.getAppointments()) {
+            if (a != remove) {
+                Appointment c = new Appointment(a.getAppointmentType(), a.getDateTime(), a.getNotes());
+                c.setId(a.getId());
+                copy.addAppointment(c);
+            }
+        }
+        if (add != null) {
+            copy.addAppointment(add);
+        }
+        return copy;
+    }
+
+    /*
+     * Dipanggil sambil memegang lock stripe pet ini, setelah semua pekerjaannya selesai.
+     * Writer pet lain tidak ditunggu: snapshot baru dibangun di luar lock dan diterbitkan dengan
+     * compare-and-set, diulang jika head sudah diganti writer lain. Listener dipanggil sesudah
+     * commit terbit, di luar bagian yang diperebutkan.
+     */
+    private void publish(Pet pet, Appointment removed, Consumer<CommitListener> event) {
+        pets.put(pet.getPetId(), pet);
+        Snapshot current;
+        Snapshot next;
+        do {
+            current = head.get();
+            next = current.next(pet, removed);
+        } while (!head.compareAndSet(current, next));
+        CommitListener l = listener;
+        if (l != null && event != null) {
+            event.accept(l);
+        }
+    }
+
+    // ========== Reads ==========
+
+    /**
+     * Versi terbaru pet 'petId', atau null. Objek yang dikembalikan read-only.
+     */
+    public Pet findPet(int petId) {
+        long start = Metrics.LOOKUP.start();
+        Pet p = pets.get(petId);
+        Metrics.LOOKUP.record(start);
+        return p;
+    }
+
+    public int petCount() {
+        return pets.size();
+    }
+
+    public long appointmentCount() {
+        return head.get().getAppointmentCount();
+    }
+
+    public long committedSequence() {
+        return head.get().seq;
+    }
+
+    public SlotIndex getSlots() {
+        return slots;
+    }
+
+    /**
+     * Tampilan konsisten atas semua pet pada commit terakhir. O(1), tanpa lock dan tanpa
+     * menahan writer.
+     */
+    public Snapshot snapshot() {
+        return head.get();
+    }
+
+    /**
+     * Seperti snapshot(), tetapi 'beforeRead' dijalankan tepat sebelum head dibaca. Listener
+     * dipanggil sesudah commit terbit, jadi setiap perubahan yang sudah diterima listener saat
+     * 'beforeRead' berjalan ada di snapshot; perubahan sesudahnya mungkin juga sudah ada.
+     */
+    public Snapshot snapshot(Runnable beforeRead) {
+        beforeRead.run();
+        return head.get();
+    }
+
+    // Posisi appointment dalam urutan waktu; ID unik membedakan appointment pada waktu yang sama
+    private static final class TimeKey implements Comparable<TimeKey> {
+        final LocalDateTime dateTime;
+        final long id;
+
+        TimeKey(LocalDateTime dateTime, long id) {
+            this.dateTime = dateTime;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(TimeKey o) {
+            int c = dateTime.compareTo(o.dateTime);
+            return c != 0 ? c : Long.compare(id, o.id);
+        }
+    }
+
+    // Posisi pet dalam urutan vet visit terakhir: belum pernah (null) lebih dulu, lalu paling lama; seri per ID
+    private static final class VetKey implements Comparable<VetKey> {
+        final LocalDateTime lastVetVisit;
+        final int petId;
+
+        VetKey(LocalDateTime lastVetVisit, int petId) {
+            this.lastVetVisit = lastVetVisit;
+            this.petId = petId;
+        }
+
+        @Override
+        public int compareTo(VetKey o) {
+            if (lastVetVisit == null || o.lastVetVisit == null) {
+                if (lastVetVisit != o.lastVetVisit) {
+                    return lastVetVisit == null ? -1 : 1;
+                }
+            } else {
+                int c = lastVetVisit.compareTo(o.lastVetVisit);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return Integer.compare(petId, o.petId);
+        }
+    }
+
+    /**
+     * Data immutable pada satu nomor commit. Pet dan Appointment di dalamnya read-only.
+     */
+    public static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0, PersistentSortedMap.empty(), PersistentSortedMap.empty(),
+                PersistentSortedMap.empty());
+
+        private final long seq;
+        private final PersistentSortedMap<Integer, Pet> byId;
+        private final PersistentSortedMap<TimeKey, Appointment> byTime;
+        private final PersistentSortedMap<VetKey, Pet> byLastVetVisit;
+        private final List<Pet> pets; // urut berdasarkan pet ID
+
+        private Snapshot(long seq, PersistentSortedMap<Integer, Pet> byId,
+                PersistentSortedMap<TimeKey, Appointment> byTime, PersistentSortedMap<VetKey, Pet> byLastVetVisit) {
+            this.seq = seq;
+            this.byId = byId;
+            this.byTime = byTime;
+            this.byLastVetVisit = byLastVetVisit;
+            this.pets = new AbstractList<Pet>() {
+                @Override
+                public Pet get(int index) {
+                    return byId.valueAt(index);
+                }
+
+                @Override
+                public int size() {
+                    return byId.size();
+                }
+
+                @Override
+                public Iterator<Pet> iterator() {
+                    return byId.values();
+                }
+            };
+        }
+
+        /*
+         * Snapshot berikutnya: 'pet' diganti versi baru dan 'removed' dibuang dari urutan waktu.
+         * Setiap versi pet punya objek Appointment sendiri (lihat copyOf), jadi semua appointment
+         * pet ini ditulis ulang ke urutan waktu: O(k log n) untuk k appointment milik pet itu.
+         */
+        private Snapshot next(Pet pet, Appointment removed) {
+            int petId = pet.getPetId();
+            PersistentSortedMap<TimeKey, Appointment> time = byTime;
+            if (removed != null) {
+                time = time.remove(new TimeKey(removed.getDateTime(), removed.getId()));
+            }
+            for (Appointment a : pet.getAppointments()) {
+                time = time.put(new TimeKey(a.getDateTime(), a.getId()), a);
+            }
+            PersistentSortedMap<VetKey, Pet> vet = byLastVetVisit;
+            Pet old = byId.get(petId);
+            if (old != null) {
+                vet = vet.remove(new VetKey(old.getLastVetVisit(), petId));
+            }
+            vet = vet.put(new VetKey(pet.getLastVetVisit(), petId), pet);
+            return new Snapshot(seq + 1, byId.put(petId, pet), time, vet);
+        }
+
+        public long getSequence() {
+            return seq;
+        }
+
+        public List<Pet> getPets() {
+            return pets;
+        }
+
+        public int getAppointmentCount() {
+            return byTime.size();
+        }
+
+        public Pet getPet(int petId) {
+            return byId.get(petId);
+        }
+
+        /**
+         * Sama seperti report overdue di menu: pet yang belum pernah ke dokter hewan (urut ID),
+         * lalu pet dengan vet visit terakhir sebelum 'cutoff' (paling lama lebih dulu). Dibaca
+         * lazily dari awal urutan vet visit snapshot dan berhenti di 'cutoff'.
+         */
+        public Iterable<Pet> overdueVetVisits(LocalDateTime cutoff) {
+            return () -> new Iterator<Pet>() {
+                private final Iterator<Pet> byVisit = byLastVetVisit.values();
+                private Pet pending = advance();
+
+                private Pet advance() {
+                    Pet p = byVisit.hasNext() ? byVisit.next() : null;
+                    return p != null && (p.getLastVetVisit() == null || p.getLastVetVisit().isBefore(cutoff)) ? p
+                            : null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return pending != null;
+                }
+
+                @Override
+                public Pet next() {
+                    if (pending == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Pet p = pending;
+                    pending = advance();
+                    return p;
+                }
+            };
+        }
+
+        /**
+         * Appointment dengan waktu dalam rentang (from, to), kedua batas eksklusif, urut waktu.
+         * Hasilnya dibaca lazily dari urutan waktu snapshot, jadi pemanggil bisa men-stream hasil
+         * besar tanpa menyalinnya ke list. Appointment yang dikembalikan milik versi pet di snapshot ini.
+         */
+        public Iterable<Appointment> appointmentsBetween(LocalDateTime from, LocalDateTime to) {
+            TimeKey after = new TimeKey(from, Long.MAX_VALUE);
+            return () -> new Iterator<Appointment>() {
+                private final Iterator<Appointment> values = byTime.valuesAfter(after);
+                private Appointment pending = advance();
+
+                private Appointment advance() {
+                    Appointment a = values.hasNext() ? values.next() : null;
+                    return a != null && a.getDateTime().isBefore(to) ? a : null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return pending != null;
+                }
+
+                @Override
+                public Appointment next() {
+                    if (pending == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Appointment a = pending;
+                    pending = advance();
+                    return a;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package PetCareScheduler;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Pencarian teks atas pet (nama, spesies/ras, pemilik, kontak) dan catatan appointment,
+ * dengan pencocokan prefix ("mil" menemukan Milo, "aller" menemukan "Skin allergy").
+ *
+ * Index dibangun sekali saat pencarian pertama, lalu dijaga incremental: pet baru dan
+ * appointment baru lewat addPet/addAppointment, perubahan lewat setter Pet dan
+ * Appointment.setNotes (SchedulerEvents). Sebelum dibangun semua update diabaikan,
+ * sehingga load dan benchmark tidak membayar biaya index yang belum dipakai.
+ *
+ * Salinan Pet milik SchedulerService juga memicu SchedulerEvents; 'registered' menyaring
+ * agar hanya pet yang benar-benar terdaftar di PetCareScheduler yang diindeks.
+ */
+public class SearchIndex implements SchedulerEvents.Listener {
+
+    private final TextIndex<Pet> petText = new TextIndex<>(List.of(Pet::getName, Pet::getSpeciesOrBreed,
+            Pet::getOwnerName, Pet::getContactInfo));
+    private final TextIndex<Appointment> noteText = new TextIndex<>(List.of(Appointment::getNotes));
+    private final Predicate<Pet> registered;
+    private boolean built;
+
+    public SearchIndex(Predicate<Pet> registered) {
+        this.registered = registered;
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    public int termCount() {
+        return petText.termCount() + noteText.termCount();
+    }
+
+    public long postingCount() {
+        return petText.postingCount() + noteText.postingCount();
+    }
+
+    // Entri yang sudah dihapus tetapi belum dibersihkan dari posting list
+    public boolean needsCompaction() {
+        return petText.needsCompaction() || noteText.needsCompaction();
+    }
+
+    // Membersihkan tombstone; dijalankan di thread autosave di bawah write lock, seperti RecordTable
+    public long compact() {
+        return petText.compact() + noteText.compact();
+    }
+
+    // Membangun index dari semua pet dan appointment-nya; tidak melakukan apa pun jika sudah dibangun
+    public void build(Iterable<Pet> pets) {
+        if (built) {
+            return;
+        }
+        built = true;
+        for (Pet pet : pets) {
+            addPet(pet);
+            for (Appointment a : pet.getAppointments()) {
+                addAppointment(a);
+            }
+        }
+    }
+
+    public void clear() {
+        petText.clear();
+        noteText.clear();
+        built = false;
+    }
+
+    // ========== Incremental updates ==========
+
+    public void addPet(Pet pet) {
+        if (built) {
+            petText.add(pet, pet.getName());
+            petText.add(pet, pet.getSpeciesOrBreed());
+            petText.add(pet, pet.getOwnerName());
+            petText.add(pet, pet.getContactInfo());
+        }
+    }
+
+    public void addAppointment(Appointment appointment) {
+        if (built) {
+            noteText.add(appointment, appointment.getNotes());
+        }
+    }
+
+    @Override
+    public void petDetailsChanged(Pet pet, String field, String oldValue) {
+        // Umur tidak diindeks
+        if (built && registered.test(pet) && !field.equals("age")) {
+            petText.remove(pet, oldValue);
+            switch (field) {
+                case "name":
+                    petText.add(pet, pet.getName());
+                    break;
+                case "speciesOrBreed":
+                    petText.add(pet, pet.getSpeciesOrBreed());
+                    break;
+                case "ownerName":
+                    petText.add(pet, pet.getOwnerName());
+                    break;
+                case "contactInfo":
+                    petText.add(pet, pet.getContactInfo());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public void appointmentNotesChanged(Appointment appointment, String oldNotes) {
+        if (built && appointment.getPet() != null && registered.test(appointment.getPet())) {
+            noteText.remove(appointment, oldNotes);
+            noteText.add(appointment, appointment.getNotes());
+        }
+    }
+
+    // Pet.removeAppointment sudah melepas pet dari appointment; 'pet' adalah pemilik sebelumnya
+    @Override
+    public void appointmentRemoved(Pet pet, Appointment appointment) {
+        if (built && registered.test(pet)) {
+            noteText.remove(appointment, appointment.getNotes());
+        }
+    }
+
+    // Dipanggil sebelum pet dilepas dari PetCareScheduler, jadi 'registered' masih berlaku
+    @Override
+    public void petRemoved(Pet pet) {
+        if (built && registered.test(pet)) {
+            petText.remove(pet, pet.getName());
+            petText.remove(pet, pet.getSpeciesOrBreed());
+            petText.remove(pet, pet.getOwnerName());
+            petText.remove(pet, pet.getContactInfo());
+            for (Appointment a : pet.getAppointments()) {
+                noteText.remove(a, a.getNotes());
+            }
+        }
+    }
+
+    // ========== Queries ==========
+
+    public List<Pet> searchPets(String query, int limit) {
+        return petText.search(query, limit);
+    }
+
+    public List<Appointment> searchNotes(String query, int limit) {
+        return noteText.search(query, limit);
+    }
+
+    // Batas atas jumlah hasil searchPets/searchNotes, tanpa menjalankan pencariannya
+    public long estimatePets(String query) {
+        return petText.estimate(query);
+    }
+
+    public long estimateNotes(String query) {
+        return noteText.estimate(query);
+    }
+}
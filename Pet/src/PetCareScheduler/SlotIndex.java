@@ -0,0 +1,371 @@
+package PetCareScheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index slot per hari untuk mendeteksi bentrok jadwal.
+ * Satu hari dibagi menjadi slot 15 menit; untuk setiap tipe appointment disimpan
+ * jumlah booking per slot. Setiap tipe punya durasi dan kapasitas (jumlah dokter
+ * hewan / groomer) sendiri.
+ *
+ * Booking menempati setiap slot yang disentuhnya, dari slot tempat jam mulai jatuh sampai
+ * slot tempat jam selesai jatuh; booking 10:10 selama 30 menit memakai slot 10:00, 10:15
+ * dan 10:30. Cek bentrok hanya menyentuh slot tersebut (konstan). Pencarian slot
+ * kosong berikutnya melompati rentang hari yang sudah penuh lewat TreeMap, sehingga
+ * tetap O(log n) walaupun data booking bertahun-tahun sudah dimuat.
+ *
+ * Durasi dan kapasitas dapat diubah lewat system property, misalnya
+ * -Dpetcare.duration.grooming=90 -Dpetcare.capacity.vet=3
+ *
+ * Thread-safe: array hitungan per hari sekaligus menjadi lock untuk hari itu
+ * (booking yang melewati tengah malam mengunci hari berikutnya juga, selalu urut
+ * naik), sehingga booking pada hari berbeda tidak saling menunggu. tryAdd() memeriksa
+ * dan mem-booking secara atomik. Durasi dibatasi maksimal satu hari.
+ */
+public class SlotIndex implements SchedulerEvents.Listener {
+
+    static final int SLOT_MINUTES = 15;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final int DEFAULT_DURATION = 30;
+    private static final int DEFAULT_CAPACITY = 1;
+
+    private final Map<String, Resource> resources = new ConcurrentHashMap<>();
+
+    /**
+     * Booking untuk satu tipe appointment (satu jenis sumber daya).
+     */
+    private static final class Resource {
+        final int durationMinutes;
+        final int capacity;
+        final ConcurrentHashMap<Long, byte[]> countsByDay = new ConcurrentHashMap<>();
+        // Rentang hari penuh yang digabung: hari awal -> hari akhir (inklusif), dijaga oleh lock-nya sendiri
+        final TreeMap<Long, Long> fullDays = new TreeMap<>();
+
+        Resource(int durationMinutes, int capacity) {
+            this.durationMinutes = Math.max(1, Math.min(durationMinutes, 24 * 60));
+            this.capacity = Math.max(1, Math.min(capacity, Byte.MAX_VALUE));
+        }
+
+        byte[] counts(long day) {
+            return countsByDay.computeIfAbsent(day, d -> new byte[SLOTS_PER_DAY]);
+        }
+
+        // Slot ke-s dihitung dari awal 'first'; s >= SLOTS_PER_DAY jatuh ke hari berikutnya ('second')
+        private static int count(byte[] first, byte[] second, int s) {
+            return s < SLOTS_PER_DAY ? first[s] : second[s - SLOTS_PER_DAY];
+        }
+
+        // Jumlah slot yang disentuh booking yang mulai 'start'
+        int span(LocalDateTime start) {
+            long from = start.toLocalTime().toSecondOfDay();
+            long end = from + durationMinutes * 60L + (start.getNano() > 0 ? 1 : 0);
+            long slotSeconds = SLOT_MINUTES * 60L;
+            return (int) ((end + slotSeconds - 1) / slotSeconds - from / slotSeconds);
+        }
+
+        // Jumlah slot untuk booking yang mulai tepat di batas slot
+        int alignedSpan() {
+            return (durationMinutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+        }
+
+        // Apakah 'span' slot mulai dari 'slot' muat tanpa melebihi kapasitas. Pemanggil memegang lock hari.
+        boolean fits(byte[] first, byte[] second, int slot, int span) {
+            for (int i = 0; i < span; i++) {
+                if (count(first, second, slot + i) >= capacity) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void adjust(byte[] first, byte[] second, int slot, int span, int delta) {
+            for (int i = 0; i < span; i++) {
+                int s = slot + i;
+                byte[] counts = s < SLOTS_PER_DAY ? first : second;
+                int index = s < SLOTS_PER_DAY ? s : s - SLOTS_PER_DAY;
+                // Data lama bisa melebihi kapasitas; hitungan dijenuhkan, bukan overflow
+                counts[index] = (byte) Math.max(0, Math.min(Byte.MAX_VALUE, counts[index] + delta));
+            }
+        }
+
+        // Slot pertama >= fromSlot yang muat seluruhnya di hari itu, atau -1. Pemanggil memegang lock 'counts'.
+        int firstFreeSlot(byte[] counts, int fromSlot) {
+            int span = alignedSpan();
+            for (int s = fromSlot; s + span <= SLOTS_PER_DAY; s++) {
+                if (fits(counts, null, s, span)) {
+                    return s;
+                }
+            }
+            return -1;
+        }
+
+        // Pemanggil memegang lock 'counts' sehingga status penuh hari ini tidak berubah di tengah jalan
+        void refreshFull(long day, byte[] counts) {
+            boolean full = firstFreeSlot(counts, 0) < 0;
+            synchronized (fullDays) {
+                if (full) {
+                    markFull(day);
+                } else {
+                    markNotFull(day);
+                }
+            }
+        }
+
+        long skipFullDays(long day) {
+            synchronized (fullDays) {
+                Map.Entry<Long, Long> run = fullDays.floorEntry(day);
+                return run != null && run.getValue() >= day ? run.getValue() + 1 : day;
+            }
+        }
+
+        private void markFull(long day) {
+            Map.Entry<Long, Long> prev = fullDays.floorEntry(day);
+            if (prev != null && prev.getValue() >= day) {
+                return;
+            }
+            long start = day;
+            long end = day;
+            if (prev != null && prev.getValue() == day - 1) {
+                start = prev.getKey();
+            }
+            Long nextEnd = fullDays.remove(day + 1);
+            if (nextEnd != null) {
+                end = nextEnd;
+            }
+            fullDays.put(start, end);
+        }
+
+        private void markNotFull(long day) {
+            Map.Entry<Long, Long> run = fullDays.floorEntry(day);
+            if (run == null || run.getValue() < day) {
+                return;
+            }
+            fullDays.remove(run.getKey());
+            if (run.getKey() < day) {
+                fullDays.put(run.getKey(), day - 1);
+            }
+            if (run.getValue() > day) {
+                fullDays.put(day + 1, run.getValue());
+            }
+        }
+    }
+
+    // ========== Configuration ==========
+
+    public int getDurationMinutes(String type) {
+        return resource(type).durationMinutes;
+    }
+
+    public int getCapacity(String type) {
+        return resource(type).capacity;
+    }
+
+    private Resource resource(String type) {
+        String key = type.toLowerCase();
+        return resources.computeIfAbsent(key, k -> new Resource(
+                Integer.getInteger("petcare.duration." + k, defaultDuration(k)),
+                Integer.getInteger("petcare.capacity." + k, defaultCapacity(k))));
+    }
+
+    private static int defaultDuration(String type) {
+        switch (type) {
+            case "vet":
+                return 30;
+            case "grooming":
+                return 60;
+            case "vaccination":
+                return 15;
+            default:
+                return DEFAULT_DURATION;
+        }
+    }
+
+    private static int defaultCapacity(String type) {
+        return type.equals("vet") ? 2 : DEFAULT_CAPACITY;
+    }
+
+    // ========== Booking ==========
+
+    public void add(Appointment appointment) {
+        add(appointment.getAppointmentType(), appointment.getDateTime());
+    }
+
+    public void remove(Appointment appointment) {
+        remove(appointment.getAppointmentType(), appointment.getDateTime());
+    }
+
+    // Booking tanpa cek kapasitas (data yang dimuat dari file)
+    public void add(String type, LocalDateTime start) {
+        book(type, start, +1, false);
+    }
+
+    public void remove(String type, LocalDateTime start) {
+        book(type, start, -1, false);
+    }
+
+    public void clear() {
+        resources.clear();
+    }
+
+    /**
+     * Mem-booking slot hanya jika masih ada kapasitas (cek dan booking atomik).
+     *
+     * @return false jika bentrok; tidak ada yang diubah
+     */
+    public boolean tryAdd(String type, LocalDateTime start) {
+        return book(type, start, +1, true);
+    }
+
+    private boolean book(String type, LocalDateTime start, int delta, boolean checkCapacity) {
+        Resource r = resource(type);
+        long day = start.toLocalDate().toEpochDay();
+        int slot = slotOf(start);
+        int span = r.span(start);
+        byte[] first = r.counts(day);
+        if (slot + span <= SLOTS_PER_DAY) {
+            synchronized (first) {
+                if (checkCapacity && !r.fits(first, null, slot, span)) {
+                    return false;
+                }
+                r.adjust(first, null, slot, span, delta);
+                r.refreshFull(day, first);
+            }
+            return true;
+        }
+        byte[] second = r.counts(day + 1);
+        synchronized (first) {
+            synchronized (second) {
+                if (checkCapacity && !r.fits(first, second, slot, span)) {
+                    return false;
+                }
+                r.adjust(first, second, slot, span, delta);
+                r.refreshFull(day, first);
+                r.refreshFull(day + 1, second);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void appointmentRescheduled(Appointment appointment, LocalDateTime oldDateTime) {
+        if (appointment.getPet() != null) {
+            remove(appointment.getAppointmentType(), oldDateTime);
+            add(appointment);
+        }
+    }
+
+    @Override
+    public void appointmentTypeChanged(Appointment appointment, String oldType) {
+        if (appointment.getPet() != null) {
+            remove(oldType, appointment.getDateTime());
+            add(appointment);
+        }
+    }
+
+    @Override
+    public void appointmentRemoved(Pet pet, Appointment appointment) {
+        remove(appointment);
+    }
+
+    @Override
+    public void petRemoved(Pet pet) {
+        for (Appointment a : pet.getAppointments()) {
+            remove(a);
+        }
+    }
+
+    // ========== Queries ==========
+
+    /**
+     * True jika appointment bertipe 'type' mulai 'start' akan melebihi kapasitas
+     * pada salah satu slot yang dicakup durasinya.
+     */
+    public boolean hasConflict(String type, LocalDateTime start) {
+        return hasConflict(type, start, Collections.emptyList());
+    }
+
+    /**
+     * Seperti hasConflict(type, start), tetapi 'extra' (booking bertipe sama yang tidak
+     * tersimpan di index, misalnya kejadian aturan berulang) ikut dihitung. Biayanya
+     * O(durasi x jumlah extra); extra yang tidak menyentuh slot booking ini tidak berpengaruh.
+     */
+    public boolean hasConflict(String type, LocalDateTime start, Iterable<? extends Appointment> extra) {
+        Resource r = resource(type);
+        long day = start.toLocalDate().toEpochDay();
+        int slot = slotOf(start);
+        int span = r.span(start);
+        byte[] first = r.countsByDay.get(day);
+        byte[] second = slot + span > SLOTS_PER_DAY ? r.countsByDay.get(day + 1) : null;
+        // Hari tanpa booking diperlakukan sebagai array kosong lokal (tidak perlu lock)
+        byte[] a = first != null ? first : new byte[SLOTS_PER_DAY];
+        byte[] b = second != null ? second : new byte[SLOTS_PER_DAY];
+        int[] counts = new int[span];
+        synchronized (a) {
+            synchronized (b) {
+                for (int i = 0; i < span; i++) {
+                    int s = slot + i;
+                    counts[i] = s < SLOTS_PER_DAY ? a[s] : b[s - SLOTS_PER_DAY];
+                }
+            }
+        }
+        for (Appointment e : extra) {
+            LocalDateTime t = e.getDateTime();
+            // Posisi slot relatif terhadap awal hari 'start' (bisa negatif untuk hari sebelumnya)
+            long from = (t.toLocalDate().toEpochDay() - day) * SLOTS_PER_DAY + slotOf(t) - slot;
+            long to = from + r.span(t);
+            for (long i = Math.max(0, from); i < Math.min(span, to); i++) {
+                counts[(int) i]++;
+            }
+        }
+        for (int c : counts) {
+            if (c >= r.capacity) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waktu mulai slot kosong pertama pada atau setelah 'from' untuk tipe ini.
+     */
+    public LocalDateTime nextFreeSlot(String type, LocalDateTime from) {
+        Resource r = resource(type);
+        long day = from.toLocalDate().toEpochDay();
+        int slot = slotOf(from);
+        if (from.toLocalTime().getMinute() % SLOT_MINUTES != 0 || from.getSecond() != 0 || from.getNano() != 0) {
+            slot++; // mulai dari batas slot berikutnya
+        }
+
+        while (true) {
+            long candidateDay = r.skipFullDays(day);
+            int fromSlot = candidateDay == day ? slot : 0;
+            int free = fromSlot < SLOTS_PER_DAY ? firstFreeSlot(r, candidateDay, fromSlot) : -1;
+            if (free >= 0) {
+                return LocalDate.ofEpochDay(candidateDay).atTime(LocalTime.MIN.plusMinutes((long) free * SLOT_MINUTES));
+            }
+            day = candidateDay + 1;
+            slot = 0;
+        }
+    }
+
+    private static int firstFreeSlot(Resource r, long day, int fromSlot) {
+        byte[] counts = r.countsByDay.get(day);
+        if (counts == null) {
+            return fromSlot + r.alignedSpan() <= SLOTS_PER_DAY ? fromSlot : -1;
+        }
+        synchronized (counts) {
+            return r.firstFreeSlot(counts, fromSlot);
+        }
+    }
+
+    private static int slotOf(LocalDateTime t) {
+        return (t.getHour() * 60 + t.getMinute()) / SLOT_MINUTES;
+    }
+}
@@ -0,0 +1,82 @@
+package PetCareScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Konversi antara format teks (pets.txt + appointments.txt) dan snapshot biner (petcare.snap).
+ *
+ * Usage:
+ * <pre>
+ * java PetCareScheduler.SnapshotConverter to-binary [pets.txt] [appointments.txt] [petcare.snap]
+ * java PetCareScheduler.SnapshotConverter to-text   [petcare.snap] [pets.txt] [appointments.txt]
+ * </pre>
+ */
+public class SnapshotConverter {
+
+    public static void main(String[] args) {
+        if (args.length == 0 || !(args[0].equals("to-binary") || args[0].equals("to-text"))) {
+            System.out.println("Usage: SnapshotConverter to-binary [pets.txt] [appointments.txt] [petcare.snap]");
+            System.out.println("       SnapshotConverter to-text [petcare.snap] [pets.txt] [appointments.txt]");
+            return;
+        }
+
+        LoadReport petReport = new LoadReport("Pets");
+        LoadReport appointmentReport = new LoadReport("Appointments");
+        try {
+            if (args[0].equals("to-binary")) {
+                Path pets = Paths.get(arg(args, 1, "pets.txt"));
+                Path appointments = Paths.get(arg(args, 2, "appointments.txt"));
+                Path snapshot = Paths.get(arg(args, 3, "petcare.snap"));
+
+                FastDataLoader.LoadedData data = new FastDataLoader.LoadedData(
+                        FastDataLoader.readPets(pets, petReport),
+                        appointments.toFile().exists() ? FastDataLoader.readAppointments(appointments, appointmentReport)
+                                : new FastDataLoader.AppointmentBatch());
+                link(data, appointmentReport);
+                BinarySnapshot.write(data.pets.pets, snapshot);
+                System.out.println("Wrote " + snapshot + " (" + snapshot.toFile().length() + " bytes, text was "
+                        + (pets.toFile().length() + appointments.toFile().length()) + " bytes)");
+            } else {
+                Path snapshot = Paths.get(arg(args, 1, "petcare.snap"));
+                File pets = new File(arg(args, 2, "pets.txt"));
+                File appointments = new File(arg(args, 3, "appointments.txt"));
+
+                FastDataLoader.LoadedData data = BinarySnapshot.read(snapshot, petReport, appointmentReport);
+                link(data, appointmentReport);
+                PetCareScheduler.writePetData(data.pets.pets, pets);
+                PetCareScheduler.writeAppointmentData(data.pets.pets, appointments);
+                System.out.println("Wrote " + pets + " and " + appointments);
+            }
+        } catch (IOException e) {
+            System.out.println("Conversion failed: " + e.getMessage());
+            return;
+        }
+        petReport.printSummary();
+        appointmentReport.printSummary();
+    }
+
+    // Menautkan appointment ke pet; yang tidak punya pet tidak bisa disimpan di kedua format
+    private static void link(FastDataLoader.LoadedData data, LoadReport report) {
+        PetIndex index = new PetIndex(data.pets.pets.size());
+        for (Pet p : data.pets.pets) {
+            index.putIfAbsent(p);
+        }
+        FastDataLoader.AppointmentBatch batch = data.appointments;
+        for (int i = 0; i < batch.size(); i++) {
+            Pet pet = index.get(batch.petIds[i]);
+            if (pet != null) {
+                pet.addAppointment(batch.appointments.get(i));
+            } else {
+                report.addWarning(batch.lineNumbers[i],
+                        "Pet ID " + batch.petIds[i] + " not found; appointment dropped.");
+            }
+        }
+    }
+
+    private static String arg(String[] args, int i, String fallback) {
+        return args.length > i ? args[i] : fallback;
+    }
+}
@@ -0,0 +1,131 @@
+package PetCareScheduler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manifest snapshot (petcare.manifest): satu baris
+ * <pre>
+ * generation|format|nextAppointmentId|file1|file2...
+ * </pre>
+ * yang menyatakan snapshot mana yang berlaku. Snapshot baru ditulis dulu ke file staging
+ * "&lt;nama&gt;.&lt;generation&gt;" (misalnya pets.txt.8 dan appointments.txt.8), lalu manifest baru
+ * ditulis atomik; itulah titik commit untuk semua file sekaligus. Setelah itu file staging
+ * di-rename ke nama aslinya. Crash sebelum manifest ditulis meninggalkan snapshot lama utuh
+ * (staging dibuang saat open); crash sesudahnya diselesaikan open() dengan melanjutkan rename.
+ * Jadi pets.txt dan appointments.txt tidak pernah berasal dari generation yang berbeda.
+ *
+ * Tanpa manifest (data lama atau instalasi baru) generation-nya 0 dan format ditentukan
+ * pemanggil.
+ */
+final class SnapshotManifest {
+
+    static final String TEXT = "text";
+    static final String BINARY = "binary";
+
+    private final Path file;
+    private boolean exists;
+    private long generation;
+    private String format;
+    private long nextAppointmentId;
+
+    private SnapshotManifest(Path file, boolean exists, long generation, String format, long nextAppointmentId) {
+        this.file = file;
+        this.exists = exists;
+        this.generation = generation;
+        this.format = format;
+        this.nextAppointmentId = nextAppointmentId;
+    }
+
+    /**
+     * Membaca manifest dan menyelesaikan commit yang terputus. 'snapshotFiles' adalah semua
+     * file snapshot yang dikenal (kedua format); staging yang belum di-commit dibuang.
+     *
+     * @param defaultFormat format jika manifest belum ada
+     */
+    static SnapshotManifest open(Path file, String defaultFormat, Path... snapshotFiles) throws IOException {
+        SnapshotManifest manifest;
+        List<String> committed = new ArrayList<>();
+        if (Files.exists(file)) {
+            String line = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+            String[] data = line.split("\\|");
+            if (data.length < 3) {
+                throw new IOException("Malformed snapshot manifest " + file + ": '" + line + "'");
+            }
+            try {
+                manifest = new SnapshotManifest(file, true, Long.parseLong(data[0]), data[1],
+                        Long.parseLong(data[2]));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed snapshot manifest " + file + ": '" + line + "'", e);
+            }
+            for (int i = 3; i < data.length; i++) {
+                committed.add(data[i]);
+            }
+        } else {
+            manifest = new SnapshotManifest(file, false, 0, defaultFormat, 1);
+        }
+
+        for (String name : committed) {
+            Path target = file.resolveSibling(name);
+            Path staged = manifest.staged(target, manifest.generation);
+            if (Files.exists(staged)) {
+                AtomicFiles.replace(staged, target);
+            }
+        }
+        for (Path p : snapshotFiles) {
+            Files.deleteIfExists(manifest.staged(p, manifest.generation + 1));
+        }
+        return manifest;
+    }
+
+    boolean exists() {
+        return exists;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    String format() {
+        return format;
+    }
+
+    long nextAppointmentId() {
+        return nextAppointmentId;
+    }
+
+    // File staging untuk 'target' pada generation berikutnya; tulis snapshot baru ke sini sebelum commit()
+    Path staged(Path target) {
+        return staged(target, generation + 1);
+    }
+
+    private Path staged(Path target, long gen) {
+        return target.resolveSibling(target.getFileName() + "." + gen);
+    }
+
+    /**
+     * Meng-commit snapshot yang sudah lengkap di file staging 'targets' sebagai generation
+     * berikutnya: manifest ditulis (titik commit), lalu staging di-rename ke 'targets'.
+     */
+    void commit(String format, long nextAppointmentId, Path... targets) throws IOException {
+        long next = generation + 1;
+        StringBuilder sb = new StringBuilder().append(next).append('|').append(format).append('|')
+                .append(nextAppointmentId);
+        for (Path target : targets) {
+            sb.append('|').append(target.getFileName());
+        }
+        byte[] content = sb.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+        AtomicFiles.write(file, out -> out.write(content));
+        exists = true;
+        generation = next;
+        this.format = format;
+        this.nextAppointmentId = nextAppointmentId;
+        for (Path target : targets) {
+            AtomicFiles.replace(staged(target, next), target);
+        }
+    }
+}
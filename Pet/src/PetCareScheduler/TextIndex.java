@@ -0,0 +1,356 @@
+package PetCareScheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Inverted index: token (huruf kecil) -> posting list dokumen yang memuat token itu.
+ * Token disimpan di TreeMap sehingga pencarian prefix cukup subMap("mil", "mil" + Character.MAX_VALUE).
+ *
+ * Posting list berisi referensi dokumen langsung (tanpa tabel ID), satu entri per
+ * kemunculan token; dokumen yang memuat token yang sama di dua field punya dua entri,
+ * sehingga remove() untuk satu field tidak menghapus kecocokan dari field lainnya.
+ * Hasil query di-dedup berdasarkan identitas.
+ *
+ * remove() tidak mencari entri di posting list: dokumen hanya dicatat sebagai tombstone di
+ * posting itu (jumlah entri mati per dokumen), jadi biayanya O(1) berapa pun panjang posting.
+ * search() melewati entri mati; compact() menghapusnya secara fisik, dijalankan di thread
+ * autosave saat needsCompaction(), seperti RecordTable.
+ *
+ * Query beberapa kata = AND, setiap kata dicocokkan sebagai prefix. Hanya kata yang
+ * paling selektif yang dibaca dari index; kata lain dicek langsung pada teks dokumen,
+ * dan iterasi berhenti setelah 'limit' hasil. Tidak thread-safe.
+ */
+final class TextIndex<T> {
+
+    private static final class Postings {
+        Object[] docs = new Object[2];
+        int size; // termasuk entri mati
+        // Dokumen -> jumlah entrinya yang sudah dihapus; null selama tidak ada tombstone
+        IdentityHashMap<Object, Integer> dead;
+        int deadCount;
+
+        int live() {
+            return size - deadCount;
+        }
+
+        /**
+         * Menambah satu entri. Jika dokumen ini punya entri mati, satu tombstone dicabut
+         * (entrinya hidup lagi) dan tidak ada entri baru.
+         *
+         * @return true jika tombstone dicabut
+         */
+        boolean add(Object doc) {
+            if (dead != null && takeDead(doc)) {
+                return true;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+            }
+            docs[size++] = doc;
+            return false;
+        }
+
+        // Menandai satu entri 'doc' sebagai mati tanpa mencarinya
+        void remove(Object doc) {
+            if (dead == null) {
+                dead = new IdentityHashMap<>();
+            }
+            dead.merge(doc, 1, Integer::sum);
+            deadCount++;
+        }
+
+        // Memindahkan entri hidup ke array baru; entri mati dibuang
+        void compact() {
+            Object[] fresh = new Object[Math.max(2, live())];
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                Object doc = docs[i];
+                if (!takeDead(doc)) {
+                    fresh[j++] = doc;
+                }
+            }
+            docs = fresh;
+            size = j;
+            dead = null;
+            deadCount = 0;
+        }
+
+        private boolean takeDead(Object doc) {
+            Integer n = dead.get(doc);
+            if (n == null) {
+                return false;
+            }
+            if (n == 1) {
+                dead.remove(doc);
+            } else {
+                dead.put(doc, n - 1);
+            }
+            deadCount--;
+            return true;
+        }
+    }
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    // Field teks yang diindeks untuk satu dokumen; dipakai untuk mengecek kata query lainnya
+    private final List<Function<T, String>> fields;
+    private long postings; // entri hidup
+    private long tombstones;
+
+    TextIndex(List<Function<T, String>> fields) {
+        this.fields = fields;
+    }
+
+    int termCount() {
+        return terms.size();
+    }
+
+    long postingCount() {
+        return postings;
+    }
+
+    long tombstones() {
+        return tombstones;
+    }
+
+    // Tombstone melebihi seperempat entri hidup (minimal MIN_TOMBSTONES), seperti RecordTable
+    boolean needsCompaction() {
+        return tombstones > Math.max(MIN_TOMBSTONES, postings / 4);
+    }
+
+    void clear() {
+        terms.clear();
+        postings = 0;
+        tombstones = 0;
+    }
+
+    void add(T doc, String text) {
+        tokenize(text, token -> {
+            if (terms.computeIfAbsent(token, k -> new Postings()).add(doc)) {
+                tombstones--;
+            }
+            postings++;
+        });
+    }
+
+    // O(1) per token: entri tidak dicari, hanya ditandai mati (lihat Postings)
+    void remove(T doc, String text) {
+        tokenize(text, token -> {
+            Postings p = terms.get(token);
+            if (p != null) {
+                p.remove(doc);
+                postings--;
+                tombstones++;
+                if (p.live() == 0) {
+                    // Token tanpa entri hidup langsung dibuang beserta tombstone-nya
+                    tombstones -= p.deadCount;
+                    terms.remove(token);
+                }
+            }
+        });
+    }
+
+    /**
+     * Membuang entri mati dari semua posting yang punya tombstone.
+     *
+     * @return jumlah tombstone yang dibersihkan
+     */
+    long compact() {
+        long reclaimed = tombstones;
+        for (Postings p : terms.values()) {
+            if (p.dead != null) {
+                p.compact();
+            }
+        }
+        tombstones = 0;
+        return reclaimed;
+    }
+
+    /**
+     * Dokumen yang memuat setiap kata di 'query' sebagai prefix dari salah satu tokennya,
+     * paling banyak 'limit'.
+     */
+    @SuppressWarnings("unchecked")
+    List<T> search(String query, int limit) {
+        List<String> words = new ArrayList<>();
+        tokenize(query, words::add);
+        if (words.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // Kata dengan posting paling sedikit menjadi sumber kandidat
+        NavigableMap<String, Postings> driver = null;
+        String driverWord = null;
+        long best = Long.MAX_VALUE;
+        for (String word : words) {
+            NavigableMap<String, Postings> range = prefixRange(word);
+            long size = countUpTo(range, best);
+            if (size < best) {
+                best = size;
+                driver = range;
+                driverWord = word;
+            }
+        }
+        if (best == 0) {
+            return Collections.emptyList();
+        }
+        words.remove(driverWord);
+
+        List<T> result = new ArrayList<>();
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Postings p : driver.values()) {
+            // Entri mati yang sudah dilewati per dokumen; dokumen hidup jika entrinya lebih banyak dari tombstone
+            Map<Object, Integer> skipped = p.dead == null ? null : new IdentityHashMap<>();
+            for (int i = 0; i < p.size; i++) {
+                Object doc = p.docs[i];
+                if (skipped != null && p.dead.containsKey(doc)
+                        && skipped.merge(doc, 1, Integer::sum) <= p.dead.get(doc)) {
+                    continue;
+                }
+                if (seen.add(doc) && (words.isEmpty() || containsAll((T) doc, words))) {
+                    result.add((T) doc);
+                    if (result.size() >= limit) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Batas atas jumlah dokumen yang cocok dengan 'query': posting dari kata yang paling
+     * selektif. Dipakai untuk memilih jalur akses tanpa menjalankan pencariannya.
+     */
+    long estimate(String query) {
+        List<String> words = new ArrayList<>();
+        tokenize(query, words::add);
+        long best = words.isEmpty() ? 0 : Long.MAX_VALUE;
+        for (String word : words) {
+            best = Math.min(best, countUpTo(prefixRange(word), best));
+        }
+        return best;
+    }
+
+    /**
+     * True jika setiap kata (huruf kecil, hasil tokenize) adalah prefix dari salah satu token 'text'.
+     */
+    static boolean containsWords(String text, List<String> words) {
+        if (text == null) {
+            return words.isEmpty();
+        }
+        for (String word : words) {
+            if (!hasTokenWithPrefix(text, word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private NavigableMap<String, Postings> prefixRange(String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Jumlah posting di rentang, berhenti setelah melewati 'cap' (cukup untuk membandingkan).
+     * Prefix pendek seperti "08" bisa mencakup jutaan token; setelah MAX_TERMS_COUNTED token
+     * rentang itu dianggap tidak selektif tanpa dihitung sampai habis.
+     */
+    private static long countUpTo(Map<String, Postings> range, long cap) {
+        long total = 0;
+        int terms = 0;
+        for (Postings p : range.values()) {
+            total += p.live();
+            if (total >= cap) {
+                break;
+            }
+            if (++terms >= MAX_TERMS_COUNTED) {
+                return Long.MAX_VALUE - 1;
+            }
+        }
+        return total;
+    }
+
+    private static final int MAX_TERMS_COUNTED = 256;
+    // Compaction tidak sepadan untuk beberapa tombstone saja
+    private static final int MIN_TOMBSTONES = 1024;
+
+    // Setiap kata adalah prefix dari salah satu token teks dokumen (tanpa membuat String token)
+    private boolean containsAll(T doc, List<String> words) {
+        for (String word : words) {
+            if (!hasTokenWithPrefix(doc, word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasTokenWithPrefix(T doc, String prefix) {
+        for (Function<T, String> field : fields) {
+            String text = field.apply(doc);
+            if (text != null && hasTokenWithPrefix(text, prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasTokenWithPrefix(String text, String prefix) {
+        int n = text.length();
+        for (int i = 0; i + prefix.length() <= n; i++) {
+            boolean tokenStart = Character.isLetterOrDigit(text.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)));
+            if (tokenStart && text.regionMatches(true, i, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Memecah teks menjadi token huruf kecil; semua karakter selain huruf/angka adalah
+     * pemisah ("ann.smith@mail.com" -> ann, smith, mail, com).
+     */
+    static void tokenize(String text, Consumer<String> out) {
+        if (text == null) {
+            return;
+        }
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < n && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                out.accept(toLowerCase(text, start, i));
+            }
+        }
+    }
+
+    private static String toLowerCase(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (Character.toLowerCase(c) != c) {
+                char[] chars = new char[end - start];
+                for (int j = start; j < end; j++) {
+                    chars[j - start] = Character.toLowerCase(text.charAt(j));
+                }
+                return new String(chars);
+            }
+        }
+        return text.substring(start, end);
+    }
+}
@@ -0,0 +1,208 @@
+package PetCareScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: setiap level punya 'wheelSize' slot; satu slot di level L
+ * mencakup wheelSize^L tick. Timeout diletakkan di level terendah yang jangkauannya cukup
+ * dan turun level (cascade) saat periodenya tiba, seperti timer wheel di kernel Linux.
+ *
+ * Biaya per tick O(1) (satu slot level 0, ditambah cascade satu slot level atas setiap
+ * wheelSize tick) berapa pun jumlah timeout yang menunggu; schedule dan cancel juga O(1).
+ * Tidak thread-safe; pemanggil yang mengunci.
+ */
+final class TimingWheel<T> {
+
+    /**
+     * Satu timeout terjadwal; juga node list dua arah di slotnya agar cancel O(1).
+     */
+    static final class Timeout<T> {
+        final long deadlineTick;
+        final T payload;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private Slot<T> slot;
+
+        private Timeout(long deadlineTick, T payload) {
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+
+        boolean isPending() {
+            return slot != null;
+        }
+    }
+
+    private static final class Slot<T> {
+        Timeout<T> head;
+
+        void add(Timeout<T> t) {
+            t.slot = this;
+            t.prev = null;
+            t.next = head;
+            if (head != null) {
+                head.prev = t;
+            }
+            head = t;
+        }
+
+        void remove(Timeout<T> t) {
+            if (t.prev != null) {
+                t.prev.next = t.next;
+            } else {
+                head = t.next;
+            }
+            if (t.next != null) {
+                t.next.prev = t.prev;
+            }
+            t.prev = null;
+            t.next = null;
+            t.slot = null;
+        }
+
+        // Mengosongkan slot dan mengembalikan isinya sebagai list tunggal (lewat 'next')
+        Timeout<T> drain() {
+            Timeout<T> first = head;
+            for (Timeout<T> t = first; t != null; t = t.next) {
+                t.slot = null;
+                t.prev = null;
+            }
+            head = null;
+            return first;
+        }
+    }
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final List<Slot<T>[]> levels = new ArrayList<>();
+    // Deadline yang sudah lewat saat dijadwalkan; dijalankan pada advance berikutnya
+    private final Slot<T> overdue = new Slot<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param wheelSize jumlah slot per level, dibulatkan ke pangkat dua
+     */
+    TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("tickMillis must be >= 1");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = 32 - Integer.numberOfLeadingZeros(Math.max(2, wheelSize) - 1);
+        this.mask = (1 << bits) - 1;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getTickMillis() {
+        return tickMillis;
+    }
+
+    Timeout<T> schedule(long deadlineMillis, T payload) {
+        // Dibulatkan ke atas: timeout tidak pernah jalan sebelum deadline-nya
+        Timeout<T> t = new Timeout<>(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), payload);
+        place(t);
+        size++;
+        return t;
+    }
+
+    void cancel(Timeout<T> t) {
+        if (t.slot != null) {
+            t.slot.remove(t);
+            size--;
+        }
+    }
+
+    void clear() {
+        levels.clear();
+        overdue.drain();
+        size = 0;
+    }
+
+    private void place(Timeout<T> t) {
+        long delta = t.deadlineTick - currentTick;
+        if (delta <= 0) {
+            overdue.add(t);
+            return;
+        }
+        int level = 0;
+        while (level < 64 / bits && (delta >>> (bits * (level + 1))) != 0) {
+            level++;
+        }
+        slots(level)[(int) (t.deadlineTick >>> (bits * level)) & mask].add(t);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Slot<T>[] slots(int level) {
+        while (levels.size() <= level) {
+            Slot<T>[] wheel = new Slot[mask + 1];
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new Slot<>();
+            }
+            levels.add(wheel);
+        }
+        return levels.get(level);
+    }
+
+    /**
+     * Memajukan waktu sampai 'nowMillis' dan menyerahkan setiap timeout yang jatuh tempo
+     * ke 'expired', urut per tick.
+     *
+     * @return jumlah timeout yang jatuh tempo
+     */
+    int advanceTo(long nowMillis, Consumer<T> expired) {
+        int fired = fire(overdue, expired);
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < target) {
+            if (size == 0) {
+                currentTick = target; // tidak ada yang menunggu; lompati tick kosong
+                break;
+            }
+            currentTick++;
+            cascade();
+            if (!levels.isEmpty()) {
+                fired += fire(levels.get(0)[(int) currentTick & mask], expired);
+            }
+            // Cascade bisa menurunkan timeout yang deadline-nya tepat tick ini
+            fired += fire(overdue, expired);
+        }
+        return fired;
+    }
+
+    // Di awal setiap periode level L, isi slot periode itu diturunkan ke level bawah
+    private void cascade() {
+        for (int level = 1; level < levels.size(); level++) {
+            long lowerBits = currentTick & ((1L << (bits * level)) - 1);
+            if (lowerBits != 0) {
+                return;
+            }
+            Timeout<T> t = levels.get(level)[(int) (currentTick >>> (bits * level)) & mask].drain();
+            while (t != null) {
+                Timeout<T> next = t.next;
+                t.next = null;
+                place(t);
+                t = next;
+            }
+        }
+    }
+
+    private int fire(Slot<T> slot, Consumer<T> expired) {
+        int fired = 0;
+        Timeout<T> t = slot.drain();
+        while (t != null) {
+            Timeout<T> next = t.next;
+            t.next = null;
+            size--;
+            fired++;
+            expired.accept(t.payload);
+            t = next;
+        }
+        return fired;
+    }
+}
@@ -0,0 +1,58 @@
+package PetCareScheduler;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Aturan validasi input yang tidak bergantung pada data yang sedang dimuat.
+ * Dipakai menu interaktif, batch mode, dan SchedulerService.
+ * Setiap check mengembalikan pesan error, atau null jika valid.
+ */
+public final class Validation {
+
+    static final int MAX_AGE = 30;
+    // Format tanggal/jam input menu dan batch mode
+    static final DateTimeFormatter INPUT_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private Validation() {
+    }
+
+    static String checkPetId(int id) {
+        return id <= 0 ? "Pet ID must be a positive integer." : null;
+    }
+
+    static String checkText(String value, String fieldName) {
+        return value == null || value.trim().isEmpty() ? fieldName + " cannot be empty." : null;
+    }
+
+    static String checkAge(int age) {
+        return age < 0 || age > MAX_AGE ? "Age must be between 0 and " + MAX_AGE + " years." : null;
+    }
+
+    static String checkAppointmentType(String type) {
+        if (!type.equals("vet") && !type.equals("grooming") && !type.equals("vaccination")) {
+            return "Invalid appointment type!";
+        }
+        return null;
+    }
+
+    static String checkFuture(LocalDateTime dateTime) {
+        return dateTime.isBefore(LocalDateTime.now()) ? "Appointment must be scheduled for a future date/time!" : null;
+    }
+
+    // Pesan untuk slot yang sudah penuh, termasuk saran slot kosong berikutnya ('nextFree', dihitung pemanggil)
+    static String conflictMessage(SlotIndex slots, String type, LocalDateTime nextFree) {
+        return "No " + type + " slot available at that time (capacity " + slots.getCapacity(type) + ", "
+                + slots.getDurationMinutes(type) + " minutes each). Next free slot: "
+                + nextFree.format(INPUT_DATE_TIME);
+    }
+
+    static String firstError(String... errors) {
+        for (String e : errors) {
+            if (e != null) {
+                return e;
+            }
+        }
+        return null;
+    }
+}
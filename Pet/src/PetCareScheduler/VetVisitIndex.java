@@ -0,0 +1,78 @@
+package PetCareScheduler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Pet yang terurut berdasarkan Pet.getLastVetVisit().
+ * Report overdue cukup mengambil pet tanpa vet visit ditambah headMap(batas),
+ * sehingga hanya pet yang overdue yang dikunjungi.
+ */
+public class VetVisitIndex implements SchedulerEvents.Listener {
+
+    private final LinkedHashSet<Pet> neverVisited = new LinkedHashSet<>();
+    private final TreeMap<LocalDateTime, LinkedHashSet<Pet>> byLastVisit = new TreeMap<>();
+
+    public void add(Pet pet) {
+        insert(pet, pet.getLastVetVisit());
+    }
+
+    public boolean remove(Pet pet) {
+        return delete(pet, pet.getLastVetVisit());
+    }
+
+    public void clear() {
+        neverVisited.clear();
+        byLastVisit.clear();
+    }
+
+    @Override
+    public void lastVetVisitChanged(Pet pet, LocalDateTime oldLastVetVisit) {
+        // Pet yang tidak terdaftar di index ini diabaikan
+        if (delete(pet, oldLastVetVisit)) {
+            insert(pet, pet.getLastVetVisit());
+        }
+    }
+
+    @Override
+    public void petRemoved(Pet pet) {
+        remove(pet);
+    }
+
+    /**
+     * Pet yang belum pernah ke dokter hewan, lalu pet dengan vet visit terakhir
+     * sebelum 'cutoff' (urut dari yang paling lama).
+     */
+    public List<Pet> overdueSince(LocalDateTime cutoff) {
+        List<Pet> result = new ArrayList<>(neverVisited);
+        for (LinkedHashSet<Pet> bucket : byLastVisit.headMap(cutoff, false).values()) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+
+    private void insert(Pet pet, LocalDateTime lastVisit) {
+        if (lastVisit == null) {
+            neverVisited.add(pet);
+        } else {
+            byLastVisit.computeIfAbsent(lastVisit, t -> new LinkedHashSet<>()).add(pet);
+        }
+    }
+
+    private boolean delete(Pet pet, LocalDateTime lastVisit) {
+        if (lastVisit == null) {
+            return neverVisited.remove(pet);
+        }
+        LinkedHashSet<Pet> bucket = byLastVisit.get(lastVisit);
+        if (bucket == null || !bucket.remove(pet)) {
+            return false;
+        }
+        if (bucket.isEmpty()) {
+            byLastVisit.remove(lastVisit);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,76 @@
+package PetCareScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Pilihan acak berbobot dari spesifikasi "nama=bobot,nama=bobot", misalnya
+ * "vet=40,grooming=35,vaccination=25". Bobot tidak harus berjumlah 100.
+ */
+final class WeightedMix {
+
+    private final String[] names;
+    private final int[] cumulative;
+
+    private WeightedMix(String[] names, int[] cumulative) {
+        this.names = names;
+        this.cumulative = cumulative;
+    }
+
+    static WeightedMix parse(String spec) {
+        List<String> names = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.split("=");
+            int weight;
+            try {
+                weight = kv.length == 2 ? Integer.parseInt(kv[1].trim()) : -1;
+            } catch (NumberFormatException e) {
+                weight = -1;
+            }
+            if (kv[0].trim().isEmpty() || weight < 0) {
+                throw new IllegalArgumentException("Invalid mix entry '" + part + "' (expected name=weight)");
+            }
+            if (weight > 0) {
+                names.add(kv[0].trim().toLowerCase());
+                weights.add(weight);
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Mix '" + spec + "' has no positive weight");
+        }
+        int[] cumulative = new int[weights.size()];
+        int total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total = Math.addExact(total, weights.get(i));
+            cumulative[i] = total;
+        }
+        return new WeightedMix(names.toArray(new String[0]), cumulative);
+    }
+
+    String pick(Random random) {
+        int r = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (r < cumulative[i]) {
+                return names[i];
+            }
+        }
+        throw new AssertionError();
+    }
+
+    String[] names() {
+        return names.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < names.length; i++) {
+            sb.append(i == 0 ? "" : ",").append(names[i]).append('=').append(cumulative[i] - previous);
+            previous = cumulative[i];
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package PetCareScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Round-trip snapshot biner, termasuk waktu dengan detik/nano (HAS_SECONDS) dan di luar rentang int menit (WIDE_TIME)
+class BinarySnapshotTest {
+
+    private static final LocalDate REGISTERED = LocalDate.of(2026, 1, 5);
+    private static final LocalDateTime WHOLE_MINUTE = LocalDateTime.of(2031, 3, 1, 10, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEveryField() throws IOException {
+        Pet milo = new Pet(7, "Milo", "Beagle", 3, "Ann", "555-0101", REGISTERED);
+        milo.addAppointment(withId(new Appointment("grooming", WHOLE_MINUTE, "first"), 11));
+        milo.addAppointment(withId(new Appointment("vaccination", WHOLE_MINUTE.plusSeconds(59), null), 12));
+        Pet luna = new Pet(9, "Luna", "Cat", 2, "Bob", "555-0102", REGISTERED.plusDays(1));
+        luna.addAppointment(withId(new Appointment("grooming", WHOLE_MINUTE.withNano(1), ""), 13));
+
+        FastDataLoader.LoadedData data = roundTrip(List.of(milo, luna));
+
+        assertEquals(2, data.pets.pets.size());
+        Pet readMilo = data.pets.pets.get(0);
+        assertEquals(7, readMilo.getPetId());
+        assertEquals("Milo", readMilo.getName());
+        assertEquals("Beagle", readMilo.getSpeciesOrBreed());
+        assertEquals(3, readMilo.getAge());
+        assertEquals("Ann", readMilo.getOwnerName());
+        assertEquals("555-0101", readMilo.getContactInfo());
+        assertEquals(REGISTERED, readMilo.getRegistrationDate());
+        assertEquals(REGISTERED.plusDays(1), data.pets.pets.get(1).getRegistrationDate());
+
+        FastDataLoader.AppointmentBatch batch = data.appointments;
+        assertEquals(3, batch.size());
+        assertAppointment(batch, 0, 7, 11, "grooming", WHOLE_MINUTE, "first");
+        assertAppointment(batch, 1, 7, 12, "vaccination", WHOLE_MINUTE.plusSeconds(59), null);
+        assertAppointment(batch, 2, 9, 13, "grooming", WHOLE_MINUTE.withNano(1), "");
+        assertNull(batch.appointments.get(1).getNotes());
+    }
+
+    @Test
+    void timesOutsideIntMinuteRangeRoundTrip() throws IOException {
+        // 2^31 menit kira-kira 4083 tahun dari epoch, jadi kedua waktu ini butuh WIDE_TIME
+        LocalDateTime farFuture = LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_999);
+        LocalDateTime farPast = LocalDateTime.of(-3000, 1, 1, 0, 0, 30);
+        LocalDateTime edge = LocalDateTime.of(1969, 12, 31, 23, 59, 1); // menit negatif dalam rentang int
+        Pet milo = new Pet(1, "Milo", "Beagle", 3, "Ann", "555", REGISTERED);
+        milo.addAppointment(withId(new Appointment("grooming", farFuture, "a"), 1));
+        milo.addAppointment(withId(new Appointment("grooming", farPast, "b"), 2));
+        milo.addAppointment(withId(new Appointment("grooming", edge, "c"), 3));
+
+        FastDataLoader.AppointmentBatch batch = roundTrip(List.of(milo)).appointments;
+        assertAppointment(batch, 0, 1, 1, "grooming", farFuture, "a");
+        assertAppointment(batch, 1, 1, 2, "grooming", farPast, "b");
+        assertAppointment(batch, 2, 1, 3, "grooming", edge, "c");
+    }
+
+    @Test
+    void flagsOnlyCostBytesWhenNeeded() throws IOException {
+        long wholeMinute = sizeWith(WHOLE_MINUTE);
+        assertEquals(wholeMinute + 8, sizeWith(WHOLE_MINUTE.plusSeconds(1))); // + long nanoOfMinute
+        assertEquals(wholeMinute + 4, sizeWith(LocalDateTime.of(9000, 1, 1, 0, 0))); // long epochMinute
+        assertEquals(wholeMinute + 12, sizeWith(LocalDateTime.of(9000, 1, 1, 0, 0, 0, 5)));
+    }
+
+    @Test
+    void corruptedSnapshotIsRejected() throws IOException {
+        Pet milo = new Pet(1, "Milo", "Beagle", 3, "Ann", "555", REGISTERED);
+        Path file = dir.resolve("petcare.snap");
+        BinarySnapshot.write(List.of(milo), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(IOException.class,
+                () -> BinarySnapshot.read(file, new LoadReport("Pets"), new LoadReport("Appointments")));
+    }
+
+    // ========== Helpers ==========
+
+    private FastDataLoader.LoadedData roundTrip(List<Pet> pets) throws IOException {
+        Path file = dir.resolve("petcare.snap");
+        BinarySnapshot.write(pets, file);
+        return BinarySnapshot.read(file, new LoadReport("Pets"), new LoadReport("Appointments"));
+    }
+
+    private long sizeWith(LocalDateTime dateTime) throws IOException {
+        Pet milo = new Pet(1, "Milo", "Beagle", 3, "Ann", "555", REGISTERED);
+        milo.addAppointment(withId(new Appointment("grooming", dateTime, "x"), 1));
+        Path file = dir.resolve("size.snap");
+        BinarySnapshot.write(List.of(milo), file);
+        assertEquals(dateTime, roundTrip(List.of(milo)).appointments.appointments.get(0).getDateTime());
+        return Files.size(file);
+    }
+
+    private static void assertAppointment(FastDataLoader.AppointmentBatch batch, int i, int petId, long id,
+            String type, LocalDateTime dateTime, String notes) {
+        Appointment a = batch.appointments.get(i);
+        assertEquals(petId, batch.petIds[i]);
+        assertEquals(id, a.getId());
+        assertEquals(type, a.getAppointmentType());
+        assertEquals(dateTime, a.getDateTime());
+        assertEquals(notes, a.getNotes());
+    }
+
+    private static Appointment withId(Appointment a, long id) {
+        a.setId(id);
+        return a;
+    }
+}
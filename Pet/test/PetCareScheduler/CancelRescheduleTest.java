@@ -0,0 +1,114 @@
+package PetCareScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Cancel dan reschedule lewat Appointment ID (AppointmentIdIndex) di core menu; tidak ada yang ditulis ke disk
+class CancelRescheduleTest {
+
+    // Grooming: kapasitas 1, jadi bentrok mudah dipicu; jarak 3 jam melewati durasi apa pun yang default
+    private static final String TYPE = "grooming";
+    private static final LocalDate DAY = LocalDate.now().plusDays(30);
+
+    private Pet pet;
+
+    @BeforeEach
+    void setUp() {
+        PetCareScheduler.clearData();
+        pet = new Pet(1, "Milo", "Beagle", 3, "Ann", "555-0101");
+        PetCareScheduler.addPet(pet);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PetCareScheduler.clearData();
+    }
+
+    private Appointment book(LocalDateTime dateTime) {
+        Appointment a = new Appointment(TYPE, dateTime, "");
+        PetCareScheduler.bookAppointment(pet, a);
+        assertTrue(a.getId() > 0);
+        return a;
+    }
+
+    @Test
+    void cancelByIdDetachesAppointmentAndFreesSlot() {
+        LocalDateTime time = DAY.atTime(10, 0);
+        Appointment a = book(time);
+        assertNotNull(PetCareScheduler.checkSchedule(TYPE, time));
+
+        assertSame(a, PetCareScheduler.cancelBooking(a.getId()));
+        assertTrue(pet.getAppointments().isEmpty());
+        assertNull(PetCareScheduler.checkSchedule(TYPE, time));
+        // ID sudah tidak ada di index
+        assertNull(PetCareScheduler.cancelBooking(a.getId()));
+    }
+
+    @Test
+    void cancelledIdIsNotReused() {
+        Appointment first = book(DAY.atTime(10, 0));
+        PetCareScheduler.cancelBooking(first.getId());
+        Appointment second = book(DAY.atTime(10, 0));
+        assertTrue(second.getId() > first.getId());
+        assertNull(PetCareScheduler.cancelBooking(first.getId()));
+        assertSame(second, PetCareScheduler.cancelBooking(second.getId()));
+    }
+
+    @Test
+    void rescheduleMovesSlot() {
+        LocalDateTime from = DAY.atTime(10, 0);
+        LocalDateTime to = DAY.atTime(16, 0);
+        Appointment a = book(from);
+
+        assertNull(PetCareScheduler.moveAppointment(a.getId(), to));
+        assertEquals(to, a.getDateTime());
+        assertNull(PetCareScheduler.checkSchedule(TYPE, from));
+        assertNotNull(PetCareScheduler.checkSchedule(TYPE, to));
+        // Appointment yang sudah dipindah tetap bisa dibatalkan lewat ID yang sama
+        assertSame(a, PetCareScheduler.cancelBooking(a.getId()));
+        assertNull(PetCareScheduler.checkSchedule(TYPE, to));
+    }
+
+    @Test
+    void rescheduleIntoTakenSlotIsRejectedAndKeepsOldTime() {
+        LocalDateTime first = DAY.atTime(10, 0);
+        LocalDateTime second = DAY.atTime(13, 0);
+        Appointment a = book(first);
+        book(second);
+
+        assertNotNull(PetCareScheduler.moveAppointment(a.getId(), second));
+        assertEquals(first, a.getDateTime());
+        assertNotNull(PetCareScheduler.checkSchedule(TYPE, first));
+    }
+
+    @Test
+    void rescheduleWithinOwnSlotIsNotAConflict() {
+        Appointment a = book(DAY.atTime(10, 0));
+        assertNull(PetCareScheduler.moveAppointment(a.getId(), DAY.atTime(10, 15)));
+        assertEquals(DAY.atTime(10, 15), a.getDateTime());
+    }
+
+    @Test
+    void unknownIdIsReported() {
+        assertNull(PetCareScheduler.cancelBooking(999));
+        assertTrue(PetCareScheduler.moveAppointment(999, DAY.atTime(10, 0)).contains("not found"));
+    }
+
+    @Test
+    void removingPetRemovesItsIds() {
+        Appointment a = book(DAY.atTime(10, 0));
+        assertSame(pet, PetCareScheduler.removePet(pet.getPetId()));
+        assertNull(PetCareScheduler.cancelBooking(a.getId()));
+        assertNull(PetCareScheduler.checkSchedule(TYPE, DAY.atTime(10, 0)));
+    }
+}
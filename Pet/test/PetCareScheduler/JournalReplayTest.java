@@ -0,0 +1,209 @@
+package PetCareScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Journal dari generation lama (compaction terputus sebelum journal dikosongkan) di-replay di
+ * atas snapshot lama maupun snapshot yang sudah memuat perubahannya; hasilnya harus sama.
+ */
+class JournalReplayTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2031, 3, 1, 10, 0);
+    private static final LocalDateTime T2 = LocalDateTime.of(2031, 3, 2, 14, 0);
+    private static final LocalDate REGISTERED = LocalDate.of(2026, 1, 5);
+
+    @TempDir
+    Path dir;
+
+    private Path journalFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journalFile = dir.resolve("journal.log");
+
+        // Perubahan sesudah snapshot generation 1: pet 2 + appointment 2, cancel 1, reschedule 2
+        Journal journal = journal(1);
+        Pet milo = new Pet(1, "Milo", "Beagle", 3, "Ann", "555", REGISTERED);
+        Pet luna = new Pet(2, "Luna", "Cat", 2, "Bob", "556", REGISTERED);
+        journal.recordRegister(luna);
+        journal.recordSchedule(luna, withId(new Appointment("grooming", T1, "first"), 2));
+        assertEquals(2, journal.flush());
+        journal.appointmentRemoved(milo, withId(new Appointment("grooming", T1, ""), 1));
+        Appointment moved = withId(new Appointment("grooming", T2, "first"), 2);
+        luna.addAppointment(moved);
+        journal.appointmentRescheduled(moved, T1);
+        assertEquals(2, journal.flush());
+        // Baris terakhir terpotong saat crash
+        Files.write(journalFile, "A|3|2|groo".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    @Test
+    void flushAppendsOnlyNewEntriesAfterOneHeader() throws IOException {
+        List<String> lines = Files.readAllLines(journalFile, StandardCharsets.UTF_8);
+        assertEquals(List.of("#snapshot|1", "R|2|Luna|Cat|2|Bob|556|2026-01-05",
+                "A|2|2|grooming|2031-03-01T10:00|first", "X|1", "N|2|2031-03-02T14:00", "A|3|2|groo"), lines);
+    }
+
+    @Test
+    void replayOnSnapshotOfSameGenerationAppliesEveryEntry() throws IOException {
+        Model model = generation1();
+        LoadReport report = replay(1, model);
+
+        assertExpected(model);
+        assertEquals(0, report.getWarnings());
+        assertEquals(1, report.getErrors()); // baris terpotong dilewati
+    }
+
+    @Test
+    void replayOnNewerSnapshotIsIdempotentAndMarksJournalForCompaction() throws IOException {
+        // Snapshot generation 2 sudah memuat semua entri journal
+        Model model = new Model();
+        model.pets.put(1, "Milo");
+        model.pets.put(2, "Luna");
+        model.add(2, 2, T2);
+
+        Journal journal = journal(2);
+        LoadReport report = new LoadReport("Journal");
+        journal.replay(model, report);
+
+        assertExpected(model);
+        assertEquals(1, report.getWarnings()); // header journal masih generation 1
+        assertTrue(journal.needsCompaction());
+    }
+
+    @Test
+    void replayingTwiceChangesNothing() throws IOException {
+        Model model = generation1();
+        replay(1, model);
+        replay(1, model);
+        assertExpected(model);
+    }
+
+    @Test
+    void resetKeepsEntriesRecordedAfterTheSnapshot() throws IOException {
+        Journal journal = journal(1);
+        journal.recordRegister(new Pet(3, "Max", "Poodle", 5, "Cy", "557", REGISTERED));
+        journal.recordRegister(new Pet(4, "Bo", "Pug", 1, "Di", "558", REGISTERED));
+        journal.setGeneration(2);
+        journal.reset(1);
+
+        assertEquals(1, journal.pendingCount());
+        journal.flush();
+        assertEquals(List.of("#snapshot|2", "R|4|Bo|Pug|1|Di|558|2026-01-05"),
+                Files.readAllLines(journalFile, StandardCharsets.UTF_8));
+    }
+
+    private static void assertExpected(Model model) {
+        assertEquals(Map.of(1, "Milo", 2, "Luna"), model.pets);
+        assertEquals(Map.of(2L, T2), model.appointments);
+        assertEquals(Map.of(2L, 2), model.owners);
+    }
+
+    // ========== Helpers ==========
+
+    // Snapshot generation 1: pet 1 dengan appointment 1
+    private static Model generation1() {
+        Model model = new Model();
+        model.pets.put(1, "Milo");
+        model.add(1, 1, T1);
+        return model;
+    }
+
+    private Journal journal(long generation) {
+        Journal journal = new Journal(journalFile, dir.resolve("pets.txt"), dir.resolve("appointments.txt"));
+        journal.setGeneration(generation);
+        return journal;
+    }
+
+    private LoadReport replay(long generation, Model model) throws IOException {
+        LoadReport report = new LoadReport("Journal");
+        journal(generation).replay(model, report);
+        return report;
+    }
+
+    private static Appointment withId(Appointment a, long id) {
+        a.setId(id);
+        return a;
+    }
+
+    /**
+     * Data minimal dengan aturan replay yang sama seperti PetCareScheduler: pet/ID yang sudah
+     * ada dilewati, cancel/remove atas ID yang tidak ada tidak berbuat apa-apa.
+     */
+    private static final class Model implements Journal.Handler {
+        final Map<Integer, String> pets = new TreeMap<>();
+        final Map<Long, LocalDateTime> appointments = new TreeMap<>();
+        final Map<Long, Integer> owners = new TreeMap<>();
+
+        void add(long id, int petId, LocalDateTime dateTime) {
+            appointments.put(id, dateTime);
+            owners.put(id, petId);
+        }
+
+        @Override
+        public void register(Pet pet) {
+            pets.putIfAbsent(pet.getPetId(), pet.getName());
+        }
+
+        @Override
+        public void schedule(int petId, Appointment appointment) {
+            if (pets.containsKey(petId) && !appointments.containsKey(appointment.getId())) {
+                add(appointment.getId(), petId, appointment.getDateTime());
+            }
+        }
+
+        @Override
+        public void cancel(long appointmentId) {
+            appointments.remove(appointmentId);
+            owners.remove(appointmentId);
+        }
+
+        @Override
+        public void reschedule(long appointmentId, LocalDateTime newDateTime) {
+            appointments.computeIfPresent(appointmentId, (id, old) -> newDateTime);
+        }
+
+        @Override
+        public void removePet(int petId) {
+            pets.remove(petId);
+            owners.entrySet().removeIf(e -> {
+                if (e.getValue() == petId) {
+                    appointments.remove(e.getKey());
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        @Override
+        public void addRule(RecurrenceRule rule) {
+            throw new AssertionError("No recurring rules in this journal");
+        }
+
+        @Override
+        public void cancel(int petId, String type, LocalDateTime dateTime) {
+            throw new AssertionError("Legacy entry not expected");
+        }
+
+        @Override
+        public void reschedule(int petId, String type, LocalDateTime oldDateTime, LocalDateTime newDateTime) {
+            throw new AssertionError("Legacy entry not expected");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package PetCareScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Store yang tidak di-force() (crash) dibuka dalam keadaan DIRTY dan diperiksa ulang oleh recover()
+class MappedStoreRecoveryTest {
+
+    // Layout di javadoc MappedStore: header 64 byte, record 48 byte, byte pertama record = status (1 = hidup)
+    private static final int HEADER = 64;
+    private static final int RECORD = 48;
+    private static final byte LIVE = 1;
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2031, 3, 1, 10, 0);
+    private static final LocalDate REGISTERED = LocalDate.of(2026, 1, 5);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void dirtyStoreKeepsUnforcedWritesAndDropsTornRecords() throws IOException {
+        Pet milo = new Pet(1, "Milo", "Beagle", 3, "Ann", "555", REGISTERED);
+        milo.addAppointment(withId(new Appointment("vaccination", T1, "checkup"), 1));
+        milo.addAppointment(withId(new Appointment("grooming", T1.plusDays(1), ""), 2));
+        MappedStore.write(dir, List.of(milo));
+
+        MappedStore store = MappedStore.open(dir);
+        assertNull(store.recoveryNote());
+        Pet luna = new Pet(2, "Luna", "Cat", 2, "Bob", "556", REGISTERED);
+        store.putPet(luna);
+        store.putAppointment(luna, withId(new Appointment("vaccination", T1.plusDays(2), "rabies"), 3));
+        // Crash: tanpa force(), jadi flag DIRTY tetap di pets.dat
+        store.close();
+
+        // Record yang baru setengah ditulis: status sudah hidup, isinya masih kosong
+        int pets = tornRecord("pets.dat");
+        int appointments = tornRecord("appointments.dat");
+        assertTrue(pets >= 2 && appointments >= 3);
+
+        store = MappedStore.open(dir);
+        assertNotNull(store.recoveryNote());
+        assertTrue(store.recoveryNote().contains("dropped 2 incomplete record(s)"), store.recoveryNote());
+        assertEquals(2, store.petCount());
+        assertEquals(3, store.appointmentCount());
+
+        List<String> loaded = new ArrayList<>();
+        FastDataLoader.LoadedData data = store.readAll(new LoadReport("Pets"), new LoadReport("Appointments"));
+        for (Pet p : data.pets.pets) {
+            loaded.add(p.getPetId() + " " + p.getName());
+        }
+        assertEquals(List.of("1 Milo", "2 Luna"), loaded);
+        List<Long> ids = new ArrayList<>();
+        for (Appointment a : store.appointments()) {
+            ids.add(a.getId());
+        }
+        ids.sort(null);
+        assertEquals(List.of(1L, 2L, 3L), ids);
+
+        // Record yang dibuang masuk free list dan dipakai lagi
+        Pet max = new Pet(3, "Max", "Poodle", 5, "Cy", "557", REGISTERED);
+        store.putPet(max);
+        assertEquals(3, store.petCount());
+        store.force();
+        store.close();
+
+        // Recovery sudah menandai store bersih; open berikutnya tidak memeriksa ulang
+        store = MappedStore.open(dir);
+        assertNull(store.recoveryNote());
+        assertEquals(3, store.petCount());
+        assertEquals(3, store.appointmentCount());
+        store.close();
+    }
+
+    @Test
+    void cleanCloseAfterForceNeedsNoRecovery() throws IOException {
+        MappedStore.write(dir, List.of(new Pet(1, "Milo", "Beagle", 3, "Ann", "555", REGISTERED)));
+        MappedStore store = MappedStore.open(dir);
+        Pet luna = new Pet(2, "Luna", "Cat", 2, "Bob", "556", REGISTERED);
+        store.putPet(luna);
+        store.force();
+        store.close();
+
+        store = MappedStore.open(dir);
+        assertNull(store.recoveryNote());
+        assertEquals(2, store.petCount());
+        store.close();
+    }
+
+    private static Appointment withId(Appointment a, long id) {
+        a.setId(id);
+        return a;
+    }
+
+    /**
+     * Menandai slot pertama yang kosong di akhir file sebagai hidup tanpa isi, seperti record
+     * yang sedang ditulis saat crash.
+     *
+     * @return nomor record yang ditandai
+     */
+    private int tornRecord(String file) throws IOException {
+        try (FileChannel ch = FileChannel.open(dir.resolve(file), StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            int slots = (int) ((ch.size() - HEADER) / RECORD);
+            ByteBuffer status = ByteBuffer.allocate(1);
+            for (int rec = slots - 1; rec >= 0; rec--) {
+                status.clear();
+                ch.read(status, HEADER + (long) rec * RECORD);
+                if (status.get(0) == LIVE) {
+                    int torn = rec + 1;
+                    if (torn == slots) {
+                        // File penuh: perbesar satu record, seperti Region.ensure()
+                        ch.write(ByteBuffer.allocate(RECORD), HEADER + (long) torn * RECORD);
+                    }
+                    ch.write(ByteBuffer.wrap(new byte[] { LIVE }), HEADER + (long) torn * RECORD);
+                    return torn;
+                }
+            }
+            throw new AssertionError("No live record in " + file);
+        }
+    }
+}
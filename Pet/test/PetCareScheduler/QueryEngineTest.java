@@ -0,0 +1,116 @@
+package PetCareScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Eksekusi streaming: jalur akses urut waktu + sort=date berhenti setelah 'limit' baris
+class QueryEngineTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2031, 3, 1, 0, 0);
+    private static final int HOURS = 100;
+    // Appointment kedua pada jam ke-4, dengan ID terbesar
+    private static final long TIE_ID = HOURS + 1;
+
+    private final List<Appointment> appointments = new ArrayList<>();
+    private final AppointmentIdIndex appointmentIds = new AppointmentIdIndex();
+    private final AppointmentTimeIndex timeIndex = new AppointmentTimeIndex();
+    private final AppointmentTypeIndex typeIndex = new AppointmentTypeIndex();
+    private QueryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        for (int h = 0; h < HOURS; h++) {
+            add(h + 1, T0.plusHours(h));
+        }
+        add(TIE_ID, T0.plusHours(4));
+        typeIndex.build(appointments);
+        engine = new QueryEngine(appointments, () -> 0, new PetIndex(), appointmentIds, timeIndex, typeIndex,
+                new SearchIndex(p -> true));
+    }
+
+    private void add(long id, LocalDateTime dateTime) {
+        Appointment a = new Appointment("grooming", dateTime, "");
+        a.setId(id);
+        appointments.add(a);
+        appointmentIds.putIfAbsent(a);
+        timeIndex.add(a);
+    }
+
+    private QueryEngine.Result run(String query) {
+        return engine.execute(AppointmentQuery.parse(query));
+    }
+
+    private static List<Long> ids(QueryEngine.Result r) {
+        List<Long> ids = new ArrayList<>();
+        for (Appointment a : r.rows) {
+            ids.add(a.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void timeOrderedAccessStopsAfterLimit() {
+        QueryEngine.Result r = run("type=grooming sort=date limit=3");
+
+        assertEquals(QueryEngine.Access.TYPE_PARTITION, r.plan.chosen.access);
+        assertTrue(r.plan.streaming);
+        assertEquals(List.of(1L, 2L, 3L), ids(r));
+        assertEquals(3, r.examined);
+        assertEquals(3, r.matched);
+    }
+
+    @Test
+    void rowsAtTheLimitTimeAreStillReadForIdOrder() {
+        QueryEngine.Result r = run("type=grooming sort=date limit=5");
+
+        // Jam ke-4 punya dua appointment; keduanya dibaca, lalu yang ID-nya lebih besar dipotong
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids(r));
+        assertEquals(6, r.examined);
+    }
+
+    @Test
+    void timeRangeStreamsFromItsLowerBound() {
+        QueryEngine.Result r = run("from=2031-03-04T18:00 sort=date limit=3");
+
+        assertEquals(QueryEngine.Access.TIME_RANGE, r.plan.chosen.access);
+        assertTrue(r.plan.streaming);
+        assertEquals(List.of(91L, 92L, 93L), ids(r));
+        assertEquals(3, r.examined);
+    }
+
+    @Test
+    void descendingSortReadsEveryRowIntoTopK() {
+        QueryEngine.Result r = run("type=grooming sort=date:desc limit=3");
+
+        assertFalse(r.plan.streaming);
+        assertEquals(List.of(100L, 99L, 98L), ids(r));
+        assertEquals(HOURS + 1, r.examined);
+    }
+
+    @Test
+    void withoutLimitEveryRowIsRead() {
+        QueryEngine.Result r = run("type=grooming sort=date");
+
+        assertTrue(r.plan.streaming);
+        assertEquals(HOURS + 1, r.rows.size());
+        assertEquals(HOURS + 1, r.examined);
+    }
+
+    @Test
+    void unorderedAccessIsNotStreamed() {
+        QueryEngine.Result r = run("sort=date limit=3");
+
+        assertEquals(QueryEngine.Access.FULL_SCAN, r.plan.chosen.access);
+        assertFalse(r.plan.streaming);
+        assertEquals(List.of(1L, 2L, 3L), ids(r));
+        assertEquals(HOURS + 1, r.examined);
+    }
+}
@@ -0,0 +1,115 @@
+package PetCareScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+// Key (report, bucket), invalidasi lewat DataVersion, dan batas entri/item
+class ReportCacheTest {
+
+    private final AtomicInteger computed = new AtomicInteger();
+
+    private Supplier<List<Integer>> items(int n) {
+        return () -> {
+            computed.incrementAndGet();
+            List<Integer> list = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                list.add(i);
+            }
+            return list;
+        };
+    }
+
+    @Test
+    void sameReportAndBucketIsServedFromCache() {
+        ReportCache cache = new ReportCache(8, 100);
+        List<Integer> first = cache.get("upcoming", 10, items(3));
+        assertSame(first, cache.get("upcoming", 10, items(3)));
+        assertEquals(1, computed.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(9));
+    }
+
+    @Test
+    void otherBucketOrReportIsComputedSeparately() {
+        ReportCache cache = new ReportCache(8, 100);
+        cache.get("upcoming", 10, items(1));
+        cache.get("upcoming", 11, items(1));
+        cache.get("overdue", 10, items(1));
+        assertEquals(3, computed.get());
+        assertEquals(3, cache.size());
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    void dataChangeInvalidatesEveryEntry() {
+        ReportCache cache = new ReportCache(8, 100);
+        cache.get("upcoming", 10, items(1));
+        cache.get("overdue", 10, items(1));
+
+        // Perubahan data lewat Pet menaikkan DataVersion
+        Pet pet = new Pet(1, "Milo", "Beagle", 3, "Ann", "555", LocalDate.of(2026, 1, 5));
+        pet.addAppointment(new Appointment("grooming", LocalDateTime.of(2031, 3, 1, 10, 0), ""));
+
+        cache.get("upcoming", 10, items(1));
+        assertEquals(3, computed.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void changeDuringComputeIsNotCached() {
+        ReportCache cache = new ReportCache(8, 100);
+        cache.get("upcoming", 10, () -> {
+            DataVersion.bump();
+            return List.of(1);
+        });
+        assertEquals(0, cache.size());
+        cache.get("upcoming", 10, items(1));
+        assertEquals(1, computed.get());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        ReportCache cache = new ReportCache(2, 100);
+        cache.get("upcoming", 1, items(1));
+        cache.get("upcoming", 2, items(1));
+        cache.get("upcoming", 1, items(1)); // bucket 1 baru dipakai
+        cache.get("upcoming", 3, items(1));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        cache.get("upcoming", 1, items(1));
+        assertEquals(3, computed.get()); // bucket 1 masih di cache, bucket 2 yang keluar
+    }
+
+    @Test
+    void itemLimitEvictsAndSkipsOversizedResults() {
+        ReportCache cache = new ReportCache(8, 10);
+        cache.get("upcoming", 1, items(6));
+        cache.get("upcoming", 2, items(6)); // total 12 > 10: bucket 1 keluar
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.evictions());
+
+        assertEquals(11, cache.get("upcoming", 3, items(11)).size());
+        assertEquals(1, cache.size()); // terlalu besar untuk di-cache
+    }
+
+    @Test
+    void zeroEntriesDisablesCache() {
+        ReportCache cache = new ReportCache(0, 100);
+        cache.get("upcoming", 1, items(1));
+        cache.get("upcoming", 1, items(1));
+        assertEquals(2, computed.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,106 @@
+package PetCareScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SlotIndexTest {
+
+    // Tipe tanpa konfigurasi khusus: 30 menit, kapasitas 1
+    private static final String TYPE = "checkup";
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 14);
+
+    private final SlotIndex slots = new SlotIndex();
+
+    @Test
+    void alignedBookingsBackToBackDoNotConflict() {
+        assertTrue(slots.tryAdd(TYPE, DAY.atTime(10, 0)));
+        assertTrue(slots.tryAdd(TYPE, DAY.atTime(10, 30)));
+        assertTrue(slots.hasConflict(TYPE, DAY.atTime(10, 15)));
+        assertFalse(slots.hasConflict(TYPE, DAY.atTime(11, 0)));
+    }
+
+    @Test
+    void offBoundaryStartReservesUntilActualEnd() {
+        // 10:10 + 30 menit berjalan sampai 10:40, jadi slot 10:30 ikut terpakai
+        assertTrue(slots.tryAdd(TYPE, DAY.atTime(10, 10)));
+        assertTrue(slots.hasConflict(TYPE, DAY.atTime(10, 30)));
+        assertFalse(slots.tryAdd(TYPE, DAY.atTime(10, 30)));
+        assertTrue(slots.hasConflict(TYPE, DAY.atTime(9, 45)));
+        assertTrue(slots.tryAdd(TYPE, DAY.atTime(10, 45)));
+        assertTrue(slots.tryAdd(TYPE, DAY.atTime(9, 30)));
+    }
+
+    @Test
+    void removingOffBoundaryBookingFreesEverySlotItTouched() {
+        LocalDateTime start = DAY.atTime(10, 10);
+        assertTrue(slots.tryAdd(TYPE, start));
+        slots.remove(TYPE, start);
+        assertFalse(slots.hasConflict(TYPE, DAY.atTime(10, 0)));
+        assertFalse(slots.hasConflict(TYPE, DAY.atTime(10, 30)));
+    }
+
+    @Test
+    void nextFreeSlotSkipsPastOffBoundaryBooking() {
+        assertTrue(slots.tryAdd(TYPE, DAY.atTime(10, 10)));
+        assertEquals(DAY.atTime(10, 45), slots.nextFreeSlot(TYPE, DAY.atTime(10, 0)));
+    }
+
+    @Test
+    void bookingAcrossMidnightReservesNextDay() {
+        // 23:50 + 30 menit selesai 00:20 keesokan harinya
+        assertTrue(slots.tryAdd(TYPE, DAY.atTime(23, 50)));
+        assertTrue(slots.hasConflict(TYPE, DAY.plusDays(1).atTime(0, 15)));
+        assertFalse(slots.hasConflict(TYPE, DAY.plusDays(1).atTime(0, 30)));
+    }
+
+    @Test
+    void capacityAllowsParallelBookings() {
+        int capacity = slots.getCapacity("vet");
+        for (int i = 0; i < capacity; i++) {
+            assertTrue(slots.tryAdd("vet", DAY.atTime(14, 5)));
+        }
+        assertFalse(slots.tryAdd("vet", DAY.atTime(14, 30)));
+        assertTrue(slots.tryAdd("vet", DAY.atTime(14, 45)));
+    }
+
+    @Test
+    void extraBookingsCountTowardsCapacity() {
+        Appointment extra = new Appointment(TYPE, DAY.atTime(10, 10), "");
+        assertTrue(slots.hasConflict(TYPE, DAY.atTime(10, 30), List.of(extra)));
+        assertFalse(slots.hasConflict(TYPE, DAY.atTime(10, 45), List.of(extra)));
+
+        // Vet berkapasitas 2: satu booking tersimpan + satu extra sudah penuh
+        assertTrue(slots.tryAdd("vet", DAY.atTime(14, 0)));
+        Appointment vet = new Appointment("vet", DAY.atTime(14, 0), "");
+        assertFalse(slots.hasConflict("vet", DAY.atTime(14, 0)));
+        assertTrue(slots.hasConflict("vet", DAY.atTime(14, 0), List.of(vet)));
+    }
+
+    @Test
+    void extraFromPreviousDayReachesPastMidnight() {
+        Appointment extra = new Appointment(TYPE, DAY.atTime(23, 50), "");
+        assertTrue(slots.hasConflict(TYPE, DAY.plusDays(1).atTime(0, 15), List.of(extra)));
+        assertFalse(slots.hasConflict(TYPE, DAY.plusDays(1).atTime(0, 30), List.of(extra)));
+    }
+
+    @Test
+    void openEndedRuleIsCheckedOnlyAroundTheBooking() {
+        Recurrences recurrences = new Recurrences();
+        Pet pet = new Pet(1, "Milo", "Beagle", 3, "Ann", "555", DAY);
+        recurrences.add(pet, new RecurrenceRule(1, TYPE, DAY.atTime(10, 0), 1, ChronoUnit.DAYS, null, ""));
+
+        // Jauh di depan: hanya kejadian di hari-hari sekitar booking yang dihitung
+        LocalDateTime far = LocalDateTime.of(9999, 6, 1, 10, 15);
+        assertTrue(slots.hasConflict(TYPE, far, recurrences.near(TYPE, far)));
+        assertFalse(slots.hasConflict(TYPE, far.plusMinutes(15), recurrences.near(TYPE, far.plusMinutes(15))));
+        assertFalse(slots.hasConflict("vet", far, recurrences.near("vet", far)));
+    }
+}
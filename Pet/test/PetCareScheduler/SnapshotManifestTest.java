@@ -0,0 +1,111 @@
+package PetCareScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Manifest sebagai titik commit pasangan pets.txt + appointments.txt, termasuk crash di sekitar commit
+class SnapshotManifestTest {
+
+    @TempDir
+    Path dir;
+
+    private Path manifestFile;
+    private Path petFile;
+    private Path appointmentFile;
+
+    @BeforeEach
+    void setUp() {
+        manifestFile = dir.resolve("petcare.manifest");
+        petFile = dir.resolve("pets.txt");
+        appointmentFile = dir.resolve("appointments.txt");
+    }
+
+    @Test
+    void commitWritesManifestThenRenamesStagingFiles() throws IOException {
+        SnapshotManifest manifest = open();
+        assertFalse(manifest.exists());
+        assertEquals(0, manifest.generation());
+
+        stage(manifest, "pets-1", "appointments-1");
+        manifest.commit(SnapshotManifest.TEXT, 5, petFile, appointmentFile);
+
+        assertEquals(1, manifest.generation());
+        assertEquals("1|text|5|pets.txt|appointments.txt", read(manifestFile).trim());
+        assertEquals("pets-1", read(petFile));
+        assertEquals("appointments-1", read(appointmentFile));
+        assertFalse(Files.exists(dir.resolve("pets.txt.1")));
+        assertFalse(Files.exists(dir.resolve("appointments.txt.1")));
+
+        SnapshotManifest reopened = open();
+        assertTrue(reopened.exists());
+        assertEquals(1, reopened.generation());
+        assertEquals(5, reopened.nextAppointmentId());
+        assertEquals(SnapshotManifest.TEXT, reopened.format());
+    }
+
+    @Test
+    void crashAfterManifestWriteIsCompletedOnOpen() throws IOException {
+        SnapshotManifest manifest = open();
+        stage(manifest, "pets-1", "appointments-1");
+        manifest.commit(SnapshotManifest.TEXT, 2, petFile, appointmentFile);
+
+        // Generation 2: manifest sudah ditulis, pets.txt sudah di-rename, appointments.txt belum
+        stage(manifest, "pets-2", "appointments-2");
+        Files.write(manifestFile, "2|text|3|pets.txt|appointments.txt\n".getBytes(StandardCharsets.UTF_8));
+        Files.move(dir.resolve("pets.txt.2"), petFile, StandardCopyOption.REPLACE_EXISTING);
+
+        SnapshotManifest reopened = open();
+        assertEquals(2, reopened.generation());
+        assertEquals(3, reopened.nextAppointmentId());
+        assertEquals("pets-2", read(petFile));
+        assertEquals("appointments-2", read(appointmentFile));
+        assertFalse(Files.exists(dir.resolve("appointments.txt.2")));
+    }
+
+    @Test
+    void crashBeforeManifestWriteKeepsOldPairAndDiscardsStaging() throws IOException {
+        SnapshotManifest manifest = open();
+        stage(manifest, "pets-1", "appointments-1");
+        manifest.commit(SnapshotManifest.TEXT, 2, petFile, appointmentFile);
+        stage(manifest, "pets-2", "appointments-2");
+
+        SnapshotManifest reopened = open();
+        assertEquals(1, reopened.generation());
+        assertEquals("pets-1", read(petFile));
+        assertEquals("appointments-1", read(appointmentFile));
+        assertFalse(Files.exists(dir.resolve("pets.txt.2")));
+        assertFalse(Files.exists(dir.resolve("appointments.txt.2")));
+    }
+
+    @Test
+    void malformedManifestIsRejected() throws IOException {
+        Files.write(manifestFile, "x|text\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, this::open);
+    }
+
+    private SnapshotManifest open() throws IOException {
+        return SnapshotManifest.open(manifestFile, SnapshotManifest.TEXT, petFile, appointmentFile,
+                dir.resolve("petcare.snap"));
+    }
+
+    private void stage(SnapshotManifest manifest, String pets, String appointments) throws IOException {
+        Files.write(manifest.staged(petFile), pets.getBytes(StandardCharsets.UTF_8));
+        Files.write(manifest.staged(appointmentFile), appointments.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,127 @@
+package PetCareScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Tombstone di posting list: remove() hanya menandai, search() melewatinya, compact() membuangnya
+class TextIndexTest {
+
+    private static final class Doc {
+        final String name;
+        final String owner;
+
+        Doc(String name, String owner) {
+            this.name = name;
+            this.owner = owner;
+        }
+    }
+
+    private TextIndex<Doc> index;
+    private Doc milo;
+    private Doc luna;
+
+    @BeforeEach
+    void setUp() {
+        index = new TextIndex<>(List.of(d -> d.name, d -> d.owner));
+        milo = add(new Doc("Milo", "Ann Smith"));
+        luna = add(new Doc("Luna", "Bob Smith"));
+    }
+
+    private Doc add(Doc doc) {
+        index.add(doc, doc.name);
+        index.add(doc, doc.owner);
+        return doc;
+    }
+
+    @Test
+    void removedDocIsSkippedAndCountedAsTombstone() {
+        assertEquals(List.of(milo, luna), index.search("smith", 10));
+        assertEquals(6, index.postingCount());
+
+        index.remove(milo, milo.owner);
+
+        assertEquals(List.of(luna), index.search("smith", 10));
+        assertEquals(List.of(), index.search("ann", 10)); // token tanpa entri hidup langsung dibuang
+        assertEquals(List.of(milo), index.search("milo", 10)); // field lain tetap terindeks
+        assertEquals(4, index.postingCount());
+        assertEquals(1, index.tombstones()); // hanya "smith"; tombstone "ann" ikut terbuang
+        assertEquals(4, index.termCount());
+    }
+
+    @Test
+    void sameTokenInTwoFieldsSurvivesRemovalOfOneField() {
+        Doc smith = add(new Doc("Smith", "Cy Smith"));
+        index.remove(smith, smith.owner);
+
+        assertEquals(List.of(milo, luna, smith), index.search("smith", 10));
+        assertEquals(1, index.tombstones());
+
+        index.remove(smith, smith.name);
+        assertEquals(List.of(milo, luna), index.search("smith", 10));
+        assertEquals(2, index.tombstones());
+    }
+
+    @Test
+    void reAddRevivesTombstoneInsteadOfAppending() {
+        index.remove(luna, luna.owner);
+        index.add(luna, luna.owner);
+
+        assertEquals(0, index.tombstones());
+        assertEquals(6, index.postingCount());
+        assertEquals(List.of(milo, luna), index.search("smith", 10));
+        // Tidak ada entri ganda setelah compact
+        index.compact();
+        assertEquals(List.of(milo, luna), index.search("smith", 10));
+    }
+
+    @Test
+    void compactPurgesTombstonesAndKeepsResults() {
+        index.remove(milo, milo.owner);
+        index.remove(luna, luna.name);
+
+        assertEquals(1, index.compact());
+        assertEquals(0, index.tombstones());
+        assertEquals(3, index.postingCount());
+        assertEquals(List.of(luna), index.search("smith", 10));
+        assertEquals(List.of(milo), index.search("m", 10));
+    }
+
+    @Test
+    void manyTombstonesTriggerCompaction() {
+        List<Doc> dogs = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            dogs.add(add(new Doc("Dog" + i, "Kennel")));
+        }
+        for (int i = 0; i < 1000; i++) {
+            index.remove(dogs.get(i), "Kennel");
+        }
+        // Masih di bawah MIN_TOMBSTONES
+        assertFalse(index.needsCompaction());
+
+        for (int i = 1000; i < 1100; i++) {
+            index.remove(dogs.get(i), "Kennel");
+        }
+        assertEquals(1100, index.tombstones());
+        assertTrue(index.needsCompaction());
+        assertEquals(900, index.search("kennel", 5000).size());
+
+        assertEquals(1100, index.compact());
+        assertFalse(index.needsCompaction());
+        assertEquals(900, index.search("kennel", 5000).size());
+        assertEquals(List.of(dogs.get(1999)), index.search("kennel dog1999", 10));
+    }
+
+    @Test
+    void searchStopsAtLimitAfterSkippingDeadEntries() {
+        index.remove(milo, milo.owner);
+        add(new Doc("Max", "Di Smith"));
+        assertEquals(List.of(luna), index.search("smith", 1));
+    }
+}
@@ -0,0 +1,51 @@
+package PetCareScheduler;
+
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Report capacity planning (AggregationReport) atas seluruh dataset dengan jumlah worker
+ * berbeda; bandingkan skor antar 'parallelism' untuk melihat skala terhadap jumlah core.
+ * Rentang booking = seluruh rentang waktu dataset (~1040 hari, lihat Dataset), dikelompokkan per hari.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AggregationBenchmark {
+
+    @Param({ "1", "2", "4", "8" })
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        from = LocalDate.now().minusDays(520);
+        to = from.plusDays(1040);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long aggregateByDay(Dataset data) {
+        return PetCareScheduler.aggregate(from, to, AggregationReport.Granularity.DAY, pool).appointmentCount();
+    }
+}
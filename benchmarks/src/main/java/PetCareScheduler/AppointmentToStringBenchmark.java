@@ -0,0 +1,45 @@
+package PetCareScheduler;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Appointment.toString per objek. Biayanya tidak bergantung pada ukuran dataset,
+ * jadi benchmark ini tidak memakai Dataset (dan tidak diulang untuk setiap 'records').
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AppointmentToStringBenchmark {
+
+    private static final String[] TYPES = { "vet", "grooming", "vaccination" };
+
+    private Appointment[] appointments;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(11);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+        appointments = new Appointment[1024];
+        for (int i = 0; i < appointments.length; i++) {
+            appointments[i] = new Appointment(TYPES[random.nextInt(TYPES.length)],
+                    base.plusMinutes(30L * random.nextInt(50_000)), random.nextBoolean() ? "Routine check " + i : "");
+        }
+    }
+
+    @Benchmark
+    public String appointmentToString() {
+        return appointments[next++ & (appointments.length - 1)].toString();
+    }
+}
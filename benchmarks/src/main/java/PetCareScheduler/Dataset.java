@@ -0,0 +1,72 @@
+package PetCareScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Dataset bersama untuk semua benchmark: 'records' appointment untuk records / 5 pet,
+ * dibuat oleh LoaderBenchmark.generate lalu dimuat ke state statis PetCareScheduler.
+ *
+ * File disimpan di ${java.io.tmpdir}/petcare-jmh/&lt;records&gt;-&lt;tanggal&gt;/ dan dipakai ulang
+ * antar fork pada hari yang sama. Waktu appointment dimulai ~520 hari sebelum hari ini,
+ * jadi kira-kira separuhnya ada di masa depan dan report 7 hari ke depan tidak kosong.
+ */
+@State(Scope.Benchmark)
+public class Dataset {
+
+    static final int APPOINTMENTS_PER_PET = 5;
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int records;
+
+    File petFile;
+    File appointmentFile;
+    int petCount;
+
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        petCount = Math.max(1, records / APPOINTMENTS_PER_PET);
+        LocalDate today = LocalDate.now();
+        Path dir = Paths.get(System.getProperty("java.io.tmpdir"), "petcare-jmh", records + "-" + today);
+        petFile = dir.resolve("pets.txt").toFile();
+        appointmentFile = dir.resolve("appointments.txt").toFile();
+        if (!petFile.exists() || !appointmentFile.exists()) {
+            Files.createDirectories(dir);
+            LoaderBenchmark.generate(petFile.toPath(), appointmentFile.toPath(), petCount, APPOINTMENTS_PER_PET,
+                    today.minusDays(520));
+        }
+
+        // Loader dan report mencetak ke stdout; yang diukur adalah pekerjaannya, bukan terminal
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        PetCareScheduler.clearData();
+        System.setOut(console);
+    }
+
+    // Memuat ulang dataset lengkap lewat loader NIO (bukan yang sedang diukur)
+    void load() {
+        PetCareScheduler.clearData();
+        PetCareScheduler.loadPetDataFast(petFile);
+        PetCareScheduler.loadAppointmentDataFast(appointmentFile);
+    }
+}
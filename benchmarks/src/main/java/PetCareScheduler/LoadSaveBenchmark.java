@@ -0,0 +1,104 @@
+package PetCareScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load (loader Scanner lama: loadPetData / loadAppointmentData) dan save
+ * (writePetData / writeAppointmentData, inti dari savePetData / saveAppointmentData,
+ * ditulis ke file sementara agar data di working directory tidak tertimpa).
+ * Satu pemanggilan = satu file penuh, jadi diukur sebagai single shot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LoadSaveBenchmark {
+
+    private File petOut;
+    private File appointmentOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        petOut = Files.createTempFile("petcare-jmh-pets", ".txt").toFile();
+        appointmentOut = Files.createTempFile("petcare-jmh-appointments", ".txt").toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        petOut.delete();
+        appointmentOut.delete();
+    }
+
+    /**
+     * Sebelum benchmark load: state kosong (untuk pets) atau hanya pets (untuk appointments).
+     */
+    @State(Scope.Thread)
+    public static class Empty {
+        @Setup(Level.Invocation)
+        public void clear() {
+            PetCareScheduler.clearData();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PetsOnly {
+        @Setup(Level.Invocation)
+        public void load(Dataset data) {
+            PetCareScheduler.clearData();
+            PetCareScheduler.loadPetDataFast(data.petFile);
+        }
+    }
+
+    /**
+     * Benchmark save butuh dataset lengkap; benchmark load mengosongkannya.
+     */
+    @State(Scope.Thread)
+    public static class Full {
+        @Setup(Level.Iteration)
+        public void load(Dataset data) {
+            if (PetCareScheduler.appointmentCount() == 0) {
+                data.load();
+            }
+        }
+    }
+
+    @Benchmark
+    public int loadPetData(Dataset data, Empty state) {
+        PetCareScheduler.loadPetData(data.petFile);
+        return PetCareScheduler.petCount();
+    }
+
+    @Benchmark
+    public int loadAppointmentData(Dataset data, PetsOnly state) {
+        PetCareScheduler.loadAppointmentData(data.appointmentFile);
+        return PetCareScheduler.appointmentCount();
+    }
+
+    @Benchmark
+    public long savePetData(Full state) throws IOException {
+        PetCareScheduler.writePetData(PetCareScheduler.allPets(), petOut);
+        return petOut.length();
+    }
+
+    @Benchmark
+    public long saveAppointmentData(Full state) throws IOException {
+        PetCareScheduler.writeAppointmentData(PetCareScheduler.allPets(), appointmentOut);
+        return appointmentOut.length();
+    }
+}
@@ -0,0 +1,131 @@
+package PetCareScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Membandingkan throughput loader Scanner (lama) dengan FastDataLoader (NIO)
+ * pada file pets.txt / appointments.txt yang dibuat secara acak. Bukan benchmark JMH:
+ * satu run membandingkan semua loader berdampingan pada dataset yang sama.
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar PetCareScheduler.LoaderBenchmark
+ *        [petCount] [appointmentsPerPet] [rounds]
+ */
+public class LoaderBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int petCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int perPet = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        Path dir = Files.createTempDirectory("petcare-bench");
+        File petFile = dir.resolve("pets.txt").toFile();
+        File appointmentFile = dir.resolve("appointments.txt").toFile();
+        generate(petFile.toPath(), appointmentFile.toPath(), petCount, perPet);
+
+        long bytes = petFile.length() + appointmentFile.length();
+        System.out.printf("Dataset: %,d pets, %,d appointments, %.1f MB%n",
+                petCount, (long) petCount * perPet, bytes / 1e6);
+
+        PrintStream console = System.out;
+        File snapshot = dir.resolve("petcare.snap").toFile();
+        File textCopyPets = dir.resolve("pets-copy.txt").toFile();
+        File textCopyAppointments = dir.resolve("appointments-copy.txt").toFile();
+        // Data dimuat sekali untuk mengukur save teks vs biner
+        time(console, () -> {
+            PetCareScheduler.loadPetDataFast(petFile);
+            PetCareScheduler.loadAppointmentDataFast(appointmentFile);
+        });
+        long textSave = timeIo(() -> {
+            PetCareScheduler.writePetData(PetCareScheduler.allPets(), textCopyPets);
+            PetCareScheduler.writeAppointmentData(PetCareScheduler.allPets(), textCopyAppointments);
+        });
+        long binarySave = timeIo(() -> BinarySnapshot.write(PetCareScheduler.allPets(), snapshot.toPath()));
+        console.printf("Save: text %,d ms (%.1f MB) | binary %,d ms (%.1f MB) | %.1fx faster, %.1fx smaller%n",
+                textSave / 1_000_000, (textCopyPets.length() + textCopyAppointments.length()) / 1e6,
+                binarySave / 1_000_000, snapshot.length() / 1e6, (double) textSave / binarySave,
+                (double) (textCopyPets.length() + textCopyAppointments.length()) / snapshot.length());
+
+        for (int r = 1; r <= rounds; r++) {
+            long scanner = time(console, () -> {
+                PetCareScheduler.loadPetData(petFile);
+                PetCareScheduler.loadAppointmentData(appointmentFile);
+            });
+            int records = PetCareScheduler.petCount() + PetCareScheduler.appointmentCount();
+            long nio = time(console, () -> {
+                PetCareScheduler.loadPetDataFast(petFile);
+                PetCareScheduler.loadAppointmentDataFast(appointmentFile);
+            });
+            int nioRecords = PetCareScheduler.petCount() + PetCareScheduler.appointmentCount();
+            long parallel = time(console, () -> PetCareScheduler.loadDataParallel(petFile, appointmentFile,
+                    ForkJoinPool.commonPool()));
+            int parallelRecords = PetCareScheduler.petCount() + PetCareScheduler.appointmentCount();
+
+            console.printf("Round %d: Scanner %,7d ms (%6.1f MB/s, %,d records)"
+                    + " | NIO %,7d ms (%6.1f MB/s, %,d records) | %.1fx%n",
+                    r, scanner / 1_000_000, bytes * 1e3 / scanner, records,
+                    nio / 1_000_000, bytes * 1e3 / nio, nioRecords, (double) scanner / nio);
+            console.printf("         Parallel (%d workers) %,7d ms (%6.1f MB/s, %,d records) | %.1fx vs NIO%n",
+                    ForkJoinPool.commonPool().getParallelism(), parallel / 1_000_000, bytes * 1e3 / parallel,
+                    parallelRecords, (double) nio / parallel);
+            long binary = time(console, () -> PetCareScheduler.loadBinarySnapshot(snapshot));
+            int binaryRecords = PetCareScheduler.petCount() + PetCareScheduler.appointmentCount();
+            console.printf("         Binary snapshot %,7d ms (%,d records) | %.1fx vs NIO%n",
+                    binary / 1_000_000, binaryRecords, (double) nio / binary);
+        }
+
+        for (File f : new File[] { petFile, appointmentFile, snapshot, textCopyPets, textCopyAppointments }) {
+            Files.delete(f.toPath());
+        }
+        Files.delete(dir);
+    }
+
+    private interface IoTask {
+        void run() throws IOException;
+    }
+
+    private static long timeIo(IoTask task) throws IOException {
+        long start = System.nanoTime();
+        task.run();
+        return System.nanoTime() - start;
+    }
+
+    // Menjalankan satu load dari keadaan kosong; output konsol dibuang agar terminal tidak banjir
+    private static long time(PrintStream console, Runnable load) {
+        PetCareScheduler.clearData();
+        System.gc();
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            long start = System.nanoTime();
+            load.run();
+            return System.nanoTime() - start;
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    private static void generate(Path petFile, Path appointmentFile, int petCount, int perPet) throws IOException {
+        generate(petFile, appointmentFile, petCount, perPet, LocalDate.of(2024, 1, 1));
+    }
+
+    /**
+     * Dataset acak (seed tetap) dengan appointment tersebar ~1040 hari mulai 'start'.
+     * ~0.1% baris sengaja dibuat rusak agar jalur error ikut terukur.
+     */
+    static void generate(Path petFile, Path appointmentFile, int petCount, int perPet, LocalDate start)
+            throws IOException {
+        DatasetGenerator generator = new DatasetGenerator();
+        generator.setPetCount(petCount);
+        generator.setAppointmentsPerPet(perPet);
+        generator.setStartDate(start);
+        generator.setSpreadDays(1040);
+        generator.setMalformedRatio(0.001);
+        generator.generate(petFile, appointmentFile);
+    }
+}
@@ -0,0 +1,40 @@
+package PetCareScheduler;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * findPetById dengan ID acak (termasuk ~10% ID yang tidak ada).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LookupBenchmark {
+
+    private int[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(Dataset data) {
+        Random random = new Random(7);
+        ids = new int[1 << 16];
+        int range = data.petCount + data.petCount / 10 + 1;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 1 + random.nextInt(range);
+        }
+    }
+
+    @Benchmark
+    public Pet findPetById(Dataset data) {
+        return PetCareScheduler.findPetById(ids[next++ & (ids.length - 1)]);
+    }
+}
@@ -0,0 +1,35 @@
+package PetCareScheduler;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point benchmarks.jar: opsi JMH biasa, ditambah GC profiler secara default
+ * sehingga setiap hasil menyertakan alokasi (gc.alloc.rate.norm = byte per operasi).
+ *
+ * <pre>
+ * mvn -B package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar                         # semua, 1k..10M records
+ * java -jar benchmarks/target/benchmarks.jar Lookup -p records=1000,100000
+ * java -jar benchmarks/target/benchmarks.jar -rf json -rff baseline.json
+ * </pre>
+ * Dataset 10M butuh heap besar; atur lewat -jvmArgsAppend "-Xmx8g" jika perlu.
+ */
+public class PetCareBenchmarks {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        boolean hasGc = cli.getProfilers().stream()
+                .anyMatch(p -> p.getKlass().equals("gc") || p.getKlass().equals(GCProfiler.class.getName()));
+        if (!hasGc) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,27 @@
+package PetCareScheduler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * Report dari menu generateReports, dengan output ke stream kosong (lihat Dataset).
+ * Yang diukur: query index + format + encoding setiap baris.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReportBenchmark {
+
+    @Benchmark
+    public void reportUpcomingAppointments(Dataset data) {
+        PetCareScheduler.reportUpcomingAppointments();
+    }
+
+    @Benchmark
+    public void reportOverdueVetVisits(Dataset data) {
+        PetCareScheduler.reportOverdueVetVisits();
+    }
+}